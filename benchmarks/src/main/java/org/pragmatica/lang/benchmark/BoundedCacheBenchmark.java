@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.utils.BoundedCache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/// Throughput and hit rate of [BoundedCache] compared to the synchronized access-ordered [LinkedHashMap], which backed
+/// bounded memoization caches before.
+///
+/// Workloads:
+/// - `ZIPF` - keys follow Zipfian distribution (exponent 0.99) over 100x cache size, typical for hot-set lookups
+/// - `SCAN` - same Zipfian lookups interleaved with sequential scan of never repeated keys (every second request)
+///
+/// The hit rate is reported as `hits` and `misses` secondary results (per second).
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar BoundedCacheBenchmark -t 8 -rf json
+/// ```
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoundedCacheBenchmark {
+    private static final int CACHE_SIZE = 1_000;
+    private static final int KEY_SPACE = CACHE_SIZE * 100;
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"LRU", "TINY_LFU"})
+    public String policy;
+
+    @Param({"ZIPF", "SCAN"})
+    public String workload;
+
+    private Cache cache;
+    private int[] keys;
+
+    interface Cache {
+        boolean lookup(Integer key);
+    }
+
+    @Setup
+    public void setup() {
+        cache = switch (policy) {
+            case "LRU" -> lruCache();
+            case "TINY_LFU" -> tinyLfuCache();
+            default -> throw new IllegalArgumentException(policy);
+        };
+        keys = zipfKeys(new SplittableRandom(42));
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long hits;
+        public long misses;
+
+        private int index;
+        private int scanKey;
+
+        @Setup
+        public void setup() {
+            index = (int) (Thread.currentThread()
+                                 .threadId() * 7919);
+            scanKey = KEY_SPACE + index * 1_000_000;
+        }
+    }
+
+    @Benchmark
+    public boolean lookup(Counters counters) {
+        var position = counters.index++;
+        var key = "SCAN".equals(workload) && (position & 1) == 0
+                  ? counters.scanKey++
+                  : keys[position & (SAMPLES - 1)];
+        var hit = cache.lookup(key);
+        if (hit) {
+            counters.hits++;
+        } else {
+            counters.misses++;
+        }
+        return hit;
+    }
+
+    private static Cache lruCache() {
+        Map<Integer, Integer> map = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+        return key -> {
+            synchronized (map) {
+                if (map.get(key) != null) {
+                    return true;
+                }
+                map.put(key, key);
+                return false;
+            }
+        };
+    }
+
+    private static Cache tinyLfuCache() {
+        var cache = BoundedCache.<Integer, Integer>boundedCache(CACHE_SIZE)
+                                .unwrap();
+        return key -> {
+            if (cache.get(key)
+                     .isPresent()) {
+                return true;
+            }
+            cache.put(key, key);
+            return false;
+        };
+    }
+
+    /// Generate samples of Zipfian distribution by inverting cumulative distribution function.
+    private static int[] zipfKeys(SplittableRandom random) {
+        var cumulative = new double[KEY_SPACE];
+        var sum = 0.0;
+        for (int i = 0; i < KEY_SPACE; i++) {
+            sum += 1.0 / Math.pow(i + 1, 0.99);
+            cumulative[i] = sum;
+        }
+        var samples = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            var position = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            var rank = position >= 0
+                       ? position
+                       : -position - 1;
+            // Spread popular keys over the key space, so they don't share hash buckets
+            samples[i] = (int) ((rank * 0x9E3779B1L) % KEY_SPACE);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Functions.Fn1;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.Verify;
+import org.pragmatica.lang.utils.Causes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/// Validation of a batch of records: the list of [Result] instances collected with [Result#allOf(List)] compared to
+/// the bulk combinators [Result#traverse], [Result#traverseAll] and [Result#traverseAllParallel], which apply the
+/// validation directly to the input. `INVALID` input contains one invalid record in the middle of the batch.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar BulkResultBenchmark -rf json
+/// ```
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkResultBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"VALID", "INVALID"})
+    public String input;
+
+    private List<String> records;
+
+    private static final Fn1<Result<String>, String> VALIDATION = Verify.combine(
+        value -> Verify.ensure(value, Verify.Is::notBlank, Causes.cause("Blank value")),
+        value -> Verify.ensure(value, Verify.Is::lenBetween, 3, 16, Causes.cause("Invalid length")));
+
+    @Setup
+    public void setup() {
+        records = IntStream.range(0, size)
+                           .mapToObj(index -> "INVALID".equals(input) && index == size / 2
+                                              ? ""
+                                              : "record-" + index)
+                           .toList();
+    }
+
+    @Benchmark
+    public Result<List<String>> allOfListOfResults() {
+        return Result.allOf(records.stream()
+                                   .map(VALIDATION::apply)
+                                   .toList());
+    }
+
+    @Benchmark
+    public Result<List<String>> traverse() {
+        return Result.traverse(records, VALIDATION);
+    }
+
+    @Benchmark
+    public Result<List<String>> traverseAll() {
+        return Result.traverseAll(records, VALIDATION);
+    }
+
+    @Benchmark
+    public Result<List<String>> traverseAllParallel() {
+        return Result.traverseAllParallel(records, VALIDATION);
+    }
+}
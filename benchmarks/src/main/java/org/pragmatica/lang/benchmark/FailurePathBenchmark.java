@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.utils.Causes;
+import org.pragmatica.lang.utils.Tracing;
+
+import java.util.concurrent.TimeUnit;
+
+/// Cost of the failure path: creation of causes, tracing with different capture modes and mapping of exceptions.
+/// The failure path is executed by 4 threads to show the behavior under load.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar FailurePathBenchmark -rf json
+/// ```
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class FailurePathBenchmark {
+    private static final Cause CONSTANT_CAUSE = Causes.cause("Value is not valid");
+
+    @Param({"OFF", "SAMPLE_100", "ALL"})
+    public String tracing;
+
+    @Setup
+    public void setup() {
+        switch (tracing) {
+            case "OFF" -> Tracing.disable();
+            case "SAMPLE_100" -> Tracing.sample(100);
+            case "ALL" -> Tracing.captureAll();
+            default -> throw new IllegalArgumentException(tracing);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Tracing.captureAll();
+    }
+
+    @Benchmark
+    public Result<Integer> constantCause() {
+        return CONSTANT_CAUSE.<Integer>result()
+                             .map(value -> value + 1);
+    }
+
+    @Benchmark
+    public Result<Integer> allocatedCause() {
+        return Causes.cause("Value is not valid")
+                     .<Integer>result()
+                     .map(value -> value + 1);
+    }
+
+    @Benchmark
+    public Result<Integer> tracedFailure() {
+        return CONSTANT_CAUSE.<Integer>result()
+                             .map(value -> value + 1)
+                             .trace();
+    }
+
+    @Benchmark
+    public String tracedFailureMessage() {
+        return CONSTANT_CAUSE.<Integer>result()
+                             .trace()
+                             .fold(Cause::message, String::valueOf);
+    }
+
+    @Benchmark
+    public Result<Integer> liftedException() {
+        return Result.lift1(Integer::parseInt, "not a number");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.utils.Causes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// [Option] combinators on present and empty values, including conversion to [Result].
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar OptionBenchmark -prof gc -rf json
+/// ```
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptionBenchmark {
+    private static final Cause MISSING = Causes.cause("Missing value");
+
+    private int value = 1_000;
+    private String nullable = null;
+
+    @Benchmark
+    public Integer mapChainPresent() {
+        return Option.some(value++)
+                     .map(v -> v + 1)
+                     .map(v -> v * 2)
+                     .map(v -> v - 1)
+                     .or(0);
+    }
+
+    @Benchmark
+    public Integer mapChainEmpty() {
+        return Option.<Integer>none()
+                     .map(v -> v + 1)
+                     .map(v -> v * 2)
+                     .map(v -> v - 1)
+                     .or(value++);
+    }
+
+    @Benchmark
+    public Integer flatMapAndFilter() {
+        return Option.some(value++)
+                     .flatMap(v -> Option.some(v + 1))
+                     .filter(v -> v % 2 == 0)
+                     .or(0);
+    }
+
+    @Benchmark
+    public String optionFromNullable() {
+        return Option.option(nullable)
+                     .or("default");
+    }
+
+    @Benchmark
+    public Result<Integer> toResult() {
+        return Option.some(value++)
+                     .toResult(MISSING);
+    }
+
+    @Benchmark
+    public Integer all2() {
+        return Option.all(Option.some(1), Option.some(value++))
+                     .map(Integer::sum)
+                     .or(0);
+    }
+
+    @Benchmark
+    public Integer all5() {
+        return Option.all(Option.some(1), Option.some(2), Option.some(3), Option.some(4), Option.some(value++))
+                     .map((v1, v2, v3, v4, v5) -> v1 + v2 + v3 + v4 + v5)
+                     .or(0);
+    }
+
+    @Benchmark
+    public Option<List<Integer>> allOf() {
+        return Option.allOf(Option.some(1), Option.some(2), Option.some(3), Option.some(value++));
+    }
+
+    @Benchmark
+    public Integer any() {
+        return Option.any(Option.none(), Option.none(), Option.some(value++))
+                     .or(0);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.parse.DateTime;
+import org.pragmatica.lang.parse.Number;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/// Parsers from [Number] and [DateTime] compared to wrapping of the JDK parsers with [Result#lift1], which was the
+/// previous implementation. Invalid input shows the cost of the exception thrown by the JDK parser and converted into
+/// failure cause.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar ParseBenchmark -rf json
+/// ```
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"VALID", "INVALID"})
+    public String input;
+
+    private String integer;
+    private String decimal;
+    private String date;
+    private String instant;
+    private String duration;
+
+    @Setup
+    public void setup() {
+        switch (input) {
+            case "VALID" -> {
+                integer = "-1234567";
+                decimal = "12345.678";
+                date = "2025-06-30";
+                instant = "2025-06-30T12:34:56.789Z";
+                duration = "PT1H30M15.5S";
+            }
+            case "INVALID" -> {
+                integer = "12345x7";
+                decimal = "12.34.5";
+                date = "2025-06-3O";
+                instant = "2025-06-30T12:34Z";
+                duration = "PT1H30X";
+            }
+            default -> throw new IllegalArgumentException(input);
+        }
+    }
+
+    @Benchmark
+    public Result<Integer> intParser() {
+        return Number.parseInt(integer);
+    }
+
+    @Benchmark
+    public Result<Integer> intLifted() {
+        return Result.lift1(Integer::parseInt, integer);
+    }
+
+    @Benchmark
+    public Result<Double> doubleParser() {
+        return Number.parseDouble(decimal);
+    }
+
+    @Benchmark
+    public Result<Double> doubleLifted() {
+        return Result.lift1(Double::parseDouble, decimal);
+    }
+
+    @Benchmark
+    public Result<LocalDate> dateParser() {
+        return DateTime.parseLocalDate(date);
+    }
+
+    @Benchmark
+    public Result<LocalDate> dateLifted() {
+        return Result.lift1(LocalDate::parse, date);
+    }
+
+    @Benchmark
+    public Result<Instant> instantParser() {
+        return DateTime.parseInstant(instant);
+    }
+
+    @Benchmark
+    public Result<Instant> instantLifted() {
+        return Result.lift1(Instant::parse, instant);
+    }
+
+    @Benchmark
+    public Result<Duration> durationParser() {
+        return DateTime.parseDuration(duration);
+    }
+
+    @Benchmark
+    public Result<Duration> durationLifted() {
+        return Result.lift1(Duration::parse, duration);
+    }
+}
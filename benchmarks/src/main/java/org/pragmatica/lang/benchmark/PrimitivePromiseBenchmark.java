@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.IntPromise;
+import org.pragmatica.lang.LongResult;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+
+import java.util.concurrent.TimeUnit;
+
+/// Boxed [Promise]/[Result] versus primitive-specialized [IntPromise]/[LongResult] on short numeric chains.
+/// Values are kept outside the `Integer` cache range, so boxed variants actually allocate. The interesting metric is
+/// `gc.alloc.rate.norm` (bytes per operation):
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar PrimitivePromiseBenchmark -prof gc
+/// ```
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitivePromiseBenchmark {
+    private int intValue = 100_000;
+    private long longValue = 10_000_000_000L;
+
+    @Benchmark
+    public int boxedResolvedPromiseChain() {
+        return Promise.success(intValue++)
+                      .map(v -> v + 1)
+                      .map(v -> v * 2)
+                      .map(v -> v - 1)
+                      .await()
+                      .or(0);
+    }
+
+    @Benchmark
+    public int primitiveResolvedPromiseChain() {
+        return IntPromise.success(intValue++)
+                         .map(v -> v + 1)
+                         .map(v -> v * 2)
+                         .map(v -> v - 1)
+                         .await()
+                         .or(0);
+    }
+
+    @Benchmark
+    public int boxedPendingPromiseChain() {
+        var promise = Promise.<Integer>promise();
+        var result = promise.map(v -> v + 1)
+                            .map(v -> v * 2)
+                            .map(v -> v - 1);
+        promise.succeed(intValue++);
+        return result.await()
+                     .or(0);
+    }
+
+    @Benchmark
+    public int primitivePendingPromiseChain() {
+        var promise = IntPromise.intPromise();
+        var result = promise.map(v -> v + 1)
+                            .map(v -> v * 2)
+                            .map(v -> v - 1);
+        promise.succeed(intValue++);
+        return result.await()
+                     .or(0);
+    }
+
+    @Benchmark
+    public long boxedResultChain() {
+        return Result.success(longValue++)
+                     .map(v -> v + 1)
+                     .map(v -> v * 2)
+                     .map(v -> v - 1)
+                     .or(0L);
+    }
+
+    @Benchmark
+    public long primitiveResultChain() {
+        return LongResult.success(longValue++)
+                         .map(v -> v + 1)
+                         .map(v -> v * 2)
+                         .map(v -> v - 1)
+                         .or(0L);
+    }
+}
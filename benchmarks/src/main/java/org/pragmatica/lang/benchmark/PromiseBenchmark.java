@@ -0,0 +1,241 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.Unit;
+import org.pragmatica.lang.utils.Causes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Core [Promise] operations: resolution, transformation chains on resolved and pending instances, combinators
+/// ([Promise#all], [Promise#any], [Promise#allOf]) and waiting for the result.
+///
+/// `all(...)` is measured for several arities in the 2-15 range, so overhead of the result collection (`setupResult`
+/// and `ResultCollector`) can be compared as the number of inputs grows.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar PromiseBenchmark -prof gc -rf json
+/// ```
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromiseBenchmark {
+    private static final Cause FAILURE = Causes.cause("Benchmark failure");
+
+    private int value = 1_000;
+
+    @Benchmark
+    public Promise<Integer> createAndResolve() {
+        return Promise.<Integer>promise()
+                      .succeed(value++);
+    }
+
+    @Benchmark
+    public Promise<Integer> createResolved() {
+        return Promise.success(value++);
+    }
+
+    @Benchmark
+    public Result<Integer> mapChainResolved(Chain chain) {
+        var promise = Promise.success(value++);
+        for (int i = 0; i < chain.length; i++) {
+            promise = promise.map(v -> v + 1);
+        }
+        return promise.await();
+    }
+
+    @Benchmark
+    public Result<Integer> mapChainPending(Chain chain) {
+        var source = Promise.<Integer>promise();
+        var promise = source;
+        for (int i = 0; i < chain.length; i++) {
+            promise = promise.map(v -> v + 1);
+        }
+        source.succeed(value++);
+        return promise.await();
+    }
+
+    @Benchmark
+    public Result<Integer> flatMapChainResolved(Chain chain) {
+        var promise = Promise.success(value++);
+        for (int i = 0; i < chain.length; i++) {
+            promise = promise.flatMap(v -> Promise.success(v + 1));
+        }
+        return promise.await();
+    }
+
+    @Benchmark
+    public Result<Integer> flatMapChainPending(Chain chain) {
+        var source = Promise.<Integer>promise();
+        var promise = source;
+        for (int i = 0; i < chain.length; i++) {
+            promise = promise.flatMap(v -> Promise.success(v + 1));
+        }
+        source.succeed(value++);
+        return promise.await();
+    }
+
+    @Benchmark
+    public Result<Integer> recoverChainFailed(Chain chain) {
+        Promise<Integer> promise = Promise.failure(FAILURE);
+        for (int i = 0; i < chain.length; i++) {
+            promise = promise.map(v -> v + 1);
+        }
+        return promise.recover(_ -> value++)
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Integer> filterAndRecoverResolved() {
+        return Promise.success(value++)
+                      .filter(FAILURE, v -> v % 2 == 0)
+                      .recover(_ -> 0)
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Unit> mapToUnitResolved() {
+        return Promise.success(value++)
+                      .mapToUnit()
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Integer> all2() {
+        return Promise.all(Promise.success(1), Promise.success(value++))
+                      .map(Integer::sum)
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Integer> all5() {
+        return Promise.all(Promise.success(1),
+                           Promise.success(2),
+                           Promise.success(3),
+                           Promise.success(4),
+                           Promise.success(value++))
+                      .map((v1, v2, v3, v4, v5) -> v1 + v2 + v3 + v4 + v5)
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Integer> all10() {
+        return Promise.all(Promise.success(1),
+                           Promise.success(2),
+                           Promise.success(3),
+                           Promise.success(4),
+                           Promise.success(5),
+                           Promise.success(6),
+                           Promise.success(7),
+                           Promise.success(8),
+                           Promise.success(9),
+                           Promise.success(value++))
+                      .map((v1, v2, v3, v4, v5, v6, v7, v8, v9, v10) -> v1 + v2 + v3 + v4 + v5 + v6 + v7 + v8 + v9
+                                                                        + v10)
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Integer> all15() {
+        return Promise.all(Promise.success(1),
+                           Promise.success(2),
+                           Promise.success(3),
+                           Promise.success(4),
+                           Promise.success(5),
+                           Promise.success(6),
+                           Promise.success(7),
+                           Promise.success(8),
+                           Promise.success(9),
+                           Promise.success(10),
+                           Promise.success(11),
+                           Promise.success(12),
+                           Promise.success(13),
+                           Promise.success(14),
+                           Promise.success(value++))
+                      .map((v1, v2, v3, v4, v5, v6, v7, v8, v9, v10, v11, v12, v13, v14, v15) -> v1 + v2 + v3 + v4
+                                                                                                 + v5 + v6 + v7
+                                                                                                 + v8 + v9 + v10
+                                                                                                 + v11 + v12 + v13
+                                                                                                 + v14 + v15)
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Integer> all2Pending() {
+        var first = Promise.<Integer>promise();
+        var second = Promise.<Integer>promise();
+        var result = Promise.all(first, second)
+                            .map(Integer::sum);
+        first.succeed(1);
+        second.succeed(value++);
+        return result.await();
+    }
+
+    @Benchmark
+    public Result<Integer> anyFirstSucceeds() {
+        var first = Promise.<Integer>promise();
+        var second = Promise.<Integer>promise();
+        var result = Promise.any(first, second);
+        first.succeed(value++);
+        return result.await();
+    }
+
+    @Benchmark
+    public Result<Integer> anyAllFail() {
+        return Promise.any(Promise.<Integer>failure(FAILURE), Promise.<Integer>failure(FAILURE))
+                      .await();
+    }
+
+    @Benchmark
+    public Result<List<Result<Integer>>> allOf() {
+        var promises = List.of(Promise.success(1), Promise.success(2), Promise.success(3), Promise.success(value++));
+        return Promise.allOf(promises)
+                      .await();
+    }
+
+    @Benchmark
+    public void awaitResolved(Blackhole blackhole) {
+        blackhole.consume(Promise.success(value++)
+                                 .await());
+    }
+
+    @Benchmark
+    public Result<Integer> awaitCrossThread() {
+        var promise = Promise.<Integer>promise();
+        var result = value++;
+        Thread.ofVirtual()
+              .start(() -> promise.succeed(result));
+        return promise.await();
+    }
+
+    /// Length of the transformation chain.
+    @State(Scope.Benchmark)
+    public static class Chain {
+        @Param({"1", "10", "100"})
+        public int length;
+    }
+}
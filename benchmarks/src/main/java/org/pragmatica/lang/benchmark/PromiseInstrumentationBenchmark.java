@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.PromiseInstrumentation;
+import org.pragmatica.lang.Result;
+
+import java.util.concurrent.TimeUnit;
+
+/// Overhead of [PromiseInstrumentation] on a chain of `map`/`flatMap` stages of a pending promise. The same chain is
+/// executed in a JVM without instrumentation, with instrumentation reporting to JFR without active recording and with
+/// the recording of promise events.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar PromiseInstrumentationBenchmark -prof gc -rf json
+/// ```
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PromiseInstrumentationBenchmark {
+    private int value = 1_000;
+
+    @Benchmark
+    @Fork(1)
+    public Result<Integer> disabled() {
+        return chain();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + PromiseInstrumentation.PROPERTY + "=true")
+    public Result<Integer> enabled() {
+        return chain();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-D" + PromiseInstrumentation.PROPERTY + "=true", "-XX:StartFlightRecording"})
+    public Result<Integer> recorded() {
+        return chain();
+    }
+
+    private Result<Integer> chain() {
+        var source = Promise.<Integer>promise();
+        var result = source.map(v -> v + 1)
+                           .flatMap(v -> Promise.success(v * 2))
+                           .map(v -> v - 1);
+        source.succeed(value++);
+        return result.await();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/// Throughput of [Promise] resolution with different number of attached event handlers (independent actions).
+///
+/// With no handlers attached, resolution must not submit any task to the executor. With handlers attached, handlers
+/// of promises resolved in a burst are coalesced into a shared drain task.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar PromiseResolveBenchmark -prof gc
+/// ```
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromiseResolveBenchmark {
+    private static final Result<Integer> VALUE = Result.success(1);
+
+    @Param({"0", "1", "8"})
+    public int handlers;
+
+    private final LongAdder invocations = new LongAdder();
+    private Consumer<Result<Integer>> handler;
+
+    @Setup
+    public void setup() {
+        handler = _ -> invocations.increment();
+    }
+
+    @Benchmark
+    public Promise<Integer> resolve() {
+        var promise = Promise.<Integer>promise();
+        for (int i = 0; i < handlers; i++) {
+            promise.onResult(handler);
+        }
+        return promise.resolve(VALUE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Promise<Integer> resolveContended() {
+        return resolve();
+    }
+}
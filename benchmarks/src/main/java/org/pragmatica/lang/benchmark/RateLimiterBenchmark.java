@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.Unit;
+import org.pragmatica.lang.utils.RateLimiter;
+import org.pragmatica.lang.utils.RateLimiter.Algorithm;
+import org.pragmatica.lang.utils.TimeSource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+/// Contention of [RateLimiter] permit acquisition compared to the previous implementation, which guarded the token
+/// bucket state with a monitor. All variants are invoked through the same [RateLimiter#execute(Supplier)] path, so the
+/// difference in results is caused only by the permit acquisition. The rate is high enough to keep most acquisitions
+/// successful, so the benchmark measures the cost of state updates rather than rejections.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar RateLimiterBenchmark -rf json
+/// ```
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int RATE = 1_000_000_000;
+    private static final Promise<Integer> OPERATION_RESULT = Promise.success(1);
+
+    @Param({"SYNCHRONIZED", "TOKEN_BUCKET", "GCRA"})
+    public String limiter;
+
+    private RateLimiter instance;
+
+    @Setup
+    public void setup() {
+        instance = switch (limiter) {
+            case "SYNCHRONIZED" -> new SynchronizedTokenBucket(RATE, timeSpan(1).seconds().nanos());
+            case "TOKEN_BUCKET" -> rateLimiter(Algorithm.TOKEN_BUCKET);
+            case "GCRA" -> rateLimiter(Algorithm.GCRA);
+            default -> throw new IllegalArgumentException(limiter);
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean threads1() {
+        return tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean threads4() {
+        return tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean threads16() {
+        return tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean threads64() {
+        return tryAcquire();
+    }
+
+    private boolean tryAcquire() {
+        return instance.execute(() -> OPERATION_RESULT)
+                       .await()
+                       .isSuccess();
+    }
+
+    private static RateLimiter rateLimiter(Algorithm algorithm) {
+        return RateLimiter.builder()
+                          .rate(RATE)
+                          .period(timeSpan(1).seconds())
+                          .algorithm(algorithm)
+                          .withDefaultTimeSource();
+    }
+
+    /// Previous implementation: token bucket refilled at the end of each period, state guarded by the monitor.
+    static final class SynchronizedTokenBucket implements RateLimiter {
+        private static final Cause LIMIT_EXCEEDED = () -> "Rate limit exceeded";
+
+        private final long refillPeriodNanos;
+        private final TimeSource timeSource = TimeSource.system();
+        private final long[] state;
+
+        SynchronizedTokenBucket(int rate, long refillPeriodNanos) {
+            this.refillPeriodNanos = refillPeriodNanos;
+            this.state = new long[]{rate, timeSource.nanoTime()};
+        }
+
+        @Override
+        public <T> Promise<T> execute(int permits, Supplier<Promise<T>> operation) {
+            return tryAcquire(permits).async()
+                                      .flatMap(operation);
+        }
+
+        @Override
+        public Promise<Unit> acquire(int permits) {
+            return tryAcquire(permits).async();
+        }
+
+        private synchronized Result<Unit> tryAcquire(int permits) {
+            long now = timeSource.nanoTime();
+            long elapsed = now - state[1];
+            if (elapsed >= refillPeriodNanos) {
+                long periods = elapsed / refillPeriodNanos;
+                state[0] = Math.min(RATE, state[0] + Math.min(periods, RATE) * RATE);
+                state[1] += periods * refillPeriodNanos;
+            }
+            if (state[0] >= permits) {
+                state[0] -= permits;
+                return Result.unitResult();
+            }
+            return LIMIT_EXCEEDED.result();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.utils.Causes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// [Result] combinators on success and failure paths. Failure paths are expected to be nearly free: transformations
+/// must return the same failure without allocating new instances.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar ResultBenchmark -prof gc -rf json
+/// ```
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultBenchmark {
+    private static final Cause FAILURE = Causes.cause("Benchmark failure");
+
+    private int value = 1_000;
+
+    @Benchmark
+    public Integer mapChainSuccess() {
+        return Result.success(value++)
+                     .map(v -> v + 1)
+                     .map(v -> v * 2)
+                     .map(v -> v - 1)
+                     .or(0);
+    }
+
+    @Benchmark
+    public Integer mapChainFailure() {
+        return Result.<Integer>failure(FAILURE)
+                     .map(v -> v + 1)
+                     .map(v -> v * 2)
+                     .map(v -> v - 1)
+                     .or(value++);
+    }
+
+    @Benchmark
+    public Integer flatMapChainSuccess() {
+        return Result.success(value++)
+                     .flatMap(v -> Result.success(v + 1))
+                     .flatMap(v -> Result.success(v * 2))
+                     .flatMap(v -> Result.success(v - 1))
+                     .or(0);
+    }
+
+    @Benchmark
+    public Integer filterAndRecover() {
+        return Result.success(value++)
+                     .filter(FAILURE, v -> v % 2 == 0)
+                     .recover(_ -> 0)
+                     .or(-1);
+    }
+
+    @Benchmark
+    public Result<Integer> mapError() {
+        return Result.<Integer>failure(FAILURE)
+                     .mapError(cause -> Causes.cause("Wrapped", Option.some(cause)));
+    }
+
+    @Benchmark
+    public Result<Integer> lift() {
+        return Result.lift1(Integer::parseInt, "12345");
+    }
+
+    @Benchmark
+    public Integer all2() {
+        return Result.all(Result.success(1), Result.success(value++))
+                     .map(Integer::sum)
+                     .or(0);
+    }
+
+    @Benchmark
+    public Integer all5() {
+        return Result.all(Result.success(1),
+                          Result.success(2),
+                          Result.success(3),
+                          Result.success(4),
+                          Result.success(value++))
+                     .map((v1, v2, v3, v4, v5) -> v1 + v2 + v3 + v4 + v5)
+                     .or(0);
+    }
+
+    @Benchmark
+    public Integer all5Failure() {
+        return Result.all(Result.success(1),
+                          Result.success(2),
+                          Result.<Integer>failure(FAILURE),
+                          Result.success(4),
+                          Result.success(value++))
+                     .map((v1, v2, v3, v4, v5) -> v1 + v2 + v3 + v4 + v5)
+                     .or(0);
+    }
+
+    @Benchmark
+    public Result<List<Integer>> allOf() {
+        return Result.allOf(List.of(Result.success(1), Result.success(2), Result.success(3), Result.success(value++)));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.io.CoreError;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+/// Compares delayed promise operations backed by the shared timer wheel with the previous approach, which parked
+/// one virtual thread in `Thread.sleep` per delay and never cancelled it.
+///
+/// Run with allocation profiler to see the difference in allocation rate:
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar TimerWheelBenchmark -prof gc
+/// ```
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimerWheelBenchmark {
+    private static final CoreError.Timeout TIMEOUT = new CoreError.Timeout("Timed out");
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /// Typical request with timeout: the promise is resolved long before the timeout expires.
+    @Benchmark
+    public Result<Integer> timeoutResolvedEarlyTimerWheel() {
+        return Promise.<Integer>promise()
+                      .timeout(timeSpan(1).seconds())
+                      .succeed(1)
+                      .await();
+    }
+
+    @Benchmark
+    public Result<Integer> timeoutResolvedEarlySleepingThread() {
+        var promise = Promise.<Integer>promise();
+        sleepAndRun(1000, () -> promise.fail(TIMEOUT));
+        return promise.succeed(1)
+                      .await();
+    }
+
+    /// Latency of the delayed action (includes 1ms delay itself).
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Result<Integer> delayedAsyncTimerWheel() {
+        return Promise.<Integer>promise(timeSpan(1).millis(), promise -> promise.succeed(1))
+                      .await();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Result<Integer> delayedAsyncSleepingThread() {
+        var promise = Promise.<Integer>promise();
+        sleepAndRun(1, () -> promise.succeed(1));
+        return promise.await();
+    }
+
+    private void sleepAndRun(long millis, Runnable action) {
+        executor.submit(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException _) {}
+            action.run();
+        });
+    }
+}
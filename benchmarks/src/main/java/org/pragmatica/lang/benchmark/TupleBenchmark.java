@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.Tuple;
+import org.pragmatica.lang.Tuple.Tuple15;
+import org.pragmatica.lang.Tuple.Tuple3;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.pragmatica.lang.Tuple.tuple;
+
+/// Creation and mapping of [Tuple] instances of different sizes, including exception-safe mapping via `lift`.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar TupleBenchmark -prof gc -rf json
+/// ```
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TupleBenchmark {
+    private int value = 1_000;
+    private Tuple3<Integer, Integer, Integer> tuple3;
+    private Tuple15<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> tuple15;
+
+    @Setup
+    public void setup() {
+        tuple3 = tuple(1_001, 1_002, 1_003);
+        tuple15 = tuple(1_001,
+                        1_002,
+                        1_003,
+                        1_004,
+                        1_005,
+                        1_006,
+                        1_007,
+                        1_008,
+                        1_009,
+                        1_010,
+                        1_011,
+                        1_012,
+                        1_013,
+                        1_014,
+                        1_015);
+    }
+
+    @Benchmark
+    public Tuple createTuple2() {
+        return tuple(value++, value);
+    }
+
+    @Benchmark
+    public Integer createAndMapTuple2() {
+        return tuple(value++, value).map(Integer::sum);
+    }
+
+    @Benchmark
+    public Integer mapTuple3() {
+        return tuple3.map((v1, v2, v3) -> v1 + v2 + v3);
+    }
+
+    @Benchmark
+    public Result<Integer> liftTuple3() {
+        return tuple3.lift((v1, v2, v3) -> v1 + v2 + v3);
+    }
+
+    @Benchmark
+    public Integer mapTuple15() {
+        return tuple15.map((v1, v2, v3, v4, v5, v6, v7, v8, v9, v10, v11, v12, v13, v14, v15) -> v1 + v2 + v3 + v4 + v5
+                                                                                              + v6 + v7 + v8 + v9
+                                                                                              + v10 + v11 + v12 + v13
+                                                                                              + v14 + v15);
+    }
+}
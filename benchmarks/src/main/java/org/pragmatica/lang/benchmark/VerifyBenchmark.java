@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Functions.Fn1;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.Verify;
+import org.pragmatica.lang.utils.Causes;
+
+import java.util.concurrent.TimeUnit;
+
+/// [Verify#ensure] with the predicates from [Verify.Is]. Passing checks should cost as much as the predicate itself,
+/// failing checks add the cost of the cause construction.
+///
+/// ```
+/// java -jar benchmarks/target/benchmarks.jar VerifyBenchmark -prof gc -rf json
+/// ```
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifyBenchmark {
+    private static final Cause NOT_IN_RANGE = Causes.cause("Value is out of range");
+    private static final Fn1<Result<String>, String> COMBINED = Verify.combine(value -> Verify.ensure(value,
+                                                                                                      Verify.Is::notBlank),
+                                                                               value -> Verify.ensure(value,
+                                                                                                      Verify.Is::lenBetween,
+                                                                                                      1,
+                                                                                                      64));
+
+    private Integer positive = 1_000;
+    private Integer negative = -1_000;
+    private String text = "pragmatica";
+
+    @Benchmark
+    public Result<Integer> ensurePass() {
+        return Verify.ensure(positive, Verify.Is::positive);
+    }
+
+    @Benchmark
+    public Result<Integer> ensureFail() {
+        return Verify.ensure(negative, Verify.Is::positive);
+    }
+
+    @Benchmark
+    public Result<Integer> ensureFailWithFixedCause() {
+        return Verify.ensure(negative, Verify.Is::positive, NOT_IN_RANGE);
+    }
+
+    @Benchmark
+    public Result<Integer> ensureBetween() {
+        return Verify.ensure(positive, Verify.Is::between, 0, 10_000);
+    }
+
+    @Benchmark
+    public Result<String> ensureNotBlank() {
+        return Verify.ensure(text, Verify.Is::notBlank);
+    }
+
+    @Benchmark
+    public Result<String> ensureCombined() {
+        return COMBINED.apply(text);
+    }
+}
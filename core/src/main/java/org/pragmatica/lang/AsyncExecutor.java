@@ -0,0 +1,272 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// Execution SPI used by [Promise] to run asynchronous actions: consumers passed to [Promise#async(java.util.function.Consumer)],
+/// suppliers passed to [Promise#promise(java.util.function.Supplier)], expired [TimerWheel] tasks and independent actions
+/// (event handlers) attached with [Promise#onResult(java.util.function.Consumer)] and similar methods.
+///
+/// By default, all asynchronous actions are executed on virtual threads. The default executor can be replaced for the
+/// whole application with [#replaceDefault(AsyncExecutor)] or overridden for a particular promise chain by passing
+/// an executor to [Promise#promise(AsyncExecutor, java.util.function.Supplier)],
+/// [Promise#async(AsyncExecutor, java.util.function.Consumer)] or
+/// [Promise#onResultAsync(AsyncExecutor, java.util.function.Consumer)].
+///
+/// Typical choices:
+///
+/// - [#virtualThreads()] - default, one virtual thread per task.
+/// - [#sameThread()] - run the task in the calling thread. Useful to keep I/O completions on the event loop thread which
+///   resolves the promise.
+/// - [#executor(Executor)] - adapter for arbitrary [Executor], for example Netty event loop.
+/// - [#bounded(AsyncExecutor, int)] - cap the number of concurrently running tasks, for example, blocking JDBC calls.
+/// - [#platformThreads(int)] - fixed pool of platform threads, owned and closed by the caller.
+@FunctionalInterface
+public interface AsyncExecutor {
+    /// Run the task asynchronously. Implementations must not throw exceptions if the task can't be accepted
+    /// for execution immediately, instead they should queue the task.
+    ///
+    /// @param task Task to run
+    void runAsync(Runnable task);
+
+    /// Default executor used by all promises which were not configured with a dedicated executor.
+    ///
+    /// @return current default executor
+    static AsyncExecutor defaultExecutor() {
+        return AsyncExecutorHolder.defaultExecutor;
+    }
+
+    /// Replace default executor for the whole application. Intended to be called once during application startup.
+    ///
+    /// @param executor New default executor
+    ///
+    /// @return previous default executor
+    static AsyncExecutor replaceDefault(AsyncExecutor executor) {
+        Objects.requireNonNull(executor, "executor must not be null");
+        var previous = AsyncExecutorHolder.defaultExecutor;
+        AsyncExecutorHolder.defaultExecutor = executor;
+        return previous;
+    }
+
+    /// Executor which runs every task in a new virtual thread.
+    ///
+    /// @return shared virtual thread executor
+    static AsyncExecutor virtualThreads() {
+        return AsyncExecutorHolder.VIRTUAL_THREADS;
+    }
+
+    /// Executor which runs the task immediately in the calling thread.
+    ///
+    /// @return same thread executor
+    static AsyncExecutor sameThread() {
+        return AsyncExecutorHolder.SAME_THREAD;
+    }
+
+    /// Adapt provided [Executor] to [AsyncExecutor].
+    ///
+    /// @param executor Executor to adapt
+    ///
+    /// @return executor adapter
+    static AsyncExecutor executor(Executor executor) {
+        Objects.requireNonNull(executor, "executor must not be null");
+        return executor::execute;
+    }
+
+    /// Create executor backed by a fixed pool of daemon platform threads.
+    ///
+    /// The caller owns the pool and should [close][Pool#close()] it once it is no longer used. Threads are daemon and
+    /// terminate after being idle for [Pool#IDLE_TIMEOUT], so a pool which is never closed neither prevents JVM shutdown
+    /// nor holds threads while there are no tasks.
+    ///
+    /// @param threads Number of threads in the pool
+    ///
+    /// @return Result containing created executor or failure if number of threads is not positive
+    static Result<Pool> platformThreads(int threads) {
+        if (threads <= 0) {
+            return INVALID_THREAD_COUNT.result();
+        }
+        return Result.success(new PlatformThreadPool(threads));
+    }
+
+    /// Create executor which runs at most `maxConcurrency` tasks at once on virtual threads. Remaining tasks are queued
+    /// and executed in submission order as running tasks complete.
+    ///
+    /// @param maxConcurrency Maximal number of concurrently running tasks
+    ///
+    /// @return Result containing created executor or failure if concurrency limit is not positive
+    static Result<AsyncExecutor> bounded(int maxConcurrency) {
+        return bounded(virtualThreads(), maxConcurrency);
+    }
+
+    /// Create executor which runs at most `maxConcurrency` tasks at once on the provided executor. Remaining tasks are queued
+    /// and executed in submission order as running tasks complete.
+    ///
+    /// @param delegate       Executor which actually runs tasks
+    /// @param maxConcurrency Maximal number of concurrently running tasks
+    ///
+    /// @return Result containing created executor or failure if concurrency limit is not positive
+    static Result<AsyncExecutor> bounded(AsyncExecutor delegate, int maxConcurrency) {
+        Objects.requireNonNull(delegate, "delegate must not be null");
+        if (maxConcurrency <= 0) {
+            return INVALID_CONCURRENCY.result();
+        }
+        return Result.success(new BoundedAsyncExecutor(delegate, maxConcurrency));
+    }
+
+    /// Executor which owns its threads.
+    interface Pool extends AsyncExecutor, AutoCloseable {
+        /// Time after which idle threads of the pool are terminated.
+        TimeSpan IDLE_TIMEOUT = TimeSpan.timeSpan(60).seconds();
+
+        /// Stop accepting new tasks. Already submitted tasks are completed, but the method does not wait for them.
+        /// Tasks submitted after the pool is closed are rejected with [java.util.concurrent.RejectedExecutionException].
+        @Override
+        void close();
+    }
+
+    /// Error cause for invalid number of threads.
+    Cause INVALID_THREAD_COUNT = () -> "Number of threads must be positive";
+
+    /// Error cause for invalid concurrency limit.
+    Cause INVALID_CONCURRENCY = () -> "maxConcurrency must be positive";
+}
+
+final class AsyncExecutorHolder {
+    private AsyncExecutorHolder() {}
+
+    static final AsyncExecutor VIRTUAL_THREADS = new VirtualThreadExecutor();
+    static final AsyncExecutor SAME_THREAD = Runnable::run;
+
+    static volatile AsyncExecutor defaultExecutor = VIRTUAL_THREADS;
+
+    private static final class VirtualThreadExecutor implements AsyncExecutor {
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        @Override
+        public void runAsync(Runnable task) {
+            executor.submit(task);
+        }
+
+        @Override
+        public String toString() {
+            return "AsyncExecutor(virtual threads)";
+        }
+    }
+}
+
+/// Fixed pool of daemon platform threads which terminate once idle.
+final class PlatformThreadPool implements AsyncExecutor.Pool {
+    private final ThreadPoolExecutor executor;
+
+    PlatformThreadPool(int threads) {
+        var factory = Thread.ofPlatform()
+                            .name("pragmatica-async-", 0)
+                            .daemon(true)
+                            .factory();
+        executor = new ThreadPoolExecutor(threads,
+                                          threads,
+                                          IDLE_TIMEOUT.nanos(),
+                                          TimeUnit.NANOSECONDS,
+                                          new LinkedBlockingQueue<>(),
+                                          factory);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncExecutor(platform threads " + executor.getPoolSize() + "/" + executor.getMaximumPoolSize() + ")";
+    }
+}
+
+/// Executor which limits the number of concurrently running tasks. Each worker drains the queue before it releases
+/// its slot, so under load tasks are executed without additional dispatch overhead.
+final class BoundedAsyncExecutor implements AsyncExecutor {
+    private final AsyncExecutor delegate;
+    private final int maxConcurrency;
+    private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger active = new AtomicInteger();
+
+    BoundedAsyncExecutor(AsyncExecutor delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        queue.add(task);
+        trySpawnWorker();
+    }
+
+    private void trySpawnWorker() {
+        while (!queue.isEmpty()) {
+            var current = active.get();
+            if (current >= maxConcurrency) {
+                return;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                delegate.runAsync(this::drain);
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Thread.currentThread()
+                          .getUncaughtExceptionHandler()
+                          .uncaughtException(Thread.currentThread(), e);
+                }
+            }
+        } finally {
+            active.decrementAndGet();
+        }
+        // Tasks could be added after the last poll but before the slot was released
+        trySpawnWorker();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncExecutor(bounded " + active.get() + "/" + maxConcurrency + ", queued " + queue.size() + ")";
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.DoubleResult.DoubleFailure;
+import org.pragmatica.lang.DoubleResult.DoubleSuccess;
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+import static org.pragmatica.lang.Promise.PROMISE_CANCELLED;
+
+/// Specialization of [Promise] for `double` values. The value is stored unboxed and neither the value nor the result
+/// wrapper is allocated while the value passes through the chain of transformations. Conversion to and from the
+/// generic [Promise] is available via [#toPromise()] and [#doublePromise(Promise)].
+///
+/// Dependent actions ([#map(DoubleUnaryOperator)], [#flatMap(DoubleFunction)], etc.) are executed in the thread which resolves
+/// the promise, in the order of registration. Event handlers ([#onSuccess(DoubleConsumer)], [#onFailure(Consumer)] and
+/// [#onResult(Consumer)]) are executed asynchronously, as with [Promise].
+public sealed interface DoublePromise permits DoublePromiseImpl {
+    /// Transform the value once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance or current instance if it is already resolved with failure
+    DoublePromise map(DoubleUnaryOperator mapper);
+
+    /// Transform the value into a value of another type once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance
+    <U> Promise<U> mapToObj(DoubleFunction<U> mapper);
+
+    /// Transform the value into another promise once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance
+    DoublePromise flatMap(DoubleFunction<DoublePromise> mapper);
+
+    /// Filter the value with the provided predicate.
+    ///
+    /// @param cause     Failure cause in case if the value does not satisfy the predicate
+    /// @param predicate Predicate to check the value
+    ///
+    /// @return new promise instance
+    DoublePromise filter(Cause cause, DoublePredicate predicate);
+
+    /// Replace failure with the value obtained from the cause.
+    ///
+    /// @param mapper Function to obtain the value from the cause
+    ///
+    /// @return new promise instance or current instance if it is already resolved with success
+    DoublePromise recover(ToDoubleFunction<? super Cause> mapper);
+
+    /// Run the action asynchronously once the promise is resolved with success.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    DoublePromise onSuccess(DoubleConsumer action);
+
+    /// Run the action asynchronously once the promise is resolved with failure.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    DoublePromise onFailure(Consumer<? super Cause> action);
+
+    /// Run the action asynchronously once the promise is resolved.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    DoublePromise onResult(Consumer<DoubleResult> action);
+
+    /// Resolve the promise with success. Ignored if the promise is already resolved.
+    ///
+    /// @param value Value to resolve the promise with
+    ///
+    /// @return current instance
+    DoublePromise succeed(double value);
+
+    /// Resolve the promise with failure. Ignored if the promise is already resolved.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return current instance
+    DoublePromise fail(Cause cause);
+
+    /// Resolve the promise with the provided result. Ignored if the promise is already resolved.
+    ///
+    /// @param result Result to resolve the promise with
+    ///
+    /// @return current instance
+    default DoublePromise resolve(DoubleResult result) {
+        return switch (result) {
+            case DoubleSuccess(var value) -> succeed(value);
+            case DoubleFailure(var cause) -> fail(cause);
+        };
+    }
+
+    /// Cancel the promise.
+    ///
+    /// @return current instance
+    default DoublePromise cancel() {
+        return fail(PROMISE_CANCELLED);
+    }
+
+    /// Resolve the promise with [org.pragmatica.lang.io.CoreError.Timeout] failure if it remains unresolved after the
+    /// specified timeout.
+    ///
+    /// @param timeout Timeout
+    ///
+    /// @return current instance
+    DoublePromise timeout(TimeSpan timeout);
+
+    /// Check if the promise is resolved.
+    ///
+    /// @return `true` if the promise is resolved
+    boolean isResolved();
+
+    /// Wait for the resolution of the promise.
+    ///
+    /// @return result of the resolution
+    DoubleResult await();
+
+    /// Wait for the resolution of the promise at most specified time.
+    ///
+    /// @param timeout Timeout
+    ///
+    /// @return result of the resolution or [org.pragmatica.lang.io.CoreError.Timeout] failure if the promise is not
+    ///         resolved in time. In the latter case the promise remains unresolved.
+    DoubleResult await(TimeSpan timeout);
+
+    /// Convert to the generic [Promise]. The value is boxed once, when the promise is resolved.
+    ///
+    /// @return generic promise
+    Promise<Double> toPromise();
+
+    /// Create new unresolved instance.
+    ///
+    /// @return created instance
+    static DoublePromise doublePromise() {
+        return new DoublePromiseImpl();
+    }
+
+    /// Create an instance resolved with success.
+    ///
+    /// @param value Value
+    ///
+    /// @return created instance
+    static DoublePromise success(double value) {
+        return new DoublePromiseImpl(value);
+    }
+
+    /// Create an instance resolved with failure.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return created instance
+    static DoublePromise failure(Cause cause) {
+        return new DoublePromiseImpl(cause);
+    }
+
+    /// Create an instance resolved with the provided result.
+    ///
+    /// @param result Result
+    ///
+    /// @return created instance
+    static DoublePromise resolved(DoubleResult result) {
+        return switch (result) {
+            case DoubleSuccess(var value) -> success(value);
+            case DoubleFailure(var cause) -> failure(cause);
+        };
+    }
+
+    /// Convert generic [Promise] into specialized one. The value is unboxed once the generic promise is resolved.
+    ///
+    /// @param promise Generic promise
+    ///
+    /// @return specialized promise
+    static DoublePromise doublePromise(Promise<Double> promise) {
+        return doublePromise(promise, Double::doubleValue);
+    }
+
+    /// Convert generic [Promise] into specialized one using the provided function to extract the value.
+    ///
+    /// @param promise Generic promise
+    /// @param mapper  Function to extract the value
+    ///
+    /// @return specialized promise
+    static <T> DoublePromise doublePromise(Promise<T> promise, ToDoubleFunction<? super T> mapper) {
+        return DoublePromiseImpl.fromPromise(promise, mapper);
+    }
+
+    /// Combine two promises. Once both are resolved with success, values are combined with the provided function.
+    /// Otherwise, the returned promise is resolved with the first failure.
+    ///
+    /// @param first    First promise
+    /// @param second   Second promise
+    /// @param combiner Function to combine values
+    ///
+    /// @return new promise instance
+    static DoublePromise all(DoublePromise first, DoublePromise second, DoubleBinaryOperator combiner) {
+        return DoublePromiseImpl.all((DoublePromiseImpl) first, (DoublePromiseImpl) second, combiner);
+    }
+
+    /// Collect values of all provided promises into an array. If any of the promises is resolved with failure, the
+    /// returned promise is resolved with the failure of the first failed promise in the argument order.
+    ///
+    /// @param promises Promises to collect
+    ///
+    /// @return promise resolved with the array of values
+    static Promise<double[]> allOf(DoublePromise... promises) {
+        return DoublePromiseImpl.allOf(promises);
+    }
+}
+
+final class DoublePromiseImpl extends PrimitivePromiseBase<DoublePromiseImpl> implements DoublePromise {
+    // Written before the state is published
+    private double value;
+
+    DoublePromiseImpl() {}
+
+    DoublePromiseImpl(double value) {
+        this.value = value;
+        this.state = SUCCESS;
+    }
+
+    DoublePromiseImpl(Cause cause) {
+        this.cause = cause;
+        this.state = FAILURE;
+    }
+
+    @Override
+    public DoublePromise map(DoubleUnaryOperator mapper) {
+        return switch (state) {
+            case SUCCESS -> new DoublePromiseImpl(mapper.applyAsDouble(value));
+            case FAILURE -> this;
+            default -> {
+                var dependency = new DoublePromiseImpl();
+                whenSucceeded(() -> dependency.succeed(mapper.applyAsDouble(value)), dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public <U> Promise<U> mapToObj(DoubleFunction<U> mapper) {
+        var dependency = Promise.<U>promise();
+        whenSucceeded(() -> dependency.succeed(mapper.apply(value)), dependency);
+        return dependency;
+    }
+
+    @Override
+    public DoublePromise flatMap(DoubleFunction<DoublePromise> mapper) {
+        return switch (state) {
+            case SUCCESS -> mapper.apply(value);
+            case FAILURE -> this;
+            default -> {
+                var dependency = new DoublePromiseImpl();
+                whenSucceeded(() -> ((DoublePromiseImpl) mapper.apply(value)).transferTo(dependency), dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public DoublePromise filter(Cause cause, DoublePredicate predicate) {
+        return switch (state) {
+            case SUCCESS -> predicate.test(value)
+                            ? this
+                            : new DoublePromiseImpl(cause);
+            case FAILURE -> this;
+            default -> {
+                var dependency = new DoublePromiseImpl();
+                whenSucceeded(() -> {
+                                  if (predicate.test(value)) {
+                                      dependency.succeed(value);
+                                  } else {
+                                      dependency.fail(cause);
+                                  }
+                              },
+                              dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public DoublePromise recover(ToDoubleFunction<? super Cause> mapper) {
+        return switch (state) {
+            case SUCCESS -> this;
+            case FAILURE -> new DoublePromiseImpl(mapper.applyAsDouble(cause));
+            default -> {
+                var dependency = new DoublePromiseImpl();
+                whenResolved(() -> {
+                    if (state == SUCCESS) {
+                        dependency.succeed(value);
+                    } else {
+                        guarded(() -> dependency.succeed(mapper.applyAsDouble(cause)), dependency);
+                    }
+                });
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public DoublePromise onSuccess(DoubleConsumer action) {
+        whenResolved(() -> {
+            if (state == SUCCESS) {
+                var resolvedValue = value;
+                dispatch(() -> action.accept(resolvedValue));
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public DoublePromise onResult(Consumer<DoubleResult> action) {
+        whenResolved(() -> {
+            var result = result();
+            dispatch(() -> action.accept(result));
+        });
+        return this;
+    }
+
+    @Override
+    public DoublePromise succeed(double value) {
+        if (claim()) {
+            this.value = value;
+            publish(SUCCESS);
+        }
+        return this;
+    }
+
+    @Override
+    public DoubleResult await() {
+        awaitResolution();
+        return result();
+    }
+
+    @Override
+    public DoubleResult await(TimeSpan timeout) {
+        return awaitResolution(timeout)
+               ? result()
+               : DoubleResult.failure(awaitTimeout());
+    }
+
+    @Override
+    public Promise<Double> toPromise() {
+        return switch (state) {
+            case SUCCESS -> Promise.success(value);
+            case FAILURE -> Promise.failure(cause);
+            default -> {
+                var promise = Promise.<Double>promise();
+                whenSucceeded(() -> promise.succeed(value), promise);
+                yield promise;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (state) {
+            case SUCCESS -> "DoublePromise<Success(" + value + ")>";
+            case FAILURE -> "DoublePromise<Failure(" + cause + ")>";
+            default -> "DoublePromise<>";
+        };
+    }
+
+    private DoubleResult result() {
+        return state == SUCCESS
+               ? DoubleResult.success(value)
+               : DoubleResult.failure(cause);
+    }
+
+    private void transferTo(DoublePromiseImpl target) {
+        whenSucceeded(() -> target.succeed(value), target);
+    }
+
+    static <T> DoublePromise fromPromise(Promise<T> promise, ToDoubleFunction<? super T> mapper) {
+        var result = new DoublePromiseImpl();
+        promise.onResultAsync(AsyncExecutor.sameThread(),
+                              value -> value.onSuccess(v -> guarded(() -> result.succeed(mapper.applyAsDouble(v)), result))
+                                            .onFailure(result::fail));
+        return result;
+    }
+
+    static DoublePromise all(DoublePromiseImpl first, DoublePromiseImpl second, DoubleBinaryOperator combiner) {
+        var result = new DoublePromiseImpl();
+        whenBothSucceeded(first, second, result, () -> result.succeed(combiner.applyAsDouble(first.value, second.value)));
+        return result;
+    }
+
+    static Promise<double[]> allOf(DoublePromise... promises) {
+        var impls = Arrays.copyOf(promises, promises.length, DoublePromiseImpl[].class);
+        return whenAllSucceeded(impls, () -> {
+            var values = new double[impls.length];
+            for (int i = 0; i < impls.length; i++) {
+                values[i] = impls[i].value;
+            }
+            return values;
+        });
+    }
+}
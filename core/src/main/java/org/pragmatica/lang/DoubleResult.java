@@ -0,0 +1,271 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.DoubleResult.DoubleFailure;
+import org.pragmatica.lang.DoubleResult.DoubleSuccess;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/// Specialization of [Result] for `double` values. The value is stored unboxed, so numeric results (counters, sizes,
+/// latencies, identifiers) can be passed around without allocation of the wrapper for the value. Conversion to and from
+/// the generic [Result] is available via [#toResult()] and [#doubleResult(Result)].
+///
+/// Unlike [Result], transformations which keep the value type return the same instance in case of failure.
+public sealed interface DoubleResult permits DoubleSuccess, DoubleFailure {
+    /// Transform the value in case of success.
+    ///
+    /// @param mapper Function to transform successful value
+    ///
+    /// @return transformed value (in case of success) or current instance (in case of failure)
+    default DoubleResult map(DoubleUnaryOperator mapper) {
+        return switch (this) {
+            case DoubleSuccess(var value) -> success(mapper.applyAsDouble(value));
+            case DoubleFailure _ -> this;
+        };
+    }
+
+    /// Transform the value into a value of another type. The value is boxed only if the mapper returns it as is.
+    ///
+    /// @param mapper Function to transform successful value
+    ///
+    /// @return transformed value (in case of success) or failure with the same cause
+    default <U> Result<U> mapToObj(DoubleFunction<U> mapper) {
+        return switch (this) {
+            case DoubleSuccess(var value) -> Result.success(mapper.apply(value));
+            case DoubleFailure(var cause) -> cause.result();
+        };
+    }
+
+    /// Transform the value into another result.
+    ///
+    /// @param mapper Function to apply to the value
+    ///
+    /// @return transformed value (in case of success) or current instance (in case of failure)
+    default DoubleResult flatMap(DoubleFunction<DoubleResult> mapper) {
+        return switch (this) {
+            case DoubleSuccess(var value) -> mapper.apply(value);
+            case DoubleFailure _ -> this;
+        };
+    }
+
+    /// Filter the value with the provided predicate.
+    ///
+    /// @param cause     Failure cause in case if the value does not satisfy the predicate
+    /// @param predicate Predicate to check the value
+    ///
+    /// @return current instance if the value satisfies the predicate or failure with the provided cause
+    default DoubleResult filter(Cause cause, DoublePredicate predicate) {
+        return switch (this) {
+            case DoubleSuccess(var value) when !predicate.test(value) -> failure(cause);
+            default -> this;
+        };
+    }
+
+    /// Replace failure with the value obtained from the cause.
+    ///
+    /// @param mapper Function to obtain the value from the cause
+    ///
+    /// @return current instance (in case of success) or success with the value returned by the mapper
+    default DoubleResult recover(ToDoubleFunction<? super Cause> mapper) {
+        return switch (this) {
+            case DoubleSuccess _ -> this;
+            case DoubleFailure(var cause) -> success(mapper.applyAsDouble(cause));
+        };
+    }
+
+    /// Pass the value to the consumer in case of success.
+    ///
+    /// @param consumer Consumer for the value
+    ///
+    /// @return current instance
+    default DoubleResult onSuccess(DoubleConsumer consumer) {
+        if (this instanceof DoubleSuccess(var value)) {
+            consumer.accept(value);
+        }
+        return this;
+    }
+
+    /// Pass the cause to the consumer in case of failure.
+    ///
+    /// @param consumer Consumer for the cause
+    ///
+    /// @return current instance
+    default DoubleResult onFailure(Consumer<? super Cause> consumer) {
+        if (this instanceof DoubleFailure(var cause)) {
+            consumer.accept(cause);
+        }
+        return this;
+    }
+
+    /// Run the action in case of success.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    default DoubleResult onSuccessRun(Runnable action) {
+        if (this instanceof DoubleSuccess) {
+            action.run();
+        }
+        return this;
+    }
+
+    /// Run the action in case of failure.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    default DoubleResult onFailureRun(Runnable action) {
+        if (this instanceof DoubleFailure) {
+            action.run();
+        }
+        return this;
+    }
+
+    /// Return the value in case of success or the replacement in case of failure.
+    ///
+    /// @param replacement Replacement value
+    ///
+    /// @return value or replacement
+    default double or(double replacement) {
+        return switch (this) {
+            case DoubleSuccess(var value) -> value;
+            case DoubleFailure _ -> replacement;
+        };
+    }
+
+    /// Handle both possible states of the result.
+    ///
+    /// @param failureMapper Function to apply to the cause in case of failure
+    /// @param successMapper Function to apply to the value in case of success
+    ///
+    /// @return value returned by one of the mappers
+    default <R> R fold(Function<? super Cause, ? extends R> failureMapper, DoubleFunction<? extends R> successMapper) {
+        return switch (this) {
+            case DoubleSuccess(var value) -> successMapper.apply(value);
+            case DoubleFailure(var cause) -> failureMapper.apply(cause);
+        };
+    }
+
+    /// Check if the instance is a success.
+    ///
+    /// @return `true` if the instance is a success
+    default boolean isSuccess() {
+        return this instanceof DoubleSuccess;
+    }
+
+    /// Check if the instance is a failure.
+    ///
+    /// @return `true` if the instance is a failure
+    default boolean isFailure() {
+        return this instanceof DoubleFailure;
+    }
+
+    /// Convert to the generic [Result]. The value is boxed.
+    ///
+    /// @return generic result
+    default Result<Double> toResult() {
+        return switch (this) {
+            case DoubleSuccess(var value) -> Result.success(value);
+            case DoubleFailure(var cause) -> cause.result();
+        };
+    }
+
+    /// Convert to resolved [DoublePromise].
+    ///
+    /// @return resolved promise
+    default DoublePromise async() {
+        return DoublePromise.resolved(this);
+    }
+
+    /// Create successful result.
+    ///
+    /// @param value Value
+    ///
+    /// @return created instance
+    static DoubleResult success(double value) {
+        return new DoubleSuccess(value);
+    }
+
+    /// Create failed result.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return created instance
+    static DoubleResult failure(Cause cause) {
+        return new DoubleFailure(cause);
+    }
+
+    /// Convert generic [Result] into specialized one. The value is unboxed.
+    ///
+    /// @param result Generic result
+    ///
+    /// @return specialized result
+    static DoubleResult doubleResult(Result<Double> result) {
+        return doubleResult(result, Double::doubleValue);
+    }
+
+    /// Convert generic [Result] into specialized one using the provided function to extract the value.
+    ///
+    /// @param result Generic result
+    /// @param mapper Function to extract the value
+    ///
+    /// @return specialized result
+    static <T> DoubleResult doubleResult(Result<T> result, ToDoubleFunction<? super T> mapper) {
+        return result.fold(DoubleResult::failure, value -> success(mapper.applyAsDouble(value)));
+    }
+
+    /// Combine two results. If both are successful, values are combined with the provided function. Otherwise, the
+    /// first failure is returned.
+    ///
+    /// @param first    First result
+    /// @param second   Second result
+    /// @param combiner Function to combine values
+    ///
+    /// @return combined result
+    static DoubleResult all(DoubleResult first, DoubleResult second, DoubleBinaryOperator combiner) {
+        if (first instanceof DoubleSuccess(var value1)) {
+            if (second instanceof DoubleSuccess(var value2)) {
+                return success(combiner.applyAsDouble(value1, value2));
+            }
+            return second;
+        }
+        return first;
+    }
+
+    record DoubleSuccess(double value) implements DoubleResult {
+        @Override
+        public String toString() {
+            return "Success(" + value + ")";
+        }
+    }
+
+    record DoubleFailure(Cause cause) implements DoubleResult {
+        @Override
+        public String toString() {
+            return "Failure(" + cause + ")";
+        }
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.IntResult.IntFailure;
+import org.pragmatica.lang.IntResult.IntSuccess;
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import static org.pragmatica.lang.Promise.PROMISE_CANCELLED;
+
+/// Specialization of [Promise] for `int` values. The value is stored unboxed and neither the value nor the result
+/// wrapper is allocated while the value passes through the chain of transformations. Conversion to and from the
+/// generic [Promise] is available via [#toPromise()] and [#intPromise(Promise)].
+///
+/// Dependent actions ([#map(IntUnaryOperator)], [#flatMap(IntFunction)], etc.) are executed in the thread which resolves
+/// the promise, in the order of registration. Event handlers ([#onSuccess(IntConsumer)], [#onFailure(Consumer)] and
+/// [#onResult(Consumer)]) are executed asynchronously, as with [Promise].
+public sealed interface IntPromise permits IntPromiseImpl {
+    /// Transform the value once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance or current instance if it is already resolved with failure
+    IntPromise map(IntUnaryOperator mapper);
+
+    /// Transform the value into a value of another type once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance
+    <U> Promise<U> mapToObj(IntFunction<U> mapper);
+
+    /// Transform the value into another promise once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance
+    IntPromise flatMap(IntFunction<IntPromise> mapper);
+
+    /// Filter the value with the provided predicate.
+    ///
+    /// @param cause     Failure cause in case if the value does not satisfy the predicate
+    /// @param predicate Predicate to check the value
+    ///
+    /// @return new promise instance
+    IntPromise filter(Cause cause, IntPredicate predicate);
+
+    /// Replace failure with the value obtained from the cause.
+    ///
+    /// @param mapper Function to obtain the value from the cause
+    ///
+    /// @return new promise instance or current instance if it is already resolved with success
+    IntPromise recover(ToIntFunction<? super Cause> mapper);
+
+    /// Run the action asynchronously once the promise is resolved with success.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    IntPromise onSuccess(IntConsumer action);
+
+    /// Run the action asynchronously once the promise is resolved with failure.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    IntPromise onFailure(Consumer<? super Cause> action);
+
+    /// Run the action asynchronously once the promise is resolved.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    IntPromise onResult(Consumer<IntResult> action);
+
+    /// Resolve the promise with success. Ignored if the promise is already resolved.
+    ///
+    /// @param value Value to resolve the promise with
+    ///
+    /// @return current instance
+    IntPromise succeed(int value);
+
+    /// Resolve the promise with failure. Ignored if the promise is already resolved.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return current instance
+    IntPromise fail(Cause cause);
+
+    /// Resolve the promise with the provided result. Ignored if the promise is already resolved.
+    ///
+    /// @param result Result to resolve the promise with
+    ///
+    /// @return current instance
+    default IntPromise resolve(IntResult result) {
+        return switch (result) {
+            case IntSuccess(var value) -> succeed(value);
+            case IntFailure(var cause) -> fail(cause);
+        };
+    }
+
+    /// Cancel the promise.
+    ///
+    /// @return current instance
+    default IntPromise cancel() {
+        return fail(PROMISE_CANCELLED);
+    }
+
+    /// Resolve the promise with [org.pragmatica.lang.io.CoreError.Timeout] failure if it remains unresolved after the
+    /// specified timeout.
+    ///
+    /// @param timeout Timeout
+    ///
+    /// @return current instance
+    IntPromise timeout(TimeSpan timeout);
+
+    /// Check if the promise is resolved.
+    ///
+    /// @return `true` if the promise is resolved
+    boolean isResolved();
+
+    /// Wait for the resolution of the promise.
+    ///
+    /// @return result of the resolution
+    IntResult await();
+
+    /// Wait for the resolution of the promise at most specified time.
+    ///
+    /// @param timeout Timeout
+    ///
+    /// @return result of the resolution or [org.pragmatica.lang.io.CoreError.Timeout] failure if the promise is not
+    ///         resolved in time. In the latter case the promise remains unresolved.
+    IntResult await(TimeSpan timeout);
+
+    /// Convert to the generic [Promise]. The value is boxed once, when the promise is resolved.
+    ///
+    /// @return generic promise
+    Promise<Integer> toPromise();
+
+    /// Create new unresolved instance.
+    ///
+    /// @return created instance
+    static IntPromise intPromise() {
+        return new IntPromiseImpl();
+    }
+
+    /// Create an instance resolved with success.
+    ///
+    /// @param value Value
+    ///
+    /// @return created instance
+    static IntPromise success(int value) {
+        return new IntPromiseImpl(value);
+    }
+
+    /// Create an instance resolved with failure.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return created instance
+    static IntPromise failure(Cause cause) {
+        return new IntPromiseImpl(cause);
+    }
+
+    /// Create an instance resolved with the provided result.
+    ///
+    /// @param result Result
+    ///
+    /// @return created instance
+    static IntPromise resolved(IntResult result) {
+        return switch (result) {
+            case IntSuccess(var value) -> success(value);
+            case IntFailure(var cause) -> failure(cause);
+        };
+    }
+
+    /// Convert generic [Promise] into specialized one. The value is unboxed once the generic promise is resolved.
+    ///
+    /// @param promise Generic promise
+    ///
+    /// @return specialized promise
+    static IntPromise intPromise(Promise<Integer> promise) {
+        return intPromise(promise, Integer::intValue);
+    }
+
+    /// Convert generic [Promise] into specialized one using the provided function to extract the value.
+    ///
+    /// @param promise Generic promise
+    /// @param mapper  Function to extract the value
+    ///
+    /// @return specialized promise
+    static <T> IntPromise intPromise(Promise<T> promise, ToIntFunction<? super T> mapper) {
+        return IntPromiseImpl.fromPromise(promise, mapper);
+    }
+
+    /// Combine two promises. Once both are resolved with success, values are combined with the provided function.
+    /// Otherwise, the returned promise is resolved with the first failure.
+    ///
+    /// @param first    First promise
+    /// @param second   Second promise
+    /// @param combiner Function to combine values
+    ///
+    /// @return new promise instance
+    static IntPromise all(IntPromise first, IntPromise second, IntBinaryOperator combiner) {
+        return IntPromiseImpl.all((IntPromiseImpl) first, (IntPromiseImpl) second, combiner);
+    }
+
+    /// Collect values of all provided promises into an array. If any of the promises is resolved with failure, the
+    /// returned promise is resolved with the failure of the first failed promise in the argument order.
+    ///
+    /// @param promises Promises to collect
+    ///
+    /// @return promise resolved with the array of values
+    static Promise<int[]> allOf(IntPromise... promises) {
+        return IntPromiseImpl.allOf(promises);
+    }
+}
+
+final class IntPromiseImpl extends PrimitivePromiseBase<IntPromiseImpl> implements IntPromise {
+    // Written before the state is published
+    private int value;
+
+    IntPromiseImpl() {}
+
+    IntPromiseImpl(int value) {
+        this.value = value;
+        this.state = SUCCESS;
+    }
+
+    IntPromiseImpl(Cause cause) {
+        this.cause = cause;
+        this.state = FAILURE;
+    }
+
+    @Override
+    public IntPromise map(IntUnaryOperator mapper) {
+        return switch (state) {
+            case SUCCESS -> new IntPromiseImpl(mapper.applyAsInt(value));
+            case FAILURE -> this;
+            default -> {
+                var dependency = new IntPromiseImpl();
+                whenSucceeded(() -> dependency.succeed(mapper.applyAsInt(value)), dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public <U> Promise<U> mapToObj(IntFunction<U> mapper) {
+        var dependency = Promise.<U>promise();
+        whenSucceeded(() -> dependency.succeed(mapper.apply(value)), dependency);
+        return dependency;
+    }
+
+    @Override
+    public IntPromise flatMap(IntFunction<IntPromise> mapper) {
+        return switch (state) {
+            case SUCCESS -> mapper.apply(value);
+            case FAILURE -> this;
+            default -> {
+                var dependency = new IntPromiseImpl();
+                whenSucceeded(() -> ((IntPromiseImpl) mapper.apply(value)).transferTo(dependency), dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public IntPromise filter(Cause cause, IntPredicate predicate) {
+        return switch (state) {
+            case SUCCESS -> predicate.test(value)
+                            ? this
+                            : new IntPromiseImpl(cause);
+            case FAILURE -> this;
+            default -> {
+                var dependency = new IntPromiseImpl();
+                whenSucceeded(() -> {
+                                  if (predicate.test(value)) {
+                                      dependency.succeed(value);
+                                  } else {
+                                      dependency.fail(cause);
+                                  }
+                              },
+                              dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public IntPromise recover(ToIntFunction<? super Cause> mapper) {
+        return switch (state) {
+            case SUCCESS -> this;
+            case FAILURE -> new IntPromiseImpl(mapper.applyAsInt(cause));
+            default -> {
+                var dependency = new IntPromiseImpl();
+                whenResolved(() -> {
+                    if (state == SUCCESS) {
+                        dependency.succeed(value);
+                    } else {
+                        guarded(() -> dependency.succeed(mapper.applyAsInt(cause)), dependency);
+                    }
+                });
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public IntPromise onSuccess(IntConsumer action) {
+        whenResolved(() -> {
+            if (state == SUCCESS) {
+                var resolvedValue = value;
+                dispatch(() -> action.accept(resolvedValue));
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public IntPromise onResult(Consumer<IntResult> action) {
+        whenResolved(() -> {
+            var result = result();
+            dispatch(() -> action.accept(result));
+        });
+        return this;
+    }
+
+    @Override
+    public IntPromise succeed(int value) {
+        if (claim()) {
+            this.value = value;
+            publish(SUCCESS);
+        }
+        return this;
+    }
+
+    @Override
+    public IntResult await() {
+        awaitResolution();
+        return result();
+    }
+
+    @Override
+    public IntResult await(TimeSpan timeout) {
+        return awaitResolution(timeout)
+               ? result()
+               : IntResult.failure(awaitTimeout());
+    }
+
+    @Override
+    public Promise<Integer> toPromise() {
+        return switch (state) {
+            case SUCCESS -> Promise.success(value);
+            case FAILURE -> Promise.failure(cause);
+            default -> {
+                var promise = Promise.<Integer>promise();
+                whenSucceeded(() -> promise.succeed(value), promise);
+                yield promise;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (state) {
+            case SUCCESS -> "IntPromise<Success(" + value + ")>";
+            case FAILURE -> "IntPromise<Failure(" + cause + ")>";
+            default -> "IntPromise<>";
+        };
+    }
+
+    private IntResult result() {
+        return state == SUCCESS
+               ? IntResult.success(value)
+               : IntResult.failure(cause);
+    }
+
+    private void transferTo(IntPromiseImpl target) {
+        whenSucceeded(() -> target.succeed(value), target);
+    }
+
+    static <T> IntPromise fromPromise(Promise<T> promise, ToIntFunction<? super T> mapper) {
+        var result = new IntPromiseImpl();
+        promise.onResultAsync(AsyncExecutor.sameThread(),
+                              value -> value.onSuccess(v -> guarded(() -> result.succeed(mapper.applyAsInt(v)), result))
+                                            .onFailure(result::fail));
+        return result;
+    }
+
+    static IntPromise all(IntPromiseImpl first, IntPromiseImpl second, IntBinaryOperator combiner) {
+        var result = new IntPromiseImpl();
+        whenBothSucceeded(first, second, result, () -> result.succeed(combiner.applyAsInt(first.value, second.value)));
+        return result;
+    }
+
+    static Promise<int[]> allOf(IntPromise... promises) {
+        var impls = Arrays.copyOf(promises, promises.length, IntPromiseImpl[].class);
+        return whenAllSucceeded(impls, () -> {
+            var values = new int[impls.length];
+            for (int i = 0; i < impls.length; i++) {
+                values[i] = impls[i].value;
+            }
+            return values;
+        });
+    }
+}
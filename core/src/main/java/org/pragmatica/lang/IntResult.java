@@ -0,0 +1,271 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.IntResult.IntFailure;
+import org.pragmatica.lang.IntResult.IntSuccess;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/// Specialization of [Result] for `int` values. The value is stored unboxed, so numeric results (counters, sizes,
+/// latencies, identifiers) can be passed around without allocation of the wrapper for the value. Conversion to and from
+/// the generic [Result] is available via [#toResult()] and [#intResult(Result)].
+///
+/// Unlike [Result], transformations which keep the value type return the same instance in case of failure.
+public sealed interface IntResult permits IntSuccess, IntFailure {
+    /// Transform the value in case of success.
+    ///
+    /// @param mapper Function to transform successful value
+    ///
+    /// @return transformed value (in case of success) or current instance (in case of failure)
+    default IntResult map(IntUnaryOperator mapper) {
+        return switch (this) {
+            case IntSuccess(var value) -> success(mapper.applyAsInt(value));
+            case IntFailure _ -> this;
+        };
+    }
+
+    /// Transform the value into a value of another type. The value is boxed only if the mapper returns it as is.
+    ///
+    /// @param mapper Function to transform successful value
+    ///
+    /// @return transformed value (in case of success) or failure with the same cause
+    default <U> Result<U> mapToObj(IntFunction<U> mapper) {
+        return switch (this) {
+            case IntSuccess(var value) -> Result.success(mapper.apply(value));
+            case IntFailure(var cause) -> cause.result();
+        };
+    }
+
+    /// Transform the value into another result.
+    ///
+    /// @param mapper Function to apply to the value
+    ///
+    /// @return transformed value (in case of success) or current instance (in case of failure)
+    default IntResult flatMap(IntFunction<IntResult> mapper) {
+        return switch (this) {
+            case IntSuccess(var value) -> mapper.apply(value);
+            case IntFailure _ -> this;
+        };
+    }
+
+    /// Filter the value with the provided predicate.
+    ///
+    /// @param cause     Failure cause in case if the value does not satisfy the predicate
+    /// @param predicate Predicate to check the value
+    ///
+    /// @return current instance if the value satisfies the predicate or failure with the provided cause
+    default IntResult filter(Cause cause, IntPredicate predicate) {
+        return switch (this) {
+            case IntSuccess(var value) when !predicate.test(value) -> failure(cause);
+            default -> this;
+        };
+    }
+
+    /// Replace failure with the value obtained from the cause.
+    ///
+    /// @param mapper Function to obtain the value from the cause
+    ///
+    /// @return current instance (in case of success) or success with the value returned by the mapper
+    default IntResult recover(ToIntFunction<? super Cause> mapper) {
+        return switch (this) {
+            case IntSuccess _ -> this;
+            case IntFailure(var cause) -> success(mapper.applyAsInt(cause));
+        };
+    }
+
+    /// Pass the value to the consumer in case of success.
+    ///
+    /// @param consumer Consumer for the value
+    ///
+    /// @return current instance
+    default IntResult onSuccess(IntConsumer consumer) {
+        if (this instanceof IntSuccess(var value)) {
+            consumer.accept(value);
+        }
+        return this;
+    }
+
+    /// Pass the cause to the consumer in case of failure.
+    ///
+    /// @param consumer Consumer for the cause
+    ///
+    /// @return current instance
+    default IntResult onFailure(Consumer<? super Cause> consumer) {
+        if (this instanceof IntFailure(var cause)) {
+            consumer.accept(cause);
+        }
+        return this;
+    }
+
+    /// Run the action in case of success.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    default IntResult onSuccessRun(Runnable action) {
+        if (this instanceof IntSuccess) {
+            action.run();
+        }
+        return this;
+    }
+
+    /// Run the action in case of failure.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    default IntResult onFailureRun(Runnable action) {
+        if (this instanceof IntFailure) {
+            action.run();
+        }
+        return this;
+    }
+
+    /// Return the value in case of success or the replacement in case of failure.
+    ///
+    /// @param replacement Replacement value
+    ///
+    /// @return value or replacement
+    default int or(int replacement) {
+        return switch (this) {
+            case IntSuccess(var value) -> value;
+            case IntFailure _ -> replacement;
+        };
+    }
+
+    /// Handle both possible states of the result.
+    ///
+    /// @param failureMapper Function to apply to the cause in case of failure
+    /// @param successMapper Function to apply to the value in case of success
+    ///
+    /// @return value returned by one of the mappers
+    default <R> R fold(Function<? super Cause, ? extends R> failureMapper, IntFunction<? extends R> successMapper) {
+        return switch (this) {
+            case IntSuccess(var value) -> successMapper.apply(value);
+            case IntFailure(var cause) -> failureMapper.apply(cause);
+        };
+    }
+
+    /// Check if the instance is a success.
+    ///
+    /// @return `true` if the instance is a success
+    default boolean isSuccess() {
+        return this instanceof IntSuccess;
+    }
+
+    /// Check if the instance is a failure.
+    ///
+    /// @return `true` if the instance is a failure
+    default boolean isFailure() {
+        return this instanceof IntFailure;
+    }
+
+    /// Convert to the generic [Result]. The value is boxed.
+    ///
+    /// @return generic result
+    default Result<Integer> toResult() {
+        return switch (this) {
+            case IntSuccess(var value) -> Result.success(value);
+            case IntFailure(var cause) -> cause.result();
+        };
+    }
+
+    /// Convert to resolved [IntPromise].
+    ///
+    /// @return resolved promise
+    default IntPromise async() {
+        return IntPromise.resolved(this);
+    }
+
+    /// Create successful result.
+    ///
+    /// @param value Value
+    ///
+    /// @return created instance
+    static IntResult success(int value) {
+        return new IntSuccess(value);
+    }
+
+    /// Create failed result.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return created instance
+    static IntResult failure(Cause cause) {
+        return new IntFailure(cause);
+    }
+
+    /// Convert generic [Result] into specialized one. The value is unboxed.
+    ///
+    /// @param result Generic result
+    ///
+    /// @return specialized result
+    static IntResult intResult(Result<Integer> result) {
+        return intResult(result, Integer::intValue);
+    }
+
+    /// Convert generic [Result] into specialized one using the provided function to extract the value.
+    ///
+    /// @param result Generic result
+    /// @param mapper Function to extract the value
+    ///
+    /// @return specialized result
+    static <T> IntResult intResult(Result<T> result, ToIntFunction<? super T> mapper) {
+        return result.fold(IntResult::failure, value -> success(mapper.applyAsInt(value)));
+    }
+
+    /// Combine two results. If both are successful, values are combined with the provided function. Otherwise, the
+    /// first failure is returned.
+    ///
+    /// @param first    First result
+    /// @param second   Second result
+    /// @param combiner Function to combine values
+    ///
+    /// @return combined result
+    static IntResult all(IntResult first, IntResult second, IntBinaryOperator combiner) {
+        if (first instanceof IntSuccess(var value1)) {
+            if (second instanceof IntSuccess(var value2)) {
+                return success(combiner.applyAsInt(value1, value2));
+            }
+            return second;
+        }
+        return first;
+    }
+
+    record IntSuccess(int value) implements IntResult {
+        @Override
+        public String toString() {
+            return "Success(" + value + ")";
+        }
+    }
+
+    record IntFailure(Cause cause) implements IntResult {
+        @Override
+        public String toString() {
+            return "Failure(" + cause + ")";
+        }
+    }
+}
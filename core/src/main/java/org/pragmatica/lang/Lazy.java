@@ -24,7 +24,8 @@
 /// Deferred computation with memoization.
 ///
 /// A lazy value is computed on first access and cached thereafter. The computation
-/// is thread-safe using double-checked locking.
+/// is thread-safe using double-checked locking. Callers arriving while the value is computed are blocked, for
+/// expensive asynchronous initialization use [org.pragmatica.lang.utils.LazyPromise] instead.
 ///
 /// @param <T> Type of the computed value
 @SuppressWarnings("unused")
@@ -0,0 +1,431 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.LongResult.LongFailure;
+import org.pragmatica.lang.LongResult.LongSuccess;
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+import static org.pragmatica.lang.Promise.PROMISE_CANCELLED;
+
+/// Specialization of [Promise] for `long` values. The value is stored unboxed and neither the value nor the result
+/// wrapper is allocated while the value passes through the chain of transformations. Conversion to and from the
+/// generic [Promise] is available via [#toPromise()] and [#longPromise(Promise)].
+///
+/// Dependent actions ([#map(LongUnaryOperator)], [#flatMap(LongFunction)], etc.) are executed in the thread which resolves
+/// the promise, in the order of registration. Event handlers ([#onSuccess(LongConsumer)], [#onFailure(Consumer)] and
+/// [#onResult(Consumer)]) are executed asynchronously, as with [Promise].
+public sealed interface LongPromise permits LongPromiseImpl {
+    /// Transform the value once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance or current instance if it is already resolved with failure
+    LongPromise map(LongUnaryOperator mapper);
+
+    /// Transform the value into a value of another type once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance
+    <U> Promise<U> mapToObj(LongFunction<U> mapper);
+
+    /// Transform the value into another promise once the promise is resolved with success.
+    ///
+    /// @param mapper Function to transform the value
+    ///
+    /// @return new promise instance
+    LongPromise flatMap(LongFunction<LongPromise> mapper);
+
+    /// Filter the value with the provided predicate.
+    ///
+    /// @param cause     Failure cause in case if the value does not satisfy the predicate
+    /// @param predicate Predicate to check the value
+    ///
+    /// @return new promise instance
+    LongPromise filter(Cause cause, LongPredicate predicate);
+
+    /// Replace failure with the value obtained from the cause.
+    ///
+    /// @param mapper Function to obtain the value from the cause
+    ///
+    /// @return new promise instance or current instance if it is already resolved with success
+    LongPromise recover(ToLongFunction<? super Cause> mapper);
+
+    /// Run the action asynchronously once the promise is resolved with success.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    LongPromise onSuccess(LongConsumer action);
+
+    /// Run the action asynchronously once the promise is resolved with failure.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    LongPromise onFailure(Consumer<? super Cause> action);
+
+    /// Run the action asynchronously once the promise is resolved.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    LongPromise onResult(Consumer<LongResult> action);
+
+    /// Resolve the promise with success. Ignored if the promise is already resolved.
+    ///
+    /// @param value Value to resolve the promise with
+    ///
+    /// @return current instance
+    LongPromise succeed(long value);
+
+    /// Resolve the promise with failure. Ignored if the promise is already resolved.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return current instance
+    LongPromise fail(Cause cause);
+
+    /// Resolve the promise with the provided result. Ignored if the promise is already resolved.
+    ///
+    /// @param result Result to resolve the promise with
+    ///
+    /// @return current instance
+    default LongPromise resolve(LongResult result) {
+        return switch (result) {
+            case LongSuccess(var value) -> succeed(value);
+            case LongFailure(var cause) -> fail(cause);
+        };
+    }
+
+    /// Cancel the promise.
+    ///
+    /// @return current instance
+    default LongPromise cancel() {
+        return fail(PROMISE_CANCELLED);
+    }
+
+    /// Resolve the promise with [org.pragmatica.lang.io.CoreError.Timeout] failure if it remains unresolved after the
+    /// specified timeout.
+    ///
+    /// @param timeout Timeout
+    ///
+    /// @return current instance
+    LongPromise timeout(TimeSpan timeout);
+
+    /// Check if the promise is resolved.
+    ///
+    /// @return `true` if the promise is resolved
+    boolean isResolved();
+
+    /// Wait for the resolution of the promise.
+    ///
+    /// @return result of the resolution
+    LongResult await();
+
+    /// Wait for the resolution of the promise at most specified time.
+    ///
+    /// @param timeout Timeout
+    ///
+    /// @return result of the resolution or [org.pragmatica.lang.io.CoreError.Timeout] failure if the promise is not
+    ///         resolved in time. In the latter case the promise remains unresolved.
+    LongResult await(TimeSpan timeout);
+
+    /// Convert to the generic [Promise]. The value is boxed once, when the promise is resolved.
+    ///
+    /// @return generic promise
+    Promise<Long> toPromise();
+
+    /// Create new unresolved instance.
+    ///
+    /// @return created instance
+    static LongPromise longPromise() {
+        return new LongPromiseImpl();
+    }
+
+    /// Create an instance resolved with success.
+    ///
+    /// @param value Value
+    ///
+    /// @return created instance
+    static LongPromise success(long value) {
+        return new LongPromiseImpl(value);
+    }
+
+    /// Create an instance resolved with failure.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return created instance
+    static LongPromise failure(Cause cause) {
+        return new LongPromiseImpl(cause);
+    }
+
+    /// Create an instance resolved with the provided result.
+    ///
+    /// @param result Result
+    ///
+    /// @return created instance
+    static LongPromise resolved(LongResult result) {
+        return switch (result) {
+            case LongSuccess(var value) -> success(value);
+            case LongFailure(var cause) -> failure(cause);
+        };
+    }
+
+    /// Convert generic [Promise] into specialized one. The value is unboxed once the generic promise is resolved.
+    ///
+    /// @param promise Generic promise
+    ///
+    /// @return specialized promise
+    static LongPromise longPromise(Promise<Long> promise) {
+        return longPromise(promise, Long::longValue);
+    }
+
+    /// Convert generic [Promise] into specialized one using the provided function to extract the value.
+    ///
+    /// @param promise Generic promise
+    /// @param mapper  Function to extract the value
+    ///
+    /// @return specialized promise
+    static <T> LongPromise longPromise(Promise<T> promise, ToLongFunction<? super T> mapper) {
+        return LongPromiseImpl.fromPromise(promise, mapper);
+    }
+
+    /// Combine two promises. Once both are resolved with success, values are combined with the provided function.
+    /// Otherwise, the returned promise is resolved with the first failure.
+    ///
+    /// @param first    First promise
+    /// @param second   Second promise
+    /// @param combiner Function to combine values
+    ///
+    /// @return new promise instance
+    static LongPromise all(LongPromise first, LongPromise second, LongBinaryOperator combiner) {
+        return LongPromiseImpl.all((LongPromiseImpl) first, (LongPromiseImpl) second, combiner);
+    }
+
+    /// Collect values of all provided promises into an array. If any of the promises is resolved with failure, the
+    /// returned promise is resolved with the failure of the first failed promise in the argument order.
+    ///
+    /// @param promises Promises to collect
+    ///
+    /// @return promise resolved with the array of values
+    static Promise<long[]> allOf(LongPromise... promises) {
+        return LongPromiseImpl.allOf(promises);
+    }
+}
+
+final class LongPromiseImpl extends PrimitivePromiseBase<LongPromiseImpl> implements LongPromise {
+    // Written before the state is published
+    private long value;
+
+    LongPromiseImpl() {}
+
+    LongPromiseImpl(long value) {
+        this.value = value;
+        this.state = SUCCESS;
+    }
+
+    LongPromiseImpl(Cause cause) {
+        this.cause = cause;
+        this.state = FAILURE;
+    }
+
+    @Override
+    public LongPromise map(LongUnaryOperator mapper) {
+        return switch (state) {
+            case SUCCESS -> new LongPromiseImpl(mapper.applyAsLong(value));
+            case FAILURE -> this;
+            default -> {
+                var dependency = new LongPromiseImpl();
+                whenSucceeded(() -> dependency.succeed(mapper.applyAsLong(value)), dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public <U> Promise<U> mapToObj(LongFunction<U> mapper) {
+        var dependency = Promise.<U>promise();
+        whenSucceeded(() -> dependency.succeed(mapper.apply(value)), dependency);
+        return dependency;
+    }
+
+    @Override
+    public LongPromise flatMap(LongFunction<LongPromise> mapper) {
+        return switch (state) {
+            case SUCCESS -> mapper.apply(value);
+            case FAILURE -> this;
+            default -> {
+                var dependency = new LongPromiseImpl();
+                whenSucceeded(() -> ((LongPromiseImpl) mapper.apply(value)).transferTo(dependency), dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public LongPromise filter(Cause cause, LongPredicate predicate) {
+        return switch (state) {
+            case SUCCESS -> predicate.test(value)
+                            ? this
+                            : new LongPromiseImpl(cause);
+            case FAILURE -> this;
+            default -> {
+                var dependency = new LongPromiseImpl();
+                whenSucceeded(() -> {
+                                  if (predicate.test(value)) {
+                                      dependency.succeed(value);
+                                  } else {
+                                      dependency.fail(cause);
+                                  }
+                              },
+                              dependency);
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public LongPromise recover(ToLongFunction<? super Cause> mapper) {
+        return switch (state) {
+            case SUCCESS -> this;
+            case FAILURE -> new LongPromiseImpl(mapper.applyAsLong(cause));
+            default -> {
+                var dependency = new LongPromiseImpl();
+                whenResolved(() -> {
+                    if (state == SUCCESS) {
+                        dependency.succeed(value);
+                    } else {
+                        guarded(() -> dependency.succeed(mapper.applyAsLong(cause)), dependency);
+                    }
+                });
+                yield dependency;
+            }
+        };
+    }
+
+    @Override
+    public LongPromise onSuccess(LongConsumer action) {
+        whenResolved(() -> {
+            if (state == SUCCESS) {
+                var resolvedValue = value;
+                dispatch(() -> action.accept(resolvedValue));
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public LongPromise onResult(Consumer<LongResult> action) {
+        whenResolved(() -> {
+            var result = result();
+            dispatch(() -> action.accept(result));
+        });
+        return this;
+    }
+
+    @Override
+    public LongPromise succeed(long value) {
+        if (claim()) {
+            this.value = value;
+            publish(SUCCESS);
+        }
+        return this;
+    }
+
+    @Override
+    public LongResult await() {
+        awaitResolution();
+        return result();
+    }
+
+    @Override
+    public LongResult await(TimeSpan timeout) {
+        return awaitResolution(timeout)
+               ? result()
+               : LongResult.failure(awaitTimeout());
+    }
+
+    @Override
+    public Promise<Long> toPromise() {
+        return switch (state) {
+            case SUCCESS -> Promise.success(value);
+            case FAILURE -> Promise.failure(cause);
+            default -> {
+                var promise = Promise.<Long>promise();
+                whenSucceeded(() -> promise.succeed(value), promise);
+                yield promise;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (state) {
+            case SUCCESS -> "LongPromise<Success(" + value + ")>";
+            case FAILURE -> "LongPromise<Failure(" + cause + ")>";
+            default -> "LongPromise<>";
+        };
+    }
+
+    private LongResult result() {
+        return state == SUCCESS
+               ? LongResult.success(value)
+               : LongResult.failure(cause);
+    }
+
+    private void transferTo(LongPromiseImpl target) {
+        whenSucceeded(() -> target.succeed(value), target);
+    }
+
+    static <T> LongPromise fromPromise(Promise<T> promise, ToLongFunction<? super T> mapper) {
+        var result = new LongPromiseImpl();
+        promise.onResultAsync(AsyncExecutor.sameThread(),
+                              value -> value.onSuccess(v -> guarded(() -> result.succeed(mapper.applyAsLong(v)), result))
+                                            .onFailure(result::fail));
+        return result;
+    }
+
+    static LongPromise all(LongPromiseImpl first, LongPromiseImpl second, LongBinaryOperator combiner) {
+        var result = new LongPromiseImpl();
+        whenBothSucceeded(first, second, result, () -> result.succeed(combiner.applyAsLong(first.value, second.value)));
+        return result;
+    }
+
+    static Promise<long[]> allOf(LongPromise... promises) {
+        var impls = Arrays.copyOf(promises, promises.length, LongPromiseImpl[].class);
+        return whenAllSucceeded(impls, () -> {
+            var values = new long[impls.length];
+            for (int i = 0; i < impls.length; i++) {
+                values[i] = impls[i].value;
+            }
+            return values;
+        });
+    }
+}
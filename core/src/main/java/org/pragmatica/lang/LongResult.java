@@ -0,0 +1,271 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.LongResult.LongFailure;
+import org.pragmatica.lang.LongResult.LongSuccess;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/// Specialization of [Result] for `long` values. The value is stored unboxed, so numeric results (counters, sizes,
+/// latencies, identifiers) can be passed around without allocation of the wrapper for the value. Conversion to and from
+/// the generic [Result] is available via [#toResult()] and [#longResult(Result)].
+///
+/// Unlike [Result], transformations which keep the value type return the same instance in case of failure.
+public sealed interface LongResult permits LongSuccess, LongFailure {
+    /// Transform the value in case of success.
+    ///
+    /// @param mapper Function to transform successful value
+    ///
+    /// @return transformed value (in case of success) or current instance (in case of failure)
+    default LongResult map(LongUnaryOperator mapper) {
+        return switch (this) {
+            case LongSuccess(var value) -> success(mapper.applyAsLong(value));
+            case LongFailure _ -> this;
+        };
+    }
+
+    /// Transform the value into a value of another type. The value is boxed only if the mapper returns it as is.
+    ///
+    /// @param mapper Function to transform successful value
+    ///
+    /// @return transformed value (in case of success) or failure with the same cause
+    default <U> Result<U> mapToObj(LongFunction<U> mapper) {
+        return switch (this) {
+            case LongSuccess(var value) -> Result.success(mapper.apply(value));
+            case LongFailure(var cause) -> cause.result();
+        };
+    }
+
+    /// Transform the value into another result.
+    ///
+    /// @param mapper Function to apply to the value
+    ///
+    /// @return transformed value (in case of success) or current instance (in case of failure)
+    default LongResult flatMap(LongFunction<LongResult> mapper) {
+        return switch (this) {
+            case LongSuccess(var value) -> mapper.apply(value);
+            case LongFailure _ -> this;
+        };
+    }
+
+    /// Filter the value with the provided predicate.
+    ///
+    /// @param cause     Failure cause in case if the value does not satisfy the predicate
+    /// @param predicate Predicate to check the value
+    ///
+    /// @return current instance if the value satisfies the predicate or failure with the provided cause
+    default LongResult filter(Cause cause, LongPredicate predicate) {
+        return switch (this) {
+            case LongSuccess(var value) when !predicate.test(value) -> failure(cause);
+            default -> this;
+        };
+    }
+
+    /// Replace failure with the value obtained from the cause.
+    ///
+    /// @param mapper Function to obtain the value from the cause
+    ///
+    /// @return current instance (in case of success) or success with the value returned by the mapper
+    default LongResult recover(ToLongFunction<? super Cause> mapper) {
+        return switch (this) {
+            case LongSuccess _ -> this;
+            case LongFailure(var cause) -> success(mapper.applyAsLong(cause));
+        };
+    }
+
+    /// Pass the value to the consumer in case of success.
+    ///
+    /// @param consumer Consumer for the value
+    ///
+    /// @return current instance
+    default LongResult onSuccess(LongConsumer consumer) {
+        if (this instanceof LongSuccess(var value)) {
+            consumer.accept(value);
+        }
+        return this;
+    }
+
+    /// Pass the cause to the consumer in case of failure.
+    ///
+    /// @param consumer Consumer for the cause
+    ///
+    /// @return current instance
+    default LongResult onFailure(Consumer<? super Cause> consumer) {
+        if (this instanceof LongFailure(var cause)) {
+            consumer.accept(cause);
+        }
+        return this;
+    }
+
+    /// Run the action in case of success.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    default LongResult onSuccessRun(Runnable action) {
+        if (this instanceof LongSuccess) {
+            action.run();
+        }
+        return this;
+    }
+
+    /// Run the action in case of failure.
+    ///
+    /// @param action Action to run
+    ///
+    /// @return current instance
+    default LongResult onFailureRun(Runnable action) {
+        if (this instanceof LongFailure) {
+            action.run();
+        }
+        return this;
+    }
+
+    /// Return the value in case of success or the replacement in case of failure.
+    ///
+    /// @param replacement Replacement value
+    ///
+    /// @return value or replacement
+    default long or(long replacement) {
+        return switch (this) {
+            case LongSuccess(var value) -> value;
+            case LongFailure _ -> replacement;
+        };
+    }
+
+    /// Handle both possible states of the result.
+    ///
+    /// @param failureMapper Function to apply to the cause in case of failure
+    /// @param successMapper Function to apply to the value in case of success
+    ///
+    /// @return value returned by one of the mappers
+    default <R> R fold(Function<? super Cause, ? extends R> failureMapper, LongFunction<? extends R> successMapper) {
+        return switch (this) {
+            case LongSuccess(var value) -> successMapper.apply(value);
+            case LongFailure(var cause) -> failureMapper.apply(cause);
+        };
+    }
+
+    /// Check if the instance is a success.
+    ///
+    /// @return `true` if the instance is a success
+    default boolean isSuccess() {
+        return this instanceof LongSuccess;
+    }
+
+    /// Check if the instance is a failure.
+    ///
+    /// @return `true` if the instance is a failure
+    default boolean isFailure() {
+        return this instanceof LongFailure;
+    }
+
+    /// Convert to the generic [Result]. The value is boxed.
+    ///
+    /// @return generic result
+    default Result<Long> toResult() {
+        return switch (this) {
+            case LongSuccess(var value) -> Result.success(value);
+            case LongFailure(var cause) -> cause.result();
+        };
+    }
+
+    /// Convert to resolved [LongPromise].
+    ///
+    /// @return resolved promise
+    default LongPromise async() {
+        return LongPromise.resolved(this);
+    }
+
+    /// Create successful result.
+    ///
+    /// @param value Value
+    ///
+    /// @return created instance
+    static LongResult success(long value) {
+        return new LongSuccess(value);
+    }
+
+    /// Create failed result.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return created instance
+    static LongResult failure(Cause cause) {
+        return new LongFailure(cause);
+    }
+
+    /// Convert generic [Result] into specialized one. The value is unboxed.
+    ///
+    /// @param result Generic result
+    ///
+    /// @return specialized result
+    static LongResult longResult(Result<Long> result) {
+        return longResult(result, Long::longValue);
+    }
+
+    /// Convert generic [Result] into specialized one using the provided function to extract the value.
+    ///
+    /// @param result Generic result
+    /// @param mapper Function to extract the value
+    ///
+    /// @return specialized result
+    static <T> LongResult longResult(Result<T> result, ToLongFunction<? super T> mapper) {
+        return result.fold(LongResult::failure, value -> success(mapper.applyAsLong(value)));
+    }
+
+    /// Combine two results. If both are successful, values are combined with the provided function. Otherwise, the
+    /// first failure is returned.
+    ///
+    /// @param first    First result
+    /// @param second   Second result
+    /// @param combiner Function to combine values
+    ///
+    /// @return combined result
+    static LongResult all(LongResult first, LongResult second, LongBinaryOperator combiner) {
+        if (first instanceof LongSuccess(var value1)) {
+            if (second instanceof LongSuccess(var value2)) {
+                return success(combiner.applyAsLong(value1, value2));
+            }
+            return second;
+        }
+        return first;
+    }
+
+    record LongSuccess(long value) implements LongResult {
+        @Override
+        public String toString() {
+            return "Success(" + value + ")";
+        }
+    }
+
+    record LongFailure(Cause cause) implements LongResult {
+        @Override
+        public String toString() {
+            return "Failure(" + cause + ")";
+        }
+    }
+}
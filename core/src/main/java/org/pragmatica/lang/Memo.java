@@ -17,17 +17,18 @@
 package org.pragmatica.lang;
 
 import org.pragmatica.lang.Functions.Fn1;
+import org.pragmatica.lang.utils.BoundedCache;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /// Pure synchronous memoization cache.
 ///
 /// Caches the results of a computation function. Thread-safe for concurrent access.
-/// Optionally supports LRU eviction when a maximum size is specified.
+/// Optionally limits the number of cached entries when a maximum size is specified; see [BoundedCache] for the
+/// eviction policy.
 ///
 /// Note: This cache properly handles null values by wrapping them internally.
 ///
@@ -83,7 +84,8 @@ static <K, V> Memo<K, V> memo(Fn1<V, K> computation) {
         return new UnboundedMemo<>(computation);
     }
 
-    /// Create a memoization cache with LRU eviction.
+    /// Create a bounded memoization cache. When the cache is full, entries are evicted according to the frequency-based
+    /// policy of [BoundedCache], so frequently used entries survive scans of rarely used keys.
     ///
     /// @param computation The function to compute values for uncached keys
     /// @param maxSize     Maximum number of entries before eviction
@@ -96,7 +98,8 @@ static <K, V> Result<Memo<K, V>> memo(Fn1<V, K> computation, int maxSize) {
         if (maxSize <= 0) {
             return INVALID_MAX_SIZE.result();
         }
-        return Result.success(new LruMemo<>(computation, maxSize));
+        return BoundedCache.<K, CacheEntry<V>>boundedCache(maxSize)
+                           .map(cache -> new BoundedMemo<>(computation, cache));
     }
 }
 
@@ -166,71 +169,62 @@ public int size() {
     }
 }
 
-/// LRU memoization cache using synchronized LinkedHashMap.
-final class LruMemo<K, V> implements Memo<K, V> {
+/// Bounded memoization cache backed by [BoundedCache].
+final class BoundedMemo<K, V> implements Memo<K, V> {
     private final Fn1<V, K> computation;
-    private final int maxSize;
-    private final Map<K, CacheEntry<V>> cache;
-    private final AtomicLong hits = new AtomicLong();
-    private final AtomicLong misses = new AtomicLong();
+    private final BoundedCache<K, CacheEntry<V>> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
-    LruMemo(Fn1<V, K> computation, int maxSize) {
+    BoundedMemo(Fn1<V, K> computation, BoundedCache<K, CacheEntry<V>> cache) {
         this.computation = computation;
-        this.maxSize = maxSize;
-        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
-                return size() > maxSize;
-            }
-        };
+        this.cache = cache;
     }
 
     @Override
     public V get(K key) {
         Objects.requireNonNull(key, "key must not be null");
-        synchronized (cache) {
-            var cached = cache.get(key);
-            if (cached != null) {
-                hits.incrementAndGet();
-                return cached.value();
-            }
-            misses.incrementAndGet();
-            var value = computation.apply(key);
-            cache.put(key, CacheEntry.cacheEntry(value));
-            return value;
+        if (cache.get(key) instanceof Option.Some<CacheEntry<V>>(var cached)) {
+            hits.increment();
+            return cached.value();
+        }
+        var computed = new boolean[1];
+        var entry = cache.computeIfAbsent(key,
+                                          k -> {
+                                              computed[0] = true;
+                                              return CacheEntry.cacheEntry(computation.apply(k));
+                                          });
+        // Concurrent call could compute the value first
+        if (computed[0]) {
+            misses.increment();
+        } else {
+            hits.increment();
         }
+        return entry.value();
     }
 
     @Override
     public Unit invalidate(K key) {
-        synchronized (cache) {
-            cache.remove(key);
-        }
-        return Unit.unit();
+        return cache.remove(key);
     }
 
     @Override
     public Unit invalidateAll() {
-        synchronized (cache) {
-            cache.clear();
-        }
-        return Unit.unit();
+        return cache.clear();
     }
 
     @Override
     public long hitCount() {
-        return hits.get();
+        return hits.sum();
     }
 
     @Override
     public long missCount() {
-        return misses.get();
+        return misses.sum();
     }
 
     @Override
     public int size() {
-        synchronized (cache) {
-            return cache.size();
-        }
+        return cache.size();
     }
 }
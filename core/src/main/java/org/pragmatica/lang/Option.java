@@ -22,6 +22,8 @@
 import org.pragmatica.lang.io.CoreError;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -988,16 +990,39 @@ static <T> Option<List<T>> allOf(Option<T>... values) {
     ///
     /// @return Empty option if the input list contains empty Option instances. Otherwise, returns Option containing a list of values.
     static <T> Option<List<T>> allOf(List<Option<T>> values) {
-        var result = new ArrayList<T>();
+        var result = new ArrayList<T>(values.size());
         for (var value : values) {
-            if (value.isEmpty()) {
-                return empty();
+            switch (value) {
+                case Some<T>(var present) -> result.add(present);
+                case None<T> _ -> {
+                    return empty();
+                }
             }
-            value.onPresent(result::add);
         }
         return present(result);
     }
 
+    /// Apply the function to each value and collect outputs into an Option containing a list of values. Processing
+    /// stops at the first empty output. Unlike [#allOf(List)], no intermediate list of Option instances is created.
+    ///
+    /// @param values input values
+    /// @param mapper function to apply to each value
+    ///
+    /// @return Empty option if the function returns empty Option for any value. Otherwise, returns Option containing an
+    ///         unmodifiable list of outputs in the input order.
+    static <T, R> Option<List<R>> traverse(Collection<T> values, Fn1<Option<R>, ? super T> mapper) {
+        var result = new ArrayList<R>(values.size());
+        for (var value : values) {
+            switch (mapper.apply(value)) {
+                case Some<R>(var output) -> result.add(output);
+                case None<R> _ -> {
+                    return empty();
+                }
+            }
+        }
+        return present(Collections.unmodifiableList(result));
+    }
+
     /// Transform option into option of tuple with a single value. The result is empty if the input option is empty. Otherwise, the resulting instance contains
     /// a tuple with the input option value.
     ///
@@ -0,0 +1,332 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.io.CoreError;
+import org.pragmatica.lang.io.TimeSpan;
+import org.pragmatica.lang.utils.Causes;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// Resolution state, completion stack, awaiting logic and operations which do not depend on the type of the value, shared
+/// by primitive-specialized promises ([IntPromise], [LongPromise] and [DoublePromise]).
+///
+/// Subclasses keep the value in the primitive field. Resolution first claims the instance (moves it from `PENDING` to
+/// `RESOLVING` state), then writes the value or the cause and only then publishes the final state. Readers check the
+/// state before reading the value, so the value field does not need to be volatile and is never boxed.
+///
+/// Actions are executed via the [PromiseImpl.Trampoline], so resolution of long chains does not overflow the stack.
+/// Each action is guarded: if the action registered with a dependent promise throws, the dependent promise is resolved
+/// with the failure, other exceptions are logged. In both cases remaining actions are executed.
+///
+/// @param <P> Type of the subclass
+abstract sealed class PrimitivePromiseBase<P extends PrimitivePromiseBase<P>>
+        permits IntPromiseImpl, LongPromiseImpl, DoublePromiseImpl {
+    @SuppressWarnings("LoggerInitializedWithForeignClass")
+    private static final Logger log = LoggerFactory.getLogger(Promise.class);
+
+    static final int PENDING = 0;
+    static final int RESOLVING = 1;
+    static final int SUCCESS = 2;
+    static final int FAILURE = 3;
+
+    volatile int state;
+    // Written before the state is published
+    Cause cause;
+    volatile Node stack;
+
+    public P onFailure(Consumer<? super Cause> action) {
+        whenResolved(() -> {
+            if (state == FAILURE) {
+                var resolvedCause = cause;
+                dispatch(() -> action.accept(resolvedCause));
+            }
+        });
+        return self();
+    }
+
+    public P fail(Cause cause) {
+        failWith(cause);
+        return self();
+    }
+
+    public P timeout(TimeSpan timeout) {
+        if (resolved()) {
+            return self();
+        }
+        var task = TimerWheel.shared()
+                             .schedule(timeout,
+                                       () -> failWith(new CoreError.Timeout("Promise timed out after " + timeout.millis()
+                                                                            + "ms")));
+        whenResolved(task::cancel);
+        return self();
+    }
+
+    public boolean isResolved() {
+        return resolved();
+    }
+
+    @SuppressWarnings("unchecked")
+    private P self() {
+        return (P) this;
+    }
+
+    final boolean resolved() {
+        return state >= SUCCESS;
+    }
+
+    /// Claim the instance for resolution.
+    ///
+    /// @return `true` if the caller is allowed to write the value and publish the state
+    final boolean claim() {
+        return state == PENDING && STATE.compareAndSet(this, PENDING, RESOLVING);
+    }
+
+    /// Publish the final state and run all actions waiting for resolution.
+    final void publish(int newState) {
+        state = newState;
+        PromiseImpl.Trampoline.current()
+                              .resolved(this);
+    }
+
+    final void failWith(Cause cause) {
+        if (claim()) {
+            this.cause = cause;
+            publish(FAILURE);
+        }
+    }
+
+    /// Run the action once the instance is resolved. If the instance is already resolved, the action is executed immediately.
+    final void whenResolved(Runnable action) {
+        if (resolved()) {
+            action.run();
+            return;
+        }
+        push(new Node(action, null));
+    }
+
+    /// Run the action once the instance is resolved with success. If the instance is resolved with failure or the action
+    /// throws an exception, the dependent promise is resolved with the failure instead.
+    final void whenSucceeded(Runnable action, PrimitivePromiseBase<?> dependent) {
+        whenSucceeded(action, (Object) dependent);
+    }
+
+    /// Same as [#whenSucceeded(Runnable, PrimitivePromiseBase)] for the generic dependent promise.
+    final void whenSucceeded(Runnable action, Promise<?> dependent) {
+        whenSucceeded(action, (Object) dependent);
+    }
+
+    private void whenSucceeded(Runnable action, Object dependent) {
+        if (resolved()) {
+            complete(action, dependent);
+            return;
+        }
+        push(new Node(action, dependent));
+    }
+
+    private void push(Node node) {
+        Node head;
+        do{
+            head = stack;
+            node.next = head;
+        } while (!STACK.compareAndSet(this, head, node));
+        // The instance could be resolved after the check above, but before the node was pushed
+        if (resolved()) {
+            runActions();
+        }
+    }
+
+    /// Run the action and resolve the dependent promise with the failure if the action throws an exception.
+    static void guarded(Runnable action, PrimitivePromiseBase<?> dependent) {
+        guarded(action, (Object) dependent);
+    }
+
+    private static void guarded(Runnable action, Object dependent) {
+        try{
+            action.run();
+        } catch (RuntimeException e) {
+            failDependent(dependent, Causes.fromThrowable(e));
+        }
+    }
+
+    /// Run the action once both instances are resolved with success, otherwise resolve the dependent promise with the
+    /// failure of the first failed instance.
+    static void whenBothSucceeded(PrimitivePromiseBase<?> first,
+                                  PrimitivePromiseBase<?> second,
+                                  PrimitivePromiseBase<?> dependent,
+                                  Runnable action) {
+        first.whenResolved(() -> second.whenResolved(() -> {
+            if (first.state != SUCCESS) {
+                dependent.failWith(first.cause);
+            } else if (second.state != SUCCESS) {
+                dependent.failWith(second.cause);
+            } else {
+                guarded(action, dependent);
+            }
+        }));
+    }
+
+    /// Once all instances are resolved, resolve the returned promise with the failure of the first failed instance in
+    /// the argument order or with the value provided by the collector.
+    static <A> Promise<A> whenAllSucceeded(PrimitivePromiseBase<?>[] promises, Supplier<A> collector) {
+        var result = Promise.<A>promise();
+        if (promises.length == 0) {
+            return result.succeed(collector.get());
+        }
+        var remaining = new AtomicInteger(promises.length);
+        for (var promise : promises) {
+            promise.whenResolved(() -> {
+                if (remaining.decrementAndGet() == 0) {
+                    collect(result, promises, collector);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <A> void collect(Promise<A> result, PrimitivePromiseBase<?>[] promises, Supplier<A> collector) {
+        for (var promise : promises) {
+            if (promise.state != SUCCESS) {
+                result.fail(promise.cause);
+                return;
+            }
+        }
+        result.succeed(collector.get());
+    }
+
+    /// Run the action asynchronously with the default executor. Used for event handlers.
+    static void dispatch(Runnable action) {
+        AsyncExecutor.defaultExecutor()
+                     .runAsync(action);
+    }
+
+    final void awaitResolution() {
+        if (resolved()) {
+            return;
+        }
+        var thread = Thread.currentThread();
+        whenResolved(() -> LockSupport.unpark(thread));
+        // Deferred actions of this thread may be the ones which resolve the instance
+        PromiseImpl.Trampoline.current()
+                              .helpDrain();
+        while (!resolved()) {
+            LockSupport.park(this);
+        }
+    }
+
+    /// Wait for resolution at most specified time.
+    ///
+    /// @return `true` if the instance is resolved
+    final boolean awaitResolution(TimeSpan timeout) {
+        if (resolved()) {
+            return true;
+        }
+        var thread = Thread.currentThread();
+        whenResolved(() -> LockSupport.unpark(thread));
+        PromiseImpl.Trampoline.current()
+                              .helpDrain();
+        var deadline = System.nanoTime() + timeout.nanos();
+        while (!resolved() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(this, deadline - System.nanoTime());
+        }
+        return resolved();
+    }
+
+    static CoreError.Timeout awaitTimeout() {
+        return Promise.AWAIT_TIMEOUT;
+    }
+
+    final void runActions() {
+        Node head;
+        while ((head = (Node) STACK.getAndSet(this, null)) != null) {
+            // Reverse the list, so actions are executed in the order of registration
+            Node actions = null;
+            while (head != null) {
+                var next = head.next;
+                head.next = actions;
+                actions = head;
+                head = next;
+            }
+            while (actions != null) {
+                if (actions.dependent != null) {
+                    complete(actions.action, actions.dependent);
+                } else {
+                    runLogged(actions.action);
+                }
+                actions = actions.next;
+            }
+        }
+    }
+
+    private void complete(Runnable action, Object dependent) {
+        if (state == SUCCESS) {
+            guarded(action, dependent);
+        } else {
+            failDependent(dependent, cause);
+        }
+    }
+
+    private static void runLogged(Runnable action) {
+        try{
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Promise action failed", e);
+        }
+    }
+
+    private static void failDependent(Object dependent, Cause cause) {
+        switch (dependent) {
+            case PrimitivePromiseBase<?> primitive -> primitive.failWith(cause);
+            case Promise<?> promise -> promise.fail(cause);
+            default -> throw new IllegalStateException("Unexpected dependent " + dependent);
+        }
+    }
+
+    static final class Node {
+        private final Runnable action;
+        // Promise resolved with the failure instead of running the action, null for unconditional actions
+        private final Object dependent;
+        private Node next;
+
+        Node(Runnable action, Object dependent) {
+            this.action = action;
+            this.dependent = dependent;
+        }
+    }
+
+    private static final VarHandle STATE;
+    private static final VarHandle STACK;
+
+    static {
+        try{
+            var lookup = MethodHandles.lookup();
+            STATE = lookup.findVarHandle(PrimitivePromiseBase.class, "state", int.class);
+            STACK = lookup.findVarHandle(PrimitivePromiseBase.class, "stack", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
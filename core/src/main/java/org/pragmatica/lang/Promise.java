@@ -23,13 +23,16 @@
 import org.pragmatica.lang.io.TimeSpan;
 import org.pragmatica.lang.utils.Causes;
 import org.pragmatica.lang.utils.ResultCollector;
+import org.pragmatica.lang.utils.Tracing;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -99,7 +102,7 @@
     ///
     /// @return New promise instance.
     default <U> Promise<U> map(Fn1<U, ? super T> transformation) {
-        return replaceResult(result -> result.map(transformation));
+        return replaceResult(Instrumentation.stage("map", result -> result.map(transformation)));
     }
 
     /// Replace the value of the promise with the provided value once the promise is resolved into a success result.
@@ -121,7 +124,7 @@ default <U> Promise<U> map(Supplier<U> supplier) {
     ///
     /// @return New promise instance.
     default <U> Promise<U> flatMap(Fn1<Promise<U>, ? super T> transformation) {
-        return fold(result -> result.fold(Promise::<U> failure, transformation));
+        return fold(Instrumentation.asyncStage("flatMap", result -> result.fold(Promise::<U> failure, transformation)));
     }
 
     /// Version of the [#flatMap(Fn1)] which allows convenient "mixing in" additional parameter without the need to revert
@@ -152,16 +155,16 @@ default Promise<T> mapError(Fn1<Cause, ? super Cause> transformation) {
         return replaceResult(result -> result.mapError(transformation));
     }
 
-    /// Add tracing information to the failure value of the promise once the promise is resolved.
+    /// Add tracing information to the failure value of the promise once the promise is resolved. The call site is
+    /// captured when this method is called. Capture can be disabled or sampled, see [Tracing], in this case the
+    /// current instance is returned.
     ///
     /// This method is a dependent action and executed in the order in which transformations are written in the code.
     ///
     /// @return New promise instance.
     default Promise<T> trace() {
-        var text = Thread.currentThread()
-                         .getStackTrace() [2]
-                         .toString();
-        return mapError(cause -> Causes.CompositeCause.toComposite(text, cause));
+        return Tracing.callSite()
+                      .fold(() -> this, frame -> mapError(cause -> Causes.CompositeCause.toComposite(frame, cause)));
     }
 
     /// Recover from failure by transforming failure cause into new value.
@@ -206,6 +209,19 @@ default Promise<T> onResultAsync(Consumer<Result<T>> action) {
         return onResult(action);
     }
 
+    /// Run an asynchronous action once the promise is resolved. The action is executed using the provided executor instead of
+    /// the default one. For example, passing [AsyncExecutor#sameThread()] runs the action in the thread which resolves the promise.
+    ///
+    /// This method is an independent action and executed asynchronously.
+    ///
+    /// @param executor Executor to run the action
+    /// @param action   Action to be executed once a promise is resolved.
+    ///
+    /// @return Current promise instance.
+    default Promise<T> onResultAsync(AsyncExecutor executor, Consumer<Result<T>> action) {
+        return onResult(result -> executor.runAsync(() -> action.accept(result)));
+    }
+
     /// Run the provided action once the promise is resolved, regardless of success or failure.
     ///
     /// @param action Action to execute when promise resolves
@@ -391,6 +407,21 @@ default Promise<T> orElse(Supplier<Promise<T>> supplier) {
     /// @return Current promise instance.
     Promise<T> resolve(Result<T> value);
 
+    /// Resolve the promise with the provided result and report if this call actually resolved it. This is useful when
+    /// the promise might be resolved concurrently by another party (for example, cancelled by the consumer) and the
+    /// caller needs to know whether its result was accepted. The check does not block.
+    ///
+    /// @param value Value to resolve the promise with.
+    ///
+    /// @return `true` if the promise was resolved with the provided value, `false` if it was already resolved.
+    default boolean tryResolve(Result<T> value) {
+        if (isResolved()) {
+            return false;
+        }
+        // The promise is resolved at this point, so the result is returned immediately
+        return resolve(value).await() == value;
+    }
+
     /// Resolve the promise to success with the provided value.
     ///
     /// @param value Value to resolve the promise with.
@@ -429,7 +460,8 @@ default Promise<T> failAsync(Supplier<Cause> supplier) {
     }
 
     /// Set timeout for the promise. If promise will remain unresolved after timeout, it will
-    /// be forcefully resolved with the [CoreError.Timeout] failure.
+    /// be forcefully resolved with the [CoreError.Timeout] failure. The timeout is tracked by the shared [TimerWheel]
+    /// and is cancelled automatically if the promise is resolved earlier.
     ///
     /// **WARNING!!!**
     /// Timeouts should be inserted as close to actual operations as possible.
@@ -463,11 +495,81 @@ default Promise<T> timeout(TimeSpan timeout) {
 
     /// Cancel the promise.
     ///
+    /// Cancellation is propagated only to the sources marked with [#cancellable()]: if the promise was created by
+    /// a dependent transformation, such as [#map(Fn1)] or [#flatMap(Fn1)], of the cancellable source, and there are no
+    /// other dependent transformations or threads awaiting the source promise, the source promise is cancelled as well,
+    /// and so on up the dependency chain. Event handlers are not considered consumers of the result and do not prevent
+    /// propagation. Sources not marked as cancellable are never cancelled by their consumers. Actions registered with
+    /// [#onCancel(Runnable)] on cancelled promises are executed, so work started to resolve them can be stopped.
+    /// The same applies to the promise resolved by [#timeout(TimeSpan)].
+    ///
+    /// The promise returned by [#all(Promise, Promise)] (and other variants) or [#allOf(Collection)] is cancellable if
+    /// at least one of the input promises is cancellable; its cancellation is propagated to each cancellable input in
+    /// the same way.
+    ///
     /// @return Current promise instance.
     default Promise<T> cancel() {
         return fail(PROMISE_CANCELLED);
     }
 
+    /// Allow cancellation of the promises derived from this promise to be propagated to it. Once all dependent
+    /// transformations (and threads awaiting the result) of the cancellable promise are cancelled, including by
+    /// [#timeout(TimeSpan)], the promise is cancelled as well, so work started to resolve it can be stopped with
+    /// [#onCancel(Runnable)]. Promises derived from the cancellable promise after this call are cancellable too.
+    ///
+    /// Promises are not cancellable by default, so a long-lived promise consumed by several independent callers is not
+    /// cancelled when one of them gives up. The promise should be marked as cancellable only by the code which owns
+    /// the work behind it and hands it out to a single consumer, for example:
+    /// ```java
+    ///     return httpClient.send(request)
+    ///                      .cancellable()                      // <-- Request is aborted when the chain below times out
+    ///                      .map(this::parseResponse)
+    ///                      .timeout(timeSpan(10).seconds());
+    /// ```
+    ///
+    /// @return Current promise instance.
+    default Promise<T> cancellable() {
+        return this;
+    }
+
+    /// Mark the promise as shared between independent consumers, for example, when it is stored in a cache and handed
+    /// out to multiple callers. Cancellation of promises derived from the shared promise (including by
+    /// [#timeout(TimeSpan)]) is not propagated to it, even if it is [#cancellable()], so one consumer giving up does not
+    /// cancel the computation for the others. The shared promise still can be cancelled directly.
+    ///
+    /// @return Current promise instance.
+    default Promise<T> shared() {
+        return this;
+    }
+
+    /// Register an action which is executed if the promise is cancelled, i.e. resolved with [CoreError.Cancelled] or
+    /// [CoreError.Timeout] failure. The action is intended to stop work started to resolve the promise, for example,
+    /// cancel an HTTP request or a running database query. The action is executed in the thread which cancels the
+    /// promise, so it should not block. If the promise is already cancelled, the action is executed immediately.
+    ///
+    /// This method is an independent action.
+    ///
+    /// @param action Action to execute on cancellation
+    ///
+    /// @return Current promise instance.
+    default Promise<T> onCancel(Runnable action) {
+        return onResultAsync(AsyncExecutor.sameThread(),
+                             result -> result.onFailure(cause -> {
+                                 if (isCancellation(cause)) {
+                                     action.run();
+                                 }
+                             }));
+    }
+
+    /// Check if the cause represents cancellation of the promise, either explicit or by timeout.
+    ///
+    /// @param cause Cause to check
+    ///
+    /// @return `true` if the cause is [CoreError.Cancelled] or [CoreError.Timeout]
+    static boolean isCancellation(Cause cause) {
+        return cause instanceof CoreError.Cancelled || cause instanceof CoreError.Timeout;
+    }
+
     /// Await the resolution of the promise.
     ///
     /// @return Result of the promise resolution.
@@ -493,7 +595,17 @@ default Promise<T> async() {
     ///
     /// @return Current promise instance.
     default Promise<T> async(Consumer<Promise<T>> consumer) {
-        AsyncExecutor.INSTANCE.runAsync(() -> consumer.accept(this));
+        return async(AsyncExecutor.defaultExecutor(), consumer);
+    }
+
+    /// Run the provided consumer asynchronously using the provided executor and pass the current instance as a parameter.
+    ///
+    /// @param executor Executor to run the consumer
+    /// @param consumer Consumer to execute asynchronously.
+    ///
+    /// @return Current promise instance.
+    default Promise<T> async(AsyncExecutor executor, Consumer<Promise<T>> consumer) {
+        executor.runAsync(Instrumentation.task("async", () -> consumer.accept(this)));
         return this;
     }
 
@@ -508,12 +620,21 @@ default Promise<T> async(Supplier<Result<T>> supplier) {
 
     /// Run the provided consumer asynchronously and pass the current instance as a parameter. The consumer is executed after the specified timeout.
     ///
+    /// The delay is tracked by the shared [TimerWheel], so pending delays do not occupy threads. If the promise is resolved
+    /// before the delay expires, the scheduled execution is cancelled and the consumer is not executed.
+    ///
     /// @param delay  Time to wait before executing the consumer.
     /// @param action Consumer to execute asynchronously.
     ///
     /// @return Current promise instance.
     default Promise<T> async(TimeSpan delay, Consumer<Promise<T>> action) {
-        AsyncExecutor.INSTANCE.runAsync(delay, () -> action.accept(this));
+        if (isResolved()) {
+            return this;
+        }
+        var task = TimerWheel.shared()
+                             .schedule(delay, () -> action.accept(this));
+        // Event handler rather than dependent action, so the timer does not prevent propagation of cancellation
+        onResultAsync(AsyncExecutor.sameThread(), _ -> task.cancel());
         return this;
     }
 
@@ -971,7 +1092,7 @@ static <T> Promise<T> promise() {
     ///
     /// @return New resolved promise instance.
     static <T> Promise<T> resolved(Result<T> value) {
-        return new PromiseImpl<>(value);
+        return new ResolvedPromise<>(value);
     }
 
     /// Create a new resolved promise instance resolved into success with the provided value.
@@ -980,7 +1101,7 @@ static <T> Promise<T> resolved(Result<T> value) {
     ///
     /// @return New resolved promise instance.
     static <T> Promise<T> success(T value) {
-        return new PromiseImpl<>(Result.success(value));
+        return new ResolvedPromise<>(Result.success(value));
     }
 
     /// Create a new resolved promise instance resolved into success with the provided value.
@@ -998,7 +1119,7 @@ static <T> Promise<T> ok(T value) {
     ///
     /// @return New resolved promise instance.
     static <T> Promise<T> failure(Cause cause) {
-        return new PromiseImpl<>(Result.failure(cause));
+        return new ResolvedPromise<>(Result.failure(cause));
     }
 
     /// Create a new resolved promise instance resolved into failure with the provided cause.
@@ -1026,7 +1147,31 @@ static <T> Promise<T> promise(Consumer<Promise<T>> consumer) {
     ///
     /// @return a promise that asynchronously resolves with the result provided by the supplier
     static <T> Promise<T> promise(Supplier<Result<T>> supplier) {
-        return promise(promise -> promise.resolve(supplier.get()));
+        return promise(AsyncExecutor.defaultExecutor(), supplier);
+    }
+
+    /// Create a new unresolved promise instance and run the provided consumer with the newly created instance using the provided executor.
+    ///
+    /// @param executor Executor to run the consumer
+    /// @param consumer Consumer to execute asynchronously with the created instance.
+    ///
+    /// @return Created instance.
+    static <T> Promise<T> promise(AsyncExecutor executor, Consumer<Promise<T>> consumer) {
+        return Promise.<T> promise()
+                      .async(executor, consumer);
+    }
+
+    /// Creates a promise that resolves with the result provided by the given supplier. The supplier is executed using the provided executor.
+    ///
+    /// If the promise is cancelled before the supplier is started, the supplier is not executed. If the promise is
+    /// cancelled while the supplier is running, the thread running the supplier is interrupted.
+    ///
+    /// @param executor Executor to run the supplier
+    /// @param supplier a supplier that provides a result to resolve the promise
+    ///
+    /// @return a promise that asynchronously resolves with the result provided by the supplier
+    static <T> Promise<T> promise(AsyncExecutor executor, Supplier<Result<T>> supplier) {
+        return promise(executor, (Promise<T> promise) -> InterruptibleCall.run(promise, supplier));
     }
 
     /// Create a new unresolved promise instance and run the provided consumer asynchronously with the newly created instance after the specified timeout.
@@ -1063,6 +1208,21 @@ static <U> Promise<U> lift(Fn1<? extends Cause, ? super Throwable> exceptionMapp
         return Promise.promise(() -> Result.lift(exceptionMapper, supplier));
     }
 
+    /// Run the provided lambda using the provided executor and eventually resolve returned [Promise] with the value returned by lambda
+    /// if the call succeeds or with the failure if call throws exception. Useful to run blocking calls on a dedicated, possibly
+    /// [bounded][AsyncExecutor#bounded(int)], executor.
+    ///
+    /// @param executor        Executor to run the call
+    /// @param exceptionMapper the function which will transform exception into instance of [Cause]
+    /// @param supplier        the call to wrap
+    ///
+    /// @return the [Promise] instance, which eventually will be resolved with the output of the provided lambda
+    static <U> Promise<U> lift(AsyncExecutor executor,
+                               Fn1<? extends Cause, ? super Throwable> exceptionMapper,
+                               ThrowingFn0<U> supplier) {
+        return Promise.promise(executor, () -> Result.lift(exceptionMapper, supplier));
+    }
+
     /// Wrap the call to the provided function into success [Result] if the call succeeds of into failure [Result] if call throws exception.
     ///
     /// @param exceptionMapper the function which will transform exception into instance of [Cause]
@@ -1330,6 +1490,7 @@ static Promise<Unit> unitPromise() {
 
     /// Return promise which will be resolved once any of the promises provided as parameters are resolved with success. If none of the promises
     /// are resolved with success, then the created instance will be resolved with the provided `failureResult`.
+    /// Remaining promises are cancelled once one of them succeeds or the created instance is cancelled.
     ///
     /// @param failureResult Result in case if no instances were resolved with success
     /// @param promises      Input promises
@@ -1341,11 +1502,13 @@ static <T> Promise<T> any(Result<T> failureResult, Promise<T>... promises) {
         .apply(at -> List.of(promises)
                          .forEach(promise -> promise.withResult(result -> result.onSuccess(anySuccess::succeed)
                                                                                 .onSuccessRun(() -> cancelAll(promises))
-                                                                                .onResultRun(at::registerEvent)))));
+                                                                                .onResultRun(at::registerEvent))))
+        .apply(_ -> anySuccess.onCancel(() -> cancelAll(promises))));
     }
 
     /// Return promise which will be resolved once any of the promises provided as parameters are resolved with success. If none of the promises
     /// are resolved with success, then the created instance will be resolved with the provided `failureResult`.
+    /// Remaining promises are cancelled once one of them succeeds or the created instance is cancelled.
     ///
     /// @param failureResult Result in case if no instances were resolved with success
     /// @param promises      Input promises
@@ -1355,7 +1518,8 @@ static <T> Promise<T> any(Result<T> failureResult, List<Promise<T>> promises) {
         return Promise.promise(anySuccess -> threshold(promises.size(), () -> anySuccess.resolve(failureResult))
         .apply(at -> promises.forEach(promise -> promise.withResult(result -> result.onSuccess(anySuccess::succeed)
                                                                                     .onSuccessRun(() -> cancelAll(promises))
-                                                                                    .onResultRun(at::registerEvent)))));
+                                                                                    .onResultRun(at::registerEvent))))
+        .apply(_ -> anySuccess.onCancel(() -> cancelAll(promises))));
     }
 
     /// Return promise which will be resolved once any of the promises provided as parameters are resolved with success. If none of the promises
@@ -1410,12 +1574,60 @@ static <T> Promise<List<Result<T>>> allOf(Collection<Promise<T>> promises) {
         var promise = Promise.promise();
         var collector = ResultCollector.resultCollector(promises.size(),
                                                         values -> promise.succeed(List.of(values)));
-        IntStream.range(0,
-                        promises.size())
-                 .forEach(index -> array[index].withResult(result -> collector.registerEvent(index, result)));
+        var dependents = IntStream.range(0,
+                                         promises.size())
+                                  .mapToObj(index -> array[index].withResult(result -> collector.registerEvent(index,
+                                                                                                               result)))
+                                  .toArray(Promise[]::new);
+        PromiseImpl.cancelDependents(promise, dependents);
         return promise.map(list -> (List<Result<T>>) list);
     }
 
+    /// Apply the asynchronous operation to each item of the collection, keeping at most `parallelism` operations in flight
+    /// at any time. Operations are started on the default [AsyncExecutor] (virtual threads, unless replaced), in the order of
+    /// the input collection; next operation is started once one of the running operations is completed.
+    ///
+    /// The returned promise is resolved with the list of values in the order of the input items once all operations succeed.
+    /// The first failure resolves the returned promise with that failure, no more operations are started and all operations
+    /// still in flight are cancelled. The same happens if the returned promise is cancelled or timed out. An exception
+    /// thrown by the operation is converted into [CoreError.Exception] failure.
+    ///
+    /// This is a replacement for the manual semaphores around the bulk fan-out, for example enrichment of a large number of
+    /// records with database or HTTP calls, which would exhaust connection pools if started all at once with
+    /// [#allOf(Collection)].
+    ///
+    /// @param items       Input items
+    /// @param parallelism Maximal number of operations in flight
+    /// @param operation   Operation to apply to each item
+    ///
+    /// @return Promise resolved with the list of operation results in the input order, or with the first failure.
+    ///         If `parallelism` is not positive, the promise is resolved with [#INVALID_PARALLELISM].
+    static <T, R> Promise<List<R>> traverse(Collection<T> items, int parallelism, Fn1<Promise<R>, ? super T> operation) {
+        return traverse(AsyncExecutor.defaultExecutor(), items, parallelism, operation);
+    }
+
+    /// Same as [#traverse(Collection, int, Fn1)], but operations are started using the provided executor. The executor
+    /// should run tasks asynchronously, for example, [AsyncExecutor#sameThread()] is not suitable for large inputs.
+    ///
+    /// @param executor    Executor used to start operations
+    /// @param items       Input items
+    /// @param parallelism Maximal number of operations in flight
+    /// @param operation   Operation to apply to each item
+    ///
+    /// @return Promise resolved with the list of operation results in the input order, or with the first failure.
+    static <T, R> Promise<List<R>> traverse(AsyncExecutor executor,
+                                            Collection<T> items,
+                                            int parallelism,
+                                            Fn1<Promise<R>, ? super T> operation) {
+        if (parallelism <= 0) {
+            return INVALID_PARALLELISM.promise();
+        }
+        if (items.isEmpty()) {
+            return Promise.success(List.of());
+        }
+        return Traversal.traverse(executor, items, parallelism, operation);
+    }
+
     /// Return a promise which will be resolved when all promises passed as a parameter are resolved. If any of the provided promises are
     /// resolved with error, then the resulting promise will be also resolved with error.
     ///
@@ -1934,6 +2146,11 @@ Mapper15<T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, T13, T14, T15> all(P
 
     CoreError.Cancelled PROMISE_CANCELLED = new CoreError.Cancelled("Promise cancelled");
 
+    CoreError.Timeout AWAIT_TIMEOUT = new CoreError.Timeout("Promise is not resolved within specified timeout");
+
+    /// Error cause for invalid parallelism passed to [#traverse(Collection, int, Fn1)].
+    Cause INVALID_PARALLELISM = () -> "parallelism must be positive";
+
     /// Helper interface for convenient tuple transformation.
     ///
     /// @see Result.Mapper1
@@ -2163,41 +2380,362 @@ private static <R> Promise<R> setupResult(FnX<Result<R>> transformer, Promise<?>
         var promise = Promise.<R>promise();
         var collector = resultCollector(promises.length,
                                         values -> promise.resolve(transformer.apply(values)));
+        var dependents = new Promise<?>[promises.length];
         int count = 0;
         for (var p : promises) {
             final var index = count++;
-            p.withResult(result -> collector.registerEvent(index, result));
+            dependents[index] = p.withResult(result -> collector.registerEvent(index, result));
         }
+        PromiseImpl.cancelDependents(promise, dependents);
         return promise;
     }
 }
 
-enum AsyncExecutor {
-    INSTANCE;
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-    void runAsync(Runnable runnable) {
-        executor.submit(runnable);
+/// Runs the supplier which resolves the promise and interrupts the thread running the supplier if the promise is cancelled
+/// in the meantime. The interrupt is delivered only while the supplier is running, so it does not leak to the unrelated
+/// tasks executed later by the same thread.
+final class InterruptibleCall {
+    private Thread runner;
+    private boolean interrupted;
+
+    private InterruptibleCall(Thread runner) {
+        this.runner = runner;
     }
-    void runAsync(TimeSpan delay, Runnable runnable) {
-        runAsync(() -> {
-            try{
-                Thread.sleep(delay.duration());
-            } catch (InterruptedException e) {}
-            runnable.run();
-        });
+
+    static <T> void run(Promise<T> promise, Supplier<Result<T>> supplier) {
+        // Cancelled before start, don't even try
+        if (promise.isResolved()) {
+            return;
+        }
+        var call = new InterruptibleCall(Thread.currentThread());
+        promise.onCancel(call::interrupt);
+        Result<T> result;
+        try{
+            result = supplier.get();
+        } finally{
+            call.finish();
+        }
+        promise.resolve(result);
+    }
+
+    private synchronized void interrupt() {
+        if (runner != null) {
+            interrupted = true;
+            runner.interrupt();
+        }
+    }
+
+    private synchronized void finish() {
+        runner = null;
+        if (interrupted) {
+            // Clear the interrupt status set by cancellation
+            Thread.interrupted();
+        }
+    }
+}
+
+/// Bounded fan-out behind [Promise#traverse(AsyncExecutor, Collection, int, Fn1)].
+///
+/// Items are taken in the input order by the shared cursor. Initially `parallelism` operations are started, then each
+/// successful completion starts the next one, so the number of operations in flight never exceeds the limit. Values
+/// are stored by the index of the item and published to the output once the last operation succeeds. Any failure
+/// resolves the output, which, in turn, stops starting of the new operations and cancels those still in flight.
+final class Traversal<T, R> {
+    private final AsyncExecutor executor;
+    private final Object[] items;
+    private final Fn1<Promise<R>, ? super T> operation;
+    private final Object[] values;
+    private final AtomicReferenceArray<Promise<R>> running;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final Promise<List<R>> output = Promise.promise();
+
+    private Traversal(AsyncExecutor executor, Collection<T> items, Fn1<Promise<R>, ? super T> operation) {
+        this.executor = executor;
+        this.items = items.toArray();
+        this.operation = operation;
+        this.values = new Object[this.items.length];
+        this.running = new AtomicReferenceArray<>(this.items.length);
+        this.remaining = new AtomicInteger(this.items.length);
+    }
+
+    static <T, R> Promise<List<R>> traverse(AsyncExecutor executor,
+                                            Collection<T> items,
+                                            int parallelism,
+                                            Fn1<Promise<R>, ? super T> operation) {
+        var traversal = new Traversal<>(executor, items, operation);
+        traversal.output.onResultAsync(AsyncExecutor.sameThread(),
+                                       result -> result.onFailureRun(traversal::cancelRunning));
+        for (int i = 0; i < Math.min(parallelism, traversal.items.length); i++) {
+            traversal.startNext();
+        }
+        return traversal.output;
+    }
+
+    private void startNext() {
+        if (output.isResolved()) {
+            return;
+        }
+        var index = cursor.getAndIncrement();
+        if (index < items.length) {
+            executor.runAsync(() -> start(index));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start(int index) {
+        if (output.isResolved()) {
+            return;
+        }
+        Promise<R> promise;
+        try{
+            promise = operation.apply((T) items[index]);
+        } catch (Throwable throwable) {
+            promise = new CoreError.Exception(throwable).promise();
+        }
+        running.set(index, promise);
+        // The output could be resolved while the operation was starting
+        if (output.isResolved()) {
+            promise.cancel();
+            return;
+        }
+        promise.onResultAsync(AsyncExecutor.sameThread(), result -> complete(index, result));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete(int index, Result<R> result) {
+        running.set(index, null);
+        switch (result) {
+            case Result.Success<R>(var value) -> {
+                values[index] = value;
+                if (remaining.decrementAndGet() == 0) {
+                    output.succeed((List<R>) List.of(values));
+                } else {
+                    startNext();
+                }
+            }
+            case Result.Failure<R>(var cause) -> output.fail(cause);
+        }
+    }
+
+    private void cancelRunning() {
+        for (int i = 0; i < running.length(); i++) {
+            var promise = running.getAndSet(i, null);
+            if (promise != null) {
+                promise.cancel();
+            }
+        }
+    }
+}
+
+/// Promise resolved at creation. Instances are returned by [Promise#resolved(Result)], [Promise#success(Object)] and
+/// [Promise#failure(Cause)], i.e. whenever cached, validated or otherwise already available value is returned as [Promise].
+///
+/// Since the result is already known, transformations are applied eagerly and return new resolved instances, without
+/// completion stack, dependent promise and intermediate lambdas. Transformations which don't change the result, for
+/// example [#map(Fn1)] of the failure or [#recover(Fn1)] of the success, return the same instance. Attempts to resolve
+/// or cancel the instance are ignored, as for any other resolved promise.
+///
+/// Actions which return promises ([#fold(Fn1)] and [#flatMap(Fn1)]) are passed through the [PromiseImpl.Trampoline],
+/// so recursive chains of resolved promises don't overflow the stack.
+final class ResolvedPromise<T> implements Promise<T> {
+    private final Result<T> result;
+
+    ResolvedPromise(Result<T> result) {
+        this.result = result;
+    }
+
+    @Override
+    public String toString() {
+        return "Promise<" + result + '>';
+    }
+
+    @Override
+    public boolean isResolved() {
+        return true;
+    }
+
+    @Override
+    public Promise<T> resolve(Result<T> value) {
+        return this;
+    }
+
+    @Override
+    public boolean tryResolve(Result<T> value) {
+        return false;
+    }
+
+    @Override
+    public Result<T> await() {
+        return result;
+    }
+
+    @Override
+    public Result<T> await(TimeSpan timeout) {
+        return result;
+    }
+
+    @Override
+    public Promise<T> onResult(Consumer<Result<T>> action) {
+        action.accept(result);
+        return this;
+    }
+
+    @Override
+    public Promise<T> onResultAsync(AsyncExecutor executor, Consumer<Result<T>> action) {
+        executor.runAsync(() -> action.accept(result));
+        return this;
+    }
+
+    @Override
+    public Promise<T> onSuccess(Consumer<T> action) {
+        if (result instanceof Result.Success<T>(var value)) {
+            action.accept(value);
+        }
+        return this;
+    }
+
+    @Override
+    public Promise<T> onFailure(Consumer<Cause> action) {
+        if (result instanceof Result.Failure<T>(var cause)) {
+            action.accept(cause);
+        }
+        return this;
+    }
+
+    @Override
+    public <U> Promise<U> fold(Fn1<Promise<U>, Result<T>> action) {
+        return PromiseImpl.Trampoline.current()
+                                     .fold(result, action);
+    }
+
+    @Override
+    public <U> Promise<U> map(Fn1<U, ? super T> transformation) {
+        return switch (result) {
+            case Result.Success<T>(var value) -> new ResolvedPromise<>(Result.success(transformation.apply(value)));
+            case Result.Failure<T> _ -> retype();
+        };
+    }
+
+    @Override
+    public <U> Promise<U> map(Supplier<U> supplier) {
+        return switch (result) {
+            case Result.Success<T> _ -> new ResolvedPromise<>(Result.success(supplier.get()));
+            case Result.Failure<T> _ -> retype();
+        };
+    }
+
+    @Override
+    public Promise<Unit> mapToUnit() {
+        return switch (result) {
+            case Result.Success<T> _ -> Promise.unitPromise();
+            case Result.Failure<T> _ -> retype();
+        };
+    }
+
+    @Override
+    public <U> Promise<U> flatMap(Fn1<Promise<U>, ? super T> transformation) {
+        return switch (result) {
+            case Result.Success<T>(var value) -> PromiseImpl.Trampoline.current()
+                                                                       .apply(value, transformation);
+            case Result.Failure<T> _ -> retype();
+        };
+    }
+
+    @Override
+    public <U> Promise<U> mapResult(Fn1<Result<U>, ? super T> transformation) {
+        return switch (result) {
+            case Result.Success<T>(var value) -> new ResolvedPromise<>(transformation.apply(value));
+            case Result.Failure<T> _ -> retype();
+        };
+    }
+
+    @Override
+    public <U> Promise<U> replaceResult(Fn1<Result<U>, Result<T>> transformation) {
+        return new ResolvedPromise<>(transformation.apply(result));
+    }
+
+    @Override
+    public Promise<T> mapError(Fn1<Cause, ? super Cause> transformation) {
+        return switch (result) {
+            case Result.Success<T> _ -> this;
+            case Result.Failure<T>(var cause) -> new ResolvedPromise<>(transformation.apply(cause)
+                                                                                    .result());
+        };
+    }
+
+    @Override
+    public Promise<T> recover(Fn1<T, ? super Cause> mapper) {
+        return switch (result) {
+            case Result.Success<T> _ -> this;
+            case Result.Failure<T>(var cause) -> new ResolvedPromise<>(Result.success(mapper.apply(cause)));
+        };
+    }
+
+    @Override
+    public Promise<T> filter(Cause cause, Predicate<T> predicate) {
+        return switch (result) {
+            case Result.Success<T>(var value) when !predicate.test(value) -> new ResolvedPromise<>(cause.result());
+            default -> this;
+        };
+    }
+
+    @Override
+    public Promise<T> filter(Fn1<Cause, T> causeMapper, Predicate<T> predicate) {
+        return switch (result) {
+            case Result.Success<T>(var value) when !predicate.test(value) -> new ResolvedPromise<>(causeMapper.apply(value)
+                                                                                                              .result());
+            default -> this;
+        };
+    }
+
+    @Override
+    public Promise<T> orElse(Promise<T> promise) {
+        return switch (result) {
+            case Result.Success<T> _ -> this;
+            case Result.Failure<T> _ -> promise;
+        };
+    }
+
+    @Override
+    public Promise<T> orElse(Supplier<Promise<T>> supplier) {
+        return switch (result) {
+            case Result.Success<T> _ -> this;
+            case Result.Failure<T> _ -> supplier.get();
+        };
+    }
+
+    /// Failure does not depend on the value type, so the same instance can be returned from transformations.
+    @SuppressWarnings("unchecked")
+    private <U> Promise<U> retype() {
+        return (Promise<U>) this;
     }
 }
 
 final class PromiseImpl<T> implements Promise<T> {
     @SuppressWarnings("LoggerInitializedWithForeignClass")
     private static final Logger log = LoggerFactory.getLogger(Promise.class);
+    // Set in the interest counter of the instances which can be cancelled by their consumers
+    private static final int CANCELLABLE = 1 << 30;
 
     volatile Result<T> result;
     volatile Completion<T> stack;
+    // Source of this instance (if any) and number of consumers interested in the result of this instance,
+    // combined with the CANCELLABLE flag; used to propagate cancellation upstream
+    volatile PromiseImpl<?> upstream;
+    volatile int interest;
+    // Non-null only if the instance is tracked by the leak detector
+    private final LeakDetector.Tracker tracker;
 
     // Rely on default initialization to null
     PromiseImpl(Result<T> result) {
         this.result = result;
+        this.tracker = LeakDetector.ENABLED && result == null
+                       ? LeakDetector.track(this)
+                       : null;
+        if (result == null) {
+            Instrumentation.created();
+        }
     }
 
     @Override
@@ -2218,7 +2756,18 @@ public Promise<T> onResult(Consumer<Result<T>> action) {
             action.accept(result);
             return this;
         } else {
-            push(new CompletionOnResult<>(action));
+            push(new CompletionOnResult<>(action, null));
+        }
+        return this;
+    }
+
+    @Override
+    public Promise<T> onResultAsync(AsyncExecutor executor, Consumer<Result<T>> action) {
+        if (result != null) {
+            var value = result;
+            executor.runAsync(() -> action.accept(value));
+        } else {
+            push(new CompletionOnResult<>(action, executor));
         }
         return this;
     }
@@ -2226,17 +2775,36 @@ public Promise<T> onResult(Consumer<Result<T>> action) {
     @Override
     public <U> Promise<U> fold(Fn1<Promise<U>, Result<T>> action) {
         if (result != null) {
-            return action.apply(result);
+            return Trampoline.current()
+                             .fold(result, action);
         } else {
             return chain(action);
         }
     }
 
+    @Override
+    public Promise<T> cancellable() {
+        INTEREST.getAndBitwiseOr(this, CANCELLABLE);
+        return this;
+    }
+
+    /// Interest which is never released, so the counter never drops to zero when dependent promises are cancelled.
+    @Override
+    public Promise<T> shared() {
+        INTEREST.getAndAdd(this, 1);
+        return this;
+    }
+
     @Override
     public Result<T> await() {
         if (result != null) {
             return result;
         }
+        Trampoline.current()
+                  .helpDrain();
+        if (result != null) {
+            return result;
+        }
         var thread = Thread.currentThread();
         if (log.isTraceEnabled()) {
             var stackTraceElement = thread.getStackTrace() [2];
@@ -2247,10 +2815,13 @@ public Result<T> await() {
                       stackTraceElement.getFileName(),
                       stackTraceElement.getLineNumber());
         }
+        INTEREST.getAndAdd(this, 1);
+        var startedAt = Instrumentation.start();
         push(new CompletionJoin<>(thread));
         while (result == null) {
             LockSupport.park();
         }
+        Instrumentation.awaitCompleted(startedAt, false);
         return result;
     }
 
@@ -2264,6 +2835,11 @@ public Result<T> await(TimeSpan timeout) {
         if (result != null) {
             return result;
         }
+        Trampoline.current()
+                  .helpDrain();
+        if (result != null) {
+            return result;
+        }
         var thread = Thread.currentThread();
         if (log.isTraceEnabled()) {
             var stackTraceElement = thread.getStackTrace() [2];
@@ -2275,33 +2851,143 @@ public Result<T> await(TimeSpan timeout) {
                       stackTraceElement.getLineNumber(),
                       timeout.nanos());
         }
+        INTEREST.getAndAdd(this, 1);
+        var startedAt = Instrumentation.start();
         push(new CompletionJoin<>(thread));
         var deadline = System.nanoTime() + timeout.nanos();
         while (result == null && System.nanoTime() < deadline) {
             LockSupport.parkNanos(deadline - System.nanoTime());
         }
-        if (result == null) {
-            return new CoreError.Timeout("Promise is not resolved within specified timeout").result();
+        var resolved = result;
+        Instrumentation.awaitCompleted(startedAt, resolved == null);
+        if (resolved == null) {
+            INTEREST.getAndAdd(this, -1);
+            return AWAIT_TIMEOUT.result();
         }
-        return result;
+        return resolved;
     }
 
     @Override
     public Promise<T> resolve(Result<T> value) {
-        if (RESULT.compareAndSet(this, null, value)) {
-            do{
-                processActions();
-            } while (this.stack != null);
-        }
+        tryResolve(value);
         return this;
     }
 
-    @SuppressWarnings("rawtypes")
-    private void processActions() {
+    @Override
+    public boolean tryResolve(Result<T> value) {
+        if (!RESULT.compareAndSet(this, null, value)) {
+            return false;
+        }
+        Instrumentation.resolved();
+        releaseTracker();
+        var source = detachUpstream();
+        if (source != null && value instanceof Result.Failure<T>(var cause) && Promise.isCancellation(cause)) {
+            cancelUpstream(source);
+        }
+        Trampoline.current()
+                  .resolved(this);
+        return true;
+    }
+
+    /// Link this instance to the source, whose result is used to resolve this instance.
+    void trackUpstream(Promise<?> source) {
+        if (!(source instanceof PromiseImpl<?> impl) || impl.result != null) {
+            return;
+        }
+        INTEREST.getAndAdd(impl, 1);
+        upstream = impl;
+        // This instance could be cancelled before the link was established
+        if (result instanceof Result.Failure<T>(var cause) && Promise.isCancellation(cause)
+            && UPSTREAM.compareAndSet(this, impl, null)) {
+            cancelUpstream(impl);
+        }
+    }
+
+    /// Propagate cancellation of the instance to the dependents used to collect results of its sources, and through them
+    /// to the sources. Nothing is done unless at least one of the sources is cancellable, then the instance becomes
+    /// cancellable too.
+    static void cancelDependents(Promise<?> promise, Promise<?>[] dependents) {
+        for (var dependent : dependents) {
+            if (dependent instanceof PromiseImpl<?> impl && (impl.interest & CANCELLABLE) != 0) {
+                promise.cancellable()
+                       .onCancel(() -> {
+                           for (var collector : dependents) {
+                               collector.cancel();
+                           }
+                       });
+                return;
+            }
+        }
+    }
+
+    private PromiseImpl<?> detachUpstream() {
+        return upstream == null
+               ? null
+               : (PromiseImpl<?>) UPSTREAM.getAndSet(this, null);
+    }
+
+    /// Release interest in the result of the source and cancel it if it is cancellable and there are no other consumers.
+    /// Cancellation proceeds up the dependency chain iteratively, so long chains don't grow the stack.
+    private static void cancelUpstream(PromiseImpl<?> source) {
+        while (source != null && (int) INTEREST.getAndAdd(source, -1) == (CANCELLABLE | 1) && source.result == null) {
+            source = source.cancelFromDownstream();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private PromiseImpl<?> cancelFromDownstream() {
+        if (!RESULT.compareAndSet(this, null, (Result) PROMISE_CANCELLED.result())) {
+            return null;
+        }
+        Instrumentation.resolved();
+        releaseTracker();
+        var source = detachUpstream();
+        Trampoline.current()
+                  .resolved(this);
+        return source;
+    }
+
+    private void releaseTracker() {
+        if (LeakDetector.ENABLED && tracker != null) {
+            tracker.resolved();
+        }
+    }
+
+    /// Numbers of attached dependent transformations, event handlers and waiting threads, used for leak reports.
+    int[] completionCounts() {
+        var counts = new int[3];
+        for (var completion = stack; completion != null; completion = completion.next) {
+            switch (completion) {
+                case CompletionFold<?, T> _ -> counts[0]++;
+                case CompletionOnResult<T> _ -> counts[1]++;
+                case CompletionJoin<T> _ -> counts[2]++;
+                default -> {}
+            }
+        }
+        return counts;
+    }
+
+    private void processAllActions() {
+        Completion<T> actions;
+        while ((actions = takeActions()) != null) {
+            runSequentialActions(actions);
+        }
+    }
+
+    /// Take all completions attached to this instance and prepare them for execution. Event handlers are dispatched
+    /// immediately, while regular completions (dependent transformations) and joins are returned as a single list, in
+    /// the order of execution.
+    ///
+    /// @return list of completions to execute or `null` if there are no completions
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Completion<T> takeActions() {
         Completion head;
         do{
             head = this.stack;
         } while (!STACK.compareAndSet(this, head, null));
+        if (head == null) {
+            return null;
+        }
         // Split all completions into three lists - joins, regular completions (dependent transformations), and
         // event handlers.
         // Regular completions are executed immediately, event processors executed asynchronously.
@@ -2309,6 +2995,7 @@ private void processActions() {
         CompletionJoin joins = null;
         CompletionOnResult events = null;
         CompletionFold actions = null;
+        CompletionFold actionsTail = null;
         Completion current = head;
         Completion tmp;
         // Split and reverse the list in one pass
@@ -2324,6 +3011,9 @@ private void processActions() {
                     events = event;
                 }
                 case CompletionFold action -> {
+                    if (actionsTail == null) {
+                        actionsTail = action;
+                    }
                     action.next = actions;
                     actions = action;
                 }
@@ -2331,16 +3021,11 @@ private void processActions() {
             current = tmp;
         }
         runEventHandlers(events);
-        runSequentialActions(actions);
-        runJoins(joins);
-    }
-
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private void runJoins(Completion current) {
-        while (current != null) {
-            current.complete(result);
-            current = current.next;
+        if (actions == null) {
+            return joins;
         }
+        actionsTail.next = joins;
+        return actions;
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -2351,19 +3036,48 @@ private void runSequentialActions(Completion current) {
         }
     }
 
+    /// Event handlers without a dedicated executor are passed to the [EventBatch], which coalesces handlers of promises resolved
+    /// in a burst into a single task submitted to the default executor. Handlers with a dedicated executor are submitted to
+    /// their executors individually. Nothing is submitted if there are no handlers.
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private void runEventHandlers(Completion asyncEvents) {
-        AsyncExecutor.INSTANCE.runAsync(() -> {
-                                            var current = asyncEvents;
-                                            while (current != null) {
-                                                current.complete(result);
-                                                current = current.next;
-                                            }
-                                        });
+    private void runEventHandlers(CompletionOnResult asyncEvents) {
+        CompletionOnResult shared = null;
+        CompletionOnResult sharedTail = null;
+        var current = asyncEvents;
+        while (current != null) {
+            var next = (CompletionOnResult) current.next;
+            if (current.executor == null) {
+                current.next = null;
+                if (sharedTail == null) {
+                    shared = current;
+                } else {
+                    sharedTail.next = current;
+                }
+                sharedTail = current;
+            } else if (Instrumentation.ENABLED) {
+                var event = current;
+                var queuedAt = System.nanoTime();
+                event.executor.runAsync(() -> {
+                    Instrumentation.eventHandlersStarted(queuedAt);
+                    event.complete(result);
+                });
+            } else {
+                var event = current;
+                event.executor.runAsync(() -> event.complete(result));
+            }
+            current = next;
+        }
+        if (shared != null) {
+            EventBatch.dispatch(result, shared);
+        }
     }
 
     private <U> Promise<U> chain(Fn1<Promise<U>, Result<T>> transformer) {
         var dependency = new PromiseImpl<U>(null);
+        dependency.upstream = this;
+        if (((int) INTEREST.getAndAdd(this, 1) & CANCELLABLE) != 0) {
+            dependency.interest = CANCELLABLE;
+        }
         push(new CompletionFold<>(dependency, transformer));
         return dependency;
     }
@@ -2376,7 +3090,7 @@ private void push(Completion<T> completion) {
                 // add new independent completion, we resolve completion here. There might be chances that this might
                 // lead to race condition if actions done by completions attached to this Promise have shared data.
                 // Otherwise, the dependency chain is still maintained properly even with this invocation.
-                completion.complete(result);
+                completeLate(completion);
                 return;
             }
             prevStack = stack;
@@ -2384,6 +3098,279 @@ private void push(Completion<T> completion) {
         } while (!STACK.compareAndSet(this, prevStack, completion));
     }
 
+    private void completeLate(Completion<T> completion) {
+        if (completion instanceof CompletionOnResult<T> event && event.executor != null) {
+            var value = result;
+            event.executor.runAsync(() -> event.complete(value));
+        } else {
+            completion.complete(result);
+        }
+    }
+
+    /// Per-thread trampoline which keeps stack depth bounded while resolving long chains of dependent promises.
+    ///
+    /// Resolution of the promise runs its dependent actions, which, in turn, resolve dependent promises. Similarly,
+    /// `fold` (and [ResolvedPromise#flatMap(Fn1)]) on already resolved promise immediately applies the action, which may
+    /// call `fold` again. Both are executed directly while the nesting depth stays below [#MAX_DEPTH], so for typical
+    /// chains behavior is exactly the same as with plain recursion. At the maximal depth, the trampoline switches to the explicit stack of
+    /// frames, one per resolved promise or deferred fold, and executes remaining work in a loop. The topmost frame is
+    /// always processed first, so dependents of the promise resolved by an action run before the next action of the same
+    /// promise, i.e. the depth-first order of plain recursion is preserved. Resolution of the chain is complete once the
+    /// outermost [PromiseImpl#resolve(Result)] call returns.
+    ///
+    /// The only observable difference is that beyond the maximal depth, an action passed to `fold` of the already
+    /// resolved promise is applied right after the calling action returns rather than immediately. Should the calling
+    /// action block on the returned promise, deferred work is executed by [#helpDrain()] before the thread is parked.
+    static final class Trampoline {
+        static final int MAX_DEPTH = 64;
+
+        private static final ThreadLocal<Trampoline> CURRENT = ThreadLocal.withInitial(Trampoline::new);
+
+        // Allocated on the first deferred frame, most threads never reach the depth limit
+        private ArrayDeque<Frame> frames;
+        private int depth;
+        private boolean draining;
+
+        static Trampoline current() {
+            return CURRENT.get();
+        }
+
+        void resolved(PromiseImpl<?> promise) {
+            if (depth >= MAX_DEPTH) {
+                schedule(new Frame(promise, promise.result, null));
+                return;
+            }
+            depth++;
+            try{
+                promise.processAllActions();
+            } finally{
+                depth--;
+            }
+        }
+
+        /// Same as [#resolved(PromiseImpl)] for primitive-specialized promises, which keep their own action stacks.
+        void resolved(PrimitivePromiseBase<?> promise) {
+            if (depth >= MAX_DEPTH) {
+                schedule(new Frame(null, null, new CompletionRun<>(promise::runActions)));
+                return;
+            }
+            depth++;
+            try{
+                promise.runActions();
+            } finally{
+                depth--;
+            }
+        }
+
+        <T, U> Promise<U> fold(Result<T> result, Fn1<Promise<U>, Result<T>> action) {
+            if (depth >= MAX_DEPTH) {
+                var dependency = new PromiseImpl<U>(null);
+                schedule(new Frame(null, result, new CompletionFold<>(dependency, action)));
+                return dependency;
+            }
+            depth++;
+            try{
+                return action.apply(result);
+            } finally{
+                depth--;
+            }
+        }
+
+        /// Same as [#fold(Result, Fn1)] for the successful result, but the action receives the value directly.
+        <T, U> Promise<U> apply(T value, Fn1<Promise<U>, ? super T> action) {
+            if (depth >= MAX_DEPTH) {
+                return fold(Result.success(value), _ -> action.apply(value));
+            }
+            depth++;
+            try{
+                return action.apply(value);
+            } finally{
+                depth--;
+            }
+        }
+
+        /// Run deferred work before blocking the thread. Otherwise, the thread may wait for the promise which
+        /// can be resolved only by the work deferred in the same thread.
+        void helpDrain() {
+            if (frames != null && !frames.isEmpty()) {
+                drain();
+            }
+        }
+
+        private void schedule(Frame frame) {
+            if (frames == null) {
+                frames = new ArrayDeque<>();
+            }
+            frames.push(frame);
+            if (!draining) {
+                drain();
+            }
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private void drain() {
+            var wasDraining = draining;
+            draining = true;
+            RuntimeException failure = null;
+            try{
+                Frame frame;
+                while ((frame = frames.peek()) != null) {
+                    var completion = frame.next();
+                    if (completion == null) {
+                        frames.pop();
+                        continue;
+                    }
+                    try{
+                        completion.complete(frame.result);
+                    } catch (RuntimeException e) {
+                        // Keep draining, so remaining promises are not left unprocessed
+                        if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                }
+            } finally{
+                draining = wasDraining;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /// Remaining completions of the resolved promise or single deferred fold.
+        @SuppressWarnings("rawtypes")
+        private static final class Frame {
+            private final PromiseImpl promise;
+            private final Result result;
+            private Completion pending;
+
+            Frame(PromiseImpl promise, Result result, Completion pending) {
+                this.promise = promise;
+                this.result = result;
+                this.pending = pending;
+            }
+
+            Completion next() {
+                if (pending == null && promise != null) {
+                    pending = promise.takeActions();
+                }
+                var current = pending;
+                if (current != null) {
+                    pending = current.next;
+                }
+                return current;
+            }
+        }
+    }
+
+    /// Coalescing dispatcher for event handlers.
+    ///
+    /// Handlers are appended to the open batch of the stripe selected by the resolving thread. The first append to the new
+    /// batch submits a single drain task to the default executor; all handlers appended before the drain task starts are
+    /// executed by this task, in the order of appending. The batch is closed once the drain task starts, so handlers
+    /// dispatched later go to a new batch and are not delayed by the handlers being executed. Handlers of different
+    /// promises in the same batch are executed sequentially, therefore handlers should not block waiting for each other.
+    /// To limit the number of handlers which can be delayed by a single slow handler, a batch accepts handlers of at most
+    /// [#MAX_BATCH_SIZE] promises, the next promise starts a new batch. A failing handler is logged and does not prevent
+    /// execution of the remaining handlers.
+    static final class EventBatch {
+        static final int MAX_BATCH_SIZE = 16;
+
+        private static final Node CLOSED = new Node(null, null);
+        private static final int STRIPES = stripes();
+        private static final AtomicReferenceArray<EventBatch> BATCHES = new AtomicReferenceArray<>(STRIPES);
+
+        private final AtomicReference<Node> head;
+        private final long createdAt = Instrumentation.start();
+
+        private EventBatch(Node node) {
+            this.head = new AtomicReference<>(node);
+        }
+
+        private static int stripes() {
+            var processors = Runtime.getRuntime()
+                                    .availableProcessors();
+            return Integer.highestOneBit(Math.max(1, processors - 1)) << 1;
+        }
+
+        @SuppressWarnings("rawtypes")
+        static void dispatch(Result result, Completion events) {
+            var node = new Node(result, events);
+            var stripe = (int) (Thread.currentThread()
+                                      .threadId() & (STRIPES - 1));
+            while (true) {
+                var batch = BATCHES.get(stripe);
+                if (batch != null && batch.tryAppend(node)) {
+                    return;
+                }
+                node.next = null;
+                node.size = 1;
+                var created = new EventBatch(node);
+                if (BATCHES.compareAndSet(stripe, batch, created)) {
+                    AsyncExecutor.defaultExecutor()
+                                 .runAsync(created::drain);
+                    return;
+                }
+            }
+        }
+
+        private boolean tryAppend(Node node) {
+            while (true) {
+                var current = head.get();
+                if (current == CLOSED || current.size >= MAX_BATCH_SIZE) {
+                    return false;
+                }
+                node.next = current;
+                node.size = current.size + 1;
+                if (head.compareAndSet(current, node)) {
+                    return true;
+                }
+            }
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private void drain() {
+            // Reported delay is the one of the oldest handlers in the batch
+            Instrumentation.eventHandlersStarted(createdAt);
+            // Nodes are stored in reverse order, restore the order of appending
+            Node reversed = null;
+            var current = head.getAndSet(CLOSED);
+            while (current != null) {
+                var next = current.next;
+                current.next = reversed;
+                reversed = current;
+                current = next;
+            }
+            while (reversed != null) {
+                var completion = reversed.events;
+                while (completion != null) {
+                    try{
+                        completion.complete(reversed.result);
+                    } catch (RuntimeException e) {
+                        log.warn("Promise event handler failed", e);
+                    }
+                    completion = completion.next;
+                }
+                reversed = reversed.next;
+            }
+        }
+
+        @SuppressWarnings("rawtypes")
+        static final class Node {
+            private final Result result;
+            private final Completion events;
+            private Node next;
+            private int size = 1;
+
+            Node(Result result, Completion events) {
+                this.result = result;
+                this.events = events;
+            }
+        }
+    }
+
     sealed interface CompletionMarker permits CompletionOnResult, CompletionFold, CompletionJoin {}
 
     abstract static class Completion<T> {
@@ -2393,26 +3380,44 @@ sealed interface CompletionMarker permits CompletionOnResult, CompletionFold, Co
     }
 
     final static class CompletionFold<U, T> extends Completion<T> implements CompletionMarker {
-        private final Promise<U> dependency;
+        private final PromiseImpl<U> dependency;
         private final Fn1<Promise<U>, Result<T>> transformer;
 
-        CompletionFold(Promise<U> dependency, Fn1<Promise<U>, Result<T>> transformer) {
+        CompletionFold(PromiseImpl<U> dependency, Fn1<Promise<U>, Result<T>> transformer) {
             this.dependency = dependency;
             this.transformer = transformer;
         }
 
         @Override
         public void complete(Result<T> value) {
-            transformer.apply(value)
-                       .onResult(dependency::resolve);
+            var output = transformer.apply(value);
+            // Cancellation of the dependency now should reach the promise returned by the transformation
+            dependency.trackUpstream(output);
+            output.onResult(dependency::resolve);
+        }
+    }
+
+    /// Deferred action of the primitive-specialized promise, never stored in the action stack of [PromiseImpl].
+    final static class CompletionRun<T> extends Completion<T> {
+        private final Runnable action;
+
+        CompletionRun(Runnable action) {
+            this.action = action;
+        }
+
+        @Override
+        public void complete(Result<T> value) {
+            action.run();
         }
     }
 
     final static class CompletionOnResult<T> extends Completion<T> implements CompletionMarker {
         private final Consumer<Result<T>> consumer;
+        private final AsyncExecutor executor;
 
-        CompletionOnResult(Consumer<Result<T>> consumer) {
+        CompletionOnResult(Consumer<Result<T>> consumer, AsyncExecutor executor) {
             this.consumer = consumer;
+            this.executor = executor;
         }
 
         @Override
@@ -2445,12 +3450,16 @@ public void complete(Result<T> value) {
 
     private static final VarHandle RESULT;
     private static final VarHandle STACK;
+    private static final VarHandle UPSTREAM;
+    private static final VarHandle INTEREST;
 
     static {
         try{
             var lookup = MethodHandles.lookup();
             RESULT = lookup.findVarHandle(PromiseImpl.class, "result", Result.class);
             STACK = lookup.findVarHandle(PromiseImpl.class, "stack", PromiseImpl.Completion.class);
+            UPSTREAM = lookup.findVarHandle(PromiseImpl.class, "upstream", PromiseImpl.class);
+            INTEREST = lookup.findVarHandle(PromiseImpl.class, "interest", int.class);
         } catch (ReflectiveOperationException e) {
             throw new ExceptionInInitializerError(e);
         }
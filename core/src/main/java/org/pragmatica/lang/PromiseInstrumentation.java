@@ -0,0 +1,310 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.Functions.Fn1;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import static org.pragmatica.lang.Result.unitResult;
+
+/// Service provider interface for observing execution of pending [Promise] instances.
+///
+/// Instrumentation is opt-in: hooks are compiled into the promise implementation only if the JVM is started with
+/// `-Dpragmatica.instrumentation=true`. Otherwise, the checks are constant-folded by the JIT compiler and cost nothing.
+/// Once enabled, the first implementation found by [ServiceLoader] is used, or [#jfr()] if there are none. The
+/// implementation can be replaced at run time with [#install(PromiseInstrumentation)].
+///
+/// Reported are:
+/// - execution time of `map`, `flatMap` and `async` stages of pending promises. For `flatMap` the time includes waiting
+///   for the promise returned by the transformation, for `async` the time the task spent in the executor queue;
+/// - delay between resolution of a promise and start of its event handlers (`onResult`, `onSuccess`, etc.);
+/// - time spent by threads blocked in [Promise#await()] and [Promise#await(TimeSpan)];
+/// - number of created and resolved promises, see [#created()] and [#resolved()].
+///
+/// Callbacks are invoked synchronously on the thread which executes the promise, so implementations must be cheap and
+/// thread-safe.
+public interface PromiseInstrumentation {
+    /// Name of the system property which enables instrumentation.
+    String PROPERTY = "pragmatica.instrumentation";
+
+    /// Error returned by [#install(PromiseInstrumentation)] if instrumentation is not enabled.
+    Cause DISABLED = () -> "Promise instrumentation is disabled, start JVM with -D" + PROPERTY + "=true";
+
+    /// Called once the stage is completed.
+    ///
+    /// @param stage         Stage name (`map`, `flatMap` or `async`)
+    /// @param durationNanos Duration of the stage in nanoseconds
+    default void stageCompleted(String stage, long durationNanos) {}
+
+    /// Called before event handlers of the resolved promise start execution.
+    ///
+    /// @param queueDelayNanos Time between resolution of the promise and start of the handlers in nanoseconds
+    default void eventHandlersStarted(long queueDelayNanos) {}
+
+    /// Called once the thread blocked in `await` is released.
+    ///
+    /// @param blockedNanos Time spent by the thread waiting for resolution in nanoseconds
+    /// @param timedOut     `true` if the promise was not resolved within the timeout
+    default void awaitCompleted(long blockedNanos, boolean timedOut) {}
+
+    /// Check if instrumentation is enabled.
+    ///
+    /// @return `true` if hooks are enabled
+    static boolean enabled() {
+        return Instrumentation.ENABLED;
+    }
+
+    /// Replace the current implementation.
+    ///
+    /// @param instrumentation New implementation
+    ///
+    /// @return success if instrumentation is enabled or [#DISABLED] failure otherwise
+    static Result<Unit> install(PromiseInstrumentation instrumentation) {
+        if (!Instrumentation.ENABLED) {
+            return DISABLED.result();
+        }
+        Instrumentation.current = instrumentation;
+        return unitResult();
+    }
+
+    /// Number of pending promises created since the start of the application. Always 0 if instrumentation is disabled.
+    ///
+    /// @return number of created promises
+    static long created() {
+        return Instrumentation.CREATED.sum();
+    }
+
+    /// Number of pending promises resolved since the start of the application. Always 0 if instrumentation is disabled.
+    ///
+    /// @return number of resolved promises
+    static long resolved() {
+        return Instrumentation.RESOLVED.sum();
+    }
+
+    /// Implementation which reports all observations as Java Flight Recorder events (`org.pragmatica.PromiseStage`,
+    /// `org.pragmatica.PromiseHandlerDelay`, `org.pragmatica.PromiseAwait`) and, periodically, the number of
+    /// created, resolved and unresolved promises (`org.pragmatica.PromiseStatistics`). Events are committed only
+    /// while a recording is running, otherwise the cost of the callback is a single check.
+    ///
+    /// @return JFR-backed implementation
+    static PromiseInstrumentation jfr() {
+        return JfrInstrumentation.INSTANCE;
+    }
+}
+
+/// State of the promise instrumentation and hooks used by the promise implementations.
+final class Instrumentation {
+    static final boolean ENABLED = Boolean.getBoolean(PromiseInstrumentation.PROPERTY);
+    static final LongAdder CREATED = new LongAdder();
+    static final LongAdder RESOLVED = new LongAdder();
+
+    static volatile PromiseInstrumentation current = ENABLED
+                                                     ? ServiceLoader.load(PromiseInstrumentation.class)
+                                                                    .findFirst()
+                                                                    .orElseGet(PromiseInstrumentation::jfr)
+                                                     : new PromiseInstrumentation() {};
+
+    private Instrumentation() {}
+
+    static void created() {
+        if (ENABLED) {
+            CREATED.increment();
+        }
+    }
+
+    static void resolved() {
+        if (ENABLED) {
+            RESOLVED.increment();
+        }
+    }
+
+    static long start() {
+        return ENABLED
+               ? System.nanoTime()
+               : 0L;
+    }
+
+    static void eventHandlersStarted(long queuedAt) {
+        if (ENABLED) {
+            current.eventHandlersStarted(System.nanoTime() - queuedAt);
+        }
+    }
+
+    static void awaitCompleted(long startedAt, boolean timedOut) {
+        if (ENABLED) {
+            current.awaitCompleted(System.nanoTime() - startedAt, timedOut);
+        }
+    }
+
+    /// Wrap synchronous stage, so its execution time is reported.
+    static <R, A> Fn1<R, A> stage(String name, Fn1<R, A> stage) {
+        if (!ENABLED) {
+            return stage;
+        }
+        return input -> {
+            var startedAt = System.nanoTime();
+            try{
+                return stage.apply(input);
+            } finally{
+                current.stageCompleted(name, System.nanoTime() - startedAt);
+            }
+        };
+    }
+
+    /// Wrap asynchronous stage, so the time until resolution of the returned promise is reported.
+    static <R, A> Fn1<Promise<R>, A> asyncStage(String name, Fn1<Promise<R>, A> stage) {
+        if (!ENABLED) {
+            return stage;
+        }
+        return input -> {
+            var startedAt = System.nanoTime();
+            return stage.apply(input)
+                        .onResultAsync(AsyncExecutor.sameThread(),
+                                       _ -> current.stageCompleted(name, System.nanoTime() - startedAt));
+        };
+    }
+
+    /// Wrap the task, so the time since submission till the end of execution is reported.
+    static Runnable task(String name, Runnable task) {
+        if (!ENABLED) {
+            return task;
+        }
+        var submittedAt = System.nanoTime();
+        return () -> {
+            try{
+                task.run();
+            } finally{
+                current.stageCompleted(name, System.nanoTime() - submittedAt);
+            }
+        };
+    }
+}
+
+final class JfrInstrumentation implements PromiseInstrumentation {
+    static final JfrInstrumentation INSTANCE = new JfrInstrumentation();
+
+    private JfrInstrumentation() {
+        FlightRecorder.addPeriodicEvent(StatisticsEvent.class, JfrInstrumentation::emitStatistics);
+    }
+
+    @Override
+    public void stageCompleted(String stage, long durationNanos) {
+        var event = new StageEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.elapsed = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void eventHandlersStarted(long queueDelayNanos) {
+        var event = new HandlerDelayEvent();
+        if (event.shouldCommit()) {
+            event.queueDelay = queueDelayNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void awaitCompleted(long blockedNanos, boolean timedOut) {
+        var event = new AwaitEvent();
+        if (event.shouldCommit()) {
+            event.blocked = blockedNanos;
+            event.timedOut = timedOut;
+            event.commit();
+        }
+    }
+
+    private static void emitStatistics() {
+        var event = new StatisticsEvent();
+        var created = PromiseInstrumentation.created();
+        var resolved = PromiseInstrumentation.resolved();
+        event.created = created;
+        event.resolved = resolved;
+        event.unresolved = created - resolved;
+        event.commit();
+    }
+
+    @Name("org.pragmatica.PromiseStage")
+    @Label("Promise Stage")
+    @Category({"Pragmatica", "Promise"})
+    @Description("Execution of the map, flatMap or async stage of a pending promise")
+    @StackTrace(false)
+    static final class StageEvent extends Event {
+        @Label("Stage")
+        String stage;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("org.pragmatica.PromiseHandlerDelay")
+    @Label("Promise Handler Delay")
+    @Category({"Pragmatica", "Promise"})
+    @Description("Delay between resolution of a promise and start of its event handlers")
+    @StackTrace(false)
+    static final class HandlerDelayEvent extends Event {
+        @Label("Queue Delay")
+        @Timespan(Timespan.NANOSECONDS)
+        long queueDelay;
+    }
+
+    @Name("org.pragmatica.PromiseAwait")
+    @Label("Promise Await")
+    @Category({"Pragmatica", "Promise"})
+    @Description("Thread blocked waiting for resolution of a promise")
+    static final class AwaitEvent extends Event {
+        @Label("Blocked")
+        @Timespan(Timespan.NANOSECONDS)
+        long blocked;
+
+        @Label("Timed Out")
+        boolean timedOut;
+    }
+
+    @Name("org.pragmatica.PromiseStatistics")
+    @Label("Promise Statistics")
+    @Category({"Pragmatica", "Promise"})
+    @Description("Number of created, resolved and unresolved pending promises")
+    @Period("1 s")
+    @StackTrace(false)
+    static final class StatisticsEvent extends Event {
+        @Label("Created")
+        long created;
+
+        @Label("Resolved")
+        long resolved;
+
+        @Label("Unresolved")
+        long unresolved;
+    }
+}
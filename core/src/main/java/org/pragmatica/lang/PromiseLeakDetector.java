@@ -0,0 +1,299 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.io.TimeSpan;
+import org.pragmatica.lang.parse.Number;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.pragmatica.lang.Result.unitResult;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+/// Detector of pending promises which are never resolved.
+///
+/// A promise which is created with [Promise#promise()] and never resolved retains all attached transformations and
+/// handlers, and threads waiting in [Promise#await()] are parked forever. The detector tracks a sample of pending
+/// promises along with their creation site and reports those which remain unresolved longer than the threshold, as well
+/// as those which were garbage collected without being resolved. Reports are logged by default, the consumer can be
+/// replaced with [#onLeak(Consumer)]. In addition, [#snapshot()] returns all tracked in-flight promises, for example,
+/// to dump them during an incident.
+///
+/// Detection is opt-in: the hooks are compiled into the promise implementation only if the JVM is started with
+/// `-Dpragmatica.leakDetection=N`, where `N` is the sampling rate (`1` tracks every promise, `100` tracks, on average,
+/// one promise out of 100). The threshold defaults to 30 seconds and can be set with the
+/// `pragmatica.leakDetection.threshold` property (in seconds) or with [#configure(int, TimeSpan)].
+public sealed interface PromiseLeakDetector {
+    /// Name of the system property which enables detection and sets the sampling rate.
+    String PROPERTY = "pragmatica.leakDetection";
+
+    /// Name of the system property which sets the threshold in seconds.
+    String THRESHOLD_PROPERTY = "pragmatica.leakDetection.threshold";
+
+    /// Error returned by [#configure(int, TimeSpan)] if detection is not enabled.
+    Cause DISABLED = () -> "Promise leak detection is disabled, start JVM with -D" + PROPERTY + "=<sampling rate>";
+
+    /// Error returned by [#configure(int, TimeSpan)] if parameters are invalid.
+    Cause INVALID_CONFIGURATION = () -> "Sampling rate and threshold must be positive";
+
+    /// Tracked pending promise.
+    ///
+    /// @param id            Sequential number of the tracked promise
+    /// @param age           Time since creation of the promise
+    /// @param creationSite  Frames of the stack at the moment of creation, outside of the promise implementation
+    /// @param dependents    Number of attached dependent transformations (`map`, `flatMap`, etc.)
+    /// @param eventHandlers Number of attached event handlers (`onResult`, `onSuccess`, etc.)
+    /// @param waiters       Number of threads waiting in `await`
+    /// @param collected     `true` if the promise was garbage collected without being resolved, in this case
+    ///                      numbers of attached completions are not available
+    record InFlightPromise(long id,
+                           TimeSpan age,
+                           List<StackWalker.StackFrame> creationSite,
+                           int dependents,
+                           int eventHandlers,
+                           int waiters,
+                           boolean collected) {
+        /// Human-readable description of the promise.
+        ///
+        /// @return description
+        public String describe() {
+            var site = creationSite.stream()
+                                   .map(frame -> "\n    at " + frame)
+                                   .collect(Collectors.joining());
+            return (collected
+                    ? "Promise #" + id + " was garbage collected without resolution after " + age.millis() + "ms"
+                    : "Promise #" + id + " is not resolved for " + age.millis() + "ms, dependents: " + dependents
+                      + ", event handlers: " + eventHandlers + ", waiters: " + waiters)
+                   + ", created" + site;
+        }
+    }
+
+    /// Check if detection is enabled.
+    ///
+    /// @return `true` if detection is enabled
+    static boolean enabled() {
+        return LeakDetector.ENABLED;
+    }
+
+    /// Change sampling rate and threshold.
+    ///
+    /// @param sampleRate Sampling rate, `1` tracks every pending promise, `N` tracks, on average, one out of `N`
+    /// @param threshold  Age after which an unresolved promise is reported
+    ///
+    /// @return success or failure if detection is disabled or parameters are invalid
+    static Result<Unit> configure(int sampleRate, TimeSpan threshold) {
+        if (!LeakDetector.ENABLED) {
+            return DISABLED.result();
+        }
+        if (sampleRate < 1 || threshold.nanos() <= 0) {
+            return INVALID_CONFIGURATION.result();
+        }
+        LeakDetector.sampleRate = sampleRate;
+        LeakDetector.thresholdNanos = threshold.nanos();
+        return unitResult();
+    }
+
+    /// Replace the consumer of leak reports. Each leak is reported once.
+    ///
+    /// @param consumer Consumer of reports
+    static void onLeak(Consumer<InFlightPromise> consumer) {
+        LeakDetector.consumer = consumer;
+    }
+
+    /// Tracked promises which are not resolved yet, the oldest first.
+    ///
+    /// @return list of in-flight promises, empty if detection is disabled
+    static List<InFlightPromise> snapshot() {
+        return LeakDetector.TRACKED.stream()
+                                   .map(tracker -> tracker.describe(System.nanoTime()))
+                                   .flatMap(Option::stream)
+                                   .sorted(Comparator.comparing(InFlightPromise::age)
+                                                     .reversed())
+                                   .toList();
+    }
+
+    /// Check tracked promises and report leaks immediately, without waiting for the periodic check.
+    static void check() {
+        LeakDetector.sweep();
+    }
+
+    record unused() implements PromiseLeakDetector {}
+}
+
+/// State of the leak detector and hooks used by [PromiseImpl].
+final class LeakDetector {
+    private static final Logger log = LoggerFactory.getLogger(PromiseLeakDetector.class);
+
+    private static final int INITIAL_RATE = Number.parseInt(System.getProperty(PromiseLeakDetector.PROPERTY, "0"))
+                                                  .or(0);
+    private static final int MAX_SITE_FRAMES = 8;
+    private static final long MIN_CHECK_INTERVAL = timeSpan(10).millis().nanos();
+    private static final long MAX_CHECK_INTERVAL = timeSpan(1).seconds().nanos();
+
+    static final boolean ENABLED = INITIAL_RATE > 0;
+    static final Set<Tracker> TRACKED = ConcurrentHashMap.newKeySet();
+
+    static volatile int sampleRate = INITIAL_RATE;
+    static volatile long thresholdNanos = timeSpan(Number.parseInt(System.getProperty(PromiseLeakDetector.THRESHOLD_PROPERTY,
+                                                                                      "30"))
+                                                         .filter(PromiseLeakDetector.INVALID_CONFIGURATION, value -> value > 0)
+                                                         .or(30)).seconds()
+                                                                 .nanos();
+    static volatile Consumer<PromiseLeakDetector.InFlightPromise> consumer = leak -> log.warn(leak.describe());
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Set<Class<?>> INTERNAL = Set.of(Promise.class,
+                                                         PromiseImpl.class,
+                                                         Instrumentation.class,
+                                                         LeakDetector.class);
+    private static final ReferenceQueue<PromiseImpl<?>> COLLECTED = new ReferenceQueue<>();
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final AtomicBoolean CHECK_SCHEDULED = new AtomicBoolean();
+
+    private LeakDetector() {}
+
+    /// Start tracking of the new pending promise if it is selected by sampling.
+    ///
+    /// @return tracker or `null` if the promise is not tracked
+    static Tracker track(PromiseImpl<?> promise) {
+        var rate = sampleRate;
+        if (rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0) {
+            return null;
+        }
+        var site = WALKER.walk(frames -> frames.dropWhile(LeakDetector::isInternal)
+                                               .limit(MAX_SITE_FRAMES)
+                                               .toList());
+        var tracker = new Tracker(promise, IDS.incrementAndGet(), site);
+        TRACKED.add(tracker);
+        scheduleCheck();
+        return tracker;
+    }
+
+    private static boolean isInternal(StackWalker.StackFrame frame) {
+        var type = frame.getDeclaringClass();
+        while (type.getEnclosingClass() != null) {
+            type = type.getEnclosingClass();
+        }
+        return INTERNAL.contains(type);
+    }
+
+    private static void scheduleCheck() {
+        if (CHECK_SCHEDULED.compareAndSet(false, true)) {
+            var interval = Math.clamp(thresholdNanos / 4, MIN_CHECK_INTERVAL, MAX_CHECK_INTERVAL);
+            TimerWheel.shared()
+                      .schedule(timeSpan(interval).nanos(), LeakDetector::periodicCheck);
+        }
+    }
+
+    private static void periodicCheck() {
+        try{
+            sweep();
+        } finally{
+            CHECK_SCHEDULED.set(false);
+            if (!TRACKED.isEmpty()) {
+                scheduleCheck();
+            }
+        }
+    }
+
+    static void sweep() {
+        var now = System.nanoTime();
+        Tracker collected;
+        while ((collected = (Tracker) COLLECTED.poll()) != null) {
+            if (TRACKED.remove(collected)) {
+                report(collected.collected(now));
+            }
+        }
+        var threshold = thresholdNanos;
+        for (var tracker : TRACKED) {
+            if (!tracker.reported && now - tracker.createdAt >= threshold) {
+                tracker.describe(now)
+                       .onPresent(leak -> {
+                           tracker.reported = true;
+                           report(leak);
+                       });
+            }
+        }
+    }
+
+    private static void report(PromiseLeakDetector.InFlightPromise leak) {
+        try{
+            consumer.accept(leak);
+        } catch (RuntimeException e) {
+            log.warn("Promise leak consumer failed", e);
+        }
+    }
+
+    /// Weak reference to the tracked promise, so tracking does not prevent garbage collection of abandoned promises.
+    static final class Tracker extends WeakReference<PromiseImpl<?>> {
+        private final long id;
+        private final long createdAt;
+        private final List<StackWalker.StackFrame> site;
+        private volatile boolean reported;
+
+        Tracker(PromiseImpl<?> promise, long id, List<StackWalker.StackFrame> site) {
+            super(promise, COLLECTED);
+            this.id = id;
+            this.createdAt = System.nanoTime();
+            this.site = site;
+        }
+
+        void resolved() {
+            TRACKED.remove(this);
+            clear();
+        }
+
+        Option<PromiseLeakDetector.InFlightPromise> describe(long now) {
+            var promise = get();
+            if (promise == null || promise.isResolved()) {
+                return Option.none();
+            }
+            var counts = promise.completionCounts();
+            return Option.some(new PromiseLeakDetector.InFlightPromise(id,
+                                                                       timeSpan(now - createdAt).nanos(),
+                                                                       site,
+                                                                       counts[0],
+                                                                       counts[1],
+                                                                       counts[2],
+                                                                       false));
+        }
+
+        PromiseLeakDetector.InFlightPromise collected(long now) {
+            return new PromiseLeakDetector.InFlightPromise(id,
+                                                           timeSpan(now - createdAt).nanos(),
+                                                           site,
+                                                           0,
+                                                           0,
+                                                           0,
+                                                           true);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.Functions.Fn1;
+import org.pragmatica.lang.Functions.Fn2;
+import org.pragmatica.lang.Option.None;
+import org.pragmatica.lang.Option.Some;
+import org.pragmatica.lang.Result.Failure;
+import org.pragmatica.lang.Result.Success;
+import org.pragmatica.lang.io.CoreError;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/// Pull-based asynchronous stream of values.
+///
+/// Elements are requested one at a time with [#next()]; the source produces the next element only when it is
+/// requested, so a slow consumer naturally slows down the producer, and only elements which are currently processed
+/// are kept in memory. The end of the stream is signalled by the empty [Option], failure of the source is signalled
+/// by the failed [Promise] and terminates the stream.
+///
+/// Transformations ([#map(Fn1)], [#filter(Predicate)], [#flatMap(Fn1)], [#batch(int)], etc.) are lazy and do not
+/// pull anything from the source. Processing is started by one of the terminal operations ([#fold(Object, Fn2)],
+/// [#forEach(Consumer)], [#toList()]), which pull all elements and [close][#close()] the stream once it is exhausted,
+/// failed or the returned promise is cancelled. Elements which are available immediately (already resolved promises)
+/// are processed in a loop, so long synchronous streams do not grow the stack.
+///
+/// Instances are not thread-safe in the sense that the next element must not be requested until the previous request
+/// is resolved. Terminal operations and transformations follow this rule.
+///
+/// @param <T> Type of stream elements
+public interface PromiseStream<T> {
+    /// Request the next element of the stream.
+    ///
+    /// @return promise resolved with the next element, with empty [Option] if the stream is exhausted or with the
+    ///         failure if the source failed
+    Promise<Option<T>> next();
+
+    /// Release resources held by the stream. Subsequent calls have no effect.
+    void close();
+
+    /// Transform stream elements.
+    ///
+    /// @param mapper Function to apply to each element
+    ///
+    /// @return transformed stream
+    default <U> PromiseStream<U> map(Fn1<U, ? super T> mapper) {
+        return promiseStream(() -> next().map(option -> option.map(mapper)), this::close);
+    }
+
+    /// Transform stream elements with the asynchronous function. Next element is requested only after the
+    /// transformation of the previous one is finished.
+    ///
+    /// @param mapper Function to apply to each element
+    ///
+    /// @return transformed stream
+    default <U> PromiseStream<U> mapAsync(Fn1<Promise<U>, ? super T> mapper) {
+        return promiseStream(() -> next().flatMap(option -> switch (option) {
+                                 case Some<T>(var value) -> mapper.apply(value)
+                                                                  .map(Option::some);
+                                 case None<T> _ -> StreamPull.end();
+                             }),
+                             this::close);
+    }
+
+    /// Pass through only elements which satisfy the predicate.
+    ///
+    /// @param predicate Predicate to check elements
+    ///
+    /// @return filtered stream
+    default PromiseStream<T> filter(Predicate<? super T> predicate) {
+        var step = new StreamPull.Filter<T>(predicate);
+        return promiseStream(() -> StreamPull.pull(this, step), this::close);
+    }
+
+    /// Replace each element with the stream returned by the mapper and concatenate resulting streams. Each inner
+    /// stream is consumed completely and closed before the next element of this stream is requested.
+    ///
+    /// @param mapper Function which returns the stream for each element
+    ///
+    /// @return flattened stream
+    default <U> PromiseStream<U> flatMap(Fn1<PromiseStream<U>, ? super T> mapper) {
+        return new StreamPull.FlatMap<>(this, mapper);
+    }
+
+    /// Group elements into lists of the specified size. The last list may contain fewer elements.
+    ///
+    /// @param size Number of elements in each list, must be positive
+    ///
+    /// @return stream of lists or stream which fails with [#INVALID_SIZE] if the size is not positive
+    default PromiseStream<List<T>> batch(int size) {
+        return window(size, size);
+    }
+
+    /// Group elements into lists of the specified size, with start of each list shifted by `step` elements relative
+    /// to the previous one. If `step` is less than `size`, windows overlap; if `step` is greater than `size`, some
+    /// elements are skipped. The last window may contain fewer elements; it is emitted only if it contains elements
+    /// which were not included into the previous windows.
+    ///
+    /// @param size Number of elements in each window, must be positive
+    /// @param step Distance between starts of subsequent windows, must be positive
+    ///
+    /// @return stream of windows or stream which fails with [#INVALID_SIZE] if the size or step is not positive
+    default PromiseStream<List<T>> window(int size, int step) {
+        if (size <= 0 || step <= 0) {
+            return promiseStream(INVALID_SIZE::promise, this::close);
+        }
+        var window = new StreamPull.Window<T>(size, step);
+        return promiseStream(() -> StreamPull.pull(this, window), this::close);
+    }
+
+    /// Limit the stream to the specified number of elements. The source is not requested once the limit is reached.
+    ///
+    /// @param count Maximal number of elements
+    ///
+    /// @return limited stream
+    default PromiseStream<T> take(long count) {
+        var remaining = new AtomicLong(count);
+        return promiseStream(() -> remaining.getAndDecrement() > 0
+                                   ? next()
+                                   : StreamPull.end(),
+                             this::close);
+    }
+
+    /// Combine all elements of the stream into a single value. The stream is closed once processing is finished.
+    ///
+    /// @param initial Initial value
+    /// @param folder  Function which combines the accumulated value with the next element
+    ///
+    /// @return promise resolved with the accumulated value or with the failure of the stream
+    default <R> Promise<R> fold(R initial, Fn2<R, R, ? super T> folder) {
+        var result = StreamPull.pull(this, new StreamPull.Fold<R, T>(initial, folder));
+        result.onResultAsync(AsyncExecutor.sameThread(), _ -> close());
+        return result.map(Option::unwrap);
+    }
+
+    /// Pass all elements of the stream to the consumer. The stream is closed once processing is finished.
+    ///
+    /// @param action Consumer for elements
+    ///
+    /// @return promise resolved once all elements are processed or with the failure of the stream
+    default Promise<Unit> forEach(Consumer<? super T> action) {
+        return fold(Unit.unit(),
+                    (unit, value) -> {
+                        action.accept(value);
+                        return unit;
+                    });
+    }
+
+    /// Collect all elements of the stream into a list. The stream is closed once processing is finished.
+    ///
+    /// @return promise resolved with the list of elements or with the failure of the stream
+    default Promise<List<T>> toList() {
+        return fold(new ArrayList<T>(),
+                    (list, value) -> {
+                        list.add(value);
+                        return list;
+                    })
+               .map(List::copyOf);
+    }
+
+    /// Create empty stream.
+    ///
+    /// @return stream without elements
+    static <T> PromiseStream<T> empty() {
+        return promiseStream(StreamPull::end);
+    }
+
+    /// Create stream from provided values.
+    ///
+    /// @param values Stream elements
+    ///
+    /// @return created stream
+    @SafeVarargs
+    static <T> PromiseStream<T> of(T... values) {
+        return fromIterable(List.of(values));
+    }
+
+    /// Create stream which returns elements of the provided iterable. The iterator is obtained when the stream is
+    /// created.
+    ///
+    /// @param iterable Source of elements
+    ///
+    /// @return created stream
+    static <T> PromiseStream<T> fromIterable(Iterable<T> iterable) {
+        Iterator<T> iterator = iterable.iterator();
+        return promiseStream(() -> iterator.hasNext()
+                                   ? Promise.success(Option.some(iterator.next()))
+                                   : StreamPull.end());
+    }
+
+    /// Create stream which fails with the provided cause on the first request.
+    ///
+    /// @param cause Failure cause
+    ///
+    /// @return created stream
+    static <T> PromiseStream<T> failure(Cause cause) {
+        return promiseStream(cause::promise);
+    }
+
+    /// Create stream from the function which returns next element on each invocation.
+    ///
+    /// @param puller Function which returns promise of the next element or empty [Option] at the end of the stream
+    ///
+    /// @return created stream
+    static <T> PromiseStream<T> promiseStream(Supplier<Promise<Option<T>>> puller) {
+        return promiseStream(puller, () -> {});
+    }
+
+    /// Create stream from the function which returns next element on each invocation and the action which releases
+    /// resources held by the source.
+    ///
+    /// @param puller  Function which returns promise of the next element or empty [Option] at the end of the stream
+    /// @param onClose Action invoked once when the stream is closed
+    ///
+    /// @return created stream
+    static <T> PromiseStream<T> promiseStream(Supplier<Promise<Option<T>>> puller, Runnable onClose) {
+        return new StreamPull.Source<>(puller, onClose);
+    }
+
+    /// Error cause for invalid size or step passed to [#batch(int)] or [#window(int, int)].
+    Cause INVALID_SIZE = () -> "size and step must be positive";
+}
+
+/// Building blocks of [PromiseStream] transformations.
+final class StreamPull {
+    private static final Promise<Option<?>> END = Promise.success(Option.none());
+
+    private StreamPull() {}
+
+    @SuppressWarnings("unchecked")
+    static <T> Promise<Option<T>> end() {
+        return (Promise<Option<T>>) (Promise<?>) END;
+    }
+
+    /// Processing step which consumes a variable number of upstream elements per produced element.
+    interface Step<T, R> {
+        /// Handle next upstream element.
+        ///
+        /// @return element to produce or `null` if more upstream elements are necessary
+        Option<R> element(T value);
+
+        /// Handle the end of the upstream.
+        ///
+        /// @return last element to produce or empty [Option] if there is nothing to produce
+        Option<R> end();
+    }
+
+    /// Pull upstream elements until the step produces an element. Already resolved upstream promises are handled in
+    /// the loop; the loop is suspended only when the upstream promise is pending and resumed once it is resolved.
+    static <T, R> Promise<Option<R>> pull(PromiseStream<T> upstream, Step<T, R> step) {
+        return pull(upstream, step, null);
+    }
+
+    private static <T, R> Promise<Option<R>> pull(PromiseStream<T> upstream,
+                                                  Step<T, R> step,
+                                                  Promise<Option<R>> output) {
+        while (output == null || !output.isResolved()) {
+            var next = upstream.next();
+            if (!next.isResolved()) {
+                // Output is owned by the stream, so its cancellation by the consumer is propagated
+                var target = output == null
+                             ? Promise.<Option<R>>promise()
+                                      .cancellable()
+                             : output;
+                next.onResult(result -> handle(upstream, step, target, result));
+                return target;
+            }
+            var produced = apply(step, next.await());
+            if (produced != null) {
+                return output == null
+                       ? Promise.resolved(produced)
+                       : output.resolve(produced);
+            }
+        }
+        return output;
+    }
+
+    private static <T, R> void handle(PromiseStream<T> upstream,
+                                      Step<T, R> step,
+                                      Promise<Option<R>> output,
+                                      Result<Option<T>> result) {
+        // Output can be cancelled while upstream request is in progress
+        if (output.isResolved()) {
+            return;
+        }
+        var produced = apply(step, result);
+        if (produced == null) {
+            pull(upstream, step, output);
+        } else {
+            output.resolve(produced);
+        }
+    }
+
+    private static <T, R> Result<Option<R>> apply(Step<T, R> step, Result<Option<T>> result) {
+        try{
+            return switch (result) {
+                case Success<Option<T>>(Some<T>(var value)) -> {
+                    var produced = step.element(value);
+                    yield produced == null
+                          ? null
+                          : Result.success(produced);
+                }
+                case Success<Option<T>> _ -> Result.success(step.end());
+                case Failure<Option<T>>(var cause) -> cause.result();
+            };
+        } catch (Throwable e) {
+            return new CoreError.Exception(e).result();
+        }
+    }
+
+    static final class Source<T> implements PromiseStream<T> {
+        private final Supplier<Promise<Option<T>>> puller;
+        private final Runnable onClose;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Source(Supplier<Promise<Option<T>>> puller, Runnable onClose) {
+            this.puller = puller;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public Promise<Option<T>> next() {
+            return puller.get();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                onClose.run();
+            }
+        }
+    }
+
+    static final class FlatMap<T, U> implements PromiseStream<U> {
+        private final PromiseStream<T> upstream;
+        private final Fn1<PromiseStream<U>, ? super T> mapper;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile PromiseStream<U> inner;
+
+        FlatMap(PromiseStream<T> upstream, Fn1<PromiseStream<U>, ? super T> mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Promise<Option<U>> next() {
+            var current = inner;
+            if (current == null) {
+                return upstream.next()
+                               .flatMap(option -> switch (option) {
+                                   case Some<T>(var value) -> {
+                                       inner = mapper.apply(value);
+                                       yield next();
+                                   }
+                                   case None<T> _ -> end();
+                               });
+            }
+            return current.next()
+                          .flatMap(option -> {
+                              if (option.isPresent()) {
+                                  return Promise.success(option);
+                              }
+                              inner = null;
+                              current.close();
+                              return next();
+                          });
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                var current = inner;
+                if (current != null) {
+                    current.close();
+                }
+                upstream.close();
+            }
+        }
+    }
+
+    static final class Filter<T> implements Step<T, T> {
+        private final Predicate<? super T> predicate;
+
+        Filter(Predicate<? super T> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public Option<T> element(T value) {
+            return predicate.test(value)
+                   ? Option.some(value)
+                   : null;
+        }
+
+        @Override
+        public Option<T> end() {
+            return Option.none();
+        }
+    }
+
+    static final class Window<T> implements Step<T, List<T>> {
+        private final int size;
+        private final int step;
+        private final ArrayDeque<T> buffer;
+        private int skip;
+        private int fresh;
+
+        Window(int size, int step) {
+            this.size = size;
+            this.step = step;
+            this.buffer = new ArrayDeque<>(Math.min(size, 1024));
+        }
+
+        @Override
+        public Option<List<T>> element(T value) {
+            if (skip > 0) {
+                skip--;
+                return null;
+            }
+            buffer.addLast(value);
+            fresh++;
+            if (buffer.size() < size) {
+                return null;
+            }
+            return Option.some(emit());
+        }
+
+        @Override
+        public Option<List<T>> end() {
+            return fresh > 0
+                   ? Option.some(emit())
+                   : Option.none();
+        }
+
+        private List<T> emit() {
+            var window = List.copyOf(buffer);
+            fresh = 0;
+            if (step >= buffer.size()) {
+                skip = step - buffer.size();
+                buffer.clear();
+            } else {
+                for (int i = 0; i < step; i++) {
+                    buffer.removeFirst();
+                }
+            }
+            return window;
+        }
+    }
+
+    static final class Fold<R, T> implements Step<T, R> {
+        private final Fn2<R, R, ? super T> folder;
+        private R accumulator;
+
+        Fold(R initial, Fn2<R, R, ? super T> folder) {
+            this.accumulator = initial;
+            this.folder = folder;
+        }
+
+        @Override
+        public Option<R> element(T value) {
+            accumulator = folder.apply(accumulator, value);
+            return null;
+        }
+
+        @Override
+        public Option<R> end() {
+            return Option.some(accumulator);
+        }
+    }
+}
@@ -20,9 +20,15 @@
 import org.pragmatica.lang.Result.Failure;
 import org.pragmatica.lang.Result.Success;
 import org.pragmatica.lang.utils.Causes;
+import org.pragmatica.lang.utils.Tracing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -111,9 +117,10 @@ default Result<T> mapError(Fn1<Cause, ? super Cause> mapper) {
                     _ -> this);
     }
 
-    /// Add tracing information to the failure cause.
+    /// Add tracing information to the failure cause. Call site capture can be disabled or sampled, see [Tracing].
     ///
-    /// @return current instance (in case of success) or instance with tracing information (in case of failure)
+    /// @return current instance (in case of success or if the call site is not captured) or instance with tracing
+    ///         information (in case of failure)
     Result<T> trace();
 
     /// Recover from failure by transforming failure cause into new value.
@@ -896,8 +903,6 @@ static <U> Result<U> err(Cause value) {
     }
 
     record Failure<T>(Cause cause) implements Result<T> {
-        private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
-
         @Override
         public <U> U fold(Fn1<? extends U, ? super Cause> failureMapper, Fn1<? extends U, ? super T> successMapper) {
             return failureMapper.apply(cause);
@@ -910,11 +915,8 @@ public String toString() {
 
         @Override
         public Result<T> trace() {
-            var text = WALKER.walk(frames -> frames.skip(1)
-                                                   .findFirst()
-                                                   .map(StackWalker.StackFrame::toString)
-                                                   .orElse("<unknown>"));
-            return mapError(cause -> Causes.CompositeCause.toComposite(text, cause));
+            return Tracing.callSite()
+                          .fold(() -> this, frame -> failure(Causes.CompositeCause.toComposite(frame, cause)));
         }
     }
 
@@ -1242,12 +1244,9 @@ static <T> Result<T> any(Result<T> first, Supplier<Result<T>>... suppliers) {
     ///
     /// @return success instance if all [Result] instances in the list are successes or failure instance if any instance in this list is a failure
     static <T> Result<List<T>> allOf(Stream<Result<T>> results) {
-        var causes = Causes.composite();
-        var values = new ArrayList<T>();
-        results.forEach(val -> val.fold(causes::append, values::add));
-        return causes.isEmpty()
-               ? success(values)
-               : failure(causes);
+        var collector = new ResultAccumulator<T>(new ArrayList<>());
+        results.forEach(collector::accept);
+        return collector.result();
     }
 
     /// Transform provided [Result] instances into [Result] with the list of values.
@@ -1266,15 +1265,65 @@ static <T> Result<List<T>> allOf(Result<T>... results) {
     ///
     /// @return success instance if all [Result] instances in the list are successes or failure instance if any instance in this list is a failure
     static <T> Result<List<T>> allOf(List<Result<T>> results) {
-        var causes = Causes.composite();
-        var values = new ArrayList<T>();
-        for (var value : results) {
-            value.onFailure(causes::append)
-                 .onSuccess(values::add);
+        var collector = new ResultAccumulator<T>(new ArrayList<>(results.size()));
+        results.forEach(collector::accept);
+        return collector.result();
+    }
+
+    /// Apply the function to each value and collect outputs into [Result] with the list of values. Processing stops at
+    /// the first failure, which is returned as is. Unlike [#allOf(List)], no intermediate list of [Result] instances is
+    /// created.
+    ///
+    /// @param values input values
+    /// @param mapper function to apply to each value, for example, a chain of [Verify] checks
+    ///
+    /// @return success instance with the unmodifiable list of outputs in the input order or the first failure
+    @SuppressWarnings("unchecked")
+    static <T, R> Result<List<R>> traverse(Collection<T> values, Fn1<Result<R>, ? super T> mapper) {
+        var output = new ArrayList<R>(values.size());
+        for (var value : values) {
+            switch (mapper.apply(value)) {
+                case Success<R>(var result) -> output.add(result);
+                case Failure<R> failure -> {
+                    return (Result<List<R>>) (Result<?>) failure;
+                }
+            }
+        }
+        return success(Collections.unmodifiableList(output));
+    }
+
+    /// Apply the function to each value and collect outputs into [Result] with the list of values. The function is
+    /// applied to all values and all failures are collected into [Causes.CompositeCause], so it is suitable for
+    /// validation where all issues should be reported at once.
+    ///
+    /// @param values input values
+    /// @param mapper function to apply to each value, for example, a chain of [Verify] checks
+    ///
+    /// @return success instance with the unmodifiable list of outputs in the input order or failure with all causes in
+    ///         the input order
+    static <T, R> Result<List<R>> traverseAll(Collection<T> values, Fn1<Result<R>, ? super T> mapper) {
+        var collector = new ResultAccumulator<R>(new ArrayList<>(values.size()));
+        for (var value : values) {
+            collector.accept(mapper.apply(value));
         }
-        return causes.isEmpty()
-               ? success(values)
-               : failure(causes);
+        return collector.unmodifiableResult();
+    }
+
+    /// Same as [#traverseAll(Collection, Fn1)], but large inputs are split into chunks processed in parallel in the
+    /// [ForkJoinPool#commonPool()]. The outcome does not depend on scheduling: outputs and causes keep the input order.
+    /// Small inputs (less than 1024 elements) are processed in the calling thread. The function must be safe to call
+    /// concurrently.
+    ///
+    /// @param values input values
+    /// @param mapper function to apply to each value
+    ///
+    /// @return success instance with the unmodifiable list of outputs in the input order or failure with all causes in
+    ///         the input order
+    static <T, R> Result<List<R>> traverseAllParallel(Collection<T> values, Fn1<Result<R>, ? super T> mapper) {
+        if (values.size() < ParallelTraversal.THRESHOLD) {
+            return traverseAll(values, mapper);
+        }
+        return ParallelTraversal.traverse(values, mapper);
     }
 
     /// Transform provided results into a single result containing the tuple of values.
@@ -2524,3 +2573,112 @@ default Promise.Mapper15<T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, T13,
         }
     }
 }
+
+/// Collector of values and failures used by bulk combinators. The composite cause is created only if there is at least
+/// one failure, values are no longer collected after the first failure.
+final class ResultAccumulator<T> {
+    private final List<T> values;
+    private Causes.CompositeCause causes;
+
+    ResultAccumulator(List<T> values) {
+        this.values = values;
+    }
+
+    void accept(Result<? extends T> result) {
+        switch (result) {
+            case Result.Success<? extends T>(var value) when causes == null -> values.add(value);
+            case Result.Success<? extends T> _ -> {}
+            case Result.Failure<? extends T>(var cause) -> failure(cause);
+        }
+    }
+
+    void failure(Cause cause) {
+        if (causes == null) {
+            causes = Causes.composite();
+        }
+        causes.append(cause);
+    }
+
+    Result<List<T>> result() {
+        return causes == null
+               ? Result.success(values)
+               : Result.failure(causes);
+    }
+
+    Result<List<T>> unmodifiableResult() {
+        return causes == null
+               ? Result.success(Collections.unmodifiableList(values))
+               : Result.failure(causes);
+    }
+}
+
+/// Fork-join traversal for [Result#traverseAllParallel(Collection, Fn1)]. Each task writes outputs into the shared array
+/// at the indexes of its chunk and returns its own failures, which are merged in the input order.
+final class ParallelTraversal<T, R> extends RecursiveTask<List<Cause>> {
+    /// Minimal size of the input processed in parallel. Smaller chunks are processed sequentially, as the cost of the
+    /// task scheduling exceeds the cost of typical validation.
+    static final int THRESHOLD = 1024;
+
+    private final Object[] input;
+    private final Object[] output;
+    private final Fn1<Result<R>, ? super T> mapper;
+    private final int from;
+    private final int to;
+
+    private ParallelTraversal(Object[] input, Object[] output, Fn1<Result<R>, ? super T> mapper, int from, int to) {
+        this.input = input;
+        this.output = output;
+        this.mapper = mapper;
+        this.from = from;
+        this.to = to;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T, R> Result<List<R>> traverse(Collection<T> values, Fn1<Result<R>, ? super T> mapper) {
+        var input = values.toArray();
+        var output = new Object[input.length];
+        var causes = ForkJoinPool.commonPool()
+                                 .invoke(new ParallelTraversal<>(input, output, mapper, 0, input.length));
+        if (causes.isEmpty()) {
+            return Result.success((List<R>) (List<?>) Collections.unmodifiableList(Arrays.asList(output)));
+        }
+        var composite = Causes.composite();
+        causes.forEach(composite::append);
+        return Result.failure(composite);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<Cause> compute() {
+        if (to - from <= THRESHOLD) {
+            List<Cause> causes = List.of();
+            for (int i = from; i < to; i++) {
+                switch (mapper.apply((T) input[i])) {
+                    case Result.Success<R>(var value) -> output[i] = value;
+                    case Result.Failure<R>(var cause) -> {
+                        if (causes.isEmpty()) {
+                            causes = new ArrayList<>();
+                        }
+                        causes.add(cause);
+                    }
+                }
+            }
+            return causes;
+        }
+        var middle = (from + to) >>> 1;
+        var left = new ParallelTraversal<T, R>(input, output, mapper, from, middle);
+        left.fork();
+        var rightCauses = new ParallelTraversal<T, R>(input, output, mapper, middle, to).compute();
+        var leftCauses = left.join();
+        if (rightCauses.isEmpty()) {
+            return leftCauses;
+        }
+        if (leftCauses.isEmpty()) {
+            return rightCauses;
+        }
+        var merged = new ArrayList<Cause>(leftCauses.size() + rightCauses.size());
+        merged.addAll(leftCauses);
+        merged.addAll(rightCauses);
+        return merged;
+    }
+}
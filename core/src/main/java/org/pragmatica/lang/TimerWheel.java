@@ -0,0 +1,493 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang;
+
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+/// Hashed timer wheel used to run delayed actions without dedicating a thread to each pending delay.
+///
+/// All scheduled tasks are kept in a fixed-size ring of buckets. Single worker thread advances the wheel once per tick
+/// and hands expired tasks over to the [default executor][AsyncExecutor#defaultExecutor()], so task code does not run
+/// on the timer thread unless the default executor is [AsyncExecutor#sameThread()].
+/// Scheduling and cancellation are lock-free and O(1); cancelled tasks are removed from the wheel by the worker
+/// thread on the next tick, so they do not retain memory until their original deadline.
+///
+/// Tasks with delays longer than one revolution of the wheel are kept in an overflow queue ordered by deadline and
+/// moved into the wheel once their deadline falls within the next revolution. This way each pending task is touched
+/// by the worker only when it is added, moved and expired, regardless of the delay (O(log n) for the long delays).
+/// The precision of the timer is limited by the tick duration.
+///
+/// The worker thread is started lazily on the first scheduled task and parks indefinitely while there are no pending
+/// tasks, so idle instances consume no CPU.
+///
+/// The [#shared()] instance backs all delayed [Promise] operations, such as [Promise#timeout(TimeSpan)] and
+/// [Promise#async(TimeSpan, java.util.function.Consumer)].
+public interface TimerWheel {
+    /// Schedule one-time execution of the task after the specified delay.
+    ///
+    /// @param delay delay before execution
+    /// @param task  task to execute
+    ///
+    /// @return handle which can be used to cancel the task
+    TimerTask schedule(TimeSpan delay, Runnable task);
+
+    /// Number of scheduled tasks which are neither expired nor cancelled yet.
+    ///
+    /// @return number of pending tasks
+    int pending();
+
+    /// Stop the worker thread. Pending tasks are dropped without execution. The [#shared()] instance ignores this call.
+    ///
+    /// @return Unit for composition
+    Unit stop();
+
+    /// Handle of the scheduled task.
+    interface TimerTask {
+        /// Cancel the task. Cancelled task is never executed.
+        ///
+        /// @return `true` if the task was cancelled by this call, `false` if it was already expired or cancelled
+        boolean cancel();
+
+        /// Check if the task was cancelled.
+        ///
+        /// @return `true` if the task was cancelled
+        boolean isCancelled();
+
+        /// Check if the task was expired and handed over for execution.
+        ///
+        /// @return `true` if the task was expired
+        boolean isExpired();
+    }
+
+    /// Shared instance with 1ms tick and 512 buckets.
+    ///
+    /// @return shared timer wheel instance
+    static TimerWheel shared() {
+        return HashedTimerWheel.SHARED;
+    }
+
+    /// Create new timer wheel with specified tick duration and number of buckets. The number of buckets is rounded up
+    /// to the nearest power of two.
+    ///
+    /// @param tickDuration duration of one tick, must be positive
+    /// @param wheelSize    number of buckets in the wheel, must be in range 1..2^30
+    ///
+    /// @return Result containing created instance or failure if parameters are invalid
+    static Result<TimerWheel> timerWheel(TimeSpan tickDuration, int wheelSize) {
+        if (tickDuration.nanos() <= 0) {
+            return INVALID_TICK_DURATION.result();
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            return INVALID_WHEEL_SIZE.result();
+        }
+        return Result.success(new HashedTimerWheel(tickDuration.nanos(), wheelSize, true));
+    }
+
+    /// Error cause for invalid tick duration.
+    Cause INVALID_TICK_DURATION = () -> "tickDuration must be positive";
+
+    /// Error cause for invalid wheel size.
+    Cause INVALID_WHEEL_SIZE = () -> "wheelSize must be in range 1..2^30";
+}
+
+final class HashedTimerWheel implements TimerWheel {
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    static final TimerWheel SHARED = new HashedTimerWheel(timeSpan(1).millis()
+                                                                  .nanos(), 512, false);
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_STOPPED = 2;
+
+    // Limits amount of work done by the worker in a single tick when tasks are added faster than they expire
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final boolean stoppable;
+    private final long startTime = System.nanoTime();
+    private final ConcurrentLinkedQueue<Entry> additions = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Entry> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+    private final Thread worker;
+    private volatile boolean idle;
+
+    // Accessed only by the worker thread
+    private final Overflow overflow = new Overflow();
+    private long tick;
+
+    HashedTimerWheel(long tickNanos, int wheelSize, boolean stoppable) {
+        var size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = tickNanos;
+        this.wheel = new Bucket[size];
+        this.mask = size - 1;
+        this.stoppable = stoppable;
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.worker = Thread.ofPlatform()
+                            .name("pragmatica-timer-wheel")
+                            .daemon(true)
+                            .unstarted(this::run);
+    }
+
+    @Override
+    public TimerTask schedule(TimeSpan delay, Runnable task) {
+        ensureStarted();
+        var now = System.nanoTime() - startTime;
+        var delayNanos = Math.max(0, delay.nanos());
+        // Guard against overflow for extremely long delays
+        var deadline = delayNanos > Long.MAX_VALUE - now
+                       ? Long.MAX_VALUE
+                       : now + delayNanos;
+        var entry = new Entry(this, task, deadline);
+        pending.incrementAndGet();
+        additions.add(entry);
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+        return entry;
+    }
+
+    @Override
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public Unit stop() {
+        if (stoppable && state.getAndSet(STATE_STOPPED) == STATE_STARTED) {
+            LockSupport.unpark(worker);
+        }
+        return Unit.unit();
+    }
+
+    @Override
+    public String toString() {
+        return "TimerWheel(" + wheel.length + " x " + tickNanos + "ns, pending " + pending.get() + ")";
+    }
+
+    private void ensureStarted() {
+        if (state.get() == STATE_INIT && state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+            worker.start();
+        }
+    }
+
+    private void run() {
+        while (state.get() == STATE_STARTED) {
+            var now = waitForNextTick();
+            if (now < 0) {
+                break;
+            }
+            processCancellations();
+            transferAdditions();
+            promoteOverflow();
+            wheel[(int) (tick & mask)].expire(now);
+            tick++;
+        }
+    }
+
+    /// Wait until the start of the next tick.
+    ///
+    /// @return current time relative to the start of the wheel or -1 if the wheel was stopped
+    private long waitForNextTick() {
+        var deadline = tickNanos * (tick + 1);
+        while (true) {
+            if (state.get() != STATE_STARTED) {
+                return -1;
+            }
+            if (pending.get() == 0) {
+                parkWhileIdle();
+                deadline = tickNanos * (tick + 1);
+            }
+            var now = System.nanoTime() - startTime;
+            var sleepNanos = deadline - now;
+            if (sleepNanos <= 0) {
+                return now;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+    }
+
+    /// Park the worker until a new task is scheduled. Once woken up, the wheel is fast-forwarded to the current time,
+    /// as all buckets are empty at this point and there is nothing to expire.
+    private void parkWhileIdle() {
+        processCancellations();
+        idle = true;
+        try {
+            while (pending.get() == 0 && state.get() == STATE_STARTED) {
+                LockSupport.park(this);
+            }
+        } finally {
+            idle = false;
+        }
+        tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+    }
+
+    private void transferAdditions() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            var entry = additions.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entry.state.get() != Entry.PENDING) {
+                continue;
+            }
+            var calculated = entry.deadline / tickNanos;
+            if (calculated - tick >= wheel.length) {
+                overflow.add(entry);
+            } else {
+                // Ensure that tasks with already passed deadline are expired in the current tick
+                var ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(entry);
+            }
+        }
+    }
+
+    /// Move tasks which are due within the next revolution from the overflow queue into the wheel.
+    private void promoteOverflow() {
+        Entry entry;
+        while ((entry = overflow.peek()) != null && entry.deadline / tickNanos - tick < wheel.length) {
+            overflow.remove(entry);
+            wheel[(int) (Math.max(entry.deadline / tickNanos, tick) & mask)].add(entry);
+        }
+    }
+
+    private void processCancellations() {
+        Entry entry;
+        while ((entry = cancellations.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+            } else if (entry.heapIndex >= 0) {
+                overflow.remove(entry);
+            }
+        }
+    }
+
+    private static void dispatch(Runnable task) {
+        try {
+            AsyncExecutor.defaultExecutor()
+                         .runAsync(task);
+        } catch (RuntimeException e) {
+            log.warn("Unable to dispatch expired timer task", e);
+        }
+    }
+
+    /// Doubly linked list of entries. Modified only by the worker thread.
+    static final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            if (head == null) {
+                head = tail = entry;
+            } else {
+                tail.next = entry;
+                entry.prev = tail;
+                tail = entry;
+            }
+        }
+
+        void expire(long now) {
+            var entry = head;
+            while (entry != null) {
+                var next = entry.next;
+                remove(entry);
+                if (entry.deadline <= now) {
+                    entry.expire();
+                } else {
+                    // Can't happen unless the task was placed into the wrong bucket
+                    log.warn("Timer task deadline {} is after current time {}", entry.deadline, now);
+                }
+                entry = next;
+            }
+        }
+
+        void remove(Entry entry) {
+            var next = entry.next;
+            if (entry.prev != null) {
+                entry.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = entry.prev;
+            }
+            if (entry == head) {
+                head = next;
+            }
+            if (entry == tail) {
+                tail = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+    }
+
+    /// Binary min-heap of entries ordered by deadline. Entries keep their position in the heap, so cancelled entries
+    /// are removed in O(log n). Modified only by the worker thread.
+    static final class Overflow {
+        private Entry[] heap = new Entry[16];
+        private int size;
+
+        Entry peek() {
+            return size == 0
+                   ? null
+                   : heap[0];
+        }
+
+        void add(Entry entry) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size << 1);
+            }
+            heap[size] = entry;
+            entry.heapIndex = size;
+            siftUp(size++);
+        }
+
+        void remove(Entry entry) {
+            var index = entry.heapIndex;
+            var last = heap[--size];
+            heap[size] = null;
+            entry.heapIndex = -1;
+            if (index == size) {
+                return;
+            }
+            heap[index] = last;
+            last.heapIndex = index;
+            siftDown(index);
+            siftUp(last.heapIndex);
+        }
+
+        private void siftUp(int index) {
+            var entry = heap[index];
+            while (index > 0) {
+                var parent = (index - 1) >>> 1;
+                if (heap[parent].deadline <= entry.deadline) {
+                    break;
+                }
+                place(heap[parent], index);
+                index = parent;
+            }
+            place(entry, index);
+        }
+
+        private void siftDown(int index) {
+            var entry = heap[index];
+            while (true) {
+                var child = (index << 1) + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1].deadline < heap[child].deadline) {
+                    child++;
+                }
+                if (entry.deadline <= heap[child].deadline) {
+                    break;
+                }
+                place(heap[child], index);
+                index = child;
+            }
+            place(entry, index);
+        }
+
+        private void place(Entry entry, int index) {
+            heap[index] = entry;
+            entry.heapIndex = index;
+        }
+    }
+
+    static final class Entry implements TimerTask {
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        private final HashedTimerWheel timer;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private volatile Runnable task;
+
+        // Accessed only by the worker thread
+        int heapIndex = -1;
+        Entry next;
+        Entry prev;
+        Bucket bucket;
+
+        Entry(HashedTimerWheel timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            task = null;
+            timer.pending.decrementAndGet();
+            timer.cancellations.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            timer.pending.decrementAndGet();
+            var action = task;
+            task = null;
+            dispatch(action);
+        }
+
+        @Override
+        public String toString() {
+            return "TimerTask(" + switch (state.get()) {
+                case PENDING -> "pending";
+                case CANCELLED -> "cancelled";
+                default -> "expired";
+            } + ")";
+        }
+    }
+}
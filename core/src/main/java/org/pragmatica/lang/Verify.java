@@ -329,6 +329,34 @@ static <T> Fn1<Result<T>, T> combine(Fn1<Result<T>, T>... checks) {
         };
     }
 
+    /// Combines multiple individual validation checks into a single validation function, which reports all issues.
+    ///
+    /// Unlike [#combine(Fn1\[\])], the returned function applies all checks and collects all failures into
+    /// [Causes.CompositeCause]. Combined with [Result#traverseAll(java.util.Collection, Fn1)] it validates a batch of
+    /// records and reports every issue of every record at once.
+    ///
+    /// @param checks variable number of validation functions to combine
+    /// @param <T>    the type of the values being verified
+    ///
+    /// @return a single validation function that applies all checks
+    @SafeVarargs
+    static <T> Fn1<Result<T>, T> combineAll(Fn1<Result<T>, T>... checks) {
+        return value -> {
+            Causes.CompositeCause causes = null;
+            for (var check : checks) {
+                if (check.apply(value) instanceof Result.Failure<T>(var cause)) {
+                    if (causes == null) {
+                        causes = Causes.composite();
+                    }
+                    causes.append(cause);
+                }
+            }
+            return causes == null
+                   ? Result.success(value)
+                   : Result.failure(causes);
+        };
+    }
+
     //------------------------------------------------------------------------------------------------------------------
     // Optional value validation (ensureOption)
     //------------------------------------------------------------------------------------------------------------------
@@ -21,7 +21,12 @@
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 
-/// Functional wrappers for Java Time API parsing methods that return Result<T> instead of throwing exceptions
+/// Functional wrappers for Java Time API parsing methods that return Result<T> instead of throwing exceptions.
+///
+/// ISO-8601 parsing of [LocalDate], [LocalTime], [LocalDateTime], [OffsetDateTime], [Instant] and [Duration] is
+/// performed by hand-written scanners, which accept the same text as the corresponding JDK `parse` methods, but
+/// report malformed input as [ParseError] without throwing and catching an exception. Rarely used forms, like signed
+/// years or offsets with seconds, are passed to the JDK parser. Methods which accept a formatter always use the JDK.
 public sealed interface DateTime {
     /// Parse a string as a LocalDate value using ISO format
     ///
@@ -29,7 +34,11 @@ public sealed interface DateTime {
     ///
     /// @return Result containing parsed LocalDate or parsing error
     static Result<LocalDate> parseLocalDate(String text) {
-        return Result.lift1(LocalDate::parse, text);
+        var end = IsoScanner.date(text, 0);
+
+        return IsoScanner.complete(text, end)
+               ? Result.success(IsoScanner.localDate(text, 0))
+               : IsoScanner.failure("LocalDate", text, end, LocalDate::parse);
     }
 
     /// Parse a string as a LocalDate value using specified formatter
@@ -48,7 +57,11 @@ static Result<LocalDate> parseLocalDate(String text, DateTimeFormatter formatter
     ///
     /// @return Result containing parsed LocalTime or parsing error
     static Result<LocalTime> parseLocalTime(String text) {
-        return Result.lift1(LocalTime::parse, text);
+        var end = IsoScanner.time(text, 0, false, false);
+
+        return IsoScanner.complete(text, end)
+               ? Result.success(IsoScanner.localTime(text, 0))
+               : IsoScanner.failure("LocalTime", text, end, LocalTime::parse);
     }
 
     /// Parse a string as a LocalTime value using specified formatter
@@ -67,7 +80,12 @@ static Result<LocalTime> parseLocalTime(String text, DateTimeFormatter formatter
     ///
     /// @return Result containing parsed LocalDateTime or parsing error
     static Result<LocalDateTime> parseLocalDateTime(String text) {
-        return Result.lift1(LocalDateTime::parse, text);
+        var timeStart = IsoScanner.separator(text, IsoScanner.date(text, 0));
+        var end = timeStart < 0 ? timeStart : IsoScanner.time(text, timeStart, false, false);
+
+        return IsoScanner.complete(text, end)
+               ? Result.success(LocalDateTime.of(IsoScanner.localDate(text, 0), IsoScanner.localTime(text, timeStart)))
+               : IsoScanner.failure("LocalDateTime", text, end, LocalDateTime::parse);
     }
 
     /// Parse a string as a LocalDateTime value using specified formatter
@@ -105,7 +123,15 @@ static Result<ZonedDateTime> parseZonedDateTime(String text, DateTimeFormatter f
     ///
     /// @return Result containing parsed OffsetDateTime or parsing error
     static Result<OffsetDateTime> parseOffsetDateTime(String text) {
-        return Result.lift1(OffsetDateTime::parse, text);
+        var timeStart = IsoScanner.separator(text, IsoScanner.date(text, 0));
+        var offsetStart = timeStart < 0 ? timeStart : IsoScanner.time(text, timeStart, false, false);
+        var end = offsetStart < 0 ? offsetStart : IsoScanner.offset(text, offsetStart);
+
+        return IsoScanner.complete(text, end)
+               ? Result.success(OffsetDateTime.of(IsoScanner.localDate(text, 0),
+                                                  IsoScanner.localTime(text, timeStart),
+                                                  IsoScanner.zoneOffset(text, offsetStart)))
+               : IsoScanner.failure("OffsetDateTime", text, end, OffsetDateTime::parse);
     }
 
     /// Parse a string as an OffsetDateTime value using specified formatter
@@ -143,7 +169,13 @@ static Result<OffsetTime> parseOffsetTime(String text, DateTimeFormatter formatt
     ///
     /// @return Result containing parsed Instant or parsing error
     static Result<Instant> parseInstant(String text) {
-        return Result.lift1(Instant::parse, text);
+        var timeStart = IsoScanner.separator(text, IsoScanner.date(text, 0));
+        var offsetStart = timeStart < 0 ? timeStart : IsoScanner.time(text, timeStart, true, true);
+        var end = offsetStart < 0 ? offsetStart : IsoScanner.offset(text, offsetStart);
+
+        return IsoScanner.complete(text, end)
+               ? Result.success(IsoScanner.instant(text, timeStart, offsetStart))
+               : IsoScanner.failure("Instant", text, end, Instant::parse);
     }
 
     /// Parse a string as a Duration value using ISO format
@@ -152,7 +184,7 @@ static Result<Instant> parseInstant(String text) {
     ///
     /// @return Result containing parsed Duration or parsing error
     static Result<Duration> parseDuration(String text) {
-        return Result.lift1(Duration::parse, text);
+        return IsoScanner.duration(text);
     }
 
     /// Parse a string as a Period value using ISO format
@@ -0,0 +1,446 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.parse;
+
+import org.pragmatica.lang.Functions.ThrowingFn1;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.parse.ParseError.InvalidInput;
+import org.pragmatica.lang.parse.ParseError.OutOfRange;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+
+/// Hand-written scanners for the ISO-8601 text accepted by the `parse` methods of `java.time` classes.
+///
+/// Scanners handle the common shapes (four-digit years, `HH:mm[:ss[.fraction]]` times, `Z` and `±HH:mm` offsets)
+/// directly. Each scanner returns the position right after the scanned element or a negative value: the bitwise
+/// complement of the position of the offending character, [#OUT_OF_RANGE] for syntactically valid fields with invalid
+/// values and [#UNSUPPORTED] for valid but rarely used forms (signed years, leap seconds, second-precision offsets),
+/// which are passed to the JDK parser.
+final class IsoScanner {
+    static final int OUT_OF_RANGE = Integer.MIN_VALUE;
+    static final int UNSUPPORTED = Integer.MIN_VALUE + 1;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private IsoScanner() {}
+
+    /// Check whether scanning consumed the whole input.
+    static boolean complete(String text, int end) {
+        return end >= 0 && end == text.length();
+    }
+
+    /// Convert unsuccessful scanning result into failure or pass the input to the JDK parser if the form is not
+    /// supported by the scanner.
+    static <T> Result<T> failure(String type, String text, int end, ThrowingFn1<T, String> jdkParser) {
+        if (text == null) {
+            return new InvalidInput(type, null, 0).result();
+        }
+
+        return switch (end) {
+            case UNSUPPORTED -> Result.lift1(jdkParser, text);
+            case OUT_OF_RANGE -> new OutOfRange(type, text).result();
+            default -> new InvalidInput(type, text, end >= 0 ? end : ~end).result();
+        };
+    }
+
+    /// Scan `yyyy-MM-dd`.
+    static int date(String text, int from) {
+        if (text == null) {
+            return ~0;
+        }
+
+        if (from < text.length() && (text.charAt(from) == '+' || text.charAt(from) == '-')) {
+            return UNSUPPORTED;
+        }
+
+        var error = nonDigit(text, from, 4);
+
+        if (error < 0) {
+            error = expect(text, from + 4, '-');
+        }
+
+        if (error < 0) {
+            error = nonDigit(text, from + 5, 2);
+        }
+
+        if (error < 0) {
+            error = expect(text, from + 7, '-');
+        }
+
+        if (error < 0) {
+            error = nonDigit(text, from + 8, 2);
+        }
+
+        if (error >= 0) {
+            return ~error;
+        }
+
+        var year = number(text, from, 4);
+        var month = number(text, from + 5, 2);
+        var day = number(text, from + 8, 2);
+
+        if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return OUT_OF_RANGE;
+        }
+
+        return from + 10;
+    }
+
+    /// Scan `HH:mm[:ss[.fraction]]`. Seconds are mandatory if `secondsRequired` is set, second 60 is passed to the JDK
+    /// parser if `leapSecond` is set, since only `Instant` accepts it.
+    static int time(String text, int from, boolean secondsRequired, boolean leapSecond) {
+        if (text == null) {
+            return ~0;
+        }
+
+        var error = nonDigit(text, from, 2);
+
+        if (error < 0) {
+            error = expect(text, from + 2, ':');
+        }
+
+        if (error < 0) {
+            error = nonDigit(text, from + 3, 2);
+        }
+
+        if (error >= 0) {
+            return ~error;
+        }
+
+        if (number(text, from, 2) > 23 || number(text, from + 3, 2) > 59) {
+            return OUT_OF_RANGE;
+        }
+
+        if (from + 5 >= text.length() || text.charAt(from + 5) != ':') {
+            return secondsRequired ? ~(from + 5) : from + 5;
+        }
+
+        error = nonDigit(text, from + 6, 2);
+
+        if (error >= 0) {
+            return ~error;
+        }
+
+        var second = number(text, from + 6, 2);
+
+        if (second > 59) {
+            return second == 60 && leapSecond ? UNSUPPORTED : OUT_OF_RANGE;
+        }
+
+        var index = from + 8;
+
+        if (index < text.length() && text.charAt(index) == '.') {
+            index++;
+
+            for (var limit = index + 9; index < limit && isDigit(text, index); index++) {}
+        }
+
+        return index;
+    }
+
+    /// Scan `Z` or `±HH:mm`.
+    static int offset(String text, int from) {
+        if (from >= text.length()) {
+            return ~from;
+        }
+
+        var ch = text.charAt(from);
+
+        if (ch == 'Z' || ch == 'z') {
+            return from + 1;
+        }
+
+        if (ch != '+' && ch != '-') {
+            return ~from;
+        }
+
+        if (nonDigit(text, from + 1, 2) >= 0
+            || expect(text, from + 3, ':') >= 0
+            || nonDigit(text, from + 4, 2) >= 0
+            || (from + 6 < text.length() && text.charAt(from + 6) == ':')) {
+            return UNSUPPORTED;
+        }
+
+        var hours = number(text, from + 1, 2);
+        var minutes = number(text, from + 4, 2);
+
+        if (minutes > 59 || hours > 18 || (hours == 18 && minutes > 0)) {
+            return UNSUPPORTED;
+        }
+
+        return from + 6;
+    }
+
+    /// Check for the ISO date/time separator. Parsing is case-insensitive.
+    static int separator(String text, int from) {
+        if (from < 0) {
+            return from;
+        }
+
+        return from < text.length() && (text.charAt(from) == 'T' || text.charAt(from) == 't') ? from + 1 : ~from;
+    }
+
+    static LocalDate localDate(String text, int from) {
+        return LocalDate.of(number(text, from, 4), number(text, from + 5, 2), number(text, from + 8, 2));
+    }
+
+    static LocalTime localTime(String text, int from) {
+        return LocalTime.of(number(text, from, 2), number(text, from + 3, 2), second(text, from), nanos(text, from));
+    }
+
+    static ZoneOffset zoneOffset(String text, int from) {
+        var ch = text.charAt(from);
+
+        if (ch == 'Z' || ch == 'z') {
+            return ZoneOffset.UTC;
+        }
+
+        var sign = ch == '-' ? -1 : 1;
+
+        return ZoneOffset.ofHoursMinutes(sign * number(text, from + 1, 2), sign * number(text, from + 4, 2));
+    }
+
+    static Instant instant(String text, int timeFrom, int offsetFrom) {
+        var secondOfDay = number(text, timeFrom, 2) * 3600 + number(text, timeFrom + 3, 2) * 60 + second(text, timeFrom);
+        var epochSecond = localDate(text, 0).toEpochDay() * SECONDS_PER_DAY + secondOfDay
+                          - zoneOffset(text, offsetFrom).getTotalSeconds();
+
+        return Instant.ofEpochSecond(epochSecond, nanos(text, timeFrom));
+    }
+
+    /// Parse `[-+]P[nD][T[nH][nM][n[.fraction]S]]`, the format accepted by [Duration#parse(CharSequence)].
+    static Result<Duration> duration(String text) {
+        if (text == null) {
+            return new InvalidInput("Duration", null, 0).result();
+        }
+
+        var length = text.length();
+        var index = 0;
+        var negate = false;
+
+        if (index < length && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+            negate = text.charAt(index) == '-';
+            index++;
+        }
+
+        if (!letter(text, index, 'P')) {
+            return new InvalidInput("Duration", text, index).result();
+        }
+
+        index++;
+        var components = 0;
+        long seconds = 0;
+        var nanos = 0;
+
+        var end = signedDigits(text, index);
+
+        if (end > 0 && letter(text, end, 'D')) {
+            if (end - index > 18) {
+                return Result.lift1(Duration::parse, text);
+            }
+
+            seconds = component(text, index, end, SECONDS_PER_DAY);
+            index = end + 1;
+            components++;
+        }
+
+        if (letter(text, index, 'T')) {
+            index++;
+            var timeComponents = 0;
+
+            for (var unit = 0; unit < 2; unit++) {
+                end = signedDigits(text, index);
+
+                if (end > 0 && letter(text, end, unit == 0 ? 'H' : 'M')) {
+                    if (end - index > 18) {
+                        return Result.lift1(Duration::parse, text);
+                    }
+
+                    seconds = sum(seconds, component(text, index, end, unit == 0 ? 3600 : 60));
+                    index = end + 1;
+                    timeComponents++;
+                }
+            }
+
+            end = signedDigits(text, index);
+
+            if (end > 0) {
+                var fractionEnd = end;
+
+                if (end < length && (text.charAt(end) == '.' || text.charAt(end) == ',')) {
+                    fractionEnd = end + 1;
+
+                    while (fractionEnd < length && isDigit(text, fractionEnd)) {
+                        fractionEnd++;
+                    }
+                }
+
+                if (fractionEnd - end <= 10 && letter(text, fractionEnd, 'S')) {
+                    if (end - index > 18) {
+                        return Result.lift1(Duration::parse, text);
+                    }
+
+                    seconds = sum(seconds, component(text, index, end, 1));
+                    nanos = fractionEnd > end ? fraction(text, end + 1, fractionEnd) : 0;
+
+                    if (text.charAt(index) == '-') {
+                        nanos = -nanos;
+                    }
+
+                    index = fractionEnd + 1;
+                    timeComponents++;
+                }
+            }
+
+            if (timeComponents == 0) {
+                return new InvalidInput("Duration", text, index).result();
+            }
+
+            components += timeComponents;
+        }
+
+        if (index != length || components == 0) {
+            return new InvalidInput("Duration", text, index).result();
+        }
+
+        if (seconds == Long.MIN_VALUE) {
+            // Either overflow or a value which can't be negated, in both cases let JDK report it
+            return Result.lift1(Duration::parse, text);
+        }
+
+        var duration = Duration.ofSeconds(seconds, nanos);
+
+        return Result.success(negate ? duration.negated() : duration);
+    }
+
+    private static int second(String text, int from) {
+        return from + 5 < text.length() && text.charAt(from + 5) == ':' ? number(text, from + 6, 2) : 0;
+    }
+
+    private static int nanos(String text, int from) {
+        var index = from + 8;
+
+        if (index >= text.length() || text.charAt(index) != '.' || text.charAt(from + 5) != ':') {
+            return 0;
+        }
+
+        var end = index + 1;
+
+        while (end < text.length() && end <= index + 9 && isDigit(text, end)) {
+            end++;
+        }
+
+        return fraction(text, index + 1, end);
+    }
+
+    private static int fraction(String text, int from, int end) {
+        var value = 0;
+
+        for (var i = from; i < from + 9; i++) {
+            value = value * 10 + (i < end ? text.charAt(i) - '0' : 0);
+        }
+
+        return value;
+    }
+
+    /// Value of the component, multiplied by the unit. Overflow is reported as [Long#MIN_VALUE], which is then
+    /// passed to the JDK parser to produce the error.
+    private static long component(String text, int from, int end, long unit) {
+        var negative = text.charAt(from) == '-';
+        var index = negative || text.charAt(from) == '+' ? from + 1 : from;
+        long value = 0;
+
+        for (; index < end; index++) {
+            value = value * 10 + (text.charAt(index) - '0');
+        }
+
+        if (value > Long.MAX_VALUE / unit) {
+            return Long.MIN_VALUE;
+        }
+
+        return negative ? -value * unit : value * unit;
+    }
+
+    private static long sum(long left, long right) {
+        if (left == Long.MIN_VALUE || right == Long.MIN_VALUE) {
+            return Long.MIN_VALUE;
+        }
+
+        var result = left + right;
+
+        return ((left ^ result) & (right ^ result)) < 0 ? Long.MIN_VALUE : result;
+    }
+
+    /// Scan optional sign followed by at least one digit.
+    ///
+    /// @return position after the last digit or -1 if there are no digits
+    private static int signedDigits(String text, int from) {
+        var index = from < text.length() && (text.charAt(from) == '-' || text.charAt(from) == '+') ? from + 1 : from;
+        var start = index;
+
+        while (index < text.length() && isDigit(text, index)) {
+            index++;
+        }
+
+        return index > start ? index : -1;
+    }
+
+    private static boolean letter(String text, int index, char upperCase) {
+        return index < text.length() && (text.charAt(index) & ~0x20) == upperCase;
+    }
+
+    private static int expect(String text, int index, char expected) {
+        return index < text.length() && text.charAt(index) == expected ? -1 : index;
+    }
+
+    private static int nonDigit(String text, int from, int count) {
+        for (var index = from; index < from + count; index++) {
+            if (!isDigit(text, index)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isDigit(String text, int index) {
+        if (index >= text.length()) {
+            return false;
+        }
+
+        var ch = text.charAt(index);
+
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static int number(String text, int from, int count) {
+        var value = 0;
+
+        for (var index = from; index < from + count; index++) {
+            value = value * 10 + (text.charAt(index) - '0');
+        }
+
+        return value;
+    }
+}
@@ -17,11 +17,22 @@
 package org.pragmatica.lang.parse;
 
 import org.pragmatica.lang.Result;
+import org.pragmatica.lang.parse.ParseError.InvalidInput;
+import org.pragmatica.lang.parse.ParseError.InvalidRadix;
+import org.pragmatica.lang.parse.ParseError.OutOfRange;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.function.LongFunction;
 
-/// Functional wrappers for JDK number parsing APIs that return Result<T> instead of throwing exceptions
+/// Number parsing functions that return Result<T> instead of throwing exceptions.
+///
+/// Accepted syntax matches the corresponding JDK methods ([Integer#parseInt(String, int)], [Double#parseDouble(String)],
+/// [BigDecimal#BigDecimal(String)], etc.), but input is validated by hand-written scanners before any conversion, so
+/// malformed input is rejected with a [ParseError] without throwing and catching an exception. Integral values are
+/// converted directly, simple decimal floating point values (up to 15 significant digits and decimal exponent within
+/// ±22) are converted exactly using a single floating point operation, remaining values are passed to the JDK
+/// after validation.
 public sealed interface Number {
     /// Parse a string as a Byte value
     ///
@@ -29,7 +40,7 @@ public sealed interface Number {
     ///
     /// @return Result containing parsed Byte or parsing error
     static Result<Byte> parseByte(String s) {
-        return Result.lift1(Byte::parseByte, s);
+        return parseByte(s, 10);
     }
 
     /// Parse a string as a Byte value with specified radix
@@ -39,7 +50,7 @@ static Result<Byte> parseByte(String s) {
     ///
     /// @return Result containing parsed Byte or parsing error
     static Result<Byte> parseByte(String s, int radix) {
-        return Result.lift2(Byte::parseByte, s, radix);
+        return integral(s, radix, Byte.MIN_VALUE, Byte.MAX_VALUE, "Byte", value -> (byte) value);
     }
 
     /// Parse a string as a Short value
@@ -48,7 +59,7 @@ static Result<Byte> parseByte(String s, int radix) {
     ///
     /// @return Result containing parsed Short or parsing error
     static Result<Short> parseShort(String s) {
-        return Result.lift1(Short::parseShort, s);
+        return parseShort(s, 10);
     }
 
     /// Parse a string as a Short value with specified radix
@@ -58,7 +69,7 @@ static Result<Short> parseShort(String s) {
     ///
     /// @return Result containing parsed Short or parsing error
     static Result<Short> parseShort(String s, int radix) {
-        return Result.lift2(Short::parseShort, s, radix);
+        return integral(s, radix, Short.MIN_VALUE, Short.MAX_VALUE, "Short", value -> (short) value);
     }
 
     /// Parse a string as an Integer value
@@ -67,7 +78,7 @@ static Result<Short> parseShort(String s, int radix) {
     ///
     /// @return Result containing parsed Integer or parsing error
     static Result<Integer> parseInt(String s) {
-        return Result.lift1(Integer::parseInt, s);
+        return parseInt(s, 10);
     }
 
     /// Parse a string as an Integer value with specified radix
@@ -77,7 +88,7 @@ static Result<Integer> parseInt(String s) {
     ///
     /// @return Result containing parsed Integer or parsing error
     static Result<Integer> parseInt(String s, int radix) {
-        return Result.lift2(Integer::parseInt, s, radix);
+        return integral(s, radix, Integer.MIN_VALUE, Integer.MAX_VALUE, "Integer", value -> (int) value);
     }
 
     /// Parse a string as a Long value
@@ -86,7 +97,7 @@ static Result<Integer> parseInt(String s, int radix) {
     ///
     /// @return Result containing parsed Long or parsing error
     static Result<Long> parseLong(String s) {
-        return Result.lift1(Long::parseLong, s);
+        return parseLong(s, 10);
     }
 
     /// Parse a string as a Long value with specified radix
@@ -96,7 +107,7 @@ static Result<Long> parseLong(String s) {
     ///
     /// @return Result containing parsed Long or parsing error
     static Result<Long> parseLong(String s, int radix) {
-        return Result.lift2(Long::parseLong, s, radix);
+        return integral(s, radix, Long.MIN_VALUE, Long.MAX_VALUE, "Long", value -> value);
     }
 
     /// Parse a string as a Float value
@@ -105,7 +116,17 @@ static Result<Long> parseLong(String s, int radix) {
     ///
     /// @return Result containing parsed Float or parsing error
     static Result<Float> parseFloat(String s) {
-        return Result.lift1(Float::parseFloat, s);
+        var error = floatingPointSyntaxError(s);
+
+        if (error >= 0) {
+            return new InvalidInput("Float", s, error).result();
+        }
+
+        var value = simpleDecimal(s, true);
+
+        return Result.success(Double.isNaN(value)
+                              ? Float.parseFloat(s)
+                              : (float) value);
     }
 
     /// Parse a string as a Double value
@@ -114,7 +135,17 @@ static Result<Float> parseFloat(String s) {
     ///
     /// @return Result containing parsed Double or parsing error
     static Result<Double> parseDouble(String s) {
-        return Result.lift1(Double::parseDouble, s);
+        var error = floatingPointSyntaxError(s);
+
+        if (error >= 0) {
+            return new InvalidInput("Double", s, error).result();
+        }
+
+        var value = simpleDecimal(s, false);
+
+        return Result.success(Double.isNaN(value)
+                              ? Double.parseDouble(s)
+                              : value);
     }
 
     /// Parse a string as a BigInteger value
@@ -123,7 +154,7 @@ static Result<Double> parseDouble(String s) {
     ///
     /// @return Result containing parsed BigInteger or parsing error
     static Result<BigInteger> parseBigInteger(String s) {
-        return Result.lift1(BigInteger::new, s);
+        return parseBigInteger(s, 10);
     }
 
     /// Parse a string as a BigInteger value with specified radix
@@ -133,7 +164,27 @@ static Result<BigInteger> parseBigInteger(String s) {
     ///
     /// @return Result containing parsed BigInteger or parsing error
     static Result<BigInteger> parseBigInteger(String s, int radix) {
-        return Result.lift2(BigInteger::new, s, radix);
+        if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX) {
+            return new InvalidRadix(radix).result();
+        }
+
+        if (s == null) {
+            return new InvalidInput("BigInteger", null, 0).result();
+        }
+
+        var index = skipSign(s);
+
+        if (index == s.length()) {
+            return new InvalidInput("BigInteger", s, index).result();
+        }
+
+        for (; index < s.length(); index++) {
+            if (Character.digit(s.charAt(index), radix) < 0) {
+                return new InvalidInput("BigInteger", s, index).result();
+            }
+        }
+
+        return Result.success(new BigInteger(s, radix));
     }
 
     /// Parse a string as a BigDecimal value
@@ -142,7 +193,320 @@ static Result<BigInteger> parseBigInteger(String s, int radix) {
     ///
     /// @return Result containing parsed BigDecimal or parsing error
     static Result<BigDecimal> parseBigDecimal(String s) {
-        return Result.lift1(BigDecimal::new, s);
+        if (s == null) {
+            return new InvalidInput("BigDecimal", null, 0).result();
+        }
+
+        var index = skipSign(s);
+        var length = s.length();
+        var digits = 0;
+        long fractionDigits = 0;
+        var seenPoint = false;
+
+        for (; index < length; index++) {
+            var ch = s.charAt(index);
+
+            if (Character.isDigit(ch)) {
+                digits++;
+
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (ch == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+
+        if (digits == 0) {
+            return new InvalidInput("BigDecimal", s, index).result();
+        }
+
+        long exponent = 0;
+
+        if (index < length && (s.charAt(index) == 'e' || s.charAt(index) == 'E')) {
+            index++;
+            var negative = index < length && s.charAt(index) == '-';
+
+            if (index < length && (s.charAt(index) == '-' || s.charAt(index) == '+')) {
+                index++;
+            }
+
+            var start = index;
+
+            for (; index < length && Character.isDigit(s.charAt(index)); index++) {
+                if (exponent <= Integer.MAX_VALUE) {
+                    exponent = exponent * 10 + Character.digit(s.charAt(index), 10);
+                }
+            }
+
+            if (index == start) {
+                return new InvalidInput("BigDecimal", s, index).result();
+            }
+
+            exponent = negative ? -exponent : exponent;
+        }
+
+        if (index < length) {
+            return new InvalidInput("BigDecimal", s, index).result();
+        }
+
+        var scale = fractionDigits - exponent;
+
+        if (exponent < Integer.MIN_VALUE || exponent > Integer.MAX_VALUE
+            || scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE) {
+            return new OutOfRange("BigDecimal", s).result();
+        }
+
+        return Result.success(new BigDecimal(s));
+    }
+
+    private static <T> Result<T> integral(String s, int radix, long min, long max, String type, LongFunction<T> box) {
+        if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX) {
+            return new InvalidRadix(radix).result();
+        }
+
+        if (s == null) {
+            return new InvalidInput(type, null, 0).result();
+        }
+
+        var length = s.length();
+        var index = skipSign(s);
+
+        if (index == length) {
+            return new InvalidInput(type, s, index).result();
+        }
+
+        // Accumulate negatively, since the negative range is larger than the positive one
+        var negative = s.charAt(0) == '-';
+        var limit = negative ? min : -max;
+        var multiplierLimit = limit / radix;
+        var overflow = false;
+        long result = 0;
+
+        for (; index < length; index++) {
+            var digit = Character.digit(s.charAt(index), radix);
+
+            if (digit < 0) {
+                return new InvalidInput(type, s, index).result();
+            }
+
+            if (overflow || result < multiplierLimit || result * radix < limit + digit) {
+                overflow = true;
+                continue;
+            }
+
+            result = result * radix - digit;
+        }
+
+        if (overflow) {
+            return new OutOfRange(type, s).result();
+        }
+
+        return Result.success(box.apply(negative ? result : -result));
+    }
+
+    private static int skipSign(String s) {
+        return !s.isEmpty() && (s.charAt(0) == '-' || s.charAt(0) == '+') ? 1 : 0;
+    }
+
+    /// Check input against the syntax accepted by [Double#parseDouble(String)].
+    ///
+    /// @return position of the first offending character or -1 if input is valid
+    private static int floatingPointSyntaxError(String s) {
+        if (s == null) {
+            return 0;
+        }
+
+        var end = s.length();
+        var index = 0;
+
+        while (index < end && s.charAt(index) <= ' ') {
+            index++;
+        }
+
+        while (end > index && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if (index < end && (s.charAt(index) == '-' || s.charAt(index) == '+')) {
+            index++;
+        }
+
+        if (index == end) {
+            return index;
+        }
+
+        if (s.startsWith("NaN", index)) {
+            return index + 3 == end ? -1 : index + 3;
+        }
+
+        if (s.startsWith("Infinity", index)) {
+            return index + 8 == end ? -1 : index + 8;
+        }
+
+        var hex = index + 1 < end && s.charAt(index) == '0' && (s.charAt(index + 1) == 'x' || s.charAt(index + 1) == 'X');
+        var radix = hex ? 16 : 10;
+
+        if (hex) {
+            index += 2;
+        }
+
+        var digits = 0;
+        var seenPoint = false;
+
+        for (; index < end; index++) {
+            var ch = s.charAt(index);
+
+            if (ch == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (ch < 128 && Character.digit(ch, radix) >= 0) {
+                digits++;
+            } else {
+                break;
+            }
+        }
+
+        if (digits == 0) {
+            return index;
+        }
+
+        var exponentMarker = index < end && (hex
+                                             ? s.charAt(index) == 'p' || s.charAt(index) == 'P'
+                                             : s.charAt(index) == 'e' || s.charAt(index) == 'E');
+
+        if (hex && !exponentMarker) {
+            return index;
+        }
+
+        if (exponentMarker) {
+            index++;
+
+            if (index < end && (s.charAt(index) == '-' || s.charAt(index) == '+')) {
+                index++;
+            }
+
+            var start = index;
+
+            while (index < end && s.charAt(index) >= '0' && s.charAt(index) <= '9') {
+                index++;
+            }
+
+            if (index == start) {
+                return index;
+            }
+        }
+
+        if (index < end && "fFdD".indexOf(s.charAt(index)) >= 0) {
+            index++;
+        }
+
+        return index == end ? -1 : index;
+    }
+
+    /// Convert syntactically valid input using exact floating point arithmetic. Applicable only to plain decimal
+    /// numbers whose significant digits fit into the mantissa (15 digits for `double`, 7 for `float`) and whose
+    /// decimal exponent does not exceed the largest exactly representable power of ten (22 and 10 respectively).
+    /// In this case both operands are exact and the single multiplication or division is correctly rounded.
+    ///
+    /// @return converted value or NaN if the input requires full conversion
+    private static double simpleDecimal(String s, boolean single) {
+        var maxDigits = single ? 7 : 15;
+        var maxExponent = single ? 10 : 22;
+        var end = s.length();
+        var index = 0;
+
+        while (s.charAt(index) <= ' ') {
+            index++;
+        }
+
+        while (s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        var negative = s.charAt(index) == '-';
+
+        if (negative || s.charAt(index) == '+') {
+            index++;
+        }
+
+        long mantissa = 0;
+        var digits = 0;
+        var exponent = 0;
+        var seenPoint = false;
+
+        for (; index < end; index++) {
+            var ch = s.charAt(index);
+
+            if (ch == '.' && !seenPoint) {
+                seenPoint = true;
+                continue;
+            }
+
+            if (ch < '0' || ch > '9') {
+                break;
+            }
+
+            if (seenPoint) {
+                exponent--;
+            }
+
+            if (mantissa == 0 && ch == '0') {
+                continue;
+            }
+
+            if (++digits > maxDigits) {
+                return Double.NaN;
+            }
+
+            mantissa = mantissa * 10 + (ch - '0');
+        }
+
+        if (index < end && (s.charAt(index) == 'e' || s.charAt(index) == 'E')) {
+            index++;
+            var negativeExponent = s.charAt(index) == '-';
+
+            if (negativeExponent || s.charAt(index) == '+') {
+                index++;
+            }
+
+            var value = 0;
+
+            for (; index < end && s.charAt(index) >= '0' && s.charAt(index) <= '9'; index++) {
+                if (value > maxExponent + maxDigits + 1) {
+                    return Double.NaN;
+                }
+                value = value * 10 + (s.charAt(index) - '0');
+            }
+
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (index < end && "fFdD".indexOf(s.charAt(index)) < 0) {
+            // Hexadecimal, NaN or Infinity
+            return Double.NaN;
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        if (exponent < -maxExponent || exponent > maxExponent) {
+            return Double.NaN;
+        }
+
+        var scale = 1.0;
+
+        for (var i = Math.abs(exponent); i > 0; i--) {
+            scale *= 10;
+        }
+
+        var value = single
+                    ? (double) (exponent < 0 ? (float) mantissa / (float) scale : (float) mantissa * (float) scale)
+                    : exponent < 0 ? mantissa / scale : mantissa * scale;
+
+        return negative ? -value : value;
     }
 
     record unused() implements Number {}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.parse;
+
+import org.pragmatica.lang.Cause;
+
+/// Failures reported by the parsers in this package. Unlike causes created from exceptions, these carry no stack
+/// trace, so rejecting malformed input costs roughly the same as accepting valid one. The message is built only
+/// when requested.
+public sealed interface ParseError extends Cause {
+    /// Maximal number of input characters included into the message.
+    int MAX_ECHOED_INPUT = 64;
+
+    /// Input does not match the expected syntax.
+    ///
+    /// @param type     Name of the target type
+    /// @param input    Parsed input, may be `null`
+    /// @param position Position of the first offending character
+    record InvalidInput(String type, String input, int position) implements ParseError {
+        @Override
+        public String message() {
+            if (input == null) {
+                return "Cannot parse null as " + type;
+            }
+            return "Invalid " + type + " '" + echo(input) + "' at position " + position;
+        }
+    }
+
+    /// Input is syntactically valid, but the value it represents does not fit into the target type.
+    ///
+    /// @param type  Name of the target type
+    /// @param input Parsed input
+    record OutOfRange(String type, String input) implements ParseError {
+        @Override
+        public String message() {
+            return "Value '" + echo(input) + "' is out of range for " + type;
+        }
+    }
+
+    /// Requested radix is outside the [Character#MIN_RADIX]..[Character#MAX_RADIX] range.
+    ///
+    /// @param radix Requested radix
+    record InvalidRadix(int radix) implements ParseError {
+        @Override
+        public String message() {
+            return "Radix " + radix + " is outside of the supported range " + Character.MIN_RADIX + ".." + Character.MAX_RADIX;
+        }
+    }
+
+    private static String echo(String input) {
+        return input.length() <= MAX_ECHOED_INPUT
+               ? input
+               : input.substring(0, MAX_ECHOED_INPUT) + "...";
+    }
+}
@@ -0,0 +1,815 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.pragmatica.lang.utils;
+
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Functions.Fn1;
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.Unit;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/// Concurrent size-bounded cache with frequency-based admission (W-TinyLFU).
+///
+/// Entries are stored in the [ConcurrentHashMap], so lookups and updates of different keys don't block each other.
+/// The eviction policy is maintained separately:
+/// <ul>
+///   <li><b>Read buffers</b> - cache hits are recorded into striped lossy ring buffers and applied to the policy in
+///   batches by the thread which acquires the eviction lock; readers never wait for the lock</li>
+///   <li><b>Write buffer</b> - insertions, updates and removals are recorded into the queue and applied the same way,
+///   so writers of different keys don't contend on the lock; writers wait only if the queue grows faster than it
+///   is drained</li>
+///   <li><b>Admission window</b> - new entries are placed into the small LRU window (1% of the capacity), so recently
+///   added entries get a chance to gain popularity</li>
+///   <li><b>Main space</b> - segmented LRU with probation and protected (80%) segments; entries accessed while in
+///   probation are promoted into the protected segment</li>
+///   <li><b>Admission policy</b> - when the window overflows, its oldest entry competes with the eviction victim of the
+///   main space and is admitted only if it was requested at least as often; frequencies are estimated with 4-bit
+///   count-min sketch which is periodically halved, so the popularity of old entries decays over time</li>
+/// </ul>
+///
+/// As a result, a one-time scan of many keys does not flush frequently used entries, which happens with the plain LRU
+/// policy. Because policy updates are applied asynchronously, the number of entries may temporarily exceed maximal
+/// size by the number of writes which are not applied to the policy yet.
+///
+/// The capacity can be expressed either as the number of entries or as the total weight of entries computed by the
+/// [Weigher], for example, approximate size in bytes. Entries which are heavier than the whole capacity are evicted
+/// right after insertion.
+///
+/// Keys and values must not be `null`.
+///
+/// @param <K> Type of the keys
+/// @param <V> Type of the values
+public interface BoundedCache<K, V> {
+    /// Error cause for invalid maxSize parameter.
+    Cause INVALID_MAX_SIZE = () -> "maxSize must be positive";
+
+    /// Error cause for invalid maxWeight parameter.
+    Cause INVALID_MAX_WEIGHT = () -> "maxWeight must be positive";
+
+    /// Function which computes the weight of the entry.
+    ///
+    /// @param <K> Type of the keys
+    /// @param <V> Type of the values
+    @FunctionalInterface
+    interface Weigher<K, V> {
+        /// Compute the weight of the entry.
+        ///
+        /// @param key   Key
+        /// @param value Value
+        ///
+        /// @return Non-negative weight of the entry
+        long weight(K key, V value);
+    }
+
+    /// Get value associated with the key.
+    ///
+    /// @param key Key to look up
+    ///
+    /// @return Value associated with the key or empty [Option] if there is no such value
+    Option<V> get(K key);
+
+    /// Get value associated with the key or compute and store it if there is no such value. The computation is invoked
+    /// at most once per key at a time; concurrent requests for the same key wait for its completion.
+    ///
+    /// @param key     Key to look up
+    /// @param mapping Function to compute the value
+    ///
+    /// @return Existing or computed value
+    V computeIfAbsent(K key, Fn1<V, K> mapping);
+
+    /// Associate the value with the key, replacing existing value if present.
+    ///
+    /// @param key   Key
+    /// @param value Value
+    ///
+    /// @return Unit for composition
+    Unit put(K key, V value);
+
+    /// Associate the value with the key if there is no value associated with the key yet.
+    ///
+    /// @param key   Key
+    /// @param value Value
+    ///
+    /// @return Existing value or empty [Option] if the provided value was stored
+    Option<V> putIfAbsent(K key, V value);
+
+    /// Replace value associated with the key only if the current value is the expected one (compared by identity).
+    /// The weight of the entry is recomputed even if the new value is the same instance as the expected one.
+    ///
+    /// @param key      Key
+    /// @param expected Expected current value
+    /// @param value    New value
+    ///
+    /// @return `true` if the value was replaced
+    boolean replace(K key, V expected, V value);
+
+    /// Remove value associated with the key.
+    ///
+    /// @param key Key
+    ///
+    /// @return Unit for composition
+    Unit remove(K key);
+
+    /// Remove value associated with the key only if it is equal to the provided value.
+    ///
+    /// @param key   Key
+    /// @param value Expected value
+    ///
+    /// @return `true` if the value was removed
+    boolean remove(K key, V value);
+
+    /// Remove all values.
+    ///
+    /// @return Unit for composition
+    Unit clear();
+
+    /// Get the current number of entries.
+    ///
+    /// @return Number of entries
+    int size();
+
+    /// Get the total weight of entries. For caches bounded by the number of entries this is the number of entries
+    /// known to the eviction policy.
+    ///
+    /// @return Total weight of entries
+    long weightedSize();
+
+    /// Get the capacity of the cache: maximal number of entries or maximal total weight of entries.
+    ///
+    /// @return Capacity of the cache
+    long capacity();
+
+    /// Create a bounded cache.
+    ///
+    /// @param maxSize Maximal number of entries, must be positive
+    /// @param <K>     Type of the keys
+    /// @param <V>     Type of the values
+    ///
+    /// @return Result containing the cache or failure if maxSize is invalid
+    static <K, V> Result<BoundedCache<K, V>> boundedCache(int maxSize) {
+        if (maxSize <= 0) {
+            return INVALID_MAX_SIZE.result();
+        }
+        return Result.success(new TinyLfuCache<>(maxSize, maxSize, (_, _) -> 1));
+    }
+
+    /// Create a cache bounded by the total weight of entries.
+    ///
+    /// @param maxWeight Maximal total weight of entries, must be positive
+    /// @param weigher   Function which computes the weight of the entry
+    /// @param <K>       Type of the keys
+    /// @param <V>       Type of the values
+    ///
+    /// @return Result containing the cache or failure if maxWeight is invalid
+    static <K, V> Result<BoundedCache<K, V>> boundedCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+        Objects.requireNonNull(weigher, "weigher must not be null");
+        if (maxWeight <= 0) {
+            return INVALID_MAX_WEIGHT.result();
+        }
+        return Result.success(new TinyLfuCache<>(maxWeight, TinyLfuCache.expectedEntries(maxWeight), weigher));
+    }
+}
+
+final class TinyLfuCache<K, V> implements BoundedCache<K, V> {
+    private static final int NONE = 0;
+    private static final int WINDOW = 1;
+    private static final int PROBATION = 2;
+    private static final int PROTECTED = 3;
+    private static final int ADD = 0;
+    private static final int UPDATE = 1;
+    private static final int REMOVE = 2;
+    // Writers drain the write buffer under the lock once it contains that many events
+    private static final int WRITE_BUFFER_LIMIT = 1024;
+    private static final int STRIPES = Integer.highestOneBit(Math.min(Runtime.getRuntime()
+                                                                               .availableProcessors(),
+                                                                        32) * 2 - 1);
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<WriteEvent<K, V>> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    @SuppressWarnings("unchecked")
+    private final ReadBuffer<K, V>[] readBuffers = new ReadBuffer[STRIPES];
+    private final long capacity;
+    private final long windowMax;
+    private final long mainMax;
+    private final long protectedMax;
+    private final Weigher<? super K, ? super V> weigher;
+    private final Consumer<? super V> removalListener;
+
+    // Guarded by evictionLock
+    private final FrequencySketch sketch;
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    TinyLfuCache(long capacity, int expectedEntries, Weigher<? super K, ? super V> weigher) {
+        this(capacity, expectedEntries, weigher, _ -> {});
+    }
+
+    /// Create the cache which notifies the listener about values which leave the cache: evicted, removed, replaced or
+    /// cleared. The listener is invoked once per value; evicted values are reported while the eviction lock is held,
+    /// so the listener must be fast and must not access the cache.
+    TinyLfuCache(long capacity,
+                 int expectedEntries,
+                 Weigher<? super K, ? super V> weigher,
+                 Consumer<? super V> removalListener) {
+        this.capacity = capacity;
+        this.removalListener = removalListener;
+        this.windowMax = Math.max(1, capacity / 100);
+        this.mainMax = capacity - windowMax;
+        this.protectedMax = mainMax * 4 / 5;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+        for (int i = 0; i < STRIPES; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    /// The number of entries in the cache bounded by weight is unknown, so the sketch is sized for a moderate number
+    /// of entries.
+    static int expectedEntries(long maxWeight) {
+        return (int) Math.min(maxWeight, 1 << 14);
+    }
+
+    @Override
+    public Option<V> get(K key) {
+        Objects.requireNonNull(key, "key must not be null");
+        var node = data.get(key);
+        if (node == null) {
+            return Option.none();
+        }
+        afterRead(node);
+        return Option.some(node.value);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Fn1<V, K> mapping) {
+        Objects.requireNonNull(key, "key must not be null");
+        var node = data.get(key);
+        if (node != null) {
+            afterRead(node);
+            return node.value;
+        }
+        node = data.computeIfAbsent(key, k -> new Node<>(k, Objects.requireNonNull(mapping.apply(k))));
+        // Either newly created node or node created by concurrent call; the policy handles both cases
+        afterWrite(ADD, node);
+        return node.value;
+    }
+
+    @Override
+    public Unit put(K key, V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+        var node = new Node<>(key, value);
+        while (true) {
+            var existing = data.putIfAbsent(key, node);
+            if (existing == null) {
+                afterWrite(ADD, node);
+                return Unit.unit();
+            }
+            var previous = existing.update(value);
+            if (previous != null) {
+                afterWrite(UPDATE, existing);
+                notifyReplaced(previous, value);
+                return Unit.unit();
+            }
+            // Existing node is being evicted concurrently and the value would be lost with it, so help to remove
+            // the node and retry
+            data.remove(key, existing);
+        }
+    }
+
+    @Override
+    public Option<V> putIfAbsent(K key, V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+        var node = new Node<>(key, value);
+        var existing = data.putIfAbsent(key, node);
+        if (existing == null) {
+            afterWrite(ADD, node);
+            return Option.none();
+        }
+        afterRead(existing);
+        return Option.some(existing.value);
+    }
+
+    @Override
+    public boolean replace(K key, V expected, V value) {
+        Objects.requireNonNull(value, "value must not be null");
+        var node = data.get(key);
+        // The node could be evicted concurrently, then it is not updated, so the value is not lost with it
+        if (node == null || !node.replace(expected, value)) {
+            return false;
+        }
+        afterWrite(UPDATE, node);
+        notifyReplaced(expected, value);
+        return true;
+    }
+
+    @Override
+    public Unit remove(K key) {
+        var node = data.remove(key);
+        // Node could be marked by concurrent eviction, which reports the removal itself
+        if (node != null && node.markRemoved()) {
+            afterWrite(REMOVE, node);
+            removalListener.accept(node.value);
+        }
+        return Unit.unit();
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        var node = data.get(key);
+        if (node == null || !node.markRemoved(value)) {
+            return false;
+        }
+        data.remove(key, node);
+        afterWrite(REMOVE, node);
+        removalListener.accept(node.value);
+        return true;
+    }
+
+    @Override
+    public Unit clear() {
+        evictionLock.lock();
+        try{
+            maintenance();
+            for (var node : data.values()) {
+                if (node.markRemoved()) {
+                    data.remove(node.key, node);
+                    unlink(node);
+                    removalListener.accept(node.value);
+                }
+            }
+        } finally{
+            evictionLock.unlock();
+        }
+        return Unit.unit();
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        evictionLock.lock();
+        try{
+            maintenance();
+            return windowWeight + probationWeight + protectedWeight;
+        } finally{
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public long capacity() {
+        return capacity;
+    }
+
+    private void afterRead(Node<K, V> node) {
+        var buffer = readBuffers[stripe()];
+        if (buffer.offer(node)) {
+            tryMaintenance();
+        }
+    }
+
+    private void afterWrite(int type, Node<K, V> node) {
+        writeBuffer.offer(new WriteEvent<>(type, node));
+        if (pendingWrites.incrementAndGet() >= WRITE_BUFFER_LIMIT) {
+            // Writes are recorded faster than they are applied, so wait for the lock rather than grow the buffer
+            evictionLock.lock();
+            try{
+                maintenance();
+            } finally{
+                evictionLock.unlock();
+            }
+        }
+        tryMaintenance();
+    }
+
+    /// Apply buffered events to the policy if the lock is not held by another thread. Otherwise, they are applied by
+    /// the thread which holds the lock: once it releases the lock, it checks the write buffer again, so write events
+    /// recorded while the lock was held are not left behind.
+    private void tryMaintenance() {
+        do{
+            if (!evictionLock.tryLock()) {
+                return;
+            }
+            try{
+                maintenance();
+            } finally{
+                evictionLock.unlock();
+            }
+        } while (pendingWrites.get() > 0);
+    }
+
+    /// Apply buffered reads and writes to the policy. Must be called with the eviction lock held.
+    private void maintenance() {
+        drainReadBuffers();
+        WriteEvent<K, V> event;
+        while ((event = writeBuffer.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            switch (event.type()) {
+                case ADD -> onAdd(event.node());
+                case UPDATE -> onUpdate(event.node());
+                default -> unlink(event.node());
+            }
+        }
+        evict();
+    }
+
+    private void onAdd(Node<K, V> node) {
+        if (node.removed) {
+            return;
+        }
+        if (node.queue != NONE) {
+            onAccess(node);
+            return;
+        }
+        sketch.increment(node.key);
+        node.weight = weigh(node);
+        node.queue = WINDOW;
+        window.addLast(node);
+        windowWeight += node.weight;
+    }
+
+    private void onUpdate(Node<K, V> node) {
+        if (node.removed || node.queue == NONE) {
+            // Not added to the policy yet, the weight will be computed on addition
+            return;
+        }
+        var weight = weigh(node);
+        var delta = weight - node.weight;
+        node.weight = weight;
+        switch (node.queue) {
+            case WINDOW -> windowWeight += delta;
+            case PROBATION -> probationWeight += delta;
+            default -> protectedWeight += delta;
+        }
+        onAccess(node);
+    }
+
+    private long weigh(Node<K, V> node) {
+        return Math.max(0, weigher.weight(node.key, node.value));
+    }
+
+    private void drainReadBuffers() {
+        for (var buffer : readBuffers) {
+            buffer.drain(this);
+        }
+    }
+
+    void onAccess(Node<K, V> node) {
+        if (node.removed || node.queue == NONE) {
+            return;
+        }
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW -> window.moveToBack(node);
+            case PROTECTED -> protectedQueue.moveToBack(node);
+            default -> {
+                probation.remove(node);
+                probationWeight -= node.weight;
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                protectedWeight += node.weight;
+                while (protectedWeight > protectedMax) {
+                    var demoted = protectedQueue.pollFirst();
+                    protectedWeight -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                    probationWeight += demoted.weight;
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        while (windowWeight > windowMax) {
+            var candidate = window.pollFirst();
+            windowWeight -= candidate.weight;
+            admit(candidate);
+            while (probationWeight + protectedWeight > mainMax && candidate.queue != NONE) {
+                var victim = probation.peekFirst();
+                if (victim == candidate) {
+                    victim = protectedQueue.peekFirst();
+                }
+                // Ties are resolved in favor of the candidate, so with equal frequencies the policy degrades to LRU
+                if (victim == null || sketch.frequency(candidate.key) < sketch.frequency(victim.key)) {
+                    victim = candidate;
+                }
+                unlink(victim);
+                discard(victim);
+            }
+        }
+        // Weight of the main space can still exceed the limit if weights of existing entries have grown
+        while (probationWeight + protectedWeight > mainMax) {
+            var victim = probation.peekFirst();
+            if (victim == null) {
+                victim = protectedQueue.peekFirst();
+            }
+            unlink(victim);
+            discard(victim);
+        }
+    }
+
+    private void admit(Node<K, V> node) {
+        node.queue = PROBATION;
+        probation.addLast(node);
+        probationWeight += node.weight;
+    }
+
+    private void discard(Node<K, V> node) {
+        if (node.markRemoved()) {
+            data.remove(node.key, node);
+            removalListener.accept(node.value);
+        }
+    }
+
+    private void notifyReplaced(V previous, V value) {
+        if (previous != value) {
+            removalListener.accept(previous);
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> {
+                window.remove(node);
+                windowWeight -= node.weight;
+            }
+            case PROBATION -> {
+                probation.remove(node);
+                probationWeight -= node.weight;
+            }
+            case PROTECTED -> {
+                protectedQueue.remove(node);
+                protectedWeight -= node.weight;
+            }
+            default -> {
+                return;
+            }
+        }
+        node.queue = NONE;
+    }
+
+    private static int stripe() {
+        var id = Thread.currentThread()
+                       .threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    }
+
+    record WriteEvent<K, V>(int type, Node<K, V> node) {}
+
+    static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile boolean removed;
+
+        // Guarded by evictionLock
+        int queue;
+        long weight;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        // Value changes and removal are serialized, so the value seen once the node is removed is final
+
+        /// Replace the value unless the node is removed.
+        ///
+        /// @return previous value or `null` if the node is removed
+        synchronized V update(V newValue) {
+            if (removed) {
+                return null;
+            }
+            var previous = value;
+            value = newValue;
+            return previous;
+        }
+
+        /// Replace the value if the node is not removed and the current value is the expected one.
+        synchronized boolean replace(V expected, V newValue) {
+            if (removed || value != expected) {
+                return false;
+            }
+            value = newValue;
+            return true;
+        }
+
+        /// Mark the node as removed.
+        ///
+        /// @return `true` if the node was not removed before
+        synchronized boolean markRemoved() {
+            if (removed) {
+                return false;
+            }
+            removed = true;
+            return true;
+        }
+
+        /// Mark the node as removed if its value is equal to the expected one.
+        synchronized boolean markRemoved(V expected) {
+            return Objects.equals(value, expected) && markRemoved();
+        }
+    }
+
+    /// Intrusive doubly-linked list of nodes ordered from the least to the most recently used.
+    static final class AccessQueue<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        Node<K, V> pollFirst() {
+            var node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /// Lossy single-consumer ring buffer of recent reads. Records are dropped if the buffer is full or contended, which
+    /// only slightly reduces the precision of the policy, but keeps reads free from waiting.
+    static final class ReadBuffer<K, V> {
+        private static final int SIZE = 16;
+        private static final int MASK = SIZE - 1;
+        private static final int DRAIN_THRESHOLD = SIZE / 2;
+
+        private final AtomicLong writeCounter = new AtomicLong();
+        private final AtomicReferenceArray<Node<K, V>> buffer = new AtomicReferenceArray<>(SIZE);
+        private volatile long readCounter;
+
+        /// Record the read.
+        ///
+        /// @return `true` if the buffer should be drained
+        boolean offer(Node<K, V> node) {
+            var tail = writeCounter.get();
+            var size = tail - readCounter;
+            if (size >= SIZE) {
+                return true;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.setRelease((int) (tail & MASK), node);
+                return size + 1 >= DRAIN_THRESHOLD;
+            }
+            return false;
+        }
+
+        /// Apply recorded reads to the policy. Must be called with the eviction lock held.
+        void drain(TinyLfuCache<K, V> cache) {
+            var head = readCounter;
+            var tail = writeCounter.get();
+            for (; head < tail; head++) {
+                var index = (int) (head & MASK);
+                var node = buffer.getAcquire(index);
+                // Slot is claimed, but not written yet
+                if (node == null) {
+                    break;
+                }
+                buffer.setRelease(index, null);
+                cache.onAccess(node);
+            }
+            readCounter = head;
+        }
+    }
+
+    /// Count-min sketch with 4-bit counters used to estimate the popularity of keys. Once the number of increments
+    /// reaches ten times the cache size, all counters are halved, so the history fades out over time.
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maxSize) {
+            var length = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 26)) * 2 - 1);
+            this.table = new long[length];
+            this.mask = length - 1;
+            this.sampleSize = (int) Math.min(10L * Math.max(maxSize, 16), Integer.MAX_VALUE);
+        }
+
+        int frequency(Object key) {
+            var hash = spread(key.hashCode());
+            var frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                var mixed = mix(hash, i);
+                frequency = Math.min(frequency, (int) ((table[index(mixed)] >>> offset(mixed)) & 0xF));
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            var hash = spread(key.hashCode());
+            var added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                var mixed = mix(hash, i);
+                var index = index(mixed);
+                var offset = offset(mixed);
+                if (((table[index] >>> offset) & 0xF) < 15) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions >>>= 1;
+        }
+
+        private int index(long mixed) {
+            return (int) (mixed >>> 32) & mask;
+        }
+
+        private static int offset(long mixed) {
+            return ((int) mixed & 0xF) << 2;
+        }
+
+        private static long mix(int hash, int i) {
+            var mixed = (hash + SEEDS[i]) * SEEDS[i];
+            return mixed ^ (mixed >>> 29);
+        }
+
+        private static int spread(int hash) {
+            var spread = hash * 0x9E3779B9;
+            return spread ^ (spread >>> 16);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.utils;
+
+import org.pragmatica.lang.AsyncExecutor;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.TimerWheel;
+import org.pragmatica.lang.Unit;
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+/// Bulkhead isolates callers of different partitions (tenants, endpoints, shards, etc.) by limiting the number of
+/// concurrent operations per partition key. Slow operations of one partition can't consume resources (threads,
+/// connections) needed by other partitions.
+///
+/// If the limit for the key is reached, the operation fails immediately with [BulkheadError.BulkheadFull] or, if the
+/// queue is configured with [Builder#queue(int, TimeSpan)], waits in the per-key FIFO queue for the configured time.
+///
+/// The bulkhead has the same shape as [CircuitBreaker], [Retry] and [RateLimiter], so they can be composed:
+/// ```java
+/// bulkhead.execute(tenantId, () -> circuitBreaker.execute(() -> retry.execute(operation)));
+/// ```
+/// Per-key state is created on demand and removed once the partition has no running or waiting operations, so the
+/// bulkhead scales to a large number of keys. State of each key is updated atomically within its bin of the
+/// underlying [ConcurrentHashMap], so operations on different keys rarely contend.
+///
+/// @param <K> Type of the partition key
+public interface Bulkhead<K> {
+    /// Execute an operation within the partition identified by the key.
+    ///
+    /// @param key       Partition key
+    /// @param operation The promise-returning operation to execute
+    /// @param <T>       The return type of the operation
+    ///
+    /// @return A promise containing the result or a bulkhead full or queue timeout failure
+    <T> Promise<T> execute(K key, Supplier<Promise<T>> operation);
+
+    /// Number of running operations in the partition.
+    ///
+    /// @param key Partition key
+    ///
+    /// @return The number of running operations
+    int inFlight(K key);
+
+    /// Number of operations waiting in the partition queue.
+    ///
+    /// @param key Partition key
+    ///
+    /// @return The queue length
+    int queued(K key);
+
+    /// Number of partitions which have running or waiting operations.
+    ///
+    /// @return The number of active partitions
+    int activePartitions();
+
+    /// Counters accumulated since the bulkhead was created.
+    ///
+    /// @return The counters
+    Stats stats();
+
+    /// Bulkhead counters.
+    ///
+    /// @param rejected  Number of operations rejected because the partition and its queue were full
+    /// @param timedOut  Number of queued operations which were not started within maximal wait time
+    /// @param dequeued  Number of queued operations which were started
+    /// @param queueWait Total time spent in the queue by started operations
+    record Stats(long rejected, long timedOut, long dequeued, TimeSpan queueWait) {
+        /// Average time spent in the queue by started operations.
+        public TimeSpan averageQueueWait() {
+            return timeSpan(dequeued == 0 ? 0 : queueWait.nanos() / dequeued).nanos();
+        }
+    }
+
+    sealed interface BulkheadError extends Cause {
+        record BulkheadFull(Object key, int maxConcurrent) implements BulkheadError {
+            @Override
+            public String message() {
+                return "Bulkhead for " + key + " is full, limit is " + maxConcurrent;
+            }
+        }
+
+        record QueueTimeout(Object key, TimeSpan maxWait) implements BulkheadError {
+            @Override
+            public String message() {
+                return "Operation for " + key + " was not started within " + maxWait;
+            }
+        }
+
+        record InvalidParameter(String parameter, Object value) implements BulkheadError {
+            @Override
+            public String message() {
+                return "Invalid bulkhead parameter " + parameter + ": " + value;
+            }
+        }
+    }
+
+    /// Create a bulkhead builder. By default, operations are rejected immediately if the partition is full.
+    ///
+    /// @param maxConcurrent Maximal number of concurrent operations per key
+    ///
+    /// @return A new builder
+    static <K> Builder<K> builder(int maxConcurrent) {
+        return new Builder<>(maxConcurrent, 0, timeSpan(0).nanos(), TimeSource.system());
+    }
+
+    record Builder<K>(int maxConcurrent, int maxQueued, TimeSpan maxWait, TimeSource timeSource) {
+        /// Queue up to `maxQueued` operations per key for at most `maxWait` instead of rejecting them immediately.
+        public Builder<K> queue(int maxQueued, TimeSpan maxWait) {
+            return new Builder<>(maxConcurrent, maxQueued, maxWait, timeSource);
+        }
+
+        /// Time source used to measure time spent in the queue.
+        public Builder<K> timeSource(TimeSource timeSource) {
+            return new Builder<>(maxConcurrent, maxQueued, maxWait, timeSource);
+        }
+
+        public Result<Bulkhead<K>> build() {
+            if (maxConcurrent <= 0) {
+                return new BulkheadError.InvalidParameter("maxConcurrent", maxConcurrent).result();
+            }
+            if (maxQueued < 0) {
+                return new BulkheadError.InvalidParameter("maxQueued", maxQueued).result();
+            }
+            if (maxQueued > 0 && maxWait.nanos() <= 0) {
+                return new BulkheadError.InvalidParameter("maxWait", maxWait).result();
+            }
+            return Result.success(new PartitionedBulkhead<>(this));
+        }
+    }
+}
+
+/// Bulkhead implementation. State of each partition is mutated only inside `ConcurrentHashMap.compute` for its key,
+/// while promises are resolved outside of it.
+final class PartitionedBulkhead<K> implements Bulkhead<K> {
+    /// Counters are volatile, so they can be read without locking the map bin.
+    private static final class Partition {
+        private volatile int inFlight;
+        private volatile int queued;
+        private ArrayDeque<Waiter> waiters;
+
+        boolean isIdle() {
+            return inFlight == 0 && (waiters == null || waiters.isEmpty());
+        }
+    }
+
+    private static final class Waiter {
+        private final Promise<Unit> permit = Promise.<Unit>promise()
+                                                    .cancellable();
+        private final long enqueuedAt;
+        private volatile TimerWheel.TimerTask timeout;
+
+        Waiter(long enqueuedAt) {
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private enum Decision {
+        ACQUIRED,
+        QUEUED,
+        REJECTED
+    }
+
+    private final Bulkhead.Builder<K> config;
+    private final ConcurrentHashMap<K, Partition> partitions = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    PartitionedBulkhead(Bulkhead.Builder<K> config) {
+        this.config = config;
+    }
+
+    @Override
+    public <T> Promise<T> execute(K key, Supplier<Promise<T>> operation) {
+        var decision = new Decision[1];
+        var waiter = config.maxQueued() > 0
+                     ? new Waiter(config.timeSource()
+                                        .nanoTime())
+                     : null;
+        partitions.compute(key,
+                           (_, existing) -> {
+                               var partition = existing == null ? new Partition() : existing;
+                               decision[0] = acquireOrEnqueue(partition, waiter);
+                               return partition.isIdle() ? null : partition;
+                           });
+        return switch (decision[0]) {
+            case ACQUIRED -> run(key, operation);
+            case QUEUED -> {
+                waiter.timeout = TimerWheel.shared()
+                                           .schedule(config.maxWait(), () -> expire(key, waiter));
+                waiter.permit.onCancel(() -> cancel(key, waiter));
+                yield waiter.permit.flatMap(_ -> run(key, operation));
+            }
+            case REJECTED -> {
+                rejected.increment();
+                yield new BulkheadError.BulkheadFull(key, config.maxConcurrent()).promise();
+            }
+        };
+    }
+
+    @Override
+    public int inFlight(K key) {
+        var partition = partitions.get(key);
+        return partition == null ? 0 : partition.inFlight;
+    }
+
+    @Override
+    public int queued(K key) {
+        var partition = partitions.get(key);
+        return partition == null ? 0 : partition.queued;
+    }
+
+    @Override
+    public int activePartitions() {
+        return partitions.size();
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats(rejected.sum(), timedOut.sum(), dequeued.sum(), timeSpan(queueWaitNanos.sum()).nanos());
+    }
+
+    private Decision acquireOrEnqueue(Partition partition, Waiter waiter) {
+        if (partition.inFlight < config.maxConcurrent()) {
+            partition.inFlight++;
+            return Decision.ACQUIRED;
+        }
+        if (waiter == null) {
+            return Decision.REJECTED;
+        }
+        if (partition.waiters == null) {
+            partition.waiters = new ArrayDeque<>();
+        }
+        if (partition.waiters.size() >= config.maxQueued()) {
+            return Decision.REJECTED;
+        }
+        partition.waiters.addLast(waiter);
+        partition.queued = partition.waiters.size();
+        return Decision.QUEUED;
+    }
+
+    private <T> Promise<T> run(K key, Supplier<Promise<T>> operation) {
+        return operation.get()
+                        .onResultAsync(AsyncExecutor.sameThread(), _ -> release(key));
+    }
+
+    /// Pass the permit to the next waiter or return it to the partition. If the waiter was cancelled concurrently, the
+    /// permit is passed to the following one.
+    private void release(K key) {
+        while (true) {
+            var next = new Waiter[1];
+            partitions.computeIfPresent(key,
+                                        (_, partition) -> {
+                                            next[0] = partition.waiters == null ? null : partition.waiters.pollFirst();
+                                            if (next[0] == null) {
+                                                partition.inFlight--;
+                                            } else {
+                                                partition.queued = partition.waiters.size();
+                                            }
+                                            return partition.isIdle() ? null : partition;
+                                        });
+            var waiter = next[0];
+            if (waiter == null) {
+                return;
+            }
+            cancelTimeout(waiter);
+            if (waiter.permit.tryResolve(Result.unitResult())) {
+                dequeued.increment();
+                queueWaitNanos.add(config.timeSource()
+                                         .nanoTime() - waiter.enqueuedAt);
+                return;
+            }
+        }
+    }
+
+    private void cancel(K key, Waiter waiter) {
+        if (removeWaiter(key, waiter)) {
+            cancelTimeout(waiter);
+        }
+    }
+
+    private void expire(K key, Waiter waiter) {
+        if (removeWaiter(key, waiter)) {
+            timedOut.increment();
+            waiter.permit.fail(new BulkheadError.QueueTimeout(key, config.maxWait()));
+        }
+    }
+
+    private boolean removeWaiter(K key, Waiter waiter) {
+        var removed = new boolean[1];
+        partitions.computeIfPresent(key,
+                                    (_, partition) -> {
+                                        removed[0] = partition.waiters != null && partition.waiters.remove(waiter);
+                                        if (removed[0]) {
+                                            partition.queued = partition.waiters.size();
+                                        }
+                                        return partition.isIdle() ? null : partition;
+                                    });
+        return removed[0];
+    }
+
+    private static void cancelTimeout(Waiter waiter) {
+        // Timeout is assigned after the waiter is enqueued, so it might be not set yet
+        var timeout = waiter.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
@@ -68,14 +68,69 @@ public String toString() {
         return new simpleCause(message, source);
     }
 
-    /// Construct a simple cause from provided [Throwable].
+    /// Construct a simple cause from provided [Throwable]. The message contains the stack trace of the throwable, it is
+    /// formatted when requested for the first time.
     ///
     /// @param throwable the instance of [Throwable] to extract stack trace and message from
     /// @return created instance
     static Cause fromThrowable(Throwable throwable) {
-        var sw = new StringWriter();
-        throwable.printStackTrace(new PrintWriter(sw));
-        return cause(sw.toString());
+        final class throwableCause implements SimpleCause {
+            private final Throwable throwable;
+            private volatile String message;
+
+            throwableCause(Throwable throwable) {
+                this.throwable = throwable;
+            }
+
+            @Override
+            public String message() {
+                var text = message;
+
+                if (text == null) {
+                    var sw = new StringWriter();
+                    throwable.printStackTrace(new PrintWriter(sw));
+                    message = text = sw.toString();
+                }
+                return text;
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return other instanceof throwableCause cause && throwable.equals(cause.throwable);
+            }
+
+            @Override
+            public int hashCode() {
+                return throwable.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return completeMessage();
+            }
+        }
+        return new throwableCause(throwable);
+    }
+
+    /// Construct a cause which describes the call site captured by [Tracing#callSite()]. The frame is formatted only
+    /// when the message is requested.
+    ///
+    /// @param frame  captured call site
+    /// @param source the traced cause
+    /// @return created instance
+    static Cause callSite(StackWalker.StackFrame frame, Option<Cause> source) {
+        record callSiteCause(StackWalker.StackFrame frame, Option<Cause> source) implements SimpleCause {
+            @Override
+            public String message() {
+                return frame.toString();
+            }
+
+            @Override
+            public String toString() {
+                return completeMessage();
+            }
+        }
+        return new callSiteCause(frame, source);
     }
 
     /// Create a mapper which will map a single value into a formatted message.
@@ -113,6 +168,13 @@ static Cause toComposite(String text, Cause cause) {
             return composite().append(cause(text, option(cause)));
         }
 
+        static Cause toComposite(StackWalker.StackFrame frame, Cause cause) {
+            if (cause instanceof CompositeCause composite) {
+                return composite.append(callSite(frame, none()));
+            }
+            return composite().append(callSite(frame, option(cause)));
+        }
+
         CompositeCause append(Cause cause);
 
         boolean isEmpty();
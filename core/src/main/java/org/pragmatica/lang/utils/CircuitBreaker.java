@@ -17,11 +17,17 @@
 
 package org.pragmatica.lang.utils;
 
+import org.pragmatica.lang.AsyncExecutor;
 import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Option;
 import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
 import org.pragmatica.lang.io.TimeSpan;
 import org.pragmatica.lang.utils.CircuitBreaker.CircuitBreakerErrors.CircuitBreakerOpenError;
+import org.pragmatica.lang.utils.CircuitBreaker.CircuitBreakerErrors.InvalidConfiguration;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
@@ -36,6 +42,15 @@
 /// Implementation is thread safe, and several threads can simultaneously access
 /// service protected by the CircuitBreaker. Each service must have its own instance of
 /// CircuitBreaker though.
+///
+/// Two flavors are available:
+/// <ul>
+///   <li>[#builder()] - trips after the configured number of consecutive failures</li>
+///   <li>[#slidingWindow()] - trips on failure rate or slow call rate over the last N calls or the last time period,
+///   so partial outages are detected as well</li>
+/// </ul>
+/// In both cases, the number of concurrent test calls in the half-open state is limited, and remaining calls are
+/// rejected with [CircuitBreakerErrors.CircuitBreakerOpenError].
 public interface CircuitBreaker {
     /// Execute an operation through the circuit breaker.
     ///
@@ -81,6 +96,7 @@ record circuitBreaker(int failureThreshold,
                               AtomicLong failureCountRef,
                               AtomicLong lastStateChangeTimestamp,
                               AtomicLong testSuccessCount,
+                              AtomicLong testPermits,
                               org.pragmatica.lang.utils.TimeSource timeSource) implements CircuitBreaker {
             private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
 
@@ -123,7 +139,13 @@ private <T> Promise<T> executeClosedState(Supplier<Promise<T>> operation) {
             }
 
             private <T> Promise<T> executeHalfOpenState(Supplier<Promise<T>> operation) {
+                var period = HalfOpenPermits.tryAcquire(testPermits, testAttempts);
+                if (period == HalfOpenPermits.REJECTED) {
+                    return HalfOpenPermits.<T>rejected(resetTimeout).promise();
+                }
                 return operation.get()
+                                .onResultAsync(AsyncExecutor.sameThread(),
+                                               _ -> HalfOpenPermits.release(testPermits, period))
                                 .onSuccess(_ -> {
                                                long successCount = testSuccessCount.incrementAndGet();
                                                if (successCount >= testAttempts) {
@@ -148,7 +170,10 @@ private void transitionTo(State newState) {
                     log.info("Circuit breaker stateRef changed from {} to {}", oldState, newState);
                     switch (newState) {
                         case OPEN -> scheduleReset();
-                        case HALF_OPEN -> testSuccessCount.set(0);
+                        case HALF_OPEN -> {
+                            testSuccessCount.set(0);
+                            HalfOpenPermits.nextPeriod(testPermits);
+                        }
                         case CLOSED -> failureCountRef.set(0);
                     }
                 }
@@ -175,6 +200,7 @@ private boolean isResetTimeoutExpired() {
                                   new AtomicLong(0),
                                   new AtomicLong(timeSource.nanoTime()),
                                   new AtomicLong(0),
+                                  new AtomicLong(0),
                                   timeSource);
     }
 
@@ -185,6 +211,150 @@ public String message() {
                 return "Circuit breaker is open. " + message + ". Will attempt reset in " + retryTime;
             }
         }
+
+        record InvalidConfiguration(String parameter, Object value) implements CircuitBreakerErrors {
+            @Override
+            public String message() {
+                return "Invalid circuit breaker parameter " + parameter + ": " + value;
+            }
+        }
+    }
+
+    /// Statistics of calls recorded in the sliding window.
+    ///
+    /// @param calls       Number of recorded calls
+    /// @param failedCalls Number of calls which failed with a cause accepted by the `shouldTrip` predicate
+    /// @param slowCalls   Number of calls which took longer than the slow call duration
+    record WindowStats(int calls, int failedCalls, int slowCalls) {
+        public double failureRate() {
+            return calls == 0 ? 0.0 : (double) failedCalls / calls;
+        }
+
+        public double slowCallRate() {
+            return calls == 0 ? 0.0 : (double) slowCalls / calls;
+        }
+    }
+
+    /// Circuit breaker which trips on failure rate or slow call rate over the sliding window.
+    interface SlidingWindowCircuitBreaker extends CircuitBreaker {
+        /// Gets the statistics of calls in the current sliding window.
+        ///
+        /// @return The window statistics
+        WindowStats stats();
+    }
+
+    /// Creates a builder for the circuit breaker which trips on failure rate or slow call rate over the sliding window.
+    ///
+    /// Defaults: count-based window of 100 calls, failure rate threshold 50%, slow call rate threshold 100%, slow
+    /// call duration 60 seconds, minimum of 10 calls before rates are evaluated, reset timeout 60 seconds, 5 test calls
+    /// in the half-open state, every failure counts.
+    ///
+    /// @return A new builder
+    static SlidingWindowBuilder slidingWindow() {
+        return new SlidingWindowBuilder(100,
+                                        Option.none(),
+                                        0.5,
+                                        1.0,
+                                        timeSpan(60).seconds(),
+                                        10,
+                                        timeSpan(60).seconds(),
+                                        5,
+                                        _ -> true);
+    }
+
+    record SlidingWindowBuilder(int windowCalls,
+                                Option<TimeSpan> windowDuration,
+                                double failureRateThreshold,
+                                double slowCallRateThreshold,
+                                TimeSpan slowCallDuration,
+                                int minimumCalls,
+                                TimeSpan resetTimeout,
+                                int halfOpenCalls,
+                                Predicate<Cause> shouldTrip) {
+        /// Evaluate the last `calls` calls.
+        public SlidingWindowBuilder countBased(int calls) {
+            return new SlidingWindowBuilder(calls, Option.none(), failureRateThreshold, slowCallRateThreshold,
+                                            slowCallDuration, minimumCalls, resetTimeout, halfOpenCalls, shouldTrip);
+        }
+
+        /// Evaluate calls completed during the last `duration`. The window is divided into 10 buckets, so calls expire
+        /// from the window in steps of `duration / 10`.
+        public SlidingWindowBuilder timeBased(TimeSpan duration) {
+            return new SlidingWindowBuilder(windowCalls, Option.some(duration), failureRateThreshold,
+                                            slowCallRateThreshold, slowCallDuration, minimumCalls, resetTimeout,
+                                            halfOpenCalls, shouldTrip);
+        }
+
+        /// Failure rate in the range `(0, 1]` at which the circuit opens.
+        public SlidingWindowBuilder failureRateThreshold(double threshold) {
+            return new SlidingWindowBuilder(windowCalls, windowDuration, threshold, slowCallRateThreshold,
+                                            slowCallDuration, minimumCalls, resetTimeout, halfOpenCalls, shouldTrip);
+        }
+
+        /// Slow call rate in the range `(0, 1]` at which the circuit opens.
+        public SlidingWindowBuilder slowCallRateThreshold(double threshold) {
+            return new SlidingWindowBuilder(windowCalls, windowDuration, failureRateThreshold, threshold,
+                                            slowCallDuration, minimumCalls, resetTimeout, halfOpenCalls, shouldTrip);
+        }
+
+        /// Calls which take at least this time are considered slow.
+        public SlidingWindowBuilder slowCallDuration(TimeSpan duration) {
+            return new SlidingWindowBuilder(windowCalls, windowDuration, failureRateThreshold, slowCallRateThreshold,
+                                            duration, minimumCalls, resetTimeout, halfOpenCalls, shouldTrip);
+        }
+
+        /// Minimal number of calls in the window before rates are evaluated.
+        public SlidingWindowBuilder minimumCalls(int calls) {
+            return new SlidingWindowBuilder(windowCalls, windowDuration, failureRateThreshold, slowCallRateThreshold,
+                                            slowCallDuration, calls, resetTimeout, halfOpenCalls, shouldTrip);
+        }
+
+        public SlidingWindowBuilder resetTimeout(TimeSpan timeout) {
+            return new SlidingWindowBuilder(windowCalls, windowDuration, failureRateThreshold, slowCallRateThreshold,
+                                            slowCallDuration, minimumCalls, timeout, halfOpenCalls, shouldTrip);
+        }
+
+        /// Number of successful test calls required to close the circuit. This is also the maximal number of
+        /// concurrent calls in the half-open state.
+        public SlidingWindowBuilder halfOpenCalls(int calls) {
+            return new SlidingWindowBuilder(windowCalls, windowDuration, failureRateThreshold, slowCallRateThreshold,
+                                            slowCallDuration, minimumCalls, resetTimeout, calls, shouldTrip);
+        }
+
+        public SlidingWindowBuilder shouldTrip(Predicate<Cause> predicate) {
+            return new SlidingWindowBuilder(windowCalls, windowDuration, failureRateThreshold, slowCallRateThreshold,
+                                            slowCallDuration, minimumCalls, resetTimeout, halfOpenCalls, predicate);
+        }
+
+        public Result<SlidingWindowCircuitBreaker> timeSource(org.pragmatica.lang.utils.TimeSource timeSource) {
+            return validate().map(_ -> SlidingWindowBreaker.create(this, timeSource));
+        }
+
+        public Result<SlidingWindowCircuitBreaker> withDefaultTimeSource() {
+            return timeSource(org.pragmatica.lang.utils.TimeSource.system());
+        }
+
+        private Result<SlidingWindowBuilder> validate() {
+            if (windowCalls <= 0) {
+                return new InvalidConfiguration("windowCalls", windowCalls).result();
+            }
+            if (windowDuration.filter(duration -> duration.nanos() <= 0).isPresent()) {
+                return new InvalidConfiguration("windowDuration", windowDuration).result();
+            }
+            if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+                return new InvalidConfiguration("failureRateThreshold", failureRateThreshold).result();
+            }
+            if (!(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+                return new InvalidConfiguration("slowCallRateThreshold", slowCallRateThreshold).result();
+            }
+            if (minimumCalls <= 0) {
+                return new InvalidConfiguration("minimumCalls", minimumCalls).result();
+            }
+            if (halfOpenCalls <= 0) {
+                return new InvalidConfiguration("halfOpenCalls", halfOpenCalls).result();
+            }
+            return Result.success(this);
+        }
     }
 
     /// Creates a builder for configuring a new CircuitBreaker.
@@ -230,3 +400,281 @@ default CircuitBreaker withDefaultTimeSource() {
         }
     }
 }
+
+/// Limit of concurrent test calls in the half-open state. The state packs the number of the half-open period into the
+/// upper 32 bits and the number of permits in use into the lower 32 bits. Each permit is released against the period
+/// it was acquired in, so calls which complete after the breaker left the half-open state do not release permits of
+/// the next half-open period.
+final class HalfOpenPermits {
+    static final long REJECTED = -1;
+
+    private HalfOpenPermits() {}
+
+    /// Acquire a permit in the current period.
+    ///
+    /// @return the period the permit belongs to, or [#REJECTED] if all permits are in use
+    static long tryAcquire(AtomicLong permits, int limit) {
+        while (true) {
+            var current = permits.get();
+            if ((int) current >= limit) {
+                return REJECTED;
+            }
+            if (permits.compareAndSet(current, current + 1)) {
+                return current >>> 32;
+            }
+        }
+    }
+
+    static void release(AtomicLong permits, long period) {
+        while (true) {
+            var current = permits.get();
+            if (current >>> 32 != period || (int) current == 0) {
+                return;
+            }
+            if (permits.compareAndSet(current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    /// Start a new half-open period with all permits available.
+    static void nextPeriod(AtomicLong permits) {
+        permits.updateAndGet(current -> ((current >>> 32) + 1) << 32);
+    }
+
+    static CircuitBreakerOpenError rejected(TimeSpan resetTimeout) {
+        return new CircuitBreakerOpenError("All half-open test calls are in progress", resetTimeout);
+    }
+}
+
+/// Sliding window circuit breaker. Recording of the outcome is lock-free; rates are evaluated only after failed or
+/// slow calls, so the success path does not read the whole window.
+final class SlidingWindowBreaker implements CircuitBreaker.SlidingWindowCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final CircuitBreaker.SlidingWindowBuilder config;
+    private final FluentPredicate<Cause> shouldTrip;
+    private final org.pragmatica.lang.utils.TimeSource timeSource;
+    private final AtomicReference<State> stateRef = new AtomicReference<>(State.CLOSED);
+    private final AtomicReference<OutcomeWindow> windowRef;
+    private final AtomicLong lastStateChangeTimestamp;
+    private final AtomicInteger testSuccessCount = new AtomicInteger();
+    private final AtomicLong testPermits = new AtomicLong();
+
+    private SlidingWindowBreaker(CircuitBreaker.SlidingWindowBuilder config,
+                                 org.pragmatica.lang.utils.TimeSource timeSource) {
+        this.config = config;
+        this.shouldTrip = FluentPredicate.from(config.shouldTrip());
+        this.timeSource = timeSource;
+        this.windowRef = new AtomicReference<>(newWindow());
+        this.lastStateChangeTimestamp = new AtomicLong(timeSource.nanoTime());
+    }
+
+    static CircuitBreaker.SlidingWindowCircuitBreaker create(CircuitBreaker.SlidingWindowBuilder config,
+                                                             org.pragmatica.lang.utils.TimeSource timeSource) {
+        return new SlidingWindowBreaker(config, timeSource);
+    }
+
+    @Override
+    public State state() {
+        return stateRef.get();
+    }
+
+    @Override
+    public long failureCount() {
+        return stats().failedCalls();
+    }
+
+    @Override
+    public CircuitBreaker.WindowStats stats() {
+        return windowRef.get()
+                        .stats(timeSource.nanoTime());
+    }
+
+    @Override
+    public TimeSpan timeSinceLastStateChange() {
+        return timeSpan(timeSource.nanoTime() - lastStateChangeTimestamp.get()).nanos();
+    }
+
+    @Override
+    public <T> Promise<T> execute(Supplier<Promise<T>> operation) {
+        return switch (stateRef.get()) {
+            case CLOSED -> executeClosedState(operation);
+            case OPEN -> {
+                if (isResetTimeoutExpired()) {
+                    transition(State.OPEN, State.HALF_OPEN);
+                    yield executeHalfOpenState(operation);
+                }
+                var timeout = timeSpan(config.resetTimeout()
+                                             .nanos() - (timeSource.nanoTime() - lastStateChangeTimestamp.get()))
+                .nanos();
+                yield new CircuitBreakerOpenError("Circuit breaker is open. Operation rejected.", timeout).promise();
+            }
+            case HALF_OPEN -> executeHalfOpenState(operation);
+        };
+    }
+
+    private <T> Promise<T> executeClosedState(Supplier<Promise<T>> operation) {
+        var start = timeSource.nanoTime();
+        return operation.get()
+                        .onResultAsync(AsyncExecutor.sameThread(), result -> recordClosed(result, start));
+    }
+
+    private <T> Promise<T> executeHalfOpenState(Supplier<Promise<T>> operation) {
+        var period = HalfOpenPermits.tryAcquire(testPermits, config.halfOpenCalls());
+        if (period == HalfOpenPermits.REJECTED) {
+            return HalfOpenPermits.<T>rejected(config.resetTimeout()).promise();
+        }
+        var start = timeSource.nanoTime();
+        return operation.get()
+                        .onResultAsync(AsyncExecutor.sameThread(), result -> recordHalfOpen(result, start, period));
+    }
+
+    private void recordClosed(Result<?> result, long start) {
+        var now = timeSource.nanoTime();
+        var failed = isTrippingFailure(result);
+        var slow = now - start >= config.slowCallDuration()
+                                        .nanos();
+        var window = windowRef.get();
+        window.record(failed, slow, now);
+        if (failed || slow) {
+            var stats = window.stats(now);
+            if (stats.calls() >= config.minimumCalls() && (stats.failureRate() >= config.failureRateThreshold() ||
+                                                           stats.slowCallRate() >= config.slowCallRateThreshold())) {
+                transition(State.CLOSED, State.OPEN);
+            }
+        }
+    }
+
+    private void recordHalfOpen(Result<?> result, long start, long period) {
+        HalfOpenPermits.release(testPermits, period);
+        var slow = timeSource.nanoTime() - start >= config.slowCallDuration()
+                                                          .nanos();
+        if (isTrippingFailure(result) || slow) {
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (result.isSuccess() && testSuccessCount.incrementAndGet() >= config.halfOpenCalls()) {
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    private boolean isTrippingFailure(Result<?> result) {
+        return result.fold(shouldTrip::test, _ -> false);
+    }
+
+    private void transition(State from, State to) {
+        if (!stateRef.compareAndSet(from, to)) {
+            return;
+        }
+        lastStateChangeTimestamp.set(timeSource.nanoTime());
+        log.info("Circuit breaker state changed from {} to {}", from, to);
+        switch (to) {
+            case OPEN -> scheduleReset();
+            case HALF_OPEN -> {
+                testSuccessCount.set(0);
+                HalfOpenPermits.nextPeriod(testPermits);
+            }
+            case CLOSED -> windowRef.set(newWindow());
+        }
+    }
+
+    private void scheduleReset() {
+        SharedScheduler.schedule(() -> {
+                                     if (isResetTimeoutExpired()) {
+                                         transition(State.OPEN, State.HALF_OPEN);
+                                     }
+                                 },
+                                 config.resetTimeout());
+    }
+
+    private boolean isResetTimeoutExpired() {
+        return timeSource.nanoTime() - lastStateChangeTimestamp.get() >= config.resetTimeout()
+                                                                              .nanos();
+    }
+
+    private OutcomeWindow newWindow() {
+        return config.windowDuration()
+                     .map(duration -> (OutcomeWindow) new TimeWindow(duration.nanos()))
+                     .or(() -> new CountWindow(config.windowCalls()));
+    }
+}
+
+/// Outcomes of calls in the sliding window.
+sealed interface OutcomeWindow permits CountWindow, TimeWindow {
+    void record(boolean failed, boolean slow, long now);
+
+    CircuitBreaker.WindowStats stats(long now);
+}
+
+/// Ring buffer of outcomes of the last N calls. Aggregated counters are adjusted by the difference between the new
+/// and overwritten outcome, so recording of a successful call over another successful call touches only the position
+/// counter and the slot.
+final class CountWindow implements OutcomeWindow {
+    private static final int RECORDED = 1;
+    private static final int FAILED = 2;
+    private static final int SLOW = 4;
+
+    private final int size;
+    private final AtomicIntegerArray outcomes;
+    private final AtomicLong position = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failedCalls = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+
+    CountWindow(int size) {
+        this.size = size;
+        this.outcomes = new AtomicIntegerArray(size);
+    }
+
+    @Override
+    public void record(boolean failed, boolean slow, long now) {
+        var outcome = RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0);
+        var previous = outcomes.getAndSet((int) (position.getAndIncrement() % size), outcome);
+        if ((previous & RECORDED) == 0) {
+            calls.incrementAndGet();
+        }
+        adjust(failedCalls, previous & FAILED, outcome & FAILED);
+        adjust(slowCalls, previous & SLOW, outcome & SLOW);
+    }
+
+    private static void adjust(AtomicInteger counter, int previous, int current) {
+        if (previous != current) {
+            counter.addAndGet(current != 0 ? 1 : -1);
+        }
+    }
+
+    @Override
+    public CircuitBreaker.WindowStats stats(long now) {
+        return new CircuitBreaker.WindowStats(calls.get(), failedCalls.get(), slowCalls.get());
+    }
+}
+
+/// Outcomes of calls during the last time period, aggregated in the [SlidingCounter].
+final class TimeWindow implements OutcomeWindow {
+    private static final int CALLS = 0;
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final SlidingCounter counter;
+
+    TimeWindow(long durationNanos) {
+        this.counter = new SlidingCounter(durationNanos, 3);
+    }
+
+    @Override
+    public void record(boolean failed, boolean slow, long now) {
+        counter.add(now, CALLS, 1);
+        if (failed) {
+            counter.add(now, FAILED, 1);
+        }
+        if (slow) {
+            counter.add(now, SLOW, 1);
+        }
+    }
+
+    @Override
+    public CircuitBreaker.WindowStats stats(long now) {
+        return new CircuitBreaker.WindowStats((int) counter.sum(now, CALLS),
+                                              (int) counter.sum(now, FAILED),
+                                              (int) counter.sum(now, SLOW));
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.utils;
+
+import org.pragmatica.lang.AsyncExecutor;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.TimerWheel;
+import org.pragmatica.lang.Unit;
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+/// Adaptive concurrency limiter. Limits the number of concurrently executed operations and adjusts the limit
+/// automatically from observed latency and failures, so the limit follows the actual capacity of the protected
+/// service instead of being configured upfront.
+///
+/// Available algorithms (see [Algorithm]):
+/// <ul>
+///   <li>[Algorithm#AIMD] - additive increase, multiplicative decrease on failures</li>
+///   <li>[Algorithm#VEGAS] - estimates the queue in the service from the ratio of minimal and current latency</li>
+///   <li>[Algorithm#GRADIENT] - compares short-term latency with the long-term average</li>
+/// </ul>
+/// The limit grows only when the limiter is actually used (at least half of the limit is in flight).
+///
+/// If the limit is reached, the operation either fails immediately with [ConcurrencyLimiterError.LimitExceeded]
+/// (default) or, if the queue is configured with [Builder#queue(int, TimeSpan)], waits in the FIFO queue for the
+/// configured time. Acquiring and releasing permits is lock-free.
+///
+/// ```java
+/// var limiter = ConcurrencyLimiter.builder()
+///                                 .algorithm(Algorithm.GRADIENT)
+///                                 .limits(20, 1, 200)
+///                                 .queue(100, timeSpan(50).millis())
+///                                 .build()
+///                                 .unwrap();
+/// limiter.execute(() -> database.query(...));
+/// ```
+public interface ConcurrencyLimiter {
+    /// Execute an operation once the number of in-flight operations is below the limit.
+    ///
+    /// @param operation The promise-returning operation to execute
+    /// @param <T>       The return type of the operation
+    ///
+    /// @return A promise containing the result or a limit exceeded or queue timeout failure
+    <T> Promise<T> execute(Supplier<Promise<T>> operation);
+
+    /// Current limit of concurrently executed operations.
+    ///
+    /// @return The current limit
+    int limit();
+
+    /// Number of operations which are currently executed.
+    ///
+    /// @return The number of in-flight operations
+    int inFlight();
+
+    /// Number of operations waiting in the queue.
+    ///
+    /// @return The queue length
+    int queued();
+
+    /// Number of operations rejected because the limit was reached or the wait timed out.
+    ///
+    /// @return The number of rejections
+    long rejected();
+
+    /// Limit adjustment algorithm.
+    enum Algorithm {
+        /// Increase the limit by one after a successful operation, multiply it by 0.9 after a failure.
+        AIMD,
+        /// Increase the limit while the estimated queue (`limit * (1 - minLatency / latency)`) is below
+        /// `3 * log10(limit)`, decrease it when the queue exceeds `6 * log10(limit)` or the operation fails.
+        VEGAS,
+        /// Multiply the limit by the ratio of long-term average latency (with 1.5x tolerance) to the latest latency,
+        /// in the range `[0.5, 1]`, and add `sqrt(limit)` headroom. The change is smoothed.
+        GRADIENT
+    }
+
+    sealed interface ConcurrencyLimiterError extends Cause {
+        record LimitExceeded(int limit) implements ConcurrencyLimiterError {
+            @Override
+            public String message() {
+                return "Concurrency limit " + limit + " exceeded";
+            }
+        }
+
+        record QueueTimeout(TimeSpan maxWait) implements ConcurrencyLimiterError {
+            @Override
+            public String message() {
+                return "Operation was not started within " + maxWait;
+            }
+        }
+
+        record InvalidParameter(String parameter, Object value) implements ConcurrencyLimiterError {
+            @Override
+            public String message() {
+                return "Invalid concurrency limiter parameter " + parameter + ": " + value;
+            }
+        }
+    }
+
+    /// Create a concurrency limiter builder. Defaults: [Algorithm#GRADIENT], initial limit 20, limit range
+    /// `[1, 1000]`, no queue, every failure reduces the limit.
+    ///
+    /// @return A new builder
+    static Builder builder() {
+        return new Builder(Algorithm.GRADIENT, 20, 1, 1000, 0, timeSpan(0).nanos(), _ -> true, TimeSource.system());
+    }
+
+    record Builder(Algorithm algorithm,
+                   int initialLimit,
+                   int minLimit,
+                   int maxLimit,
+                   int maxQueued,
+                   TimeSpan maxWait,
+                   Predicate<Cause> isOverload,
+                   TimeSource timeSource) {
+        public Builder algorithm(Algorithm algorithm) {
+            return new Builder(algorithm, initialLimit, minLimit, maxLimit, maxQueued, maxWait, isOverload, timeSource);
+        }
+
+        /// Set the initial limit and the range in which the limit is adjusted.
+        public Builder limits(int initial, int min, int max) {
+            return new Builder(algorithm, initial, min, max, maxQueued, maxWait, isOverload, timeSource);
+        }
+
+        /// Queue up to `maxQueued` operations for at most `maxWait` instead of rejecting them immediately.
+        public Builder queue(int maxQueued, TimeSpan maxWait) {
+            return new Builder(algorithm, initialLimit, minLimit, maxLimit, maxQueued, maxWait, isOverload, timeSource);
+        }
+
+        /// Failures which indicate overload of the protected service and reduce the limit.
+        public Builder isOverload(Predicate<Cause> isOverload) {
+            return new Builder(algorithm, initialLimit, minLimit, maxLimit, maxQueued, maxWait, isOverload, timeSource);
+        }
+
+        /// Time source used to measure latency of operations.
+        public Builder timeSource(TimeSource timeSource) {
+            return new Builder(algorithm, initialLimit, minLimit, maxLimit, maxQueued, maxWait, isOverload, timeSource);
+        }
+
+        public Result<ConcurrencyLimiter> build() {
+            if (minLimit <= 0) {
+                return new ConcurrencyLimiterError.InvalidParameter("minLimit", minLimit).result();
+            }
+            if (maxLimit < minLimit) {
+                return new ConcurrencyLimiterError.InvalidParameter("maxLimit", maxLimit).result();
+            }
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                return new ConcurrencyLimiterError.InvalidParameter("initialLimit", initialLimit).result();
+            }
+            if (maxQueued < 0) {
+                return new ConcurrencyLimiterError.InvalidParameter("maxQueued", maxQueued).result();
+            }
+            if (maxQueued > 0 && maxWait.nanos() <= 0) {
+                return new ConcurrencyLimiterError.InvalidParameter("maxWait", maxWait).result();
+            }
+            return Result.success(new AdaptiveConcurrencyLimiter(this));
+        }
+    }
+}
+
+/// Concurrency limiter implementation. The number of in-flight operations is updated with CAS, waiting operations
+/// are kept in the lock-free queue and receive permits directly from completing operations.
+final class AdaptiveConcurrencyLimiter implements ConcurrencyLimiter {
+    private static final class Waiter {
+        private final Promise<Unit> permit = Promise.<Unit>promise()
+                                                    .cancellable();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile TimerWheel.TimerTask timeout;
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private final ConcurrencyLimiter.Builder config;
+    private final LimitAlgorithm algorithm;
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimiter.Builder config) {
+        this.config = config;
+        this.algorithm = switch (config.algorithm()) {
+            case AIMD -> new AimdLimit();
+            case VEGAS -> new VegasLimit();
+            case GRADIENT -> new GradientLimit();
+        };
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(config.initialLimit()));
+    }
+
+    @Override
+    public <T> Promise<T> execute(Supplier<Promise<T>> operation) {
+        if (tryAcquire()) {
+            return run(operation);
+        }
+        if (config.maxQueued() == 0 || queued.incrementAndGet() > config.maxQueued()) {
+            if (config.maxQueued() > 0) {
+                queued.decrementAndGet();
+            }
+            rejected.increment();
+            return new ConcurrencyLimiterError.LimitExceeded(limit()).promise();
+        }
+        var waiter = new Waiter();
+        waiter.timeout = TimerWheel.shared()
+                                   .schedule(config.maxWait(), () -> expire(waiter));
+        waiter.permit.onCancel(() -> cancel(waiter));
+        waiters.offer(waiter);
+        // Permits might be released while the waiter was enqueued
+        drain();
+        return waiter.permit.flatMap(_ -> run(operation));
+    }
+
+    @Override
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    @Override
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int queued() {
+        return Math.max(0, queued.get());
+    }
+
+    @Override
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            var current = inFlight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private <T> Promise<T> run(Supplier<Promise<T>> operation) {
+        var start = config.timeSource()
+                          .nanoTime();
+        return operation.get()
+                        .onResultAsync(AsyncExecutor.sameThread(), result -> complete(result, start));
+    }
+
+    private void complete(Result<?> result, long start) {
+        var rtt = Math.max(1, config.timeSource()
+                                    .nanoTime() - start);
+        var overload = result.fold(config.isOverload()::test, _ -> false);
+        var currentInFlight = inFlight.get();
+        algorithm.sample(rtt);
+        while (true) {
+            var bits = limitBits.get();
+            var current = Double.longBitsToDouble(bits);
+            var next = algorithm.update(current, rtt, currentInFlight, overload);
+            var bounded = Math.min(config.maxLimit(), Math.max(config.minLimit(), next));
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(bounded))) {
+                break;
+            }
+        }
+        release();
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    /// Pass free permits to waiting operations in FIFO order. If the waiting operation was cancelled concurrently, the
+    /// permit is passed to the next one.
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquire()) {
+            var waiter = pollClaimable();
+            if (waiter == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            waiter.timeout.cancel();
+            if (!waiter.permit.tryResolve(Result.unitResult())) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private Waiter pollClaimable() {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.claim()) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.claim()) {
+            waiters.remove(waiter);
+            queued.decrementAndGet();
+            waiter.timeout.cancel();
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        if (waiter.claim()) {
+            waiters.remove(waiter);
+            queued.decrementAndGet();
+            rejected.increment();
+            waiter.permit.fail(new ConcurrencyLimiterError.QueueTimeout(config.maxWait()));
+        }
+    }
+}
+
+/// Limit adjustment algorithm. Implementations keep their latency statistics in atomics, so concurrent updates may
+/// lose some samples, but never block.
+sealed interface LimitAlgorithm permits AimdLimit, VegasLimit, GradientLimit {
+    /// Register the latency sample. Called once per completed operation.
+    default void sample(long rttNanos) {}
+
+    /// Calculate the new limit. May be called several times for the same sample if the limit was concurrently changed.
+    double update(double limit, long rttNanos, int inFlight, boolean overload);
+
+    /// The limit is increased only if at least half of it is used.
+    static boolean isUsed(double limit, int inFlight) {
+        return inFlight * 2 >= limit;
+    }
+
+    static void updateAverage(AtomicLong averageBits, double sample, double factor) {
+        while (true) {
+            var bits = averageBits.get();
+            var current = Double.longBitsToDouble(bits);
+            var next = current == 0.0 ? sample : current + (sample - current) * factor;
+            if (averageBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
+
+final class AimdLimit implements LimitAlgorithm {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    @Override
+    public double update(double limit, long rttNanos, int inFlight, boolean overload) {
+        if (overload) {
+            return limit * BACKOFF_RATIO;
+        }
+        return LimitAlgorithm.isUsed(limit, inFlight) ? limit + 1 : limit;
+    }
+}
+
+final class VegasLimit implements LimitAlgorithm {
+    private final AtomicLong minRtt = new AtomicLong(Long.MAX_VALUE);
+
+    @Override
+    public void sample(long rttNanos) {
+        minRtt.accumulateAndGet(rttNanos, Math::min);
+    }
+
+    @Override
+    public double update(double limit, long rttNanos, int inFlight, boolean overload) {
+        var log = Math.max(1.0, Math.log10(limit));
+        if (overload) {
+            return limit - log;
+        }
+        var queue = Math.ceil(limit * (1.0 - (double) minRtt.get() / rttNanos));
+        if (queue <= log) {
+            return LimitAlgorithm.isUsed(limit, inFlight) ? limit + 6 * log : limit;
+        }
+        if (queue < 3 * log) {
+            return LimitAlgorithm.isUsed(limit, inFlight) ? limit + log : limit;
+        }
+        if (queue > 6 * log) {
+            return limit - log;
+        }
+        return limit;
+    }
+}
+
+final class GradientLimit implements LimitAlgorithm {
+    private static final double LONG_WINDOW_FACTOR = 2.0 / (600 + 1);
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final AtomicLong longRttBits = new AtomicLong(Double.doubleToLongBits(0.0));
+
+    @Override
+    public void sample(long rttNanos) {
+        LimitAlgorithm.updateAverage(longRttBits, rttNanos, LONG_WINDOW_FACTOR);
+        // Long-term average recovers faster after latency spike, otherwise the limit stays high for too long
+        var longRtt = Double.longBitsToDouble(longRttBits.get());
+        if (longRtt / rttNanos > 2) {
+            longRttBits.compareAndSet(Double.doubleToLongBits(longRtt), Double.doubleToLongBits(longRtt * 0.95));
+        }
+    }
+
+    @Override
+    public double update(double limit, long rttNanos, int inFlight, boolean overload) {
+        var longRtt = Double.longBitsToDouble(longRttBits.get());
+        var gradient = overload
+                       ? 0.5
+                       : Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / rttNanos));
+        var next = limit * gradient + Math.sqrt(limit);
+        if (!LimitAlgorithm.isUsed(limit, inFlight)) {
+            next = Math.min(next, limit);
+        }
+        return limit * (1 - SMOOTHING) + next * SMOOTHING;
+    }
+}
@@ -18,12 +18,17 @@
 package org.pragmatica.lang.utils;
 
 import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Option;
 import org.pragmatica.lang.Promise;
 import org.pragmatica.lang.Result;
+import org.pragmatica.lang.TimerWheel;
 
 import java.lang.ref.WeakReference;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -38,10 +43,15 @@
 /// <h2>Key Features</h2>
 /// <ul>
 ///   <li><b>At-most-once execution</b> - Operations with the same key execute only once within the TTL window</li>
-///   <li><b>In-flight deduplication</b> - Concurrent calls with the same key share a single Promise (coalesce)</li>
+///   <li><b>In-flight deduplication</b> - Concurrent calls with the same key share a single Promise (coalesce);
+///   cancellation of promises derived from it by one caller does not affect the others</li>
 ///   <li><b>Result caching</b> - Successful results are cached and returned immediately for subsequent calls</li>
 ///   <li><b>Failure transparency</b> - Failed operations are NOT cached, allowing immediate retry</li>
-///   <li><b>Automatic cleanup</b> - Expired entries are periodically removed to prevent memory leaks</li>
+///   <li><b>Automatic cleanup</b> - Completed entries are queued in completion order and removed once they expire by a
+///   single timer on the shared {@link org.pragmatica.lang.TimerWheel}; the cost of cleanup is proportional to the
+///   number of expired entries</li>
+///   <li><b>Optional size cap</b> - The oldest completed entries are evicted once the number of keys exceeds the limit</li>
+///   <li><b>Metrics</b> - Number of cached and in-flight keys</li>
 /// </ul>
 ///
 /// <h2>Thread Safety</h2>
@@ -86,9 +96,10 @@
 /// This ensures concurrent requests share the same Promise without risk of mid-flight expiration.
 ///
 /// <h2>Memory Considerations</h2>
-/// The cache is unbounded - entries are only removed on TTL expiration or failure. Callers must
-/// ensure key cardinality is bounded (e.g., by using user IDs, session IDs, or rate-limited request IDs).
-/// For high-cardinality scenarios, consider adding an upstream rate limiter or using bounded keys.
+/// By default, the cache is unbounded - entries are only removed on TTL expiration or failure. For high-cardinality
+/// keys, use {@link #create(org.pragmatica.lang.io.TimeSpan, int)} to limit the number of keys. Once the limit is
+/// exceeded, the oldest completed entries are evicted before their TTL expires, so the at-most-once guarantee holds
+/// only while the entry is retained. In-flight operations are never evicted.
 ///
 /// <h2>Integration with Retry</h2>
 /// Idempotency works well with {@link Retry} for client-side retry logic:
@@ -138,9 +149,17 @@ public interface Idempotency {
     /// @return a promise containing the result - either freshly computed, from cache, or shared with in-flight request
     <T> Promise<T> execute(String key, Supplier<Promise<T>> operation);
 
-    /// Creates an Idempotency instance with the specified TTL using system time.
+    /// Returns the number of keys with completed, not yet removed results.
     ///
-    /// <p>The cleanup interval is automatically derived from TTL: min(TTL/5, 1 minute)
+    /// @return the number of cached keys
+    int cachedKeys();
+
+    /// Returns the number of keys with operations which are still in progress.
+    ///
+    /// @return the number of in-flight keys
+    int inFlightKeys();
+
+    /// Creates an Idempotency instance with the specified TTL using system time.
     ///
     /// @param ttl the time-to-live for cached results; must be positive
     ///
@@ -151,8 +170,6 @@ static Result<Idempotency> create(org.pragmatica.lang.io.TimeSpan ttl) {
 
     /// Creates an Idempotency instance with the specified TTL and time source.
     ///
-    /// <p>The cleanup interval is automatically derived from TTL: min(TTL/5, 1 minute)
-    ///
     /// <p>This factory is primarily useful for testing, allowing you to control time progression
     /// and verify TTL behavior without waiting for real time to pass.
     ///
@@ -175,7 +192,36 @@ static Result<Idempotency> create(org.pragmatica.lang.io.TimeSpan ttl, TimeSourc
         if (ttl.nanos() <= 0) {
             return new IdempotencyError.InvalidTtl(ttl).result();
         }
-        return Result.success(createIdempotency(ttl, timeSource));
+        return Result.success(createIdempotency(ttl, Integer.MAX_VALUE, timeSource));
+    }
+
+    /// Creates an Idempotency instance with the specified TTL and limit of the number of keys using system time.
+    ///
+    /// @param ttl        the time-to-live for cached results; must be positive
+    /// @param maxEntries the maximal number of keys; must be positive
+    ///
+    /// @return Result containing the Idempotency instance, or failure if parameters are invalid
+    static Result<Idempotency> create(org.pragmatica.lang.io.TimeSpan ttl, int maxEntries) {
+        return create(ttl, maxEntries, TimeSource.system());
+    }
+
+    /// Creates an Idempotency instance with the specified TTL, limit of the number of keys and time source.
+    ///
+    /// <p>Once the number of keys exceeds the limit, the oldest completed entries are evicted.
+    ///
+    /// @param ttl        the time-to-live for cached results; must be positive
+    /// @param maxEntries the maximal number of keys; must be positive
+    /// @param timeSource custom time source for TTL calculations
+    ///
+    /// @return Result containing the Idempotency instance, or failure if parameters are invalid
+    static Result<Idempotency> create(org.pragmatica.lang.io.TimeSpan ttl, int maxEntries, TimeSource timeSource) {
+        if (ttl.nanos() <= 0) {
+            return new IdempotencyError.InvalidTtl(ttl).result();
+        }
+        if (maxEntries <= 0) {
+            return new IdempotencyError.InvalidMaxEntries(maxEntries).result();
+        }
+        return Result.success(createIdempotency(ttl, maxEntries, timeSource));
     }
 
     /// Error types that can occur during idempotency creation.
@@ -187,18 +233,46 @@ public String message() {
                 return "TTL must be positive, got: " + ttl;
             }
         }
+
+        /// Indicates the limit of the number of keys was not positive.
+        record InvalidMaxEntries(int maxEntries) implements IdempotencyError {
+            @Override
+            public String message() {
+                return "Max entries must be positive, got: " + maxEntries;
+            }
+        }
     }
 
-    private static Idempotency createIdempotency(org.pragmatica.lang.io.TimeSpan ttl, TimeSource timeSource) {
-        record CachedEntry<T>(Promise<T> promise, long expiresAtNanos) {
+    private static Idempotency createIdempotency(org.pragmatica.lang.io.TimeSpan ttl,
+                                                 int maxEntries,
+                                                 TimeSource timeSource) {
+        final class CachedEntry<T> {
+            private final String key;
+            private final Promise<T> promise;
+            private final long expiresAtNanos;
+
+            CachedEntry(String key, Promise<T> promise, long expiresAtNanos) {
+                this.key = key;
+                this.promise = promise;
+                this.expiresAtNanos = expiresAtNanos;
+            }
+
             boolean shouldReplace(long now) {
                 return promise.isResolved() && now >= expiresAtNanos;
             }
         }
         record idempotency(long ttlNanos,
+                           int maxEntries,
                            TimeSource timeSource,
-                           ConcurrentHashMap<String, CachedEntry<?>> entries) implements Idempotency {
+                           ConcurrentHashMap<String, CachedEntry<?>> entries,
+                           ConcurrentLinkedQueue<CachedEntry<?>> insertionOrder,
+                           ConcurrentLinkedQueue<CachedEntry<?>> expirationOrder,
+                           AtomicBoolean expirationScheduled,
+                           AtomicInteger evictedEntries,
+                           LongAdder inFlight) implements Idempotency {
             private static final Logger log = LoggerFactory.getLogger(Idempotency.class);
+            // Limits the number of in-flight entries moved to the tail of the queue during a single eviction
+            private static final int MAX_SKIPPED_IN_FLIGHT = 16;
 
             @Override
             @SuppressWarnings("unchecked")
@@ -211,16 +285,33 @@ public <T> Promise<T> execute(String key, Supplier<Promise<T>> operation) {
                                                                      return existing;
                                                                  }
                                                                  created.set(true);
-                                                                 return new CachedEntry<>(Promise.promise(),
+                                                                 return new CachedEntry<>(k,
+                                                                                          Promise.promise()
+                                                                                                 .shared(),
                                                                                           now + ttlNanos);
                                                              });
                 if (!created.get()) {
                     log.trace("Returning existing entry for key: {}", key);
-                    return entry.promise();
+                    return entry.promise;
+                }
+                inFlight.increment();
+                if (maxEntries != Integer.MAX_VALUE) {
+                    insertionOrder.offer(entry);
+                    enforceLimit();
                 }
                 log.trace("Executing operation for key: {}", key);
                 executeOperation(key, operation, entry);
-                return entry.promise();
+                return entry.promise;
+            }
+
+            @Override
+            public int cachedKeys() {
+                return (int) Math.max(0, entries.size() - inFlight.sum());
+            }
+
+            @Override
+            public int inFlightKeys() {
+                return (int) Math.max(0, inFlight.sum());
             }
 
             private <T> void executeOperation(String key,
@@ -233,48 +324,105 @@ private <T> void executeOperation(String key,
 
             private <T> void handleSuccess(String key, T value, CachedEntry<T> entry) {
                 log.trace("Operation succeeded for key: {}", key);
-                entry.promise()
-                     .succeed(value);
+                inFlight.decrement();
+                entry.promise.succeed(value);
+                expirationOrder.offer(entry);
+                scheduleExpiration();
             }
 
             private <T> void handleFailure(String key, Cause cause, CachedEntry<T> entry) {
                 log.trace("Operation failed for key: {}, cause: {}", key, cause.message());
-                entry.promise()
-                     .fail(cause);
+                inFlight.decrement();
                 // Safe removal - only remove if still our entry
                 entries.remove(key, entry);
+                entry.promise.fail(cause);
+            }
+
+            /// Schedule removal of expired entries at the expiration time of the oldest completed entry. All entries share
+            /// the same TTL, so entries queued in completion order expire in nearly the same order and only the head of
+            /// the queue needs a timer. The timer references this instance weakly, so pending expiration does not prevent
+            /// the instance from being garbage collected. If the time source is behind the timer (e.g. it is controlled
+            /// by tests), the check is repeated after the remaining time.
+            private void scheduleExpiration() {
+                var head = expirationOrder.peek();
+                if (head == null || !expirationScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                var remaining = Math.max(1, head.expiresAtNanos - timeSource.nanoTime());
+                var self = new WeakReference<>(this);
+                TimerWheel.shared()
+                          .schedule(timeSpan(remaining).nanos(),
+                                    () -> Option.option(self.get())
+                                                .onPresent(idempotency::expire));
+            }
+
+            /// Remove expired entries from the head of the queue. Entries which are already removed or replaced are
+            /// dropped, the first entry which is not yet expired stops the scan.
+            private void expire() {
+                var now = timeSource.nanoTime();
+                CachedEntry<?> head;
+                while ((head = expirationOrder.peek()) != null) {
+                    var current = entries.get(head.key) == head;
+                    if (current && !head.shouldReplace(now)) {
+                        break;
+                    }
+                    expirationOrder.remove(head);
+                    if (current && entries.remove(head.key, head)) {
+                        log.trace("Removed expired entry for key: {}", head.key);
+                    }
+                }
+                expirationScheduled.set(false);
+                // Entries might be queued while the scan was in progress
+                scheduleExpiration();
+            }
+
+            /// Evict the oldest completed entries while the number of keys exceeds the limit. Entries which are already
+            /// removed are dropped from the queue, in-flight entries are moved to the tail. Evicted entries which are
+            /// not at the head of the expiration queue are counted, and once their number reaches the limit, the
+            /// expiration queue is compacted, so it never holds more than `maxEntries` dead entries.
+            private void enforceLimit() {
+                var skipped = 0;
+                while (entries.size() > maxEntries && skipped < MAX_SKIPPED_IN_FLIGHT) {
+                    var oldest = insertionOrder.poll();
+                    if (oldest == null) {
+                        return;
+                    }
+                    if (entries.get(oldest.key) != oldest) {
+                        continue;
+                    }
+                    if (!oldest.promise.isResolved()) {
+                        insertionOrder.offer(oldest);
+                        skipped++;
+                        continue;
+                    }
+                    if (entries.remove(oldest.key, oldest)) {
+                        log.trace("Evicted entry for key: {}", oldest.key);
+                        evictedEntries.incrementAndGet();
+                    }
+                }
+                // Drop entries removed by expiration or failure from the head of the queue
+                CachedEntry<?> head;
+                while ((head = insertionOrder.peek()) != null && entries.get(head.key) != head) {
+                    insertionOrder.remove(head);
+                }
+                // Evicted entries are mostly the oldest ones, drop them from the head of the expiration queue as well
+                while ((head = expirationOrder.peek()) != null && entries.get(head.key) != head) {
+                    expirationOrder.remove(head);
+                }
+                if (evictedEntries.get() >= maxEntries) {
+                    evictedEntries.set(0);
+                    expirationOrder.removeIf(entry -> entries.get(entry.key) != entry);
+                }
             }
         }
-        var entries = new ConcurrentHashMap<String, CachedEntry<?>>();
-        // Cleanup interval: min(TTL/5, 1 minute)
-        var oneMinuteNanos = timeSpan(1).minutes()
-                                     .nanos();
-        var cleanupIntervalNanos = Math.min(ttl.nanos() / 5, oneMinuteNanos);
-        var cleanupInterval = timeSpan(cleanupIntervalNanos).nanos();
-        // Schedule periodic cleanup using WeakReference to allow GC of the Idempotency instance.
-        // When the entries map is GC'd, the cleanup task becomes a no-op.
-        var log = LoggerFactory.getLogger(Idempotency.class);
-        var entriesRef = new WeakReference<>(entries);
-        SharedScheduler.scheduleAtFixedRate(() -> {
-                                                try{
-                                                    var map = entriesRef.get();
-                                                    if (map == null) {
-                                                        return;
-                                                    }
-                                                    var sizeBefore = map.size();
-                                                    long now = timeSource.nanoTime();
-                                                    map.entrySet()
-                                                       .removeIf(e -> e.getValue()
-                                                                       .shouldReplace(now));
-                                                    var removed = sizeBefore - map.size();
-                                                    if (removed > 0) {
-                                                        log.trace("Cleanup removed {} expired entries", removed);
-                                                    }
-                                                } catch (Exception e) {
-                                                    log.warn("Cleanup task failed", e);
-                                                }
-                                            },
-                                            cleanupInterval);
-        return new idempotency(ttl.nanos(), timeSource, entries);
+        return new idempotency(ttl.nanos(),
+                               maxEntries,
+                               timeSource,
+                               new ConcurrentHashMap<>(),
+                               new ConcurrentLinkedQueue<>(),
+                               new ConcurrentLinkedQueue<>(),
+                               new AtomicBoolean(false),
+                               new AtomicInteger(),
+                               new LongAdder());
     }
 }
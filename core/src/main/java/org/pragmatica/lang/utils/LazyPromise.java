@@ -0,0 +1,262 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.utils;
+
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.Unit;
+import org.pragmatica.lang.utils.Retry.BackoffStrategy;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/// Lazily initialized value, which is computed asynchronously.
+///
+/// Unlike [org.pragmatica.lang.Lazy], which computes the value under the lock, all concurrent callers of [#get()] receive
+/// the same [Promise] and none of them is blocked while initialization is in progress. This makes it suitable for
+/// expensive resources (TLS contexts, connection pools, resolvers) which are requested by many virtual threads at once.
+///
+/// <h2>Failure Semantics</h2>
+/// Failures are not cached permanently. Once initialization fails, callers receive the failed promise until the delay
+/// calculated by the backoff strategy expires (or immediately, if no strategy is provided), then the next call to
+/// [#get()] starts a new attempt. The number of consecutive failures is reset after successful initialization.
+///
+/// <h2>Invalidation and Refresh</h2>
+/// [#invalidate()] drops the value, so the next call to [#get()] starts initialization again. [#refresh()] starts
+/// initialization in the background while the current value is served; the new value replaces the current one on
+/// success, failure of the refresh leaves the current value intact.
+///
+/// <h2>Cancellation</h2>
+/// Returned promises are [shared][Promise#shared()], so cancellation of promises derived from them by one caller does
+/// not cancel initialization for the others. If the returned promise is cancelled directly, its holders observe the
+/// cancellation, but the actual result of initialization is retained and returned once initialization completes.
+///
+/// <pre>{@code
+/// var sslContext = LazyPromise.lazyPromise(() -> loadSslContext(config),
+///                                          BackoffStrategy.exponential()
+///                                                         .initialDelay(timeSpan(100).millis())
+///                                                         .maxDelay(timeSpan(10).seconds())
+///                                                         .factor(2.0)
+///                                                         .withJitter());
+/// sslContext.get()
+///           .flatMap(context -> connect(context, address));
+/// }</pre>
+///
+/// @param <T> the type of the value
+public interface LazyPromise<T> {
+    /// Get the value. The first call starts initialization, concurrent calls receive the same promise.
+    ///
+    /// @return promise of the value
+    Promise<T> get();
+
+    /// Start initialization in the background while serving the current value. Concurrent refreshes are merged.
+    /// If the value is not available yet, this is equivalent to [#get()], except that the backoff delay is ignored.
+    ///
+    /// @return promise of the new value
+    Promise<T> refresh();
+
+    /// Drop the current value or the result of the failed attempt. Pending initialization is not cancelled, but its
+    /// result is not retained.
+    ///
+    /// @return Unit for composition
+    Unit invalidate();
+
+    /// Check if the value is successfully computed.
+    ///
+    /// @return `true` if the value is available
+    boolean isComputed();
+
+    /// Create a lazy value without delay between attempts after failure.
+    ///
+    /// @param initializer the source of the value
+    /// @param <T>         the type of the value
+    ///
+    /// @return created instance
+    static <T> LazyPromise<T> lazyPromise(Supplier<Promise<T>> initializer) {
+        Objects.requireNonNull(initializer, "initializer must not be null");
+        return new AtomicLazyPromise<>(initializer, Option.none(), TimeSource.system());
+    }
+
+    /// Create a lazy value with the delay between attempts after failure calculated by the provided strategy.
+    ///
+    /// @param initializer the source of the value
+    /// @param backoff     the strategy of delays after consecutive failures
+    /// @param <T>         the type of the value
+    ///
+    /// @return created instance
+    static <T> LazyPromise<T> lazyPromise(Supplier<Promise<T>> initializer, BackoffStrategy backoff) {
+        Objects.requireNonNull(initializer, "initializer must not be null");
+        Objects.requireNonNull(backoff, "backoff must not be null");
+        return new AtomicLazyPromise<>(initializer, Option.some(backoff), TimeSource.system());
+    }
+}
+
+/// Implementation of [LazyPromise] built on the single atomic reference to the immutable state, so all transitions
+/// are lock-free.
+final class AtomicLazyPromise<T> implements LazyPromise<T> {
+    private final Supplier<Promise<T>> initializer;
+    private final Option<BackoffStrategy> backoff;
+    private final TimeSource timeSource;
+    private final AtomicReference<State<T>> state = new AtomicReference<>(new Empty<>());
+
+    AtomicLazyPromise(Supplier<Promise<T>> initializer, Option<BackoffStrategy> backoff, TimeSource timeSource) {
+        this.initializer = initializer;
+        this.backoff = backoff;
+        this.timeSource = timeSource;
+    }
+
+    sealed interface State<T> {}
+
+    record Empty<T>() implements State<T> {}
+
+    record Pending<T>(Promise<T> promise, int failures) implements State<T> {}
+
+    record Ready<T>(Promise<T> promise, Option<Promise<T>> refreshing) implements State<T> {}
+
+    record Failed<T>(Promise<T> promise, int failures, long retryAt) implements State<T> {}
+
+    @Override
+    public Promise<T> get() {
+        while (true) {
+            var current = state.get();
+            switch (current) {
+                case Pending<T>(var promise, _) -> {
+                    return promise;
+                }
+                case Ready<T>(var promise, _) -> {
+                    return promise;
+                }
+                case Failed<T>(var promise, _, var retryAt) when timeSource.nanoTime() - retryAt < 0 -> {
+                    return promise;
+                }
+                default -> {
+                    if (start(current) instanceof Option.Some<Promise<T>>(var promise)) {
+                        return promise;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Promise<T> refresh() {
+        while (true) {
+            var current = state.get();
+            switch (current) {
+                case Pending<T>(var promise, _) -> {
+                    return promise;
+                }
+                case Ready<T>(_, Option.Some<Promise<T>>(var refreshing)) -> {
+                    return refreshing;
+                }
+                case Ready<T> ready -> {
+                    var refreshing = Promise.<T>promise()
+                                            .shared();
+                    var next = new Ready<>(ready.promise(), Option.some(refreshing));
+                    if (state.compareAndSet(ready, next)) {
+                        initialize().onResult(result -> refreshed(next, refreshing, result));
+                        return refreshing;
+                    }
+                }
+                default -> {
+                    if (start(current) instanceof Option.Some<Promise<T>>(var promise)) {
+                        return promise;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Unit invalidate() {
+        state.set(new Empty<>());
+        return Unit.unit();
+    }
+
+    @Override
+    public boolean isComputed() {
+        return state.get() instanceof Ready<T>;
+    }
+
+    @Override
+    public String toString() {
+        return switch (state.get()) {
+            case Empty<T> _ -> "LazyPromise(<not computed>)";
+            case Pending<T> _ -> "LazyPromise(<pending>)";
+            case Ready<T>(var promise, _) -> "LazyPromise(" + promise + ")";
+            case Failed<T>(var promise, var failures, _) -> "LazyPromise(" + promise + ", failures: " + failures + ")";
+        };
+    }
+
+    /// Start new attempt if the state was not changed by another thread in the meantime.
+    private Option<Promise<T>> start(State<T> current) {
+        var failures = current instanceof Failed<T> failed
+                       ? failed.failures()
+                       : 0;
+        var promise = Promise.<T>promise()
+                             .shared();
+        var next = new Pending<>(promise, failures);
+        if (!state.compareAndSet(current, next)) {
+            return Option.none();
+        }
+        initialize().onResult(result -> initialized(next, result));
+        return Option.some(promise);
+    }
+
+    private Promise<T> initialize() {
+        return Result.lift(initializer::get)
+                     .fold(Cause::promise, promise -> promise);
+    }
+
+    /// State is updated before resolution of the promise, so callers attached to it observe the new state. If the
+    /// promise was cancelled by one of the callers in the meantime, the state is switched to the promise resolved with
+    /// the actual result.
+    private void initialized(Pending<T> pending, Result<T> result) {
+        var promise = pending.promise();
+        var next = settled(pending, promise, result);
+        state.compareAndSet(pending, next);
+        if (!promise.tryResolve(result)) {
+            state.compareAndSet(next, settled(pending, Promise.resolved(result), result));
+        }
+    }
+
+    private State<T> settled(Pending<T> pending, Promise<T> promise, Result<T> result) {
+        return switch (result) {
+            case Result.Success<T> _ -> new Ready<>(promise, Option.<Promise<T>>none());
+            case Result.Failure<T> _ -> {
+                var failures = pending.failures() + 1;
+                var delay = backoff.map(strategy -> strategy.nextTimeout(failures).nanos())
+                                   .or(0L);
+                yield new Failed<>(promise, failures, timeSource.nanoTime() + delay);
+            }
+        };
+    }
+
+    private void refreshed(Ready<T> ready, Promise<T> refreshing, Result<T> result) {
+        var next = result.isSuccess()
+                   ? new Ready<>(refreshing, Option.<Promise<T>>none())
+                   : new Ready<>(ready.promise(), Option.<Promise<T>>none());
+        state.compareAndSet(ready, next);
+        if (!refreshing.tryResolve(result) && result.isSuccess()) {
+            state.compareAndSet(next, new Ready<>(Promise.resolved(result), Option.none()));
+        }
+    }
+}
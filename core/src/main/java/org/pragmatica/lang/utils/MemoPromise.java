@@ -17,18 +17,26 @@
 
 package org.pragmatica.lang.utils;
 
+import org.pragmatica.lang.AsyncExecutor;
 import org.pragmatica.lang.Cause;
 import org.pragmatica.lang.Functions.Fn1;
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.Option.Some;
 import org.pragmatica.lang.Promise;
 import org.pragmatica.lang.Result;
+import org.pragmatica.lang.TimerWheel;
 import org.pragmatica.lang.Unit;
+import org.pragmatica.lang.io.TimeSpan;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
 
 /// A memoization utility for Promise-returning computations.
 ///
@@ -36,9 +44,11 @@
 /// <ul>
 ///   <li><b>Success caching</b> - Only successful results are cached; failures are re-computed on each call</li>
 ///   <li><b>Thread-safe</b> - Safe for concurrent access from multiple threads</li>
-///   <li><b>LRU eviction</b> - Optional size limit with least-recently-used eviction policy</li>
+///   <li><b>Bounded size</b> - Optional size limit with scan-resistant frequency-based eviction, see [BoundedCache]</li>
 ///   <li><b>Promise deduplication</b> - Concurrent requests for the same key get the same Promise instance</li>
 ///   <li><b>Observability</b> - Hit/miss counters for monitoring cache effectiveness</li>
+///   <li><b>Expiration and refresh</b> - Optional time-based expiration, refresh-ahead and weight limit,
+///   see {@link #builder(Fn1)}</li>
 /// </ul>
 ///
 /// <h2>Usage Example</h2>
@@ -48,7 +58,7 @@
 /// cache.get("user-123");  // Computes and caches on success
 /// cache.get("user-123");  // Returns cached Promise
 ///
-/// // Bounded cache with LRU eviction
+/// // Bounded cache
 /// MemoPromise.memoPromise(key -> expensiveAsyncComputation(key), 100)
 ///            .onSuccess(cache -> cache.get("key"));
 /// }</pre>
@@ -60,7 +70,8 @@
 /// <h2>Promise Deduplication</h2>
 /// Concurrent requests for the same key receive the same Promise instance, avoiding
 /// duplicate computations. If the Promise fails, the entry is removed so subsequent
-/// requests can retry.
+/// requests can retry. The Promise is [shared][Promise#shared()], so cancellation or timeout
+/// of promises derived from it by one caller does not cancel the computation for the others.
 ///
 /// @param <K> the type of keys
 /// @param <V> the type of cached values
@@ -117,10 +128,10 @@ static <K, V> MemoPromise<K, V> memoPromise(Fn1<Promise<V>, K> computation) {
         return new UnboundedMemoPromise<>(computation);
     }
 
-    /// Creates a bounded memoization cache with LRU eviction.
+    /// Creates a bounded memoization cache.
     ///
-    /// <p>When the cache exceeds the specified size, the least recently accessed
-    /// entry is evicted to make room for new entries.
+    /// <p>When the cache exceeds the specified size, entries are evicted according to
+    /// the frequency-based policy of {@link BoundedCache}.
     ///
     /// @param computation the function to compute values for missing keys
     /// @param maxSize the maximum number of entries to cache (must be positive)
@@ -132,8 +143,165 @@ static <K, V> Result<MemoPromise<K, V>> memoPromise(Fn1<Promise<V>, K> computati
         if (maxSize <= 0) {
             return INVALID_MAX_SIZE.result();
         }
-        return Result.success(new BoundedMemoPromise<>(computation, maxSize));
+        return BoundedCache.<K, Promise<V>>boundedCache(maxSize)
+                           .map(cache -> new BoundedMemoPromise<>(computation, cache));
+    }
+
+    /// Creates a builder for the memoization cache with additional options: limit of the total weight of values,
+    /// expiration of entries after write or after the last access and asynchronous refresh of entries before
+    /// expiration.
+    ///
+    /// <pre>{@code
+    /// MemoPromise.builder(userId -> httpClient.fetchUser(userId))
+    ///            .maxWeight(64 * 1024 * 1024, (_, user) -> user.sizeInBytes())
+    ///            .expireAfterWrite(timeSpan(10).minutes())
+    ///            .refreshAfterWrite(timeSpan(1).minutes())
+    ///            .build()
+    ///            .onSuccess(cache -> cache.get(userId));
+    /// }</pre>
+    ///
+    /// @param computation the function to compute values for missing keys
+    /// @param <K> the key type
+    /// @param <V> the value type
+    /// @return a new builder
+    static <K, V> Builder<K, V> builder(Fn1<Promise<V>, K> computation) {
+        Objects.requireNonNull(computation, "computation must not be null");
+        return new Builder<>(computation, Option.none(), Option.none(), Option.none(), Option.none(), TimeSource.system());
+    }
+
+    /// Error cause for invalid maxWeight parameter.
+    Cause INVALID_MAX_WEIGHT = () -> "maxWeight must be positive";
+
+    /// Error cause for invalid expiration or refresh interval.
+    Cause INVALID_INTERVAL = () -> "expiration and refresh intervals must be positive";
+
+    /// Configuration of the memoization cache.
+    ///
+    /// <ul>
+    ///   <li><b>Size limit</b> - either the maximal number of entries or the maximal total weight of successfully
+    ///   computed values; pending computations have zero weight</li>
+    ///   <li><b>Expiration after write</b> - value is recomputed once the specified time has passed since it was
+    ///   computed</li>
+    ///   <li><b>Expiration after access</b> - value is recomputed if it was not requested during the specified
+    ///   time</li>
+    ///   <li><b>Refresh after write</b> - once the specified time has passed since the value was computed, the next
+    ///   request returns the current value and starts a single background recomputation; the new value replaces
+    ///   the current one on success, failures are ignored and the refresh is retried on the next request</li>
+    /// </ul>
+    ///
+    /// Expired entries are removed in the background, so they don't occupy memory even if they are never requested
+    /// again. Pending computations never expire.
+    ///
+    /// @param <K> the key type
+    /// @param <V> the value type
+    record Builder<K, V>(Fn1<Promise<V>, K> computation,
+                         Option<Limit<K, V>> limit,
+                         Option<TimeSpan> expireAfterWrite,
+                         Option<TimeSpan> expireAfterAccess,
+                         Option<TimeSpan> refreshAfterWrite,
+                         TimeSource timeSource) {
+        /// Limit the number of entries. Replaces previously configured weight limit.
+        ///
+        /// @param maxSize the maximum number of entries to cache (must be positive)
+        /// @return updated builder
+        public Builder<K, V> maxSize(int maxSize) {
+            return new Builder<>(computation,
+                                 Option.some(new Limit<>(maxSize, null)),
+                                 expireAfterWrite,
+                                 expireAfterAccess,
+                                 refreshAfterWrite,
+                                 timeSource);
+        }
+
+        /// Limit the total weight of cached values. Replaces previously configured limit of the number of entries.
+        ///
+        /// @param maxWeight the maximum total weight (must be positive)
+        /// @param weigher the function which computes the weight of the value, for example, its approximate size in bytes
+        /// @return updated builder
+        public Builder<K, V> maxWeight(long maxWeight, BoundedCache.Weigher<? super K, ? super V> weigher) {
+            Objects.requireNonNull(weigher, "weigher must not be null");
+            return new Builder<>(computation,
+                                 Option.some(new Limit<>(maxWeight, weigher)),
+                                 expireAfterWrite,
+                                 expireAfterAccess,
+                                 refreshAfterWrite,
+                                 timeSource);
+        }
+
+        /// Expire values once the specified time has passed since they were computed.
+        ///
+        /// @param interval time to live of the value (must be positive)
+        /// @return updated builder
+        public Builder<K, V> expireAfterWrite(TimeSpan interval) {
+            return new Builder<>(computation,
+                                 limit,
+                                 Option.some(interval),
+                                 expireAfterAccess,
+                                 refreshAfterWrite,
+                                 timeSource);
+        }
+
+        /// Expire values which were not requested during the specified time.
+        ///
+        /// @param interval maximal idle time of the value (must be positive)
+        /// @return updated builder
+        public Builder<K, V> expireAfterAccess(TimeSpan interval) {
+            return new Builder<>(computation,
+                                 limit,
+                                 expireAfterWrite,
+                                 Option.some(interval),
+                                 refreshAfterWrite,
+                                 timeSource);
+        }
+
+        /// Recompute values in the background once the specified time has passed since they were computed, while
+        /// serving the current value.
+        ///
+        /// @param interval time after which the value is refreshed (must be positive)
+        /// @return updated builder
+        public Builder<K, V> refreshAfterWrite(TimeSpan interval) {
+            return new Builder<>(computation,
+                                 limit,
+                                 expireAfterWrite,
+                                 expireAfterAccess,
+                                 Option.some(interval),
+                                 timeSource);
+        }
+
+        /// Use the specified time source for expiration and refresh decisions.
+        ///
+        /// @param timeSource the time source
+        /// @return updated builder
+        public Builder<K, V> timeSource(TimeSource timeSource) {
+            Objects.requireNonNull(timeSource, "timeSource must not be null");
+            return new Builder<>(computation, limit, expireAfterWrite, expireAfterAccess, refreshAfterWrite, timeSource);
+        }
+
+        /// Create the cache.
+        ///
+        /// @return Result containing the MemoPromise instance or failure if parameters are invalid
+        public Result<MemoPromise<K, V>> build() {
+            var intervals = Stream.of(expireAfterWrite, expireAfterAccess, refreshAfterWrite)
+                                  .flatMap(Option::stream)
+                                  .toList();
+            if (intervals.stream()
+                         .anyMatch(interval -> interval.nanos() <= 0)) {
+                return INVALID_INTERVAL.result();
+            }
+            return switch (limit) {
+                case Some<Limit<K, V>>(var bound) when bound.value() <= 0 -> bound.weigher() == null
+                                                                             ? INVALID_MAX_SIZE.result()
+                                                                             : INVALID_MAX_WEIGHT.result();
+                case Some<Limit<K, V>>(var bound) when intervals.isEmpty() && bound.weigher() == null ->
+                    memoPromise(computation, (int) bound.value());
+                case Option.None<Limit<K, V>> _ when intervals.isEmpty() -> Result.success(memoPromise(computation));
+                default -> Result.success(new ExpiringMemoPromise<>(this));
+            };
+        }
     }
+
+    /// Limit of the cache size: the number of entries if weigher is not provided, the total weight otherwise.
+    record Limit<K, V>(long value, BoundedCache.Weigher<? super K, ? super V> weigher) {}
 }
 
 final class UnboundedMemoPromise<K, V> implements MemoPromise<K, V> {
@@ -157,7 +325,8 @@ public Promise<V> get(K key) {
         // Create promise first, then put it into the cache
         // This avoids recursive update issues with ConcurrentHashMap
         misses.incrementAndGet();
-        var promise = computation.apply(key);
+        var promise = computation.apply(key)
+                                 .shared();
         var existing = cache.putIfAbsent(key, promise);
         if (existing != null) {
             // Another thread inserted first, use their promise
@@ -199,84 +368,370 @@ public int size() {
 }
 
 final class BoundedMemoPromise<K, V> implements MemoPromise<K, V> {
-    private final Map<K, Promise<V>> cache;
+    private final BoundedCache<K, Promise<V>> cache;
     private final Fn1<Promise<V>, K> computation;
-    private final AtomicLong hits = new AtomicLong();
-    private final AtomicLong misses = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
-    BoundedMemoPromise(Fn1<Promise<V>, K> computation, int maxSize) {
+    BoundedMemoPromise(Fn1<Promise<V>, K> computation, BoundedCache<K, Promise<V>> cache) {
         this.computation = computation;
-        // LinkedHashMap with access-order for LRU, wrapped for thread safety
-        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<K, Promise<V>> eldest) {
-                                                     return size() > maxSize;
-                                                 }
-        });
+        this.cache = cache;
     }
 
     @Override
     public Promise<V> get(K key) {
         Objects.requireNonNull(key, "key must not be null");
-        Promise<V> cached;
-        synchronized (cache) {
-            cached = cache.get(key);
-        }
-        if (cached != null) {
-            hits.incrementAndGet();
+        if (cache.get(key) instanceof Some<Promise<V>>(var cached)) {
+            hits.increment();
             return cached;
         }
-        // Create promise outside synchronized block to avoid holding lock during computation
-        misses.incrementAndGet();
-        var promise = computation.apply(key);
-        Promise<V> existing;
-        synchronized (cache) {
-            existing = cache.putIfAbsent(key, promise);
-        }
-        if (existing != null) {
+        // Create promise before insertion to avoid running the computation inside the cache
+        var promise = computation.apply(key)
+                                 .shared();
+        if (cache.putIfAbsent(key, promise) instanceof Some<Promise<V>>(var existing)) {
             // Another thread inserted first, use their promise
-            hits.incrementAndGet();
-            misses.decrementAndGet();
+            hits.increment();
             return existing;
         }
+        misses.increment();
         // Attach failure handler after insertion
-        promise.onResult(result -> result.onFailure(_ -> {
-            synchronized (cache) {
-                cache.remove(key, promise);
-            }
-        }));
+        promise.onResult(result -> result.onFailure(_ -> cache.remove(key, promise)));
         return promise;
     }
 
     @Override
     public Unit invalidate(K key) {
-        synchronized (cache) {
-            cache.remove(key);
-        }
-        return Unit.unit();
+        return cache.remove(key);
     }
 
     @Override
     public Unit invalidateAll() {
-        synchronized (cache) {
-            cache.clear();
+        return cache.clear();
+    }
+
+    @Override
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long missCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+}
+
+/// Memoization cache with expiration, refresh-ahead and optional size or weight limit.
+final class ExpiringMemoPromise<K, V> implements MemoPromise<K, V> {
+    private final Fn1<Promise<V>, K> computation;
+    private final EntryStore<K, MemoEntry<V>> store;
+    private final BoundedCache.Weigher<? super K, ? super V> weigher;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final long refreshAfterWriteNanos;
+    private final TimeSource timeSource;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ExpiringMemoPromise(Builder<K, V> builder) {
+        this.computation = builder.computation();
+        this.weigher = builder.limit()
+                              .fold(() -> null, Limit::weigher);
+        // Entries which leave the store for any reason don't need expiration anymore
+        Consumer<MemoEntry<V>> removalListener = MemoEntry::removed;
+        this.store = builder.limit()
+                            .fold(() -> EntryStore.unbounded(removalListener),
+                                  limit -> limit.weigher() == null
+                                           ? EntryStore.bounded(new TinyLfuCache<>(limit.value(),
+                                                                                   (int) limit.value(),
+                                                                                   (_, _) -> 1,
+                                                                                   removalListener))
+                                           : EntryStore.bounded(new TinyLfuCache<K, MemoEntry<V>>(limit.value(),
+                                                                                                  TinyLfuCache.expectedEntries(limit.value()),
+                                                                                                  (_, entry) -> entry.weight,
+                                                                                                  removalListener)));
+        this.expireAfterWriteNanos = nanos(builder.expireAfterWrite());
+        this.expireAfterAccessNanos = nanos(builder.expireAfterAccess());
+        this.refreshAfterWriteNanos = nanos(builder.refreshAfterWrite());
+        this.timeSource = builder.timeSource();
+    }
+
+    private static long nanos(Option<TimeSpan> interval) {
+        return interval.map(TimeSpan::nanos)
+                       .or(0L);
+    }
+
+    @Override
+    public Promise<V> get(K key) {
+        Objects.requireNonNull(key, "key must not be null");
+        var now = timeSource.nanoTime();
+        if (store.get(key) instanceof Some<MemoEntry<V>>(var entry)) {
+            if (!isExpired(entry, now)) {
+                hits.increment();
+                entry.accessTime = now;
+                refreshIfNecessary(key, entry, now);
+                return entry.promise;
+            }
+            store.remove(key, entry);
         }
-        return Unit.unit();
+        var entry = new MemoEntry<>(computation.apply(key)
+                                               .shared(),
+                                    now);
+        if (store.putIfAbsent(key, entry) instanceof Some<MemoEntry<V>>(var existing)) {
+            // Another thread inserted first, use their promise
+            hits.increment();
+            return existing.promise;
+        }
+        misses.increment();
+        // Handle resolution synchronously, so the entry is updated before waiting callers are resumed
+        entry.promise.onResultAsync(AsyncExecutor.sameThread(),
+                                    result -> result.onSuccess(value -> loaded(key, entry, value))
+                                                    .onFailure(_ -> store.remove(key, entry)));
+        return entry.promise;
+    }
+
+    @Override
+    public Unit invalidate(K key) {
+        return store.remove(key);
+    }
+
+    @Override
+    public Unit invalidateAll() {
+        return store.clear();
     }
 
     @Override
     public long hitCount() {
-        return hits.get();
+        return hits.sum();
     }
 
     @Override
     public long missCount() {
-        return misses.get();
+        return misses.sum();
     }
 
     @Override
     public int size() {
-        synchronized (cache) {
+        return store.size();
+    }
+
+    private void loaded(K key, MemoEntry<V> entry, V value) {
+        var now = timeSource.nanoTime();
+        entry.writeTime = now;
+        entry.accessTime = now;
+        if (weigher != null) {
+            entry.weight = weigher.weight(key, value);
+            // Entry was inserted with zero weight, let the cache know the actual weight
+            store.replace(key, entry, entry);
+        }
+        entry.loaded = true;
+        scheduleExpiration(key, entry);
+    }
+
+    private void refreshIfNecessary(K key, MemoEntry<V> entry, long now) {
+        if (refreshAfterWriteNanos == 0 || !entry.loaded || now - entry.writeTime < refreshAfterWriteNanos) {
+            return;
+        }
+        // Only one refresh per entry at a time
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        computation.apply(key)
+                   .onResultAsync(AsyncExecutor.sameThread(),
+                                  result -> result.onSuccess(value -> refreshed(key, entry, value))
+                                                  .onFailureRun(() -> entry.refreshing.set(false)));
+    }
+
+    private void refreshed(K key, MemoEntry<V> entry, V value) {
+        var fresh = new MemoEntry<>(Promise.success(value), timeSource.nanoTime());
+        if (weigher != null) {
+            fresh.weight = weigher.weight(key, value);
+        }
+        fresh.loaded = true;
+        // The entry could be invalidated or evicted while refresh was in progress
+        if (store.replace(key, entry, fresh)) {
+            scheduleExpiration(key, fresh);
+        }
+    }
+
+    private boolean isExpired(MemoEntry<V> entry, long now) {
+        return entry.loaded && remaining(entry, now) <= 0;
+    }
+
+    private long remaining(MemoEntry<V> entry, long now) {
+        var remaining = Long.MAX_VALUE;
+        if (expireAfterWriteNanos > 0) {
+            remaining = expireAfterWriteNanos - (now - entry.writeTime);
+        }
+        if (expireAfterAccessNanos > 0) {
+            remaining = Math.min(remaining, expireAfterAccessNanos - (now - entry.accessTime));
+        }
+        return remaining;
+    }
+
+    /// Schedule removal of the entry once it expires. If the entry was accessed in the meantime, the check is
+    /// rescheduled for the remaining idle time. The task is cancelled once the entry is removed from the store, so
+    /// evicted, invalidated or replaced entries are not retained by the timer.
+    private void scheduleExpiration(K key, MemoEntry<V> entry) {
+        var remaining = remaining(entry, timeSource.nanoTime());
+        if (remaining == Long.MAX_VALUE) {
+            return;
+        }
+        var task = TimerWheel.shared()
+                             .schedule(timeSpan(Math.max(1, remaining)).nanos(),
+                                       () -> {
+                                           if (isExpired(entry, timeSource.nanoTime())) {
+                                               store.remove(key, entry);
+                                           } else {
+                                               scheduleExpiration(key, entry);
+                                           }
+                                       });
+        entry.expiration = task;
+        // The entry could be removed while the task was being scheduled
+        if (entry.removed) {
+            task.cancel();
+        }
+    }
+
+    static final class MemoEntry<V> {
+        final Promise<V> promise;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long writeTime;
+        volatile long accessTime;
+        volatile long weight;
+        volatile boolean loaded;
+        volatile boolean removed;
+        volatile TimerWheel.TimerTask expiration;
+
+        MemoEntry(Promise<V> promise, long now) {
+            this.promise = promise;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+
+        void removed() {
+            removed = true;
+            var task = expiration;
+            if (task != null) {
+                task.cancel();
+            }
+        }
+    }
+}
+
+/// Storage of memoized entries, either unbounded or bounded by [BoundedCache].
+sealed interface EntryStore<K, E> {
+    Option<E> get(K key);
+
+    Option<E> putIfAbsent(K key, E entry);
+
+    boolean replace(K key, E expected, E entry);
+
+    boolean remove(K key, E entry);
+
+    Unit remove(K key);
+
+    Unit clear();
+
+    int size();
+
+    /// Create the store backed by the map. The listener is invoked with entries which are removed, replaced or cleared.
+    static <K, E> EntryStore<K, E> unbounded(Consumer<? super E> removalListener) {
+        return new MapStore<>(new ConcurrentHashMap<>(), removalListener);
+    }
+
+    /// Create the store backed by the cache. Removed entries are reported by the removal listener of the cache.
+    static <K, E> EntryStore<K, E> bounded(BoundedCache<K, E> cache) {
+        return new CacheStore<>(cache);
+    }
+
+    record MapStore<K, E>(ConcurrentHashMap<K, E> map, Consumer<? super E> removalListener) implements EntryStore<K, E> {
+        @Override
+        public Option<E> get(K key) {
+            return Option.option(map.get(key));
+        }
+
+        @Override
+        public Option<E> putIfAbsent(K key, E entry) {
+            return Option.option(map.putIfAbsent(key, entry));
+        }
+
+        @Override
+        public boolean replace(K key, E expected, E entry) {
+            if (!map.replace(key, expected, entry)) {
+                return false;
+            }
+            if (expected != entry) {
+                removalListener.accept(expected);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean remove(K key, E entry) {
+            if (!map.remove(key, entry)) {
+                return false;
+            }
+            removalListener.accept(entry);
+            return true;
+        }
+
+        @Override
+        public Unit remove(K key) {
+            Option.option(map.remove(key))
+                  .onPresent(removalListener);
+            return Unit.unit();
+        }
+
+        @Override
+        public Unit clear() {
+            map.forEach(this::remove);
+            return Unit.unit();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+    }
+
+    record CacheStore<K, E>(BoundedCache<K, E> cache) implements EntryStore<K, E> {
+        @Override
+        public Option<E> get(K key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public Option<E> putIfAbsent(K key, E entry) {
+            return cache.putIfAbsent(key, entry);
+        }
+
+        @Override
+        public boolean replace(K key, E expected, E entry) {
+            return cache.replace(key, expected, entry);
+        }
+
+        @Override
+        public boolean remove(K key, E entry) {
+            return cache.remove(key, entry);
+        }
+
+        @Override
+        public Unit remove(K key) {
+            return cache.remove(key);
+        }
+
+        @Override
+        public Unit clear() {
+            return cache.clear();
+        }
+
+        @Override
+        public int size() {
             return cache.size();
         }
     }
@@ -19,15 +19,14 @@
 
 import org.pragmatica.lang.Cause;
 import org.pragmatica.lang.Functions.Fn1;
+import org.pragmatica.lang.Option.Some;
 import org.pragmatica.lang.Result;
 import org.pragmatica.lang.Unit;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /// A memoization utility for Result-returning computations.
 ///
@@ -35,7 +34,7 @@
 /// <ul>
 ///   <li><b>Success caching</b> - Only successful results are cached; failures are re-computed on each call</li>
 ///   <li><b>Thread-safe</b> - Safe for concurrent access from multiple threads</li>
-///   <li><b>LRU eviction</b> - Optional size limit with least-recently-used eviction policy</li>
+///   <li><b>Bounded size</b> - Optional size limit with scan-resistant frequency-based eviction, see [BoundedCache]</li>
 ///   <li><b>Observability</b> - Hit/miss counters for monitoring cache effectiveness</li>
 ///   <li><b>Null-safe</b> - Properly handles null success values</li>
 /// </ul>
@@ -47,7 +46,7 @@
 /// cache.get("user-123");  // Computes and caches on success
 /// cache.get("user-123");  // Returns cached value
 ///
-/// // Bounded cache with LRU eviction
+/// // Bounded cache
 /// MemoResult.memoResult(key -> expensiveComputation(key), 100)
 ///           .onSuccess(cache -> cache.get("key"));
 /// }</pre>
@@ -110,10 +109,10 @@ static <K, V> MemoResult<K, V> memoResult(Fn1<Result<V>, K> computation) {
         return new UnboundedMemoResult<>(computation);
     }
 
-    /// Creates a bounded memoization cache with LRU eviction.
+    /// Creates a bounded memoization cache.
     ///
-    /// <p>When the cache exceeds the specified size, the least recently accessed
-    /// entry is evicted to make room for new entries.
+    /// <p>When the cache exceeds the specified size, entries are evicted according to
+    /// the frequency-based policy of {@link BoundedCache}.
     ///
     /// @param computation the function to compute values for missing keys
     /// @param maxSize the maximum number of entries to cache (must be positive)
@@ -125,7 +124,8 @@ static <K, V> Result<MemoResult<K, V>> memoResult(Fn1<Result<V>, K> computation,
         if (maxSize <= 0) {
             return INVALID_MAX_SIZE.result();
         }
-        return Result.success(new BoundedMemoResult<>(computation, maxSize));
+        return BoundedCache.<K, ResultCacheEntry<V>>boundedCache(maxSize)
+                           .map(cache -> new BoundedMemoResult<>(computation, cache));
     }
 }
 
@@ -189,73 +189,51 @@ public int size() {
 }
 
 final class BoundedMemoResult<K, V> implements MemoResult<K, V> {
-    private final Map<K, ResultCacheEntry<V>> cache;
+    private final BoundedCache<K, ResultCacheEntry<V>> cache;
     private final Fn1<Result<V>, K> computation;
-    private final AtomicLong hits = new AtomicLong();
-    private final AtomicLong misses = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
-    BoundedMemoResult(Fn1<Result<V>, K> computation, int maxSize) {
+    BoundedMemoResult(Fn1<Result<V>, K> computation, BoundedCache<K, ResultCacheEntry<V>> cache) {
         this.computation = computation;
-        // LinkedHashMap with access-order for LRU, wrapped for thread safety
-        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<K, ResultCacheEntry<V>> eldest) {
-                                                     return size() > maxSize;
-                                                 }
-        });
+        this.cache = cache;
     }
 
     @Override
     public Result<V> get(K key) {
         Objects.requireNonNull(key, "key must not be null");
-        ResultCacheEntry<V> cached;
-        synchronized (cache) {
-            cached = cache.get(key);
-        }
-        if (cached != null) {
-            hits.incrementAndGet();
+        if (cache.get(key) instanceof Some<ResultCacheEntry<V>>(var cached)) {
+            hits.increment();
             return Result.success(cached.value());
         }
-        misses.incrementAndGet();
+        misses.increment();
         return computation.apply(key)
-                          .onSuccess(value -> {
-                                         synchronized (cache) {
-                                             cache.put(key,
-                                                       ResultCacheEntry.resultCacheEntry(value));
-                                         }
-                                     });
+                          .onSuccess(value -> cache.put(key,
+                                                        ResultCacheEntry.resultCacheEntry(value)));
     }
 
     @Override
     public Unit invalidate(K key) {
-        synchronized (cache) {
-            cache.remove(key);
-        }
-        return Unit.unit();
+        return cache.remove(key);
     }
 
     @Override
     public Unit invalidateAll() {
-        synchronized (cache) {
-            cache.clear();
-        }
-        return Unit.unit();
+        return cache.clear();
     }
 
     @Override
     public long hitCount() {
-        return hits.get();
+        return hits.sum();
     }
 
     @Override
     public long missCount() {
-        return misses.get();
+        return misses.sum();
     }
 
     @Override
     public int size() {
-        synchronized (cache) {
-            return cache.size();
-        }
+        return cache.size();
     }
 }
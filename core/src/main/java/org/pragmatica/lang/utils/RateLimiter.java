@@ -23,12 +23,30 @@
 import org.pragmatica.lang.Unit;
 import org.pragmatica.lang.io.TimeSpan;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import static org.pragmatica.lang.io.TimeSpan.timeSpan;
 
-/// A rate limiter implementation using Token Bucket algorithm.
-/// Thread-safe, one instance per protected resource/endpoint.
+/// A lock-free rate limiter. Thread-safe, one instance per protected resource/endpoint.
+///
+/// Two algorithms are available (see [Algorithm]):
+/// <ul>
+///   <li>[Algorithm#TOKEN_BUCKET] (default) - `rate` permits are added at the end of each `period`, up to `rate + burst`</li>
+///   <li>[Algorithm#GCRA] - Generic Cell Rate Algorithm, permits are added continuously (one per `period / rate`),
+///   so the rate is enforced over any sliding interval and at most `rate + burst` permits may be used at once</li>
+/// </ul>
+///
+/// Permits can be obtained in two modes:
+/// <ul>
+///   <li>`execute(...)` - fails immediately with [RateLimiterError.LimitExceeded] if permits are not available</li>
+///   <li>`acquire(...)` - reserves permits in arrival order and returns a promise which is resolved once reserved permits
+///   become available. If the wait would exceed the configured maximal wait (one `period` by default), the promise fails
+///   immediately with [RateLimiterError.LimitExceeded]. Waiting does not occupy threads and does not retry: each waiter
+///   is resolved by a single timer. Cancelling a pending acquisition does not return reserved permits.</li>
+/// </ul>
+/// Both modes accept weighted requests, which consume several permits at once.
 public interface RateLimiter {
     /// Execute an operation if a permit is available, otherwise fail immediately.
     ///
@@ -36,7 +54,42 @@ public interface RateLimiter {
     /// @param <T>       The return type of the operation
     ///
     /// @return A promise containing the result or a rate limit exceeded failure
-    <T> Promise<T> execute(Supplier<Promise<T>> operation);
+    default <T> Promise<T> execute(Supplier<Promise<T>> operation) {
+        return execute(1, operation);
+    }
+
+    /// Execute an operation if the requested number of permits is available, otherwise fail immediately.
+    ///
+    /// @param permits   Number of permits consumed by the operation
+    /// @param operation The promise-returning operation to execute
+    /// @param <T>       The return type of the operation
+    ///
+    /// @return A promise containing the result or a rate limit exceeded failure
+    <T> Promise<T> execute(int permits, Supplier<Promise<T>> operation);
+
+    /// Wait for a permit.
+    ///
+    /// @return A promise resolved once the permit is available or a rate limit exceeded failure if the permit can't be
+    ///         obtained within maximal wait time
+    default Promise<Unit> acquire() {
+        return acquire(1);
+    }
+
+    /// Wait for the requested number of permits.
+    ///
+    /// @param permits Number of permits to acquire
+    ///
+    /// @return A promise resolved once permits are available or a rate limit exceeded failure if permits can't be
+    ///         obtained within maximal wait time
+    Promise<Unit> acquire(int permits);
+
+    /// Rate limiting algorithm.
+    enum Algorithm {
+        /// Permits are added in batches of `rate` at the end of each period.
+        TOKEN_BUCKET,
+        /// Permits are added continuously, one per `period / rate`.
+        GCRA
+    }
 
     sealed interface RateLimiterError extends Cause {
         record LimitExceeded(TimeSpan retryAfter) implements RateLimiterError {
@@ -45,6 +98,13 @@ public String message() {
                 return "Rate limit exceeded. Retry after " + retryAfter;
             }
         }
+
+        record InvalidPermits(int permits) implements RateLimiterError {
+            @Override
+            public String message() {
+                return "Number of permits must be positive, got: " + permits;
+            }
+        }
     }
 
     /// Create a simple rate limiter with default settings.
@@ -63,7 +123,7 @@ static RateLimiter create(int rate, TimeSpan period) {
     ///
     /// @return A new builder
     static StageRate builder() {
-        return rate -> period -> new OptionalStage(rate, period, 0, null);
+        return rate -> period -> new OptionalStage(rate, period, 0, Algorithm.TOKEN_BUCKET, period, null);
     }
 
     interface StageRate {
@@ -74,13 +134,23 @@ interface StagePeriod {
         OptionalStage period(TimeSpan period);
     }
 
-    record OptionalStage(int rate, TimeSpan period, int burst, TimeSource timeSource) {
+    record OptionalStage(int rate, TimeSpan period, int burst, Algorithm algorithm, TimeSpan maxWait,
+                         TimeSource timeSource) {
         public OptionalStage burst(int extraPermits) {
-            return new OptionalStage(rate, period, extraPermits, timeSource);
+            return new OptionalStage(rate, period, extraPermits, algorithm, maxWait, timeSource);
+        }
+
+        public OptionalStage algorithm(Algorithm algorithm) {
+            return new OptionalStage(rate, period, burst, algorithm, maxWait, timeSource);
+        }
+
+        /// Maximal time `acquire(...)` may wait for permits. Default is one period.
+        public OptionalStage maxWait(TimeSpan maxWait) {
+            return new OptionalStage(rate, period, burst, algorithm, maxWait, timeSource);
         }
 
         public RateLimiter timeSource(TimeSource source) {
-            return createRateLimiter(rate, period, burst, source);
+            return createRateLimiter(rate, period, burst, algorithm, maxWait, source);
         }
 
         public RateLimiter withDefaultTimeSource() {
@@ -91,48 +161,152 @@ public RateLimiter withDefaultTimeSource() {
     private static RateLimiter createRateLimiter(int rate,
                                                  TimeSpan period,
                                                  int burst,
+                                                 Algorithm algorithm,
+                                                 TimeSpan maxWait,
                                                  TimeSource timeSource) {
-        record rateLimiter(int maxTokens,
-                           int refillRate,
-                           long refillPeriodNanos,
-                           TimeSource timeSource,
-                           long[] state) implements RateLimiter {
+        record rateLimiter(PermitReservation reservation, long maxWaitNanos) implements RateLimiter {
+            @Override
+            public <T> Promise<T> execute(int permits, Supplier<Promise<T>> operation) {
+                return tryAcquire(permits).async()
+                                          .flatMap(operation);
+            }
+
             @Override
-            public <T> Promise<T> execute(Supplier<Promise<T>> operation) {
-                return tryAcquire().async()
-                                 .flatMap(operation);
+            public Promise<Unit> acquire(int permits) {
+                if (permits <= 0) {
+                    return new RateLimiterError.InvalidPermits(permits).promise();
+                }
+                var wait = reservation.reserve(permits, maxWaitNanos);
+                if (wait < 0) {
+                    return limitExceeded(wait).promise();
+                }
+                if (wait == 0) {
+                    return Promise.unitPromise();
+                }
+                return Promise.promise(timeSpan(wait).nanos(), promise -> promise.succeed(Unit.unit()));
             }
 
-            private synchronized Result<Unit> tryAcquire() {
-                refill();
-                if (state[0]>= 1) {
-                    state[0]--;
-                    return Result.unitResult();
+            private Result<Unit> tryAcquire(int permits) {
+                if (permits <= 0) {
+                    return new RateLimiterError.InvalidPermits(permits).result();
                 }
-                return new RateLimiterError.LimitExceeded(calculateRetryAfter()).result();
+                var wait = reservation.reserve(permits, 0);
+                return wait == 0
+                       ? Result.unitResult()
+                       : limitExceeded(wait).result();
             }
 
-            private void refill() {
-                long now = timeSource.nanoTime();
-                long elapsed = now - state[1];
-                if (elapsed >= refillPeriodNanos) {
-                    long periods = elapsed / refillPeriodNanos;
-                    // Cap periods to prevent overflow on extended idle periods
-                    long tokensToAdd = Math.min(periods, maxTokens) * refillRate;
-                    state[0] = Math.min(maxTokens, state[0] + tokensToAdd);
-                    state[1] += periods * refillPeriodNanos;
+            private static RateLimiterError limitExceeded(long wait) {
+                return new RateLimiterError.LimitExceeded(timeSpan(Math.max(1, -wait)).nanos());
+            }
+        }
+        // Computed as long, so `rate + burst` can't overflow
+        long maxTokens = (long) rate + burst;
+        PermitReservation reservation = switch (algorithm) {
+            case TOKEN_BUCKET -> new TokenBucket(maxTokens, rate, period.nanos(), timeSource);
+            case GCRA -> new Gcra(maxTokens, Math.max(1, period.nanos() / rate), timeSource);
+        };
+        return new rateLimiter(reservation, Math.max(0, maxWait.nanos()));
+    }
+}
+
+/// Lock-free reservation of permits. Reservations are ordered by the successful CAS of the state, so waiting callers
+/// are served in arrival order and immediate callers can't overtake waiting ones.
+sealed interface PermitReservation {
+    /// Reserve permits if they are available now or become available within the maximal wait time.
+    ///
+    /// @return `0` if permits are available immediately, positive time in nanoseconds until reserved permits become
+    ///         available, or negative time in nanoseconds until permits may become available, if nothing was reserved
+    long reserve(int permits, long maxWaitNanos);
+}
+
+/// Token bucket which is refilled with `refillRate` tokens at the end of each period. Waiting callers borrow tokens,
+/// so the number of tokens may become negative.
+final class TokenBucket implements PermitReservation {
+    private record State(long tokens, long lastRefill) {}
+
+    private final long maxTokens;
+    private final int refillRate;
+    private final long refillPeriodNanos;
+    private final TimeSource timeSource;
+    private final AtomicReference<State> state;
+
+    TokenBucket(long maxTokens, int refillRate, long refillPeriodNanos, TimeSource timeSource) {
+        this.maxTokens = maxTokens;
+        this.refillRate = refillRate;
+        this.refillPeriodNanos = refillPeriodNanos;
+        this.timeSource = timeSource;
+        this.state = new AtomicReference<>(new State(maxTokens, timeSource.nanoTime()));
+    }
+
+    @Override
+    public long reserve(int permits, long maxWaitNanos) {
+        while (true) {
+            var current = state.get();
+            var now = timeSource.nanoTime();
+            var refilled = refill(current, now);
+            var remaining = refilled.tokens - permits;
+            if (remaining >= 0) {
+                if (state.compareAndSet(current, new State(remaining, refilled.lastRefill))) {
+                    return 0;
                 }
+                continue;
+            }
+            var periodsNeeded = (-remaining + refillRate - 1) / refillRate;
+            var wait = Math.max(1, refilled.lastRefill + periodsNeeded * refillPeriodNanos - now);
+            if (wait > maxWaitNanos) {
+                return -wait;
             }
+            if (state.compareAndSet(current, new State(remaining, refilled.lastRefill))) {
+                return wait;
+            }
+        }
+    }
 
-            private TimeSpan calculateRetryAfter() {
-                long now = timeSource.nanoTime();
-                long timeSinceLastRefill = now - state[1];
-                long remainingTimeInCurrentPeriod = refillPeriodNanos - timeSinceLastRefill;
-                return timeSpan(Math.max(1, remainingTimeInCurrentPeriod)).nanos();
+    private State refill(State current, long now) {
+        long elapsed = now - current.lastRefill;
+        if (elapsed < refillPeriodNanos) {
+            return current;
+        }
+        long periods = elapsed / refillPeriodNanos;
+        // Cap periods to prevent overflow on extended idle periods
+        long periodsToFull = (maxTokens - current.tokens + refillRate - 1) / refillRate;
+        long tokens = Math.min(maxTokens, current.tokens + Math.min(periods, periodsToFull) * refillRate);
+        return new State(tokens, current.lastRefill + periods * refillPeriodNanos);
+    }
+}
+
+/// Generic Cell Rate Algorithm: the state is the single theoretical arrival time (TAT) of the next permit. Each
+/// permit moves TAT by the emission interval; a request is allowed if TAT does not run ahead of the current time by more
+/// than `maxTokens` intervals.
+final class Gcra implements PermitReservation {
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final TimeSource timeSource;
+    private final AtomicLong theoreticalArrival;
+
+    Gcra(long maxTokens, long emissionIntervalNanos, TimeSource timeSource) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.toleranceNanos = maxTokens > Long.MAX_VALUE / emissionIntervalNanos
+                              ? Long.MAX_VALUE
+                              : maxTokens * emissionIntervalNanos;
+        this.timeSource = timeSource;
+        this.theoreticalArrival = new AtomicLong(timeSource.nanoTime());
+    }
+
+    @Override
+    public long reserve(int permits, long maxWaitNanos) {
+        while (true) {
+            var current = theoreticalArrival.get();
+            var now = timeSource.nanoTime();
+            var next = Math.max(current, now) + permits * emissionIntervalNanos;
+            var wait = next - now - toleranceNanos;
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return Math.max(0, wait);
             }
         }
-        int maxTokens = rate + burst;
-        long[] state = {maxTokens, timeSource.nanoTime()};
-        return new rateLimiter(maxTokens, rate, period.nanos(), timeSource, state);
     }
 }
@@ -17,10 +17,18 @@
 
 package org.pragmatica.lang.utils;
 
+import org.pragmatica.lang.AsyncExecutor;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Option;
 import org.pragmatica.lang.Promise;
 import org.pragmatica.lang.Result;
+import org.pragmatica.lang.TimerWheel;
 import org.pragmatica.lang.io.TimeSpan;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -40,6 +48,14 @@
 ///```
 /// The implementation is stateless and thread-safe, so single instance could be used to run several
 /// requests at once.
+///
+/// To keep retries from multiplying the load on a failing service, a shared [RetryBudget] can be attached with
+/// [#withBudget(RetryBudget)]: once the budget is exhausted, the operation fails with the last failure instead of
+/// being retried.
+///
+/// [#hedged()] creates a Retry which targets tail latency instead of failures: if the attempt does not complete within
+/// the configured latency percentile of recent successful attempts, a second attempt is started and the first
+/// successful result is used, while the other attempt is cancelled.
 public interface Retry {
     /// Executes an asynchronous operation with retry logic.
     ///
@@ -49,14 +65,33 @@ public interface Retry {
     /// @return A Promise containing the result of the successful operation
     <T> Promise<T> execute(Supplier<Promise<T>> operation);
 
+    /// Create a copy of this instance which withdraws each retry (or hedged attempt) from the provided budget.
+    /// The budget is usually shared by all instances which call the same service.
+    ///
+    /// @param budget Retry budget
+    ///
+    /// Instances created by [#create()] and [#hedged()] support budgets. Other implementations of this interface
+    /// which do not override this method throw [UnsupportedOperationException].
+    ///
+    /// @return New instance
+    default Retry withBudget(RetryBudget budget) {
+        throw new UnsupportedOperationException("Retry budget is not supported by " + getClass().getName());
+    }
+
     /// Create Retry with specified maximal number of attempts and delay calculation strategy.
     static RetryStageMaxAttempts create() {
-        record retry(int maxAttempts, BackoffStrategy backoffStrategy) implements Retry {
+        record retry(int maxAttempts, BackoffStrategy backoffStrategy, Option<RetryBudget> budget) implements Retry {
             @Override
             public <T> Promise<T> execute(Supplier<Promise<T>> operation) {
+                budget.onPresent(RetryBudget::recordRequest);
                 return executeWithLoop(operation, 1, Promise.promise());
             }
 
+            @Override
+            public Retry withBudget(RetryBudget budget) {
+                return new retry(maxAttempts, backoffStrategy, Option.some(budget));
+            }
+
             private <T> Promise<T> executeWithLoop(Supplier<Promise<T>> operation, int attempt, Promise<T> output) {
                 operation.get()
                          .fold(result -> handle(operation, attempt, output, result));
@@ -70,6 +105,15 @@ private <T> Promise<T> handle(Supplier<Promise<T>> operation,
                 return switch (result) {
                     case Result.Success<T> success -> output.succeed(success.value());
                     case Result.Failure<T> failure when (attempt >= maxAttempts) -> output.fail(failure.cause());
+                    case Result.Failure<T> failure when !budget.map(RetryBudget::tryRetry)
+                                                               .or(true) -> {
+                        log.warn("Operation failed (attempt {}/{}), retry budget is exhausted: {}",
+                                 attempt,
+                                 maxAttempts,
+                                 failure.cause()
+                                        .message());
+                        yield output.fail(failure.cause());
+                    }
                     case Result.Failure<T> failure -> {
                         var delay = backoffStrategy.nextTimeout(attempt);
                         log.warn("Operation failed (attempt {}/{}), retrying after {}: {}",
@@ -86,7 +130,24 @@ private <T> Promise<T> handle(Supplier<Promise<T>> operation,
 
             private static final Logger log = LoggerFactory.getLogger(Retry.class);
         }
-        return maxAttempts -> backoffStrategy -> new retry(maxAttempts, backoffStrategy);
+        return maxAttempts -> backoffStrategy -> new retry(maxAttempts, backoffStrategy, Option.none());
+    }
+
+    /// Create Retry which starts a second (hedged) attempt if the first one does not complete within the given
+    /// percentile of latencies of recent successful attempts. The delay before the hedged attempt is never shorter than
+    /// `minDelay`, which is also used until enough latencies are collected. If the first attempt fails before the
+    /// hedged one is started, the failure is returned as is.
+    ///
+    /// ```java
+    /// Retry.hedged()
+    ///      .percentile(0.95)
+    ///      .minDelay(timeSpan(20).millis())
+    ///      .withBudget(budget)
+    ///      .execute(operation)
+    /// ```
+    static HedgeStagePercentile hedged() {
+        return percentile -> minDelay -> new HedgedRetry(new LatencyPercentile(percentile, minDelay.nanos()),
+                                                         Option.none());
     }
 
     interface RetryStageMaxAttempts {
@@ -97,6 +158,14 @@ interface RetryStageBackoffStrategy {
         Retry strategy(BackoffStrategy backoffStrategy);
     }
 
+    interface HedgeStagePercentile {
+        HedgeStageMinDelay percentile(double percentile);
+    }
+
+    interface HedgeStageMinDelay {
+        Retry minDelay(TimeSpan minDelay);
+    }
+
     interface BackoffStrategy {
         /// Calculate the delay for a given retry attempt
         ///
@@ -193,3 +262,107 @@ interface LinearStageMaxDelay {
         }
     }
 }
+
+/// Retry which hedges slow attempts.
+final class HedgedRetry implements Retry {
+    private static final Cause HEDGE_NOT_STARTED = () -> "Hedged attempt was not started";
+
+    private final LatencyPercentile latencies;
+    private final Option<RetryBudget> budget;
+
+    HedgedRetry(LatencyPercentile latencies, Option<RetryBudget> budget) {
+        this.latencies = latencies;
+        this.budget = budget;
+    }
+
+    @Override
+    public Retry withBudget(RetryBudget budget) {
+        return new HedgedRetry(latencies, Option.some(budget));
+    }
+
+    @Override
+    public <T> Promise<T> execute(Supplier<Promise<T>> operation) {
+        budget.onPresent(RetryBudget::recordRequest);
+        var primary = attempt(operation);
+        if (primary.isResolved()) {
+            return primary;
+        }
+        var hedge = Promise.<T>promise();
+        var started = new AtomicBoolean();
+        var timer = TimerWheel.shared()
+                              .schedule(latencies.threshold(),
+                                        () -> startHedge(operation, hedge, started));
+        primary.onResultAsync(AsyncExecutor.sameThread(),
+                              result -> {
+                                  if (started.compareAndSet(false, true)) {
+                                      timer.cancel();
+                                      hedge.fail(HEDGE_NOT_STARTED);
+                                  }
+                              });
+        // If both attempts fail, report the failure of the first one
+        return Promise.any(primary, hedge)
+                      .orElse(() -> primary);
+    }
+
+    private <T> void startHedge(Supplier<Promise<T>> operation, Promise<T> hedge, AtomicBoolean started) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        if (!budget.map(RetryBudget::tryRetry)
+                   .or(true)) {
+            hedge.fail(HEDGE_NOT_STARTED);
+            return;
+        }
+        var secondary = attempt(operation);
+        hedge.onCancel(secondary::cancel);
+        secondary.onResult(hedge::resolve);
+    }
+
+    private <T> Promise<T> attempt(Supplier<Promise<T>> operation) {
+        var start = System.nanoTime();
+        return operation.get()
+                        .onResultAsync(AsyncExecutor.sameThread(),
+                                       result -> result.onSuccessRun(() -> latencies.record(System.nanoTime() - start)));
+    }
+}
+
+/// Percentile of the latencies of recent successful attempts. Latencies are stored in the ring buffer and the
+/// percentile is recalculated after every `RECALCULATION_INTERVAL` samples, so recording is cheap.
+final class LatencyPercentile {
+    private static final int SAMPLES = 128;
+    private static final int RECALCULATION_INTERVAL = 32;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long thresholdNanos;
+
+    LatencyPercentile(double percentile, long minDelayNanos) {
+        this.percentile = Math.min(1.0, Math.max(0.0, percentile));
+        this.minDelayNanos = Math.max(1, minDelayNanos);
+        this.thresholdNanos = this.minDelayNanos;
+    }
+
+    void record(long latencyNanos) {
+        var position = count.getAndIncrement();
+        samples.set((int) (position % SAMPLES), latencyNanos);
+        if ((position + 1) % RECALCULATION_INTERVAL == 0) {
+            recalculate((int) Math.min(position + 1, SAMPLES));
+        }
+    }
+
+    TimeSpan threshold() {
+        return timeSpan(thresholdNanos).nanos();
+    }
+
+    private void recalculate(int size) {
+        var sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        var index = Math.max(0, (int) Math.ceil(percentile * size) - 1);
+        thresholdNanos = Math.max(minDelayNanos, sorted[index]);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.utils;
+
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.io.TimeSpan;
+
+/// Retry budget shared by all callers of the protected service. The budget limits the number of retries (and hedged
+/// attempts) to a fraction of the number of original requests over the sliding time window, so the load on a failing
+/// service can't be multiplied by `maxAttempts` when all callers retry at once.
+///
+/// A retry is allowed if the number of retries in the window (including this one) does not exceed
+/// `minRetries + ratio * requests`. The reserve of `minRetries` keeps retries possible for low-traffic services.
+///
+/// ```java
+/// var budget = RetryBudget.retryBudget(0.1, timeSpan(10).seconds(), 10).unwrap();
+/// var retry = Retry.create()
+///                  .attempts(3)
+///                  .strategy(fixed().interval(timeSpan(100).millis()))
+///                  .withBudget(budget);
+/// ```
+/// The check and the update of counters are not atomic, so under high concurrency the budget may be exceeded by the
+/// number of concurrently retrying callers.
+public interface RetryBudget {
+    /// Register an original request.
+    void recordRequest();
+
+    /// Try to withdraw a retry from the budget.
+    ///
+    /// @return `true` if the retry is allowed and was registered
+    boolean tryRetry();
+
+    /// Number of original requests in the current window.
+    ///
+    /// @return Number of requests
+    long requests();
+
+    /// Number of retries in the current window.
+    ///
+    /// @return Number of retries
+    long retries();
+
+    /// Create a retry budget.
+    ///
+    /// @param ratio      Maximal ratio of retries to requests; must not be negative
+    /// @param window     Duration of the sliding window; must be positive
+    /// @param minRetries Number of retries always available in the window; must not be negative
+    ///
+    /// @return Result containing the budget, or failure if parameters are invalid
+    static Result<RetryBudget> retryBudget(double ratio, TimeSpan window, int minRetries) {
+        return retryBudget(ratio, window, minRetries, TimeSource.system());
+    }
+
+    /// Create a retry budget with custom time source.
+    ///
+    /// @param ratio      Maximal ratio of retries to requests; must not be negative
+    /// @param window     Duration of the sliding window; must be positive
+    /// @param minRetries Number of retries always available in the window; must not be negative
+    /// @param timeSource Time source for window calculations
+    ///
+    /// @return Result containing the budget, or failure if parameters are invalid
+    static Result<RetryBudget> retryBudget(double ratio, TimeSpan window, int minRetries, TimeSource timeSource) {
+        if (!(ratio >= 0)) {
+            return new RetryBudgetError.InvalidParameter("ratio", ratio).result();
+        }
+        if (window.nanos() <= 0) {
+            return new RetryBudgetError.InvalidParameter("window", window).result();
+        }
+        if (minRetries < 0) {
+            return new RetryBudgetError.InvalidParameter("minRetries", minRetries).result();
+        }
+        return Result.success(new SlidingRetryBudget(ratio, window.nanos(), minRetries, timeSource));
+    }
+
+    sealed interface RetryBudgetError extends Cause {
+        record InvalidParameter(String parameter, Object value) implements RetryBudgetError {
+            @Override
+            public String message() {
+                return "Invalid retry budget parameter " + parameter + ": " + value;
+            }
+        }
+    }
+}
+
+/// Retry budget which counts requests and retries in the [SlidingCounter].
+final class SlidingRetryBudget implements RetryBudget {
+    private static final int REQUESTS = 0;
+    private static final int RETRIES = 1;
+
+    private final double ratio;
+    private final int minRetries;
+    private final TimeSource timeSource;
+    private final SlidingCounter counter;
+
+    SlidingRetryBudget(double ratio, long windowNanos, int minRetries, TimeSource timeSource) {
+        this.ratio = ratio;
+        this.minRetries = minRetries;
+        this.timeSource = timeSource;
+        this.counter = new SlidingCounter(windowNanos, 2);
+    }
+
+    @Override
+    public void recordRequest() {
+        counter.add(timeSource.nanoTime(), REQUESTS, 1);
+    }
+
+    @Override
+    public boolean tryRetry() {
+        if (retries() + 1 > minRetries + ratio * requests()) {
+            return false;
+        }
+        counter.add(timeSource.nanoTime(), RETRIES, 1);
+        return true;
+    }
+
+    @Override
+    public long requests() {
+        return counter.sum(timeSource.nanoTime(), REQUESTS);
+    }
+
+    @Override
+    public long retries() {
+        return counter.sum(timeSource.nanoTime(), RETRIES);
+    }
+}
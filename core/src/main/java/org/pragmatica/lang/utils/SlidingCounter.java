@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/// Set of counters (channels) aggregated over the sliding time window. The window is split into 10 buckets, each
+/// bucket holds one counter per channel. Buckets are reused in place: the first update which falls into the new bucket
+/// period marks the bucket as being reset, clears its counters and then publishes the new period, so concurrent
+/// updates of the same bucket wait only for the reset. Updates which belong to already reused buckets are dropped.
+///
+/// Counters of different channels are updated independently, so sums read concurrently with updates may be slightly
+/// inconsistent with each other.
+final class SlidingCounter {
+    private static final int BUCKETS = 10;
+    private static final long RESETTING = Long.MIN_VALUE;
+    private static final long EMPTY = Long.MIN_VALUE + 1;
+
+    private final long bucketNanos;
+    private final int channels;
+    private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray counts;
+
+    SlidingCounter(long windowNanos, int channels) {
+        this.bucketNanos = Math.max(1, windowNanos / BUCKETS);
+        this.channels = channels;
+        this.counts = new AtomicLongArray(BUCKETS * channels);
+        for (int i = 0; i < BUCKETS; i++) {
+            epochs.set(i, EMPTY);
+        }
+    }
+
+    /// Add `delta` to the counter of the given channel in the bucket which corresponds to the time `now`.
+    void add(long now, int channel, long delta) {
+        var epoch = Math.floorDiv(now, bucketNanos);
+        var index = (int) Math.floorMod(epoch, BUCKETS);
+        while (true) {
+            var current = epochs.get(index);
+            if (current == epoch) {
+                counts.getAndAdd(index * channels + channel, delta);
+                return;
+            }
+            if (current == RESETTING) {
+                Thread.onSpinWait();
+            } else if (current > epoch) {
+                return;
+            } else if (epochs.compareAndSet(index, current, RESETTING)) {
+                for (int i = 0; i < channels; i++) {
+                    counts.set(index * channels + i, 0);
+                }
+                epochs.set(index, epoch);
+            }
+        }
+    }
+
+    /// Sum of the counters of the given channel in the buckets which belong to the window ending at the time `now`.
+    long sum(long now, int channel) {
+        var oldestEpoch = Math.floorDiv(now, bucketNanos) - BUCKETS + 1;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (epochs.get(i) >= oldestEpoch) {
+                total += counts.get(i * channels + channel);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.pragmatica.lang.utils;
+
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.parse.Number;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.pragmatica.lang.Option.none;
+
+/// Call site capture for `Result.trace()` and `Promise.trace()`.
+///
+/// Capturing the call site requires a stack walk, which is noticeable on paths where failures are frequent. Capture can
+/// be disabled or sampled, so only a fraction of traced failures gets the call site attached. Untraced failures keep
+/// the original cause. The captured frame is formatted only when the message of the cause is requested.
+///
+/// The initial mode is taken from the `pragmatica.trace` system property: `off` disables capture, `on` (default)
+/// captures every call, a number `N` captures, on average, one call out of `N`.
+public sealed interface Tracing {
+    /// Name of the system property which configures the initial mode.
+    String PROPERTY = "pragmatica.trace";
+
+    /// Capture the call site of every traced failure.
+    static void captureAll() {
+        TracingMode.sampleRate = 1;
+    }
+
+    /// Disable call site capture. Tracing methods return the original instance.
+    static void disable() {
+        TracingMode.sampleRate = 0;
+    }
+
+    /// Capture the call site, on average, for one out of `rate` traced failures.
+    ///
+    /// @param rate Sampling rate, `1` captures every call, `0` or negative values disable capture
+    static void sample(int rate) {
+        TracingMode.sampleRate = Math.max(rate, 0);
+    }
+
+    /// Current sampling rate.
+    ///
+    /// @return `0` if capture is disabled, `1` if every call is captured, `N` if one out of `N` calls is captured
+    static int sampleRate() {
+        return TracingMode.sampleRate;
+    }
+
+    /// Capture the caller of the method which invoked this one, if the call is selected by the current mode.
+    ///
+    /// @return captured frame or empty option if capture is disabled or the call is not sampled
+    static Option<StackWalker.StackFrame> callSite() {
+        var rate = TracingMode.sampleRate;
+
+        if (rate == 0 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0)) {
+            return none();
+        }
+
+        return TracingMode.WALKER.walk(frames -> frames.skip(2)
+                                                       .findFirst())
+                                 .map(Option::some)
+                                 .orElse(none());
+    }
+
+    record unused() implements Tracing {}
+}
+
+final class TracingMode {
+    static final StackWalker WALKER = StackWalker.getInstance();
+
+    static volatile int sampleRate = initialRate(System.getProperty(Tracing.PROPERTY, "on"));
+
+    private TracingMode() {}
+
+    static int initialRate(String value) {
+        return switch (value.strip().toLowerCase()) {
+            case "off", "false" -> 0;
+            case "on", "true" -> 1;
+            default -> Number.parseInt(value.strip())
+                             .map(rate -> Math.max(rate, 0))
+                             .or(1);
+        };
+    }
+}
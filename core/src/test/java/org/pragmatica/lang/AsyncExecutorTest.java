@@ -0,0 +1,162 @@
+package org.pragmatica.lang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.pragmatica.lang.utils.Causes;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class AsyncExecutorTest {
+    @Test
+    void sameThreadExecutorRunsEventHandlerInResolvingThread() {
+        var handlerThread = new AtomicReference<Thread>();
+        var promise = Promise.<Integer>promise()
+                             .onResultAsync(AsyncExecutor.sameThread(), _ -> handlerThread.set(Thread.currentThread()));
+
+        promise.succeed(1);
+
+        assertSame(Thread.currentThread(), handlerThread.get());
+    }
+
+    @Test
+    void sameThreadExecutorRunsHandlerImmediatelyForResolvedPromise() {
+        var handlerThread = new AtomicReference<Thread>();
+
+        Promise.success(1)
+               .onResultAsync(AsyncExecutor.sameThread(), _ -> handlerThread.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), handlerThread.get());
+    }
+
+    @Test
+    void promiseSupplierRunsOnProvidedExecutor() {
+        var pool = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "custom-executor"));
+
+        try {
+            Promise.promise(AsyncExecutor.executor(pool),
+                            () -> Result.success(Thread.currentThread()
+                                                       .getName()))
+                   .await()
+                   .onFailureRun(Assertions::fail)
+                   .onSuccess(name -> assertEquals("custom-executor", name));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void defaultExecutorCanBeReplaced() {
+        var counter = new AtomicInteger();
+        var previous = AsyncExecutor.replaceDefault(task -> {
+            counter.incrementAndGet();
+            task.run();
+        });
+
+        try {
+            Promise.<Integer>promise(promise -> promise.succeed(1))
+                   .await()
+                   .onFailureRun(Assertions::fail);
+
+            assertEquals(1, counter.get());
+        } finally {
+            AsyncExecutor.replaceDefault(previous);
+        }
+        assertSame(previous, AsyncExecutor.defaultExecutor());
+    }
+
+    @Test
+    void boundedExecutorLimitsConcurrency() throws InterruptedException {
+        var executor = AsyncExecutor.bounded(2).unwrap();
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var count = 20;
+        var latch = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            executor.runAsync(() -> {
+                var current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException _) {}
+                running.decrementAndGet();
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void boundedExecutorSurvivesFailingTasks() throws InterruptedException {
+        var executor = AsyncExecutor.bounded(1).unwrap();
+        var latch = new CountDownLatch(1);
+
+        executor.runAsync(() -> {
+            throw new IllegalStateException("Expected");
+        });
+        executor.runAsync(latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void platformThreadsExecutorRunsTasks() {
+        try (var executor = AsyncExecutor.platformThreads(2).unwrap()) {
+            Promise.lift(executor, Causes::fromThrowable, () -> Thread.currentThread().isDaemon())
+                   .await()
+                   .onFailureRun(Assertions::fail)
+                   .onSuccess(Assertions::assertTrue);
+        }
+    }
+
+    @Test
+    void closedPlatformThreadsExecutorCompletesSubmittedTasksAndRejectsNewOnes() throws InterruptedException {
+        var executor = AsyncExecutor.platformThreads(1).unwrap();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var completed = new CountDownLatch(2);
+
+        executor.runAsync(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            completed.countDown();
+        });
+        executor.runAsync(completed::countDown);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        executor.close();
+        release.countDown();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertThrows(RejectedExecutionException.class, () -> executor.runAsync(() -> {}));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        AsyncExecutor.bounded(0)
+                     .onSuccessRun(Assertions::fail)
+                     .onFailure(cause -> assertEquals(AsyncExecutor.INVALID_CONCURRENCY, cause));
+        AsyncExecutor.platformThreads(0)
+                     .onSuccessRun(Assertions::fail)
+                     .onFailure(cause -> assertEquals(AsyncExecutor.INVALID_THREAD_COUNT, cause));
+    }
+}
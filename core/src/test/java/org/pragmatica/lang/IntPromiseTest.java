@@ -0,0 +1,245 @@
+package org.pragmatica.lang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.pragmatica.lang.io.CoreError;
+import org.pragmatica.lang.utils.Causes;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class IntPromiseTest {
+    private static final Cause FAULT = Causes.cause("fault");
+
+    @Test
+    void unresolvedPromiseIsTransformedOnceResolved() {
+        var promise = IntPromise.intPromise();
+        var result = promise.map(v -> v + 1)
+                            .flatMap(v -> IntPromise.success(v * 2))
+                            .filter(FAULT, v -> v > 0);
+
+        assertFalse(result.isResolved());
+
+        promise.succeed(20);
+
+        assertEquals(IntResult.success(42), result.await());
+    }
+
+    @Test
+    void resolvedPromiseIsTransformedImmediately() {
+        var result = IntPromise.success(20)
+                               .map(v -> v + 1)
+                               .flatMap(v -> IntPromise.success(v * 2));
+
+        assertTrue(result.isResolved());
+        assertEquals(IntResult.success(42), result.await());
+    }
+
+    @Test
+    void failureIsPropagatedThroughTransformations() {
+        var promise = IntPromise.intPromise();
+        var result = promise.map(v -> v + 1)
+                            .flatMap(IntPromise::success);
+
+        promise.fail(FAULT);
+
+        assertEquals(IntResult.failure(FAULT), result.await());
+        assertEquals(7, result.recover(_ -> 7).await().or(0));
+    }
+
+    @Test
+    void flatMapWaitsForInnerPromise() {
+        var inner = IntPromise.intPromise();
+        var result = IntPromise.success(1)
+                               .map(v -> v + 1)
+                               .flatMap(_ -> inner)
+                               .map(v -> v * 10);
+
+        assertFalse(result.isResolved());
+
+        Thread.ofVirtual()
+              .start(() -> inner.succeed(5));
+
+        assertEquals(IntResult.success(50), result.await());
+    }
+
+    @Test
+    void promiseIsResolvedOnlyOnce() {
+        var promise = IntPromise.intPromise();
+
+        promise.succeed(1);
+        promise.succeed(2);
+        promise.fail(FAULT);
+
+        assertEquals(IntResult.success(1), promise.await());
+    }
+
+    @Test
+    void eventHandlersAreExecutedOnResolution() throws InterruptedException {
+        var latch = new CountDownLatch(2);
+        var value = new AtomicInteger();
+        var promise = IntPromise.intPromise()
+                                .onSuccess(value::set)
+                                .onSuccess(_ -> latch.countDown())
+                                .onFailure(_ -> fail("Unexpected failure"))
+                                .onResult(_ -> latch.countDown());
+
+        promise.succeed(3);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(3, value.get());
+    }
+
+    @Test
+    void allCombinesValuesOfBothPromises() {
+        var first = IntPromise.intPromise();
+        var second = IntPromise.intPromise();
+        var sum = IntPromise.all(first, second, Integer::sum);
+
+        first.succeed(2);
+        assertFalse(sum.isResolved());
+        second.succeed(3);
+
+        assertEquals(IntResult.success(5), sum.await());
+        assertEquals(IntResult.failure(FAULT),
+                     IntPromise.all(IntPromise.success(1), IntPromise.failure(FAULT), Integer::sum).await());
+    }
+
+    @Test
+    void allOfCollectsValuesInArgumentOrder() {
+        var first = IntPromise.intPromise();
+        var second = IntPromise.intPromise();
+        var all = IntPromise.allOf(first, second, IntPromise.success(3));
+
+        second.succeed(2);
+        first.succeed(1);
+
+        all.await()
+           .onFailureRun(Assertions::fail)
+           .onSuccess(values -> assertArrayEquals(new int[]{1, 2, 3}, values));
+
+        IntPromise.allOf(IntPromise.success(1), IntPromise.failure(FAULT))
+                  .await()
+                  .onSuccessRun(Assertions::fail)
+                  .onFailure(cause -> assertEquals(FAULT, cause));
+    }
+
+    @Test
+    void promiseCanBeConvertedToAndFromGenericPromise() {
+        var generic = Promise.<Integer>promise();
+        var specialized = IntPromise.intPromise(generic)
+                                    .map(v -> v + 1);
+        var back = specialized.toPromise();
+
+        generic.succeed(41);
+
+        back.await()
+            .onFailureRun(Assertions::fail)
+            .onSuccess(v -> assertEquals(42, v));
+        assertEquals(IntResult.success(5), IntPromise.intPromise(Promise.success("hello"), String::length).await());
+        assertEquals(IntResult.failure(FAULT), IntPromise.intPromise(Promise.failure(FAULT)).await());
+    }
+
+    @Test
+    void awaitWithTimeoutReturnsTimeoutFailure() {
+        var promise = IntPromise.intPromise();
+
+        promise.await(timeSpan(10).millis())
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertInstanceOf(CoreError.Timeout.class, cause));
+        assertFalse(promise.isResolved());
+    }
+
+    @Test
+    void timeoutResolvesPromiseWithFailure() {
+        IntPromise.intPromise()
+                  .timeout(timeSpan(10).millis())
+                  .await()
+                  .onSuccessRun(Assertions::fail)
+                  .onFailure(cause -> assertInstanceOf(CoreError.Timeout.class, cause));
+    }
+
+    @Test
+    void cancelledPromiseIsResolvedWithCancellation() {
+        IntPromise.intPromise()
+                  .cancel()
+                  .await()
+                  .onSuccessRun(Assertions::fail)
+                  .onFailure(cause -> assertInstanceOf(CoreError.Cancelled.class, cause));
+    }
+
+    @Test
+    void promiseIsResolvedFromAnotherThread() {
+        var promise = IntPromise.intPromise();
+        var result = promise.map(v -> v * 2);
+
+        Thread.ofVirtual()
+              .start(() -> promise.succeed(21));
+
+        assertEquals(IntResult.success(42), result.await());
+    }
+
+    @Test
+    void longAndDoublePromisesAreTransformed() {
+        var longPromise = LongPromise.longPromise();
+        var doublePromise = DoublePromise.doublePromise();
+        var longResult = longPromise.map(v -> v * 1_000_000_000L);
+        var doubleResult = DoublePromise.all(doublePromise, DoublePromise.success(0.5), Double::sum);
+
+        longPromise.succeed(10);
+        doublePromise.succeed(1.0);
+
+        assertEquals(LongResult.success(10_000_000_000L), longResult.await());
+        assertEquals(DoubleResult.success(1.5), doubleResult.await());
+    }
+
+    @Test
+    void throwingMapperResolvesDependentWithFailureAndDoesNotBlockOtherActions() throws InterruptedException {
+        var promise = IntPromise.intPromise();
+        var mapped = promise.map(_ -> {
+            throw new IllegalStateException("Expected");
+        });
+        var objects = promise.mapToObj(_ -> {
+            throw new IllegalStateException("Expected");
+        });
+        var flatMapped = promise.flatMap(_ -> {
+            throw new IllegalStateException("Expected");
+        });
+        var recovered = promise.filter(FAULT, _ -> false)
+                               .recover(_ -> {
+                                   throw new IllegalStateException("Expected");
+                               });
+        var waiter = Thread.ofVirtual()
+                           .start(promise::await);
+
+        promise.succeed(1);
+
+        assertTrue(mapped.await().isFailure());
+        assertTrue(objects.await().isFailure());
+        assertTrue(flatMapped.await().isFailure());
+        assertTrue(recovered.await().isFailure());
+        assertTrue(waiter.join(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void longMapChainIsResolvedWithoutStackOverflow() {
+        var steps = 1_000_000;
+        var head = IntPromise.intPromise();
+        var tail = head;
+
+        for (int i = 0; i < steps; i++) {
+            tail = tail.map(v -> v + 1);
+        }
+
+        head.succeed(0);
+
+        assertEquals(IntResult.success(steps), tail.await());
+    }
+}
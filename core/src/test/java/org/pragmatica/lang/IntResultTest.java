@@ -0,0 +1,73 @@
+package org.pragmatica.lang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.utils.Causes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntResultTest {
+    private static final Cause FAULT = Causes.cause("fault");
+
+    @Test
+    void successIsTransformed() {
+        IntResult.success(20)
+                 .map(v -> v + 1)
+                 .flatMap(v -> IntResult.success(v * 2))
+                 .onFailureRun(Assertions::fail)
+                 .onSuccess(v -> assertEquals(42, v));
+    }
+
+    @Test
+    void failureIsReturnedAsIs() {
+        var failure = IntResult.failure(FAULT);
+
+        assertSame(failure, failure.map(v -> v + 1));
+        assertSame(failure, failure.flatMap(IntResult::success));
+        assertSame(failure, failure.filter(FAULT, _ -> true));
+        assertEquals(7, failure.or(7));
+    }
+
+    @Test
+    void filterReplacesNotMatchingValueWithFailure() {
+        IntResult.success(1)
+                 .filter(FAULT, v -> v > 1)
+                 .onSuccessRun(Assertions::fail)
+                 .onFailure(cause -> assertEquals(FAULT, cause));
+    }
+
+    @Test
+    void failureCanBeRecovered() {
+        assertEquals(5, IntResult.failure(FAULT).recover(_ -> 5).or(0));
+    }
+
+    @Test
+    void resultCanBeConvertedToAndFromGenericResult() {
+        assertEquals(Result.success(3), IntResult.success(3).toResult());
+        assertEquals(IntResult.success(3), IntResult.intResult(Result.success(3)));
+        assertEquals(IntResult.success(5), IntResult.intResult(Result.success("hello"), String::length));
+        assertEquals(IntResult.failure(FAULT), IntResult.intResult(FAULT.result()));
+        assertEquals(Result.success("3"), IntResult.success(3).mapToObj(String::valueOf));
+    }
+
+    @Test
+    void allCombinesValuesOrReturnsFirstFailure() {
+        assertEquals(IntResult.success(5), IntResult.all(IntResult.success(2), IntResult.success(3), Integer::sum));
+
+        var failure = IntResult.failure(FAULT);
+        assertSame(failure, IntResult.all(IntResult.success(2), failure, Integer::sum));
+        assertSame(failure, IntResult.all(failure, IntResult.failure(Causes.cause("other")), Integer::sum));
+    }
+
+    @Test
+    void foldHandlesBothStates() {
+        assertEquals("1", IntResult.success(1).fold(Cause::message, String::valueOf));
+        assertEquals("fault", IntResult.failure(FAULT).fold(Cause::message, String::valueOf));
+    }
+
+    @Test
+    void longAndDoubleResultsAreTransformed() {
+        assertEquals(LongResult.success(Long.MAX_VALUE), LongResult.success(Long.MAX_VALUE - 1).map(v -> v + 1));
+        assertEquals(DoubleResult.success(1.5), DoubleResult.doubleResult(Result.success(0.75)).map(v -> v * 2));
+    }
+}
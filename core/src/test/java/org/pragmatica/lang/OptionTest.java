@@ -18,12 +18,15 @@
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.Functions.Fn1;
 import org.pragmatica.lang.Option.None;
 import org.pragmatica.lang.Option.Some;
 import org.pragmatica.lang.utils.Causes;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -426,6 +429,27 @@ void allOfReturnsEmptyOneValueIsMissing() {
               .onPresentRun(Assertions::fail);
     }
 
+    @Test
+    void traverseStopsAtFirstEmptyOutput() {
+        var calls = new AtomicInteger();
+        Fn1<Option<Integer>, Integer> check = value -> {
+            calls.incrementAndGet();
+            return value > 0
+                   ? Option.present(value * 2)
+                   : Option.empty();
+        };
+
+        Option.traverse(List.of(1, 2, 3), check)
+              .onEmpty(Assertions::fail)
+              .onPresent(values -> assertEquals(List.of(2, 4, 6), values))
+              .onPresent(values -> assertThrows(UnsupportedOperationException.class, () -> values.add(8)));
+
+        Option.traverse(List.of(1, 0, 3), check)
+              .onPresentRun(Assertions::fail);
+
+        assertEquals(5, calls.get());
+    }
+
     @Test
     void anyReturnsFirstPresentOption2() {
         Option.any(Option.present(1), () -> Option.present(2))
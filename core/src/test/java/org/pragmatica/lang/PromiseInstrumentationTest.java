@@ -0,0 +1,103 @@
+package org.pragmatica.lang;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.io.TimeSpan;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/// Hooks are active only if tests are started with `-Dpragmatica.instrumentation=true` (the `instrumentation-test`
+/// surefire execution does this), otherwise only the disabled behavior is checked and the other tests are skipped.
+class PromiseInstrumentationTest {
+    private final List<String> stages = new CopyOnWriteArrayList<>();
+    private final List<Boolean> awaits = new CopyOnWriteArrayList<>();
+    private final List<Long> handlerDelays = new CopyOnWriteArrayList<>();
+
+    private final PromiseInstrumentation recorder = new PromiseInstrumentation() {
+        @Override
+        public void stageCompleted(String stage, long durationNanos) {
+            assertTrue(durationNanos >= 0);
+            stages.add(stage);
+        }
+
+        @Override
+        public void eventHandlersStarted(long queueDelayNanos) {
+            handlerDelays.add(queueDelayNanos);
+        }
+
+        @Override
+        public void awaitCompleted(long blockedNanos, boolean timedOut) {
+            awaits.add(timedOut);
+        }
+    };
+
+    @AfterEach
+    void restoreDefault() {
+        PromiseInstrumentation.install(PromiseInstrumentation.jfr());
+    }
+
+    @Test
+    void installationFailsIfInstrumentationIsDisabled() {
+        assumeFalse(PromiseInstrumentation.enabled());
+
+        assertEquals(PromiseInstrumentation.DISABLED.result(), PromiseInstrumentation.install(recorder));
+        assertEquals(0, PromiseInstrumentation.created());
+    }
+
+    @Test
+    void installationSucceedsIfInstrumentationIsEnabled() {
+        assumeTrue(PromiseInstrumentation.enabled());
+
+        assertTrue(PromiseInstrumentation.install(recorder).isSuccess());
+    }
+
+    @Test
+    void stagesOfPendingPromiseAreReported() {
+        assumeTrue(PromiseInstrumentation.enabled());
+        assertTrue(PromiseInstrumentation.install(recorder).isSuccess());
+
+        var source = Promise.<Integer>promise();
+        var result = source.map(value -> value + 1)
+                           .flatMap(value -> Promise.success(value * 2));
+
+        source.async(promise -> promise.succeed(1));
+
+        assertEquals(Result.success(4), result.await());
+        assertTrue(stages.containsAll(List.of("map", "flatMap", "async")), stages.toString());
+        assertFalse(awaits.contains(true));
+    }
+
+    @Test
+    void awaitTimeoutAndHandlerDelayAreReported() {
+        assumeTrue(PromiseInstrumentation.enabled());
+        assertTrue(PromiseInstrumentation.install(recorder).isSuccess());
+
+        var promise = Promise.<Integer>promise();
+        var handled = Promise.<Integer>promise();
+
+        assertTrue(promise.await(TimeSpan.timeSpan(10).millis()).isFailure());
+        assertEquals(List.of(true), awaits);
+
+        promise.onResult(handled::resolve);
+        promise.succeed(1);
+
+        assertEquals(Result.success(1), handled.await());
+        assertFalse(handlerDelays.isEmpty());
+    }
+
+    @Test
+    void unresolvedPromisesAreCounted() {
+        assumeTrue(PromiseInstrumentation.enabled());
+
+        var before = PromiseInstrumentation.created() - PromiseInstrumentation.resolved();
+        var promises = List.of(Promise.<Integer>promise(), Promise.<Integer>promise());
+
+        assertTrue(PromiseInstrumentation.created() - PromiseInstrumentation.resolved() >= before + 2);
+        promises.forEach(Promise::cancel);
+    }
+}
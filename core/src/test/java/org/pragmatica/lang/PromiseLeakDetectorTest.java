@@ -0,0 +1,101 @@
+package org.pragmatica.lang;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+/// Detection is active only if tests are started with `-Dpragmatica.leakDetection=1` (the `leak-detection-test`
+/// surefire execution does this), otherwise only the disabled behavior is checked and the other tests are skipped.
+class PromiseLeakDetectorTest {
+    private final List<PromiseLeakDetector.InFlightPromise> leaks = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void restoreDefaults() {
+        PromiseLeakDetector.configure(1, timeSpan(30).seconds());
+        PromiseLeakDetector.onLeak(leak -> {});
+    }
+
+    @Test
+    void configurationFailsIfDetectionIsDisabled() {
+        assumeFalse(PromiseLeakDetector.enabled());
+
+        assertEquals(PromiseLeakDetector.DISABLED.result(),
+                     PromiseLeakDetector.configure(1, timeSpan(1).seconds()));
+        assertTrue(PromiseLeakDetector.snapshot().isEmpty());
+    }
+
+    @Test
+    void configurationIsValidatedIfDetectionIsEnabled() {
+        assumeTrue(PromiseLeakDetector.enabled());
+
+        assertTrue(PromiseLeakDetector.configure(1, timeSpan(1).seconds()).isSuccess());
+        assertEquals(PromiseLeakDetector.INVALID_CONFIGURATION.result(),
+                     PromiseLeakDetector.configure(0, timeSpan(1).seconds()));
+    }
+
+    @Test
+    void snapshotContainsPendingPromisesOnly() {
+        assumeTrue(PromiseLeakDetector.enabled());
+        assertTrue(PromiseLeakDetector.configure(1, timeSpan(30).seconds()).isSuccess());
+
+        var pending = Promise.<Integer>promise();
+        var resolved = Promise.<Integer>promise();
+
+        pending.map(value -> value + 1);
+        pending.onResult(_ -> {});
+        resolved.succeed(1);
+
+        var entry = createdIn("snapshotContainsPendingPromisesOnly", PromiseLeakDetector.snapshot()).stream()
+                                                                                                 .filter(leak -> leak.dependents() == 1)
+                                                                                                 .toList();
+
+        assertEquals(1, entry.size());
+        assertEquals(1, entry.getFirst().eventHandlers());
+        assertEquals(0, entry.getFirst().waiters());
+
+        pending.succeed(1);
+
+        assertTrue(PromiseLeakDetector.snapshot()
+                                      .stream()
+                                      .noneMatch(leak -> leak.id() == entry.getFirst().id()));
+    }
+
+    @Test
+    void promiseOlderThanThresholdIsReportedOnce() throws InterruptedException {
+        assumeTrue(PromiseLeakDetector.enabled());
+        assertTrue(PromiseLeakDetector.configure(1, timeSpan(1).millis()).isSuccess());
+
+        PromiseLeakDetector.onLeak(leaks::add);
+        var pending = Promise.<Integer>promise();
+        var id = createdIn("promiseOlderThanThresholdIsReportedOnce", PromiseLeakDetector.snapshot()).getFirst()
+                                                                                                     .id();
+        Thread.sleep(5);
+
+        PromiseLeakDetector.check();
+        PromiseLeakDetector.check();
+
+        assertEquals(1, leaks.stream().filter(leak -> leak.id() == id).count());
+        assertTrue(leaks.stream()
+                        .filter(leak -> leak.id() == id)
+                        .allMatch(leak -> !leak.collected() && leak.age().millis() >= 1));
+
+        pending.succeed(1);
+    }
+
+    private static List<PromiseLeakDetector.InFlightPromise> createdIn(String method,
+                                                                       List<PromiseLeakDetector.InFlightPromise> promises) {
+        return promises.stream()
+                       .filter(leak -> leak.creationSite()
+                                           .getFirst()
+                                           .getMethodName()
+                                           .equals(method))
+                       .toList();
+    }
+}
@@ -0,0 +1,182 @@
+package org.pragmatica.lang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.utils.Causes;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromiseStreamTest {
+    private static final Cause TEST_FAILURE = Causes.cause("Test failure");
+
+    @Test
+    void emptyStreamProducesNoElements() {
+        PromiseStream.<Integer>empty()
+                     .toList()
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(list -> assertTrue(list.isEmpty()));
+    }
+
+    @Test
+    void transformationsAreAppliedInOrder() {
+        PromiseStream.of(1, 2, 3, 4, 5, 6)
+                     .map(value -> value * 10)
+                     .filter(value -> value != 30)
+                     .mapAsync(value -> Promise.promise(promise -> promise.succeed(value + 1)))
+                     .toList()
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(list -> assertEquals(List.of(11, 21, 41, 51, 61), list));
+    }
+
+    @Test
+    void flatMapConcatenatesAndClosesInnerStreams() {
+        var closed = new AtomicInteger();
+
+        PromiseStream.of(0, 2, 1)
+                     .flatMap(count -> PromiseStream.promiseStream(PromiseStream.fromIterable(IntStream.range(0, count)
+                                                                                                       .boxed()
+                                                                                                       .toList())::next,
+                                                                   closed::incrementAndGet))
+                     .toList()
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(list -> assertEquals(List.of(0, 1, 0), list));
+
+        assertEquals(3, closed.get());
+    }
+
+    @Test
+    void batchEmitsTrailingPartialBatch() {
+        PromiseStream.of(1, 2, 3, 4, 5)
+                     .batch(2)
+                     .toList()
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(list -> assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), list));
+    }
+
+    @Test
+    void windowSupportsOverlappingAndSkippingSteps() {
+        PromiseStream.of(1, 2, 3, 4)
+                     .window(3, 1)
+                     .toList()
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(list -> assertEquals(List.of(List.of(1, 2, 3), List.of(2, 3, 4)), list));
+
+        PromiseStream.of(1, 2, 3, 4, 5, 6, 7)
+                     .window(2, 3)
+                     .toList()
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(list -> assertEquals(List.of(List.of(1, 2), List.of(4, 5), List.of(7)), list));
+    }
+
+    @Test
+    void invalidWindowSizeFailsStream() {
+        PromiseStream.of(1, 2, 3)
+                     .batch(0)
+                     .toList()
+                     .await()
+                     .onSuccessRun(Assertions::fail)
+                     .onFailure(cause -> assertEquals(PromiseStream.INVALID_SIZE, cause));
+    }
+
+    @Test
+    void takeStopsPullingSource() {
+        var pulled = new AtomicInteger();
+
+        PromiseStream.promiseStream(() -> Promise.success(Option.some(pulled.incrementAndGet())))
+                     .take(3)
+                     .toList()
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(list -> assertEquals(List.of(1, 2, 3), list));
+
+        assertEquals(3, pulled.get());
+    }
+
+    @Test
+    void failureTerminatesStreamAndClosesSource() {
+        var counter = new AtomicInteger();
+        var closed = new AtomicInteger();
+
+        PromiseStream.promiseStream(() -> counter.incrementAndGet() < 3
+                                          ? Promise.success(Option.some(counter.get()))
+                                          : TEST_FAILURE.<Option<Integer>>promise(),
+                                    closed::incrementAndGet)
+                     .forEach(_ -> {})
+                     .await()
+                     .onSuccessRun(Assertions::fail)
+                     .onFailure(cause -> assertEquals(TEST_FAILURE, cause));
+
+        assertEquals(3, counter.get());
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void exceptionInTransformationFailsStream() {
+        PromiseStream.of(1, 2, 3)
+                     .filter(_ -> {
+                         throw new IllegalStateException("boom");
+                     })
+                     .toList()
+                     .await()
+                     .onSuccessRun(Assertions::fail);
+    }
+
+    @Test
+    void asynchronousSourceIsConsumedCompletely() {
+        var counter = new AtomicInteger();
+
+        PromiseStream.<Integer>promiseStream(() -> Promise.promise(promise -> {
+                         var value = counter.incrementAndGet();
+                         promise.succeed(value <= 1000
+                                         ? Option.some(value)
+                                         : Option.none());
+                     }))
+                     .filter(value -> value % 2 == 0)
+                     .batch(100)
+                     .fold(0, (count, batch) -> count + batch.size())
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(count -> assertEquals(500, count));
+    }
+
+    @Test
+    void longSynchronousStreamIsStackSafe() {
+        var counter = new AtomicLong();
+
+        PromiseStream.promiseStream(() -> {
+                         var value = counter.incrementAndGet();
+                         return Promise.success(value <= 1_000_000
+                                                ? Option.some(value)
+                                                : Option.<Long>none());
+                     })
+                     .filter(value -> value % 1000 == 0)
+                     .fold(0L, Long::sum)
+                     .await()
+                     .onFailureRun(Assertions::fail)
+                     .onSuccess(sum -> assertEquals(500_500_000L, sum));
+    }
+
+    @Test
+    void cancellationOfTerminalOperationClosesStream() {
+        var closed = new AtomicInteger();
+
+        var result = PromiseStream.promiseStream(Promise::<Option<Integer>>promise, closed::incrementAndGet)
+                                  .toList();
+
+        result.cancel();
+        result.await();
+
+        assertEquals(1, closed.get());
+    }
+}
@@ -24,13 +24,17 @@
 import org.pragmatica.lang.io.CoreError;
 import org.pragmatica.lang.utils.Causes;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.pragmatica.lang.Unit.unit;
@@ -101,6 +105,247 @@ void resolvedPromiseCanBeCreated() {
         assertTrue(promise.isResolved());
     }
 
+    @Test
+    void transformationsOfResolvedPromiseAreAppliedImmediately() {
+        var promise = Promise.success(1)
+                             .map(v -> v + 1)
+                             .flatMap(v -> Promise.success(v * 10))
+                             .filter(Causes.cause("Negative value"), v -> v > 0)
+                             .recover(_ -> 0);
+
+        assertTrue(promise.isResolved());
+        assertEquals(Result.success(20), promise.await(timeSpan(1).millis()));
+    }
+
+    @Test
+    void transformationsWhichDoNotChangeResultReturnSameInstance() {
+        var failure = Promise.<Integer>failure(Causes.cause("failure"));
+        var success = Promise.success(1);
+
+        assertSame(failure, failure.map(v -> v + 1));
+        assertSame(failure, failure.flatMap(v -> Promise.success(v + 1)));
+        assertSame(failure, failure.filter(Causes.cause("filtered"), _ -> true));
+        assertSame(success, success.recover(_ -> 2));
+        assertSame(success, success.mapError(_ -> Causes.cause("other")));
+        assertSame(Promise.unitPromise(), success.mapToUnit());
+    }
+
+    @Test
+    void resolvedPromiseIgnoresResolutionAndCancellation() {
+        var promise = Promise.success(1);
+
+        promise.fail(Causes.cause("failure"));
+        promise.cancel();
+
+        assertEquals(Result.success(1), promise.await());
+    }
+
+    @Test
+    void resolvedPromiseFilterProducesFailure() {
+        Promise.success(1)
+               .filter(Causes.cause("Value is too small"), v -> v > 10)
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertEquals("Value is too small", cause.message()));
+    }
+
+    @Test
+    void eventHandlersOfPromisesResolvedInBurstAreExecutedOnce() throws InterruptedException {
+        var count = 10_000;
+        var counter = new AtomicInteger();
+        var latch = new CountDownLatch(count * 2);
+        var promises = new ArrayList<Promise<Integer>>();
+
+        for (int i = 0; i < count; i++) {
+            promises.add(Promise.<Integer>promise()
+                                .onResult(_ -> {
+                                    counter.incrementAndGet();
+                                    latch.countDown();
+                                })
+                                .onSuccess(_ -> {
+                                    counter.incrementAndGet();
+                                    latch.countDown();
+                                }));
+        }
+
+        promises.forEach(promise -> promise.succeed(1));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        assertEquals(count * 2, counter.get());
+    }
+
+    @Test
+    void eventHandlersAreExecutedInRegistrationOrder() throws InterruptedException {
+        var order = new ConcurrentLinkedQueue<Integer>();
+        var latch = new CountDownLatch(1);
+        var promise = Promise.<Integer>promise();
+
+        for (int i = 0; i < 10; i++) {
+            var index = i;
+            promise.onResult(_ -> order.add(index));
+        }
+        promise.onResultRun(latch::countDown);
+
+        promise.succeed(1);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), List.copyOf(order));
+    }
+
+    @Test
+    void failingEventHandlerDoesNotAffectHandlersOfOtherPromises() throws InterruptedException {
+        var latch = new CountDownLatch(1);
+
+        Promise.<Integer>promise()
+               .onResultRun(() -> {
+                   throw new IllegalStateException("Expected");
+               })
+               .succeed(1);
+        Promise.<Integer>promise()
+               .onResultRun(latch::countDown)
+               .succeed(1);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingEventHandlerDoesNotAffectOtherHandlersOfSamePromise() throws InterruptedException {
+        var latch = new CountDownLatch(1);
+
+        Promise.<Integer>promise()
+               .onResultRun(() -> {
+                   throw new IllegalStateException("Expected");
+               })
+               .onResultRun(latch::countDown)
+               .succeed(1);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void slowEventHandlerDelaysBoundedNumberOfOtherHandlers() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var others = PromiseImpl.EventBatch.MAX_BATCH_SIZE * 2;
+        var completed = new CountDownLatch(others - PromiseImpl.EventBatch.MAX_BATCH_SIZE);
+
+        try {
+            Promise.<Integer>promise()
+                   .onResultRun(() -> awaitQuietly(release))
+                   .succeed(1);
+            for (int i = 0; i < others; i++) {
+                Promise.<Integer>promise()
+                       .onResultRun(completed::countDown)
+                       .succeed(1);
+            }
+
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void longMapChainIsResolvedWithoutStackOverflow() {
+        var steps = 1_000_000;
+        var head = Promise.<Integer>promise();
+        var tail = head;
+
+        for (int i = 0; i < steps; i++) {
+            tail = tail.map(v -> v + 1);
+        }
+
+        head.succeed(0);
+
+        assertTrue(tail.isResolved());
+        tail.await()
+            .onFailureRun(Assertions::fail)
+            .onSuccess(v -> assertEquals(steps, v));
+    }
+
+    @Test
+    void longFlatMapChainIsResolvedWithoutStackOverflow() {
+        var steps = 1_000_000;
+        var head = Promise.<Integer>promise();
+        var tail = head;
+
+        for (int i = 0; i < steps; i++) {
+            tail = tail.flatMap(v -> Promise.success(v + 1));
+        }
+
+        head.succeed(0);
+
+        tail.await()
+            .onFailureRun(Assertions::fail)
+            .onSuccess(v -> assertEquals(steps, v));
+    }
+
+    @Test
+    void recursiveSynchronousLoopIsResolvedWithoutStackOverflow() {
+        var steps = 1_000_000;
+
+        countDown(steps, 0).await()
+                           .onFailureRun(Assertions::fail)
+                           .onSuccess(v -> assertEquals(steps, v));
+    }
+
+    private static Promise<Integer> countDown(int remaining, int accumulated) {
+        if (remaining == 0) {
+            return Promise.success(accumulated);
+        }
+        return Promise.success(remaining)
+                      .flatMap(_ -> countDown(remaining - 1, accumulated + 1));
+    }
+
+    @Test
+    void deepChainPreservesOrderOfDependentActions() {
+        var order = new ArrayList<String>();
+        var head = Promise.<Integer>promise();
+        var tail = head;
+
+        for (int i = 0; i < 1000; i++) {
+            tail = tail.map(v -> v + 1);
+        }
+        var deep = tail;
+
+        deep.withSuccess(v -> order.add("first " + v))
+            .withSuccess(v -> order.add("second " + v));
+        deep.withSuccess(v -> order.add("third " + v));
+        head.withSuccess(_ -> order.add("head"));
+
+        head.succeed(0);
+
+        assertEquals(List.of("first 1000", "second 1000", "third 1000", "head"), order);
+    }
+
+    @Test
+    void awaitInsideDeepChainDoesNotBlockOnDeferredWork() {
+        var head = Promise.<Integer>promise();
+        var tail = head;
+
+        for (int i = 0; i < 1000; i++) {
+            tail = tail.map(v -> v + 1);
+        }
+        var result = tail.map(v -> Promise.success(v)
+                                          .map(x -> x * 2)
+                                          .await()
+                                          .or(0));
+
+        head.succeed(0);
+
+        result.await()
+              .onFailureRun(Assertions::fail)
+              .onSuccess(v -> assertEquals(2000, v));
+    }
+
     @Test
     void promiseCanBeCancelled() {
         var promise = Promise.<Integer>promise();
@@ -110,6 +355,446 @@ void promiseCanBeCancelled() {
                .onSuccess(_ -> fail("Promise should be cancelled"));
     }
 
+    @Test
+    void cancelActionIsExecutedOnlyOnCancellation() {
+        var cancelled = new AtomicInteger();
+        var succeeded = Promise.<Integer>promise()
+                               .onCancel(cancelled::incrementAndGet);
+        var timedOut = Promise.<Integer>promise()
+                              .onCancel(cancelled::incrementAndGet);
+
+        succeeded.succeed(1);
+        timedOut.timeout(timeSpan(1).millis())
+                .await();
+        assertEquals(1, cancelled.get());
+
+        // Registration on already cancelled promise executes the action immediately
+        timedOut.onCancel(cancelled::incrementAndGet);
+        assertEquals(2, cancelled.get());
+    }
+
+    @Test
+    void cancellationIsPropagatedToSource() {
+        var cancelled = new AtomicBoolean(false);
+        var source = Promise.<Integer>promise()
+                            .cancellable()
+                            .onCancel(() -> cancelled.set(true));
+        var dependent = source.map(v -> v + 1)
+                              .flatMap(v -> Promise.success(v * 2));
+
+        dependent.cancel();
+
+        assertTrue(cancelled.get());
+        source.await()
+              .onSuccessRun(Assertions::fail)
+              .onFailure(this::assertIsCancelled);
+    }
+
+    @Test
+    void timeoutIsPropagatedToSource() {
+        var source = Promise.<Integer>promise()
+                            .cancellable();
+
+        source.map(v -> v + 1)
+              .timeout(timeSpan(10).millis())
+              .await()
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertInstanceOf(CoreError.Timeout.class, cause));
+
+        source.await()
+              .onSuccessRun(Assertions::fail)
+              .onFailure(this::assertIsCancelled);
+    }
+
+    @Test
+    void cancellationIsNotPropagatedWhileSourceHasOtherConsumers() {
+        var source = Promise.<Integer>promise()
+                            .cancellable();
+        var first = source.map(v -> v + 1);
+        var second = source.map(v -> v + 2);
+
+        first.cancel();
+        assertFalse(source.isResolved());
+
+        source.succeed(1);
+
+        second.await()
+              .onFailureRun(Assertions::fail)
+              .onSuccess(v -> assertEquals(3, v));
+    }
+
+    @Test
+    void lastConsumerCancellationIsPropagatedToSource() {
+        var source = Promise.<Integer>promise()
+                            .cancellable();
+        var first = source.map(v -> v + 1);
+        var second = source.map(v -> v + 2);
+
+        first.cancel();
+        second.cancel();
+
+        assertTrue(source.isResolved());
+    }
+
+    @Test
+    void cancellationIsNotPropagatedToSharedSource() {
+        var source = Promise.<Integer>promise()
+                            .cancellable()
+                            .shared();
+
+        source.map(v -> v + 1)
+              .timeout(timeSpan(10).millis())
+              .await()
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertInstanceOf(CoreError.Timeout.class, cause));
+        source.map(v -> v + 2)
+              .cancel();
+
+        assertFalse(source.isResolved());
+
+        source.succeed(1);
+
+        source.map(v -> v + 3)
+              .await()
+              .onFailureRun(Assertions::fail)
+              .onSuccess(v -> assertEquals(4, v));
+    }
+
+    @Test
+    void cancellationIsNotPropagatedToSourceWhichIsNotCancellable() {
+        var cancelled = new AtomicBoolean(false);
+        var source = Promise.<Integer>promise()
+                            .onCancel(() -> cancelled.set(true));
+
+        source.map(v -> v + 1)
+              .timeout(timeSpan(10).millis())
+              .await()
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertInstanceOf(CoreError.Timeout.class, cause));
+        source.flatMap(v -> Promise.success(v + 2))
+              .cancel();
+
+        assertFalse(source.isResolved());
+        assertFalse(cancelled.get());
+
+        source.succeed(1);
+
+        source.map(v -> v + 3)
+              .await()
+              .onFailureRun(Assertions::fail)
+              .onSuccess(v -> assertEquals(4, v));
+    }
+
+    @Test
+    void sourceWithMixedConsumersIsResolvedForAllOfThemWhenOneChainIsCancelled() throws InterruptedException {
+        var source = Promise.<Integer>promise();
+        var handled = new CountDownLatch(1);
+        var awaited = new AtomicReference<Result<Integer>>();
+
+        source.onSuccess(_ -> handled.countDown());
+        source.map(v -> v + 2)
+              .timeout(timeSpan(10).millis())
+              .await()
+              .onSuccessRun(Assertions::fail);
+        source.flatMap(v -> Promise.success(v + 3))
+              .cancel();
+
+        assertFalse(source.isResolved());
+
+        // Consumers which arrived after the cancelled chains
+        var awaiter = Thread.ofVirtual()
+                            .start(() -> awaited.set(source.await()));
+        var mapped = source.map(v -> v + 1);
+
+        source.succeed(1);
+
+        assertTrue(handled.await(1, TimeUnit.SECONDS));
+        awaiter.join();
+        assertEquals(Result.success(1), awaited.get());
+        assertEquals(Result.success(2), mapped.await());
+    }
+
+    @Test
+    void awaitingThreadPreventsCancellationOfCancellableSource() throws InterruptedException {
+        var source = Promise.<Integer>promise()
+                            .cancellable();
+        var awaited = new AtomicReference<Result<Integer>>();
+        var awaiter = Thread.ofVirtual()
+                            .start(() -> awaited.set(source.await()));
+
+        while (awaiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+
+        source.map(v -> v + 1)
+              .cancel();
+
+        assertFalse(source.isResolved());
+
+        source.succeed(1);
+        awaiter.join();
+
+        assertEquals(Result.success(1), awaited.get());
+    }
+
+    @Test
+    void cancellationOfAllIsPropagatedToCancellableInputs() {
+        var cancellable = Promise.<Integer>promise()
+                                 .cancellable();
+        var plain = Promise.<Integer>promise();
+
+        Promise.all(cancellable, plain)
+               .map((a, b) -> a + b)
+               .cancel();
+
+        cancellable.await()
+                   .onSuccessRun(Assertions::fail)
+                   .onFailure(this::assertIsCancelled);
+        assertFalse(plain.isResolved());
+    }
+
+    @Test
+    void cancellationOfAllOfIsPropagatedToCancellableInputs() {
+        var first = Promise.<Integer>promise()
+                           .cancellable();
+        var second = Promise.<Integer>promise()
+                            .cancellable();
+        var consumed = second.map(v -> v + 1);
+
+        Promise.allOf(List.of(first, second))
+               .timeout(timeSpan(10).millis())
+               .await()
+               .onSuccessRun(Assertions::fail);
+
+        first.await()
+             .onSuccessRun(Assertions::fail)
+             .onFailure(this::assertIsCancelled);
+        // Second input has other consumer
+        assertFalse(second.isResolved());
+        assertFalse(consumed.isResolved());
+    }
+
+    @Test
+    void tryResolveReportsWhetherValueWasAccepted() {
+        var promise = Promise.<Integer>promise();
+
+        assertTrue(promise.tryResolve(Result.success(1)));
+        assertFalse(promise.tryResolve(Result.success(2)));
+        assertFalse(Promise.success(1).tryResolve(Result.success(2)));
+        assertEquals(Result.success(1), promise.await());
+    }
+
+    @Test
+    void cancellationIsPropagatedToPromiseReturnedByFlatMap() {
+        var inner = Promise.<Integer>promise()
+                           .cancellable();
+        var dependent = Promise.success(1)
+                               .flatMap(_ -> inner);
+
+        dependent.cancel();
+
+        inner.await()
+             .onSuccessRun(Assertions::fail)
+             .onFailure(this::assertIsCancelled);
+    }
+
+    @Test
+    void cancellationOfLongChainIsPropagatedWithoutStackOverflow() {
+        var head = Promise.<Integer>promise()
+                          .cancellable();
+        var tail = head;
+
+        for (int i = 0; i < 1_000_000; i++) {
+            tail = tail.map(v -> v + 1);
+        }
+
+        tail.cancel();
+
+        head.await()
+            .onSuccessRun(Assertions::fail)
+            .onFailure(this::assertIsCancelled);
+    }
+
+    @Test
+    void cancellationInterruptsRunningCall() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var promise = Promise.lift(Causes::fromThrowable, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return 1;
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        promise.cancel();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        promise.await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(this::assertIsCancelled);
+    }
+
+    @Test
+    void cancelledCallIsNotStarted() {
+        var executed = new AtomicBoolean(false);
+        var gate = new CountDownLatch(1);
+        var executor = AsyncExecutor.executor(task -> Thread.ofVirtual()
+                                                            .start(() -> {
+                                                                try {
+                                                                    gate.await();
+                                                                } catch (InterruptedException _) {}
+                                                                task.run();
+                                                            }));
+
+        var promise = Promise.promise(executor, () -> {
+            executed.set(true);
+            return Result.success(1);
+        });
+        promise.cancel();
+        gate.countDown();
+
+        Promise.<Unit>promise(timeSpan(20).millis(), p -> p.succeed(unit()))
+               .await();
+
+        assertFalse(executed.get());
+    }
+
+    @Test
+    void anyCancelsInputsWhenCancelled() {
+        var first = Promise.<Integer>promise();
+        var second = Promise.<Integer>promise();
+        Promise.any(first, second)
+               .cancel();
+
+        first.await()
+             .onSuccessRun(Assertions::fail)
+             .onFailure(this::assertIsCancelled);
+        second.await()
+              .onSuccessRun(Assertions::fail)
+              .onFailure(this::assertIsCancelled);
+    }
+
+    @Test
+    void traverseReturnsResultsInInputOrder() {
+        var items = IntStream.range(0, 100)
+                             .boxed()
+                             .toList();
+
+        Promise.traverse(items,
+                         8,
+                         (Integer v) -> Promise.promise(timeSpan(100 - v).micros(), p -> p.succeed(v * 2)))
+               .await()
+               .onFailureRun(Assertions::fail)
+               .onSuccess(list -> assertEquals(items.stream()
+                                                    .map(v -> v * 2)
+                                                    .toList(),
+                                               list));
+    }
+
+    @Test
+    void traverseKeepsNumberOfOperationsInFlightWithinLimit() {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var items = IntStream.range(0, 200)
+                             .boxed()
+                             .toList();
+
+        Promise.traverse(items,
+                         4,
+                         (Integer v) -> {
+                             maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                             return Promise.promise(timeSpan(1).millis(),
+                                                    p -> {
+                                                        inFlight.decrementAndGet();
+                                                        p.succeed(v);
+                                                    });
+                         })
+               .await()
+               .onFailureRun(Assertions::fail)
+               .onSuccess(list -> assertEquals(200, list.size()));
+
+        assertTrue(maxInFlight.get() <= 4, "Max in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void traverseFailsFastAndCancelsOperationsInFlight() {
+        var started = new AtomicInteger();
+        var cancelled = new AtomicInteger();
+        var items = IntStream.range(0, 100)
+                             .boxed()
+                             .toList();
+
+        Promise.traverse(items,
+                         4,
+                         (Integer v) -> {
+                             started.incrementAndGet();
+                             return v == 2
+                                    ? FAULT_CAUSE.<Integer>promise()
+                                    : Promise.<Integer>promise()
+                                             .onCancel(cancelled::incrementAndGet);
+                         })
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertEquals(FAULT_CAUSE, cause));
+
+        assertTrue(started.get() <= 5, "Started: " + started.get());
+        assertEquals(started.get() - 1, cancelled.get());
+    }
+
+    @Test
+    void traverseConvertsExceptionIntoFailure() {
+        Promise.traverse(List.of(1, 2, 3),
+                         2,
+                         (Integer v) -> {
+                             if (v == 3) {
+                                 throw new IllegalStateException("Expected");
+                             }
+                             return Promise.success(v);
+                         })
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertInstanceOf(CoreError.Exception.class, cause));
+    }
+
+    @Test
+    void cancellationOfTraverseStopsStartingNewOperations() {
+        var started = new AtomicInteger();
+        var items = IntStream.range(0, 100)
+                             .boxed()
+                             .toList();
+
+        var promise = Promise.traverse(items,
+                                       2,
+                                       (Integer _) -> {
+                                           started.incrementAndGet();
+                                           return Promise.<Integer>promise();
+                                       });
+        promise.cancel()
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(this::assertIsCancelled);
+
+        assertTrue(started.get() <= 2, "Started: " + started.get());
+    }
+
+    @Test
+    void traverseHandlesEmptyInputAndInvalidParallelism() {
+        Promise.traverse(List.<Integer>of(), 4, Promise::success)
+               .await()
+               .onFailureRun(Assertions::fail)
+               .onSuccess(list -> assertTrue(list.isEmpty()));
+
+        Promise.traverse(List.of(1), 0, Promise::success)
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertEquals(Promise.INVALID_PARALLELISM, cause));
+    }
+
     @Test
     void successActionsAreExecutedAfterResolutionWithSuccess() throws InterruptedException {
         var latch = new CountDownLatch(1);
@@ -18,13 +18,16 @@
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.Functions.Fn1;
 import org.pragmatica.lang.Result.Failure;
 import org.pragmatica.lang.Result.Success;
 import org.pragmatica.lang.utils.Causes;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -683,6 +686,86 @@ void allOfReturnsFailureIfAnyInputIsFailure() {
               .onSuccessRun(Assertions::fail);
     }
 
+    @Test
+    void traverseStopsAtFirstFailure() {
+        var calls = new ArrayList<Integer>();
+        Fn1<Result<Integer>, Integer> check = value -> {
+            calls.add(value);
+            return value % 3 == 0
+                   ? Causes.cause("Divisible by 3: " + value).result()
+                   : Result.success(value * 10);
+        };
+
+        Result.traverse(List.of(1, 2, 4), check)
+              .onFailureRun(Assertions::fail)
+              .onSuccess(values -> assertEquals(List.of(10, 20, 40), values));
+
+        Result.traverse(List.of(1, 3, 6, 7), check)
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertEquals("Divisible by 3: 3", cause.message()));
+
+        assertEquals(List.of(1, 2, 4, 1, 3), calls);
+    }
+
+    @Test
+    void traverseAllCollectsAllFailuresInInputOrder() {
+        Fn1<Result<Integer>, Integer> check = value -> value % 3 == 0
+                                                       ? Causes.cause("Divisible by 3: " + value).result()
+                                                       : Result.success(value * 10);
+
+        Result.traverseAll(List.of(1, 3, 6, 7), check)
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertEquals(List.of("Divisible by 3: 3", "Divisible by 3: 6"),
+                                               cause.stream()
+                                                    .map(Cause::message)
+                                                    .toList()));
+
+        Result.traverseAll(List.<Integer>of(), check)
+              .onFailureRun(Assertions::fail)
+              .onSuccess(values -> assertTrue(values.isEmpty()));
+    }
+
+    @Test
+    void traverseAllParallelMatchesSequentialTraversal() {
+        var input = IntStream.range(0, 100_000)
+                             .boxed()
+                             .toList();
+        Fn1<Result<Integer>, Integer> check = value -> value % 7919 == 0
+                                                       ? Causes.cause("Rejected: " + value).result()
+                                                       : Result.success(value + 1);
+
+        assertEquals(Result.traverseAll(input, check)
+                           .mapError(cause -> Causes.cause(cause.message())),
+                     Result.traverseAllParallel(input, check)
+                           .mapError(cause -> Causes.cause(cause.message())));
+
+        Result.traverseAllParallel(input, value -> Result.success(value + 1))
+              .onFailureRun(Assertions::fail)
+              .onSuccess(values -> {
+                  assertEquals(input.size(), values.size());
+                  for (int i = 0; i < values.size(); i++) {
+                      assertEquals(i + 1, values.get(i));
+                  }
+              });
+    }
+
+    @Test
+    void traversalsReturnUnmodifiableListsRegardlessOfInputSize() {
+        Fn1<Result<Integer>, Integer> check = Result::success;
+        var small = List.of(1, 2, 3);
+        var large = IntStream.range(0, 10_000)
+                             .boxed()
+                             .toList();
+
+        Stream.of(Result.traverse(small, check),
+                  Result.traverseAll(small, check),
+                  Result.traverseAllParallel(small, check),
+                  Result.traverseAllParallel(large, check))
+              .forEach(result -> result.onFailureRun(Assertions::fail)
+                                       .onSuccess(values -> assertThrows(UnsupportedOperationException.class,
+                                                                         () -> values.add(0))));
+    }
+
     @Test
     void allReturnsSuccessFor1SuccessInput() {
         Result.all(Result.success(321))
@@ -0,0 +1,201 @@
+package org.pragmatica.lang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.pragmatica.lang.io.CoreError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class TimerWheelTest {
+    @Test
+    void taskIsExecutedAfterDelay() throws InterruptedException {
+        var timer = TimerWheel.timerWheel(timeSpan(1).millis(), 64).unwrap();
+        var latch = new CountDownLatch(1);
+        var start = System.nanoTime();
+
+        var task = timer.schedule(timeSpan(20).millis(), latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= timeSpan(20).millis().nanos());
+        assertTrue(task.isExpired());
+        assertFalse(task.isCancelled());
+        assertEquals(0, timer.pending());
+
+        timer.stop();
+    }
+
+    @Test
+    void cancelledTaskIsNotExecuted() throws InterruptedException {
+        var timer = TimerWheel.timerWheel(timeSpan(1).millis(), 64).unwrap();
+        var executed = new AtomicBoolean(false);
+        var latch = new CountDownLatch(1);
+
+        var task = timer.schedule(timeSpan(20).millis(), () -> executed.set(true));
+        timer.schedule(timeSpan(50).millis(), latch::countDown);
+
+        assertTrue(task.cancel());
+        assertFalse(task.cancel());
+        assertTrue(task.isCancelled());
+        assertEquals(1, timer.pending());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertFalse(executed.get());
+        assertFalse(task.isExpired());
+
+        timer.stop();
+    }
+
+    @Test
+    void delaysLongerThanWheelRevolutionAreHandled() throws InterruptedException {
+        // 8 buckets by 1ms - single revolution is 8ms
+        var timer = TimerWheel.timerWheel(timeSpan(1).millis(), 8).unwrap();
+        var latch = new CountDownLatch(1);
+        var start = System.nanoTime();
+
+        timer.schedule(timeSpan(50).millis(), latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= timeSpan(50).millis().nanos());
+
+        timer.stop();
+    }
+
+    @Test
+    void longDelaysExpireInDeadlineOrderAndCanBeCancelled() throws InterruptedException {
+        // 4 buckets by 1ms - all tasks below start in the overflow queue
+        var timer = TimerWheel.timerWheel(timeSpan(1).millis(), 4).unwrap();
+        var order = new ArrayList<Integer>();
+        var latch = new CountDownLatch(4);
+
+        for (var delay : new int[]{90, 30, 70, 50, 10, 80}) {
+            var task = timer.schedule(timeSpan(delay).millis(), () -> {
+                synchronized (order) {
+                    order.add(delay);
+                }
+                latch.countDown();
+            });
+            if (delay == 50 || delay == 80) {
+                assertTrue(task.cancel());
+            }
+        }
+        assertEquals(4, timer.pending());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        synchronized (order) {
+            assertEquals(List.of(10, 30, 70, 90), order);
+        }
+        assertEquals(0, timer.pending());
+
+        timer.stop();
+    }
+
+    @Test
+    void manyTasksAreExecutedOnce() throws InterruptedException {
+        var timer = TimerWheel.timerWheel(timeSpan(1).millis(), 32).unwrap();
+        var count = 10_000;
+        var counter = new AtomicInteger();
+        var tasks = new ArrayList<TimerWheel.TimerTask>();
+
+        for (int i = 0; i < count; i++) {
+            tasks.add(timer.schedule(timeSpan(i % 100).millis(), counter::incrementAndGet));
+        }
+        // Cancel every other task, some of them might be already expired
+        var cancelled = 0;
+        for (int i = 0; i < count; i += 2) {
+            if (tasks.get(i).cancel()) {
+                cancelled++;
+            }
+        }
+        var expected = count - cancelled;
+        var deadline = System.nanoTime() + timeSpan(10).seconds().nanos();
+
+        while (counter.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+
+        assertEquals(expected, counter.get());
+        assertEquals(0, timer.pending());
+
+        timer.stop();
+    }
+
+    @Test
+    void timerResumesAfterBeingIdle() throws InterruptedException {
+        var timer = TimerWheel.timerWheel(timeSpan(1).millis(), 16).unwrap();
+        var first = new CountDownLatch(1);
+        var second = new CountDownLatch(1);
+
+        timer.schedule(timeSpan(5).millis(), first::countDown);
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(100);
+
+        var start = System.nanoTime();
+        timer.schedule(timeSpan(10).millis(), second::countDown);
+
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= timeSpan(10).millis().nanos());
+
+        timer.stop();
+    }
+
+    @Test
+    void sharedInstanceIgnoresStop() throws InterruptedException {
+        var latch = new CountDownLatch(1);
+
+        TimerWheel.shared().stop();
+        TimerWheel.shared().schedule(timeSpan(1).millis(), latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        TimerWheel.timerWheel(timeSpan(0).millis(), 16)
+                  .onSuccessRun(Assertions::fail)
+                  .onFailure(cause -> assertEquals(TimerWheel.INVALID_TICK_DURATION, cause));
+        TimerWheel.timerWheel(timeSpan(1).millis(), 0)
+                  .onSuccessRun(Assertions::fail)
+                  .onFailure(cause -> assertEquals(TimerWheel.INVALID_WHEEL_SIZE, cause));
+    }
+
+    @Test
+    void promiseTimeoutIsCancelledWhenPromiseIsResolvedFirst() {
+        var executed = new AtomicBoolean(false);
+        var promise = Promise.<Integer>promise()
+                             .async(timeSpan(200).millis(), _ -> executed.set(true));
+
+        promise.succeed(1);
+
+        promise.await()
+               .onFailureRun(Assertions::fail)
+               .onSuccess(value -> assertEquals(1, value));
+
+        Promise.<Unit>promise(timeSpan(300).millis(), p -> p.succeed(Unit.unit()))
+               .await();
+
+        assertFalse(executed.get());
+    }
+
+    @Test
+    void promiseTimeoutFailsUnresolvedPromise() {
+        Promise.<Integer>promise()
+               .timeout(timeSpan(10).millis())
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertInstanceOf(CoreError.Timeout.class, cause));
+    }
+}
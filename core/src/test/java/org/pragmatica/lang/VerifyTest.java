@@ -6,6 +6,7 @@
 import org.pragmatica.lang.Functions.Fn1;
 import org.pragmatica.lang.utils.Causes;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -460,6 +461,27 @@ void combineShouldMergeMultipleValidationFunctions() {
                          .onFailure(cause -> assertEquals("Value length is invalid", cause.message()));
         }
 
+        @Test
+        @DisplayName("combineAll should report failures of all validation functions")
+        void combineAllShouldReportFailuresOfAllValidationFunctions() {
+            Fn1<Result<String>, String> notBlankCheck = value -> Verify.ensure(value, Verify.Is::notBlank, Causes.cause("Value is blank"));
+            Fn1<Result<String>, String> lengthCheck = value -> Verify.ensure(value, Verify.Is::lenBetween, 3, 10,
+                                              Causes.cause("Value length is invalid"));
+
+            var combinedCheck = Verify.combineAll(notBlankCheck, lengthCheck);
+
+            combinedCheck.apply("hello")
+                         .onSuccess(v -> assertEquals("hello", v))
+                         .onFailureRun(() -> fail("Should succeed"));
+
+            combinedCheck.apply("  ")
+                         .onSuccessRun(() -> fail("Should fail"))
+                         .onFailure(cause -> assertEquals(List.of("Value is blank", "Value length is invalid"),
+                                                          cause.stream()
+                                                               .map(Cause::message)
+                                                               .toList()));
+        }
+
         @Test
         @DisplayName("ensure with binary predicate and custom cause provider should work")
         void ensureWithBinaryPredicateAndCustomCauseProviderShouldWork() {
@@ -18,9 +18,15 @@
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.parse.ParseError.InvalidInput;
+import org.pragmatica.lang.parse.ParseError.OutOfRange;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -357,4 +363,85 @@ void testOffsetTimeWithFormatter() {
                 .onFailureRun(Assertions::fail)
                 .onSuccess(value -> assertEquals(expected, value));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMalformedInputIsReportedWithPosition() {
+        DateTime.parseLocalDate("2023-1x-25")
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertEquals(new InvalidInput("LocalDate", "2023-1x-25", 6), cause));
+
+        DateTime.parseInstant("2023-12-25T14:30Z")
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertEquals(new InvalidInput("Instant", "2023-12-25T14:30Z", 16), cause));
+    }
+
+    @Test
+    void testInvalidFieldValueIsReportedAsOutOfRange() {
+        DateTime.parseLocalDate("2023-02-29")
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertEquals(new OutOfRange("LocalDate", "2023-02-29"), cause));
+
+        DateTime.parseLocalTime("24:00")
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(OutOfRange.class, cause));
+    }
+
+    @Test
+    void testRareFormsAreParsed() {
+        DateTime.parseLocalDate("+12024-01-01")
+                .onFailureRun(Assertions::fail)
+                .onSuccess(value -> assertEquals(LocalDate.of(12024, 1, 1), value));
+
+        DateTime.parseInstant("2024-01-01T23:59:60Z")
+                .onFailureRun(Assertions::fail)
+                .onSuccess(value -> assertEquals(Instant.parse("2024-01-01T23:59:59Z"), value));
+
+        DateTime.parseOffsetDateTime("2024-01-01T10:15:30+01")
+                .onFailureRun(Assertions::fail)
+                .onSuccess(value -> assertEquals(ZoneOffset.ofHours(1), value.getOffset()));
+
+        DateTime.parseDuration("-P1DT-2H3.5s")
+                .onFailureRun(Assertions::fail)
+                .onSuccess(value -> assertEquals(Duration.parse("-P1DT-2H3.5S"), value));
+    }
+
+    @Test
+    void testParsersMatchJdkOnMutatedInput() {
+        var random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            assertMatchesJdk(DateTime::parseLocalDate, LocalDate::parse, mutate(random, "2024-02-29"));
+            assertMatchesJdk(DateTime::parseLocalTime, LocalTime::parse, mutate(random, "23:59:59.123456789"));
+            assertMatchesJdk(DateTime::parseLocalDateTime, LocalDateTime::parse, mutate(random, "2023-12-31T10:15:30.5"));
+            assertMatchesJdk(DateTime::parseOffsetDateTime, OffsetDateTime::parse, mutate(random, "2023-12-31T10:15+18:00"));
+            assertMatchesJdk(DateTime::parseInstant, Instant::parse, mutate(random, "2023-12-31T10:15:30.25-01:30"));
+            assertMatchesJdk(DateTime::parseDuration, Duration::parse, mutate(random, "-P12DT-3H4M5.6789S"));
+        }
+    }
+
+    private static final List<Character> ALPHABET = "0123456789+-:.,TtZzPpDdHhMmSs ".chars()
+                                                                                 .mapToObj(ch -> (char) ch)
+                                                                                 .toList();
+
+    private static String mutate(Random random, String seed) {
+        var text = new StringBuilder(seed);
+
+        for (int i = random.nextInt(3); i >= 0 && !text.isEmpty(); i--) {
+            var position = random.nextInt(text.length());
+            var replacement = ALPHABET.get(random.nextInt(ALPHABET.size()));
+
+            switch (random.nextInt(3)) {
+                case 0 -> text.deleteCharAt(position);
+                case 1 -> text.insert(position, replacement);
+                default -> text.setCharAt(position, replacement);
+            }
+        }
+        return text.toString();
+    }
+
+    private static <T> void assertMatchesJdk(Function<String, Result<T>> parser, Function<String, T> jdk, String input) {
+        Result.lift1(jdk::apply, input)
+              .onSuccess(expected -> assertEquals(Result.success(expected), parser.apply(input), input))
+              .onFailure(_ -> assertTrue(parser.apply(input).isFailure(), input));
+    }
+}
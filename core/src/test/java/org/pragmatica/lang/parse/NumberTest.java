@@ -18,9 +18,16 @@
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.Result;
+import org.pragmatica.lang.parse.ParseError.InvalidInput;
+import org.pragmatica.lang.parse.ParseError.InvalidRadix;
+import org.pragmatica.lang.parse.ParseError.OutOfRange;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -344,4 +351,78 @@ void testParseRadixFailure() {
                      .onSuccessRun(Assertions::fail)
                      .onFailure(cause -> assertNotNull(cause.message()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFailuresAreDescribedPrecisely() {
+        assertEquals(Result.failure(new InvalidInput("Integer", "12a4", 2)), Number.parseInt("12a4"));
+        assertEquals(Result.failure(new OutOfRange("Integer", "2147483648")), Number.parseInt("2147483648"));
+        assertEquals(Result.failure(new OutOfRange("Byte", "-129")), Number.parseByte("-129"));
+        assertEquals(Result.failure(new InvalidRadix(37)), Number.parseLong("1", 37));
+        assertEquals(Result.failure(new InvalidInput("Double", "1.5e", 4)), Number.parseDouble("1.5e"));
+        assertEquals(Result.failure(new OutOfRange("BigDecimal", "1e9999999999")), Number.parseBigDecimal("1e9999999999"));
+    }
+
+    @Test
+    void testJdkFloatingPointSyntaxIsAccepted() {
+        assertEquals(Result.success(1.5), Number.parseDouble("  +1.5d\t"));
+        assertEquals(Result.success(3.0), Number.parseDouble("0x1.8p1"));
+        assertEquals(Result.success(-0.0), Number.parseDouble("-0"));
+        assertEquals(Result.success(0.5f), Number.parseFloat(".5F"));
+        assertEquals(Result.success(Double.NEGATIVE_INFINITY), Number.parseDouble("-1e400"));
+    }
+
+    @Test
+    void testFastPathIsCorrectlyRounded() {
+        var random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            var text = random.nextLong(1_000_000_000_000_000L) + "e" + (random.nextInt(45) - 22);
+            var shortText = random.nextInt(10_000_000) + "e" + (random.nextInt(21) - 10);
+
+            assertEquals(Result.success(Double.parseDouble(text)), Number.parseDouble(text), text);
+            assertEquals(Result.success(Float.parseFloat(shortText)), Number.parseFloat(shortText), shortText);
+        }
+    }
+
+    @Test
+    void testParsersMatchJdkOnMutatedInput() {
+        var random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            assertMatchesJdk(Number::parseInt, Integer::parseInt, mutate(random, "-2147483648"));
+            assertMatchesJdk(Number::parseLong, Long::parseLong, mutate(random, "+9223372036854775807"));
+            assertMatchesJdk(text -> Number.parseShort(text, 16), text -> Short.parseShort(text, 16), mutate(random, "-7fFf"));
+            assertMatchesJdk(Number::parseDouble, Double::parseDouble, mutate(random, " -12.345e-6d"));
+            assertMatchesJdk(Number::parseDouble, Double::parseDouble, mutate(random, "0x1.fp-3"));
+            assertMatchesJdk(Number::parseFloat, Float::parseFloat, mutate(random, "Infinity"));
+            assertMatchesJdk(Number::parseBigInteger, BigInteger::new, mutate(random, "-123456789012345678901234567890"));
+            assertMatchesJdk(Number::parseBigDecimal, BigDecimal::new, mutate(random, "-1234.5678E+9"));
+        }
+    }
+
+    private static final List<Character> ALPHABET = "0123456789+-.eEpPxXfFdDaN \t".chars()
+                                                                               .mapToObj(ch -> (char) ch)
+                                                                               .toList();
+
+    private static String mutate(Random random, String seed) {
+        var text = new StringBuilder(seed);
+
+        for (int i = random.nextInt(3); i >= 0 && !text.isEmpty(); i--) {
+            var position = random.nextInt(text.length());
+            var replacement = ALPHABET.get(random.nextInt(ALPHABET.size()));
+
+            switch (random.nextInt(3)) {
+                case 0 -> text.deleteCharAt(position);
+                case 1 -> text.insert(position, replacement);
+                default -> text.setCharAt(position, replacement);
+            }
+        }
+        return text.toString();
+    }
+
+    private static <T> void assertMatchesJdk(Function<String, Result<T>> parser, Function<String, T> jdk, String input) {
+        Result.lift1(jdk::apply, input)
+              .onSuccess(expected -> assertEquals(Result.success(expected), parser.apply(input), input))
+              .onFailure(_ -> assertTrue(parser.apply(input).isFailure(), input));
+    }
+}
@@ -0,0 +1,187 @@
+package org.pragmatica.lang.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.pragmatica.lang.Option;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 10, unit = TimeUnit.SECONDS)
+class BoundedCacheTest {
+
+    @Test
+    void boundedCache_rejectsNonPositiveMaxSize() {
+        BoundedCache.boundedCache(0)
+                    .onSuccessRun(Assertions::fail)
+                    .onFailure(cause -> assertEquals(BoundedCache.INVALID_MAX_SIZE, cause));
+    }
+
+    @Test
+    void basicOperationsWork() {
+        var cache = BoundedCache.<String, Integer>boundedCache(10).unwrap();
+
+        assertEquals(Option.none(), cache.get("a"));
+        cache.put("a", 1);
+        assertEquals(Option.some(1), cache.get("a"));
+        cache.put("a", 2);
+        assertEquals(Option.some(2), cache.get("a"));
+
+        assertEquals(Option.some(2), cache.putIfAbsent("a", 3));
+        assertEquals(Option.none(), cache.putIfAbsent("b", 3));
+        assertEquals(3, cache.computeIfAbsent("b", _ -> 4));
+        assertEquals(5, cache.computeIfAbsent("c", _ -> 5));
+        assertEquals(3, cache.size());
+
+        assertFalse(cache.remove("a", 1));
+        assertTrue(cache.remove("a", 2));
+        cache.remove("b");
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(Option.none(), cache.get("c"));
+    }
+
+    @Test
+    void sizeIsBounded() {
+        var cache = BoundedCache.<Integer, Integer>boundedCache(100).unwrap();
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 100);
+        }
+    }
+
+    @Test
+    void totalWeightIsBounded() {
+        var cache = BoundedCache.<Integer, String>boundedCache(1000, (_, value) -> value.length()).unwrap();
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "x".repeat(i % 100));
+            assertTrue(cache.weightedSize() <= 1000);
+        }
+
+        // Entry heavier than the whole capacity is not retained
+        cache.put(-1, "x".repeat(2000));
+        assertEquals(Option.none(), cache.get(-1));
+    }
+
+    @Test
+    void replaceRecomputesWeight() {
+        var cache = BoundedCache.<String, StringBuilder>boundedCache(100, (_, value) -> value.length()).unwrap();
+        var value = new StringBuilder("abc");
+
+        cache.put("a", value);
+        assertEquals(3, cache.weightedSize());
+
+        value.append("defgh");
+        assertTrue(cache.replace("a", value, value));
+        assertEquals(8, cache.weightedSize());
+        assertFalse(cache.replace("a", new StringBuilder(), value));
+    }
+
+    @Test
+    void singleEntryCacheKeepsLatestEntry() {
+        var cache = BoundedCache.<Integer, Integer>boundedCache(1).unwrap();
+
+        cache.put(1, 1);
+        cache.put(2, 2);
+
+        assertEquals(1, cache.size());
+        assertEquals(Option.some(2), cache.get(2));
+    }
+
+    @Test
+    void frequentlyUsedEntriesSurviveScan() {
+        var cache = BoundedCache.<Integer, Integer>boundedCache(100).unwrap();
+
+        for (int round = 0; round < 20; round++) {
+            for (int key = 0; key < 50; key++) {
+                cache.computeIfAbsent(key, k -> k);
+            }
+        }
+        // One-time scan over many keys flushes all entries in case of LRU
+        for (int key = 1000; key < 11_000; key++) {
+            cache.computeIfAbsent(key, k -> k);
+        }
+
+        var retained = 0;
+        for (int key = 0; key < 50; key++) {
+            if (cache.get(key)
+                     .isPresent()) {
+                retained++;
+            }
+        }
+        assertTrue(retained >= 45, "Retained only " + retained + " of 50 hot entries");
+    }
+
+    @Test
+    void computeIfAbsentInvokesComputationOnceUnderConcurrentAccess() throws InterruptedException {
+        var cache = BoundedCache.<Integer, Integer>boundedCache(64).unwrap();
+        var computations = new AtomicInteger();
+        var threadCount = 32;
+        var latch = new CountDownLatch(threadCount);
+
+        try (var executor = Executors.newFixedThreadPool(threadCount)) {
+            for (int i = 0; i < threadCount; i++) {
+                executor.submit(() -> {
+                    try {
+                        for (int key = 0; key < 1000; key++) {
+                            var value = cache.computeIfAbsent(key % 32,
+                                                              k -> {
+                                                                  computations.incrementAndGet();
+                                                                  return k * 2;
+                                                              });
+                            assertEquals((key % 32) * 2, value);
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+        }
+
+        assertEquals(32, computations.get());
+        assertEquals(32, cache.size());
+    }
+
+    @Test
+    void concurrentWritesAreAppliedToPolicy() throws InterruptedException {
+        var cache = BoundedCache.<Integer, Integer>boundedCache(100).unwrap();
+        var threads = 8;
+        var latch = new CountDownLatch(threads);
+
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                var seed = t;
+                executor.execute(() -> {
+                    try {
+                        for (int i = 0; i < 20_000; i++) {
+                            var key = (seed * 31 + i * 7) % 500;
+                            switch (i % 4) {
+                                case 0, 1 -> cache.put(key, i);
+                                case 2 -> cache.putIfAbsent(key, i);
+                                default -> cache.remove(key);
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+        }
+
+        // All buffered writes are applied: every stored entry is known to the policy and the bound holds
+        var weightedSize = cache.weightedSize();
+        assertEquals(cache.size(), weightedSize);
+        assertTrue(weightedSize <= 100);
+    }
+}
@@ -0,0 +1,152 @@
+package org.pragmatica.lang.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.utils.Bulkhead.BulkheadError.BulkheadFull;
+import org.pragmatica.lang.utils.Bulkhead.BulkheadError.InvalidParameter;
+import org.pragmatica.lang.utils.Bulkhead.BulkheadError.QueueTimeout;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+class BulkheadTest {
+    @Test
+    void shouldLimitConcurrentOperationsPerKey() {
+        var bulkhead = Bulkhead.<String>builder(2)
+                               .build()
+                               .unwrap();
+
+        bulkhead.execute("tenant-1", Promise::<String>promise);
+        bulkhead.execute("tenant-1", Promise::<String>promise);
+
+        bulkhead.execute("tenant-1", () -> Promise.success("Rejected"))
+                .await()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(BulkheadFull.class, cause));
+
+        // Other partitions are not affected
+        bulkhead.execute("tenant-2", () -> Promise.success("Accepted"))
+                .await()
+                .onFailureRun(Assertions::fail)
+                .onSuccess(value -> assertEquals("Accepted", value));
+
+        assertEquals(2, bulkhead.inFlight("tenant-1"));
+        assertEquals(0, bulkhead.inFlight("tenant-2"));
+        assertEquals(1, bulkhead.stats().rejected());
+    }
+
+    @Test
+    void shouldRemoveIdlePartitions() {
+        var bulkhead = Bulkhead.<Integer>builder(1)
+                               .build()
+                               .unwrap();
+        var pending = Promise.<String>promise();
+
+        bulkhead.execute(1, () -> pending);
+        IntStream.range(2, 1000)
+                 .forEach(key -> bulkhead.execute(key, () -> Promise.success("OK")).await());
+
+        assertEquals(1, bulkhead.activePartitions());
+
+        pending.succeed("Done");
+        pending.await();
+
+        assertEquals(0, bulkhead.activePartitions());
+    }
+
+    @Test
+    void shouldStartQueuedOperationsInOrder() {
+        var bulkhead = Bulkhead.<String>builder(1)
+                               .queue(10, timeSpan(1).seconds())
+                               .build()
+                               .unwrap();
+        var first = Promise.<String>promise();
+        var order = new AtomicInteger();
+
+        bulkhead.execute("key", () -> first);
+        var second = bulkhead.execute("key", () -> Promise.success(order.incrementAndGet()));
+        var third = bulkhead.execute("key", () -> Promise.success(order.incrementAndGet()));
+
+        assertEquals(2, bulkhead.queued("key"));
+
+        first.succeed("First");
+
+        second.await(timeSpan(1).seconds())
+              .onFailureRun(Assertions::fail)
+              .onSuccess(value -> assertEquals(1, value));
+        third.await(timeSpan(1).seconds())
+             .onFailureRun(Assertions::fail)
+             .onSuccess(value -> assertEquals(2, value));
+
+        assertEquals(2, bulkhead.stats().dequeued());
+        assertEquals(0, bulkhead.activePartitions());
+    }
+
+    @Test
+    void shouldRemoveCancelledQueuedOperation() {
+        var bulkhead = Bulkhead.<String>builder(1)
+                               .queue(10, timeSpan(1).seconds())
+                               .build()
+                               .unwrap();
+        var first = Promise.<String>promise();
+
+        bulkhead.execute("key", () -> first);
+        bulkhead.execute("key", () -> Promise.success("Cancelled"))
+                .cancel();
+
+        assertEquals(0, bulkhead.queued("key"));
+
+        first.succeed("First");
+        first.await();
+
+        assertEquals(0, bulkhead.inFlight("key"));
+        assertEquals(0, bulkhead.activePartitions());
+        bulkhead.execute("key", () -> Promise.success("Next"))
+                .await(timeSpan(1).seconds())
+                .onFailureRun(Assertions::fail)
+                .onSuccess(value -> assertEquals("Next", value));
+    }
+
+    @Test
+    void shouldFailQueuedOperationAfterDeadline() {
+        var bulkhead = Bulkhead.<String>builder(1)
+                               .queue(1, timeSpan(20).millis())
+                               .build()
+                               .unwrap();
+        var pending = Promise.<String>promise();
+
+        bulkhead.execute("key", () -> pending);
+        var queued = bulkhead.execute("key", () -> Promise.success("Queued"));
+
+        bulkhead.execute("key", () -> Promise.success("Rejected"))
+                .await()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(BulkheadFull.class, cause));
+
+        queued.await(timeSpan(1).seconds())
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertInstanceOf(QueueTimeout.class, cause));
+
+        assertEquals(0, bulkhead.queued("key"));
+        assertEquals(new Bulkhead.Stats(1, 1, 0, timeSpan(0).nanos()), bulkhead.stats());
+
+        pending.succeed("Done");
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        Bulkhead.builder(0)
+                .build()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+        Bulkhead.builder(1)
+                .queue(-1, timeSpan(1).seconds())
+                .build()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+    }
+}
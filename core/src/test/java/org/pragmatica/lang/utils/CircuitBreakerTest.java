@@ -8,6 +8,7 @@
 import org.pragmatica.lang.Promise;
 import org.pragmatica.lang.io.TimeSpan;
 import org.pragmatica.lang.utils.CircuitBreaker.CircuitBreakerErrors.CircuitBreakerOpenError;
+import org.pragmatica.lang.utils.CircuitBreaker.CircuitBreakerErrors.InvalidConfiguration;
 import org.pragmatica.lang.utils.CircuitBreaker.State;
 
 import java.util.concurrent.TimeUnit;
@@ -16,6 +17,7 @@
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+import static org.pragmatica.lang.utils.CircuitBreaker.slidingWindow;
 
 class CircuitBreakerTest {
     private static final Cause TEST_ERROR = () -> "Test error";
@@ -268,4 +270,219 @@ void shouldCountOnlyConfiguredFailures() {
 
         assertEquals(State.OPEN, circuitBreaker.state());
     }
-}
\ No newline at end of file
+
+    @Test
+    void halfOpenShouldLimitConcurrentTestCalls() {
+        circuitBreaker.execute(TEST_ERROR::promise).await();
+        circuitBreaker.execute(TEST_ERROR::promise).await();
+        circuitBreaker.execute(TEST_ERROR::promise).await();
+
+        timeSource.advanceTime(150);
+
+        var first = Promise.<String>promise();
+        var second = Promise.<String>promise();
+        var callCount = new AtomicInteger(0);
+
+        circuitBreaker.execute(() -> first);
+        circuitBreaker.execute(() -> second);
+        circuitBreaker.execute(() -> {
+                          callCount.incrementAndGet();
+                          return Promise.success("Should not execute");
+                      })
+                      .await()
+                      .onSuccessRun(Assertions::fail)
+                      .onFailure(cause -> assertInstanceOf(CircuitBreakerOpenError.class, cause));
+
+        assertEquals(0, callCount.get());
+
+        first.succeed("First test");
+        second.succeed("Second test");
+
+        // State is updated by asynchronous handlers of test calls
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (circuitBreaker.state() != State.CLOSED && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void halfOpenPermitsShouldNotBeReleasedByCallsFromPreviousPeriod() {
+        circuitBreaker.execute(TEST_ERROR::promise).await();
+        circuitBreaker.execute(TEST_ERROR::promise).await();
+        circuitBreaker.execute(TEST_ERROR::promise).await();
+
+        timeSource.advanceTime(150);
+
+        // Test call of the first half-open period outlives it
+        var late = Promise.<String>promise();
+        circuitBreaker.execute(() -> late);
+        circuitBreaker.execute(TEST_ERROR::promise).await();
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (circuitBreaker.state() != State.OPEN && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(State.OPEN, circuitBreaker.state());
+
+        timeSource.advanceTime(150);
+
+        circuitBreaker.execute(Promise::<String>promise);
+        circuitBreaker.execute(Promise::<String>promise);
+        late.succeed("Late test");
+
+        var callCount = new AtomicInteger(0);
+        circuitBreaker.execute(() -> {
+                          callCount.incrementAndGet();
+                          return Promise.success("Should not execute");
+                      })
+                      .await()
+                      .onSuccessRun(Assertions::fail)
+                      .onFailure(cause -> assertInstanceOf(CircuitBreakerOpenError.class, cause));
+
+        assertEquals(0, callCount.get());
+    }
+
+    @Test
+    void slidingWindowShouldOpenOnFailureRate() {
+        var breaker = slidingWindow().countBased(10)
+                                     .failureRateThreshold(0.3)
+                                     .minimumCalls(10)
+                                     .timeSource(timeSource)
+                                     .fold(_ -> null, v -> v);
+
+        // 30% of calls fail, but failures are never consecutive
+        for (int i = 0; i < 10; i++) {
+            var fail = i > 0 && i % 3 == 0;
+            breaker.execute(() -> fail ? TEST_ERROR.<String>promise() : Promise.success("OK")).await();
+        }
+
+        assertEquals(State.OPEN, breaker.state());
+        assertEquals(new CircuitBreaker.WindowStats(10, 3, 0), breaker.stats());
+        assertEquals(0.3, breaker.stats().failureRate(), 1e-9);
+    }
+
+    @Test
+    void slidingWindowShouldNotOpenBelowMinimumCalls() {
+        var breaker = slidingWindow().countBased(10)
+                                     .minimumCalls(5)
+                                     .timeSource(timeSource)
+                                     .fold(_ -> null, v -> v);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(TEST_ERROR::promise).await();
+        }
+
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(4, breaker.failureCount());
+
+        breaker.execute(TEST_ERROR::promise).await();
+
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void slidingWindowShouldForgetOldestCalls() {
+        var breaker = slidingWindow().countBased(4)
+                                     .minimumCalls(4)
+                                     .failureRateThreshold(0.75)
+                                     .shouldTrip(cause -> cause == TEST_ERROR)
+                                     .timeSource(timeSource)
+                                     .fold(_ -> null, v -> v);
+
+        breaker.execute(TEST_ERROR::promise).await();
+        breaker.execute(TEST_ERROR::promise).await();
+        breaker.execute(IGNORED_ERROR::promise).await();
+        breaker.execute(() -> Promise.success("OK")).await();
+        breaker.execute(() -> Promise.success("OK")).await();
+        breaker.execute(() -> Promise.success("OK")).await();
+
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(new CircuitBreaker.WindowStats(4, 0, 0), breaker.stats());
+    }
+
+    @Test
+    void slidingWindowShouldOpenOnSlowCallRate() {
+        var breaker = slidingWindow().countBased(4)
+                                     .minimumCalls(4)
+                                     .slowCallDuration(timeSpan(100).millis())
+                                     .slowCallRateThreshold(0.5)
+                                     .timeSource(timeSource)
+                                     .fold(_ -> null, v -> v);
+
+        breaker.execute(() -> Promise.success("Fast")).await();
+        breaker.execute(() -> Promise.success("Fast")).await();
+        breaker.execute(() -> {
+            timeSource.advanceTime(150);
+            return Promise.success("Slow");
+        }).await();
+
+        assertEquals(State.CLOSED, breaker.state());
+
+        breaker.execute(() -> {
+            timeSource.advanceTime(150);
+            return Promise.success("Slow");
+        }).await();
+
+        assertEquals(State.OPEN, breaker.state());
+        assertEquals(new CircuitBreaker.WindowStats(4, 0, 2), breaker.stats());
+    }
+
+    @Test
+    void timeBasedWindowShouldExpireOldCalls() {
+        var breaker = slidingWindow().timeBased(timeSpan(1).seconds())
+                                     .minimumCalls(3)
+                                     .timeSource(timeSource)
+                                     .fold(_ -> null, v -> v);
+
+        breaker.execute(TEST_ERROR::promise).await();
+        breaker.execute(TEST_ERROR::promise).await();
+
+        assertEquals(2, breaker.stats().failedCalls());
+
+        timeSource.advanceTime(1100);
+
+        assertEquals(0, breaker.stats().calls());
+
+        breaker.execute(TEST_ERROR::promise).await();
+
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(new CircuitBreaker.WindowStats(1, 1, 0), breaker.stats());
+    }
+
+    @Test
+    void slidingWindowShouldCloseAfterSuccessfulTestsWithFreshWindow() {
+        var breaker = slidingWindow().countBased(2)
+                                     .minimumCalls(2)
+                                     .resetTimeout(timeSpan(100).millis())
+                                     .halfOpenCalls(1)
+                                     .timeSource(timeSource)
+                                     .fold(_ -> null, v -> v);
+
+        breaker.execute(TEST_ERROR::promise).await();
+        breaker.execute(TEST_ERROR::promise).await();
+
+        assertEquals(State.OPEN, breaker.state());
+
+        timeSource.advanceTime(150);
+
+        breaker.execute(() -> Promise.success("Test")).await();
+
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(0, breaker.stats().calls());
+    }
+
+    @Test
+    void slidingWindowShouldRejectInvalidConfiguration() {
+        slidingWindow().failureRateThreshold(1.5)
+                       .withDefaultTimeSource()
+                       .onSuccessRun(Assertions::fail)
+                       .onFailure(cause -> assertInstanceOf(InvalidConfiguration.class, cause));
+
+        slidingWindow().countBased(0)
+                       .withDefaultTimeSource()
+                       .onSuccessRun(Assertions::fail)
+                       .onFailure(cause -> assertInstanceOf(InvalidConfiguration.class, cause));
+    }
+}
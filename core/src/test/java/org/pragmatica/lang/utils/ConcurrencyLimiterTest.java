@@ -0,0 +1,216 @@
+package org.pragmatica.lang.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.io.TimeSpan;
+import org.pragmatica.lang.utils.ConcurrencyLimiter.Algorithm;
+import org.pragmatica.lang.utils.ConcurrencyLimiter.ConcurrencyLimiterError.InvalidParameter;
+import org.pragmatica.lang.utils.ConcurrencyLimiter.ConcurrencyLimiterError.LimitExceeded;
+import org.pragmatica.lang.utils.ConcurrencyLimiter.ConcurrencyLimiterError.QueueTimeout;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+import static org.pragmatica.lang.utils.Causes.cause;
+
+class ConcurrencyLimiterTest {
+    private static class TestTimeSource implements TimeSource {
+        private TimeSpan currentTime = timeSpan(0).nanos();
+
+        @Override
+        public long nanoTime() {
+            return currentTime.nanos();
+        }
+
+        public void advanceTime(long millis) {
+            currentTime = currentTime.plus(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void shouldRejectOperationsAboveLimit() {
+        var limiter = ConcurrencyLimiter.builder()
+                                        .algorithm(Algorithm.AIMD)
+                                        .limits(2, 1, 10)
+                                        .build()
+                                        .unwrap();
+        var first = Promise.<String>promise();
+        var second = Promise.<String>promise();
+
+        limiter.execute(() -> first);
+        limiter.execute(() -> second);
+
+        limiter.execute(() -> Promise.success("Should not execute"))
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertInstanceOf(LimitExceeded.class, cause));
+
+        assertEquals(2, limiter.inFlight());
+        assertEquals(1, limiter.rejected());
+
+        first.succeed("First");
+        second.succeed("Second");
+        second.await();
+
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void shouldStartQueuedOperationOncePermitIsReleased() {
+        var limiter = ConcurrencyLimiter.builder()
+                                        .limits(1, 1, 1)
+                                        .queue(10, timeSpan(1).seconds())
+                                        .build()
+                                        .unwrap();
+        var first = Promise.<String>promise();
+
+        limiter.execute(() -> first);
+        var second = limiter.execute(() -> Promise.success("Second"));
+
+        assertEquals(1, limiter.queued());
+        assertFalse(second.isResolved());
+
+        first.succeed("First");
+
+        second.await(timeSpan(1).seconds())
+              .onFailureRun(Assertions::fail)
+              .onSuccess(value -> assertEquals("Second", value));
+        assertEquals(0, limiter.queued());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void shouldNotLosePermitWhenQueuedOperationIsCancelled() {
+        var limiter = ConcurrencyLimiter.builder()
+                                        .limits(1, 1, 1)
+                                        .queue(10, timeSpan(1).seconds())
+                                        .build()
+                                        .unwrap();
+        var first = Promise.<String>promise();
+
+        limiter.execute(() -> first);
+        limiter.execute(() -> Promise.success("Cancelled"))
+               .cancel();
+
+        assertEquals(0, limiter.queued());
+
+        first.succeed("First");
+        first.await();
+
+        assertEquals(0, limiter.inFlight());
+        limiter.execute(() -> Promise.success("Third"))
+               .await(timeSpan(1).seconds())
+               .onFailureRun(Assertions::fail)
+               .onSuccess(value -> assertEquals("Third", value));
+    }
+
+    @Test
+    void shouldFailQueuedOperationAfterDeadlineAndRejectWhenQueueIsFull() {
+        var limiter = ConcurrencyLimiter.builder()
+                                        .limits(1, 1, 1)
+                                        .queue(1, timeSpan(20).millis())
+                                        .build()
+                                        .unwrap();
+
+        limiter.execute(Promise::<String>promise);
+        var queued = limiter.execute(() -> Promise.success("Queued"));
+
+        limiter.execute(() -> Promise.success("Rejected"))
+               .await()
+               .onSuccessRun(Assertions::fail)
+               .onFailure(cause -> assertInstanceOf(LimitExceeded.class, cause));
+
+        queued.await(timeSpan(1).seconds())
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertInstanceOf(QueueTimeout.class, cause));
+
+        assertEquals(0, limiter.queued());
+        assertEquals(2, limiter.rejected());
+    }
+
+    @Test
+    void aimdShouldIncreaseLimitWhenUsedAndDecreaseOnFailure() {
+        var limiter = ConcurrencyLimiter.builder()
+                                        .algorithm(Algorithm.AIMD)
+                                        .limits(10, 1, 100)
+                                        .build()
+                                        .unwrap();
+        var pending = IntStream.range(0, 10)
+                               .mapToObj(_ -> Promise.<String>promise())
+                               .toList();
+
+        pending.forEach(promise -> limiter.execute(() -> promise));
+        pending.forEach(promise -> promise.succeed("OK"));
+        Promise.allOf(pending).await();
+
+        var increased = limiter.limit();
+        assertTrue(increased > 10, "Limit should grow, but was " + increased);
+
+        limiter.execute(() -> cause("Overload").<String>promise())
+               .await();
+
+        assertTrue(limiter.limit() < increased, "Limit should decrease after failure");
+    }
+
+    @Test
+    void gradientShouldDecreaseLimitWhenLatencyGrows() {
+        assertLimitDecreasesWhenLatencyGrows(Algorithm.GRADIENT);
+    }
+
+    @Test
+    void vegasShouldDecreaseLimitWhenLatencyGrows() {
+        assertLimitDecreasesWhenLatencyGrows(Algorithm.VEGAS);
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        ConcurrencyLimiter.builder()
+                          .limits(0, 0, 10)
+                          .build()
+                          .onSuccessRun(Assertions::fail)
+                          .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+        ConcurrencyLimiter.builder()
+                          .limits(20, 1, 10)
+                          .build()
+                          .onSuccessRun(Assertions::fail)
+                          .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+        ConcurrencyLimiter.builder()
+                          .queue(10, timeSpan(0).millis())
+                          .build()
+                          .onSuccessRun(Assertions::fail)
+                          .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+    }
+
+    private static void assertLimitDecreasesWhenLatencyGrows(Algorithm algorithm) {
+        var timeSource = new TestTimeSource();
+        var limiter = ConcurrencyLimiter.builder()
+                                        .algorithm(algorithm)
+                                        .limits(50, 1, 100)
+                                        .timeSource(timeSource)
+                                        .build()
+                                        .unwrap();
+
+        for (int i = 0; i < 20; i++) {
+            executeWithLatency(limiter, timeSource, 1);
+        }
+
+        assertEquals(50, limiter.limit(), "Limit should not grow while the limiter is not used");
+
+        for (int i = 0; i < 20; i++) {
+            executeWithLatency(limiter, timeSource, 50);
+        }
+
+        assertTrue(limiter.limit() < 50, "Limit should decrease, but was " + limiter.limit());
+    }
+
+    private static void executeWithLatency(ConcurrencyLimiter limiter, TestTimeSource timeSource, long millis) {
+        limiter.execute(() -> {
+                   timeSource.advanceTime(millis);
+                   return Promise.success("OK");
+               })
+               .await();
+    }
+}
@@ -7,6 +7,7 @@
 import org.pragmatica.lang.Promise;
 import org.pragmatica.lang.io.TimeSpan;
 
+import java.lang.ref.WeakReference;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -103,6 +104,22 @@ void shouldReturnCachedResultForSameKey() {
         assertEquals(1, callCount.get(), "Operation should only be called once");
     }
 
+    @Test
+    void shouldNotCancelSharedResultWhenCallerCancels() {
+        var operation = Promise.<String>promise();
+
+        idempotency.execute("key1", () -> operation)
+                   .map(String::length)
+                   .cancel();
+
+        operation.succeed("result1");
+
+        idempotency.execute("key1", () -> Promise.success("result2"))
+                   .await()
+                   .onFailureRun(Assertions::fail)
+                   .onSuccess(value -> assertEquals("result1", value));
+    }
+
     @Test
     void shouldExecuteDifferentOperationsForDifferentKeys() {
         var callCount = new AtomicInteger(0);
@@ -421,7 +438,7 @@ void cleanupScheduler_shouldRemoveExpiredEntries() throws InterruptedException {
         // Advance time past TTL
         cleanupTimeSource.advanceTime(60);
 
-        // Wait for cleanup scheduler to run (cleanup interval is min(TTL/5, 1min) = 10ms)
+        // Wait for expiration timer to run (scheduled at TTL after completion)
         Thread.sleep(100);
 
         // Entry should be cleaned up, so next call executes
@@ -435,4 +452,209 @@ void cleanupScheduler_shouldRemoveExpiredEntries() throws InterruptedException {
 
         assertEquals(2, callCount.get(), "Cleanup should have removed expired entry");
     }
+
+    @Test
+    void expirationTimer_shouldRemoveEntryWithoutFurtherCalls() throws InterruptedException {
+        var expiringTimeSource = new TestTimeSource();
+        var shortTtlIdempotency = Idempotency.create(timeSpan(20).millis(), expiringTimeSource)
+                                              .onFailure(_ -> fail("Setup should not fail"))
+                                              .fold(_ -> null, v -> v);
+
+        shortTtlIdempotency.execute("key1", () -> Promise.success("result"))
+                           .await()
+                           .onFailureRun(Assertions::fail);
+
+        assertEquals(1, shortTtlIdempotency.cachedKeys());
+
+        expiringTimeSource.advanceTime(30);
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (shortTtlIdempotency.cachedKeys() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, shortTtlIdempotency.cachedKeys());
+    }
+
+    @Test
+    void expirationTimer_shouldRemoveEntriesCompletedOutOfOrder() throws InterruptedException {
+        var expiringTimeSource = new TestTimeSource();
+        var shortTtlIdempotency = Idempotency.create(timeSpan(20).millis(), expiringTimeSource)
+                                              .onFailure(_ -> fail("Setup should not fail"))
+                                              .fold(_ -> null, v -> v);
+        var slow = Promise.<String>promise();
+
+        shortTtlIdempotency.execute("slow", () -> slow);
+        expiringTimeSource.advanceTime(5);
+        IntStream.range(0, 10)
+                 .forEach(i -> shortTtlIdempotency.execute("key" + i, () -> Promise.success("result" + i))
+                                                  .await());
+        slow.succeed("slow");
+
+        // Completion of the operation is handled asynchronously
+        var completion = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (shortTtlIdempotency.inFlightKeys() > 0 && System.nanoTime() < completion) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(11, shortTtlIdempotency.cachedKeys());
+
+        expiringTimeSource.advanceTime(30);
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (shortTtlIdempotency.cachedKeys() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, shortTtlIdempotency.cachedKeys());
+    }
+
+    @Test
+    void expirationTimer_shouldNotRetainIdempotencyInstance() throws InterruptedException {
+        var instance = new WeakReference<>(createWithLongTtlEntry());
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (instance.get() != null && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(instance.get(), "Pending expiration should not retain the instance");
+    }
+
+    private static Idempotency createWithLongTtlEntry() {
+        var longTtlIdempotency = Idempotency.create(timeSpan(1).hours())
+                                             .fold(_ -> null, v -> v);
+
+        longTtlIdempotency.execute("key1", () -> Promise.success("result"))
+                          .await();
+        return longTtlIdempotency;
+    }
+
+    @Test
+    void create_fails_forNonPositiveMaxEntries() {
+        Idempotency.create(timeSpan(100).millis(), 0)
+                   .onSuccessRun(Assertions::fail)
+                   .onFailure(cause -> assertInstanceOf(Idempotency.IdempotencyError.InvalidMaxEntries.class, cause));
+    }
+
+    @Test
+    void sizeLimit_shouldEvictOldestCompletedEntries() {
+        var bounded = Idempotency.create(timeSpan(100).millis(), 2, timeSource)
+                                 .onFailure(_ -> fail("Setup should not fail"))
+                                 .fold(_ -> null, v -> v);
+        var callCount = new AtomicInteger(0);
+
+        for (var key : new String[]{"key1", "key2", "key3"}) {
+            bounded.execute(key, () -> Promise.success(callCount.incrementAndGet()))
+                   .await()
+                   .onFailureRun(Assertions::fail);
+        }
+
+        assertEquals(2, bounded.cachedKeys());
+
+        // Most recent entries are retained
+        bounded.execute("key3", () -> Promise.success(callCount.incrementAndGet()))
+               .await()
+               .onSuccess(value -> assertEquals(3, value));
+        // Oldest entry was evicted and operation is executed again
+        bounded.execute("key1", () -> Promise.success(callCount.incrementAndGet()))
+               .await()
+               .onSuccess(value -> assertEquals(4, value));
+
+        assertEquals(4, callCount.get());
+    }
+
+    @Test
+    void sizeLimit_shouldNotEvictInFlightOperations() {
+        var bounded = Idempotency.create(timeSpan(100).millis(), 1, timeSource)
+                                 .onFailure(_ -> fail("Setup should not fail"))
+                                 .fold(_ -> null, v -> v);
+        var pending = Promise.<String>promise();
+        var callCount = new AtomicInteger(0);
+
+        bounded.execute("key1", () -> {
+            callCount.incrementAndGet();
+            return pending;
+        });
+        bounded.execute("key2", () -> Promise.success("result2"))
+               .await();
+
+        assertEquals(1, bounded.inFlightKeys());
+
+        // In-flight operation is still shared
+        var second = bounded.execute("key1", () -> {
+            callCount.incrementAndGet();
+            return Promise.success("other");
+        });
+
+        assertEquals(1, callCount.get());
+
+        pending.succeed("result1");
+
+        second.await()
+              .onFailureRun(Assertions::fail)
+              .onSuccess(value -> assertEquals("result1", value));
+        assertEquals(0, bounded.inFlightKeys());
+    }
+
+    @Test
+    void sizeLimit_shouldCompactEvictedEntriesBehindLiveOne() throws InterruptedException {
+        var expiringTimeSource = new TestTimeSource();
+        var bounded = Idempotency.create(timeSpan(20).millis(), 3, expiringTimeSource)
+                                 .onFailure(_ -> fail("Setup should not fail"))
+                                 .fold(_ -> null, v -> v);
+        var pending = IntStream.range(0, 2)
+                               .mapToObj(_ -> Promise.<String>promise())
+                               .toList();
+
+        IntStream.range(0, 2)
+                 .forEach(i -> bounded.execute("pending" + i, () -> pending.get(i)));
+        // Completed first, so it stays at the head of the expiration queue while older keys are evicted
+        bounded.execute("pinned", () -> Promise.success("pinned"))
+               .await();
+        pending.forEach(promise -> promise.succeed("pending"));
+
+        var completion = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (bounded.inFlightKeys() > 0 && System.nanoTime() < completion) {
+            Thread.sleep(1);
+        }
+
+        IntStream.range(0, 3)
+                 .forEach(i -> bounded.execute("key" + i, () -> Promise.success("result" + i))
+                                      .await());
+
+        assertEquals(3, bounded.cachedKeys());
+        bounded.execute("key2", () -> Promise.success("other"))
+               .await()
+               .onSuccess(value -> assertEquals("result2", value));
+
+        expiringTimeSource.advanceTime(30);
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (bounded.cachedKeys() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, bounded.cachedKeys());
+    }
+
+    @Test
+    void metrics_shouldTrackCachedAndInFlightKeys() {
+        var pending = Promise.<String>promise();
+
+        idempotency.execute("key1", () -> pending);
+        idempotency.execute("key2", () -> Promise.success("result2"))
+                   .await();
+
+        assertEquals(1, idempotency.inFlightKeys());
+        assertEquals(1, idempotency.cachedKeys());
+
+        pending.succeed("result1");
+        idempotency.execute("key1", () -> Promise.success("other"))
+                   .await();
+
+        assertEquals(0, idempotency.inFlightKeys());
+        assertEquals(2, idempotency.cachedKeys());
+    }
 }
@@ -0,0 +1,226 @@
+package org.pragmatica.lang.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.utils.Retry.BackoffStrategy;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+@Timeout(value = 5, unit = TimeUnit.SECONDS)
+class LazyPromiseTest {
+    private static final Cause TEST_ERROR = () -> "Test error";
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void get_concurrentCallersShareSingleInitialization() throws InterruptedException {
+        var source = Promise.<String>promise();
+        var lazy = LazyPromise.lazyPromise(() -> {
+            calls.incrementAndGet();
+            return source;
+        });
+        var start = new CountDownLatch(1);
+        var promises = new AtomicReferenceArray<Promise<String>>(16);
+        var threads = new ArrayList<Thread>();
+
+        for (int i = 0; i < promises.length(); i++) {
+            var index = i;
+            threads.add(Thread.ofVirtual()
+                              .start(() -> {
+                                  awaitLatch(start);
+                                  promises.set(index, lazy.get());
+                              }));
+        }
+        start.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, calls.get());
+        assertFalse(lazy.isComputed());
+        for (int i = 1; i < promises.length(); i++) {
+            assertSame(promises.get(0), promises.get(i));
+        }
+
+        source.succeed("value");
+
+        assertEquals("value", promises.get(0).await().unwrap());
+        assertTrue(lazy.isComputed());
+        assertSame(promises.get(0), lazy.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_retriesImmediatelyAfterFailureWithoutBackoff() {
+        var lazy = LazyPromise.lazyPromise(() -> calls.incrementAndGet() == 1
+                                                 ? TEST_ERROR.<Integer>promise()
+                                                 : Promise.success(calls.get()));
+
+        lazy.get()
+            .await()
+            .onSuccessRun(Assertions::fail);
+
+        assertEquals(2, lazy.get().await().unwrap());
+        assertEquals(2, lazy.get().await().unwrap());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void get_servesFailureUntilBackoffDelayExpires() {
+        var lazy = withBackoff(() -> {
+            calls.incrementAndGet();
+            return TEST_ERROR.promise();
+        });
+
+        assertEquals(TEST_ERROR.result(), lazy.get().await());
+        assertEquals(TEST_ERROR.result(), lazy.get().await());
+        assertEquals(1, calls.get());
+
+        now.addAndGet(timeSpan(1).seconds().nanos());
+        lazy.get().await();
+        assertEquals(2, calls.get());
+
+        // Second consecutive failure doubles the delay
+        now.addAndGet(timeSpan(1).seconds().nanos());
+        lazy.get().await();
+        assertEquals(2, calls.get());
+
+        now.addAndGet(timeSpan(1).seconds().nanos());
+        lazy.get().await();
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void refresh_keepsCurrentValueUntilNewOneIsReady() {
+        var next = Promise.<Integer>promise();
+        var lazy = LazyPromise.lazyPromise(() -> calls.incrementAndGet() == 1
+                                                 ? Promise.success(1)
+                                                 : next);
+
+        assertEquals(1, lazy.get().await().unwrap());
+
+        var refreshing = lazy.refresh();
+
+        assertSame(refreshing, lazy.refresh());
+        assertEquals(1, lazy.get().await().unwrap());
+
+        next.succeed(2);
+
+        assertEquals(2, refreshing.await().unwrap());
+        assertEquals(2, lazy.get().await().unwrap());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void refresh_failureLeavesCurrentValueIntact() {
+        var lazy = LazyPromise.lazyPromise(() -> calls.incrementAndGet() == 1
+                                                 ? Promise.success(1)
+                                                 : TEST_ERROR.<Integer>promise());
+
+        assertEquals(1, lazy.get().await().unwrap());
+        assertEquals(TEST_ERROR.result(), lazy.refresh().await());
+        assertEquals(1, lazy.get().await().unwrap());
+        assertTrue(lazy.isComputed());
+    }
+
+    @Test
+    void get_cancellationByOneCallerDoesNotPoisonValue() {
+        var source = Promise.<String>promise();
+        var lazy = LazyPromise.lazyPromise(() -> {
+            calls.incrementAndGet();
+            return source;
+        });
+
+        // Derived promise times out, cancellation is not propagated to the shared promise
+        lazy.get()
+            .map(String::length)
+            .timeout(timeSpan(10).millis())
+            .await()
+            .onSuccessRun(Assertions::fail);
+        assertFalse(lazy.get().isResolved());
+
+        // Direct cancellation is visible to the holders of the promise only
+        lazy.get()
+            .cancel();
+        source.succeed("value");
+
+        // Initialization completes in the event handler of the source
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!lazy.isComputed() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(lazy.isComputed());
+        assertEquals("value", lazy.get().await().unwrap());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void invalidate_dropsValueAndResultOfPendingInitialization() {
+        var first = Promise.<Integer>promise();
+        var lazy = LazyPromise.lazyPromise(() -> calls.incrementAndGet() == 1
+                                                 ? first
+                                                 : Promise.success(2));
+        var pending = lazy.get();
+
+        lazy.invalidate();
+        first.succeed(1);
+
+        assertEquals(1, pending.await().unwrap());
+        assertFalse(lazy.isComputed());
+        assertEquals(2, lazy.get().await().unwrap());
+
+        lazy.invalidate();
+
+        assertFalse(lazy.isComputed());
+        assertEquals(2, lazy.get().await().unwrap());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void get_exceptionThrownByInitializerIsReturnedAsFailure() {
+        var lazy = LazyPromise.<Integer>lazyPromise(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            return Promise.success(1);
+        });
+
+        lazy.get()
+            .await()
+            .onSuccessRun(Assertions::fail);
+
+        assertEquals(1, lazy.get().await().unwrap());
+    }
+
+    private LazyPromise<Integer> withBackoff(Supplier<Promise<Integer>> initializer) {
+        return new AtomicLazyPromise<>(initializer,
+                                       Option.some(BackoffStrategy.exponential()
+                                                                  .initialDelay(timeSpan(1).seconds())
+                                                                  .maxDelay(timeSpan(10).seconds())
+                                                                  .factor(2.0)
+                                                                  .withoutJitter()),
+                                       now::get);
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
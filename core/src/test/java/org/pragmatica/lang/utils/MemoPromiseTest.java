@@ -7,11 +7,14 @@
 import org.pragmatica.lang.Cause;
 import org.pragmatica.lang.Promise;
 
+import java.lang.ref.WeakReference;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
 import static org.pragmatica.lang.utils.MemoPromiseTest.TestUtils.awaitCondition;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,6 +49,27 @@ void get_cachesSuccessfulResults() {
             assertEquals(1, cache.missCount());
         }
 
+        @Test
+        void get_cancellationByOneCallerDoesNotCancelComputation() {
+            var source = Promise.<String>promise();
+            var cache = MemoPromise.<String, String>memoPromise(_ -> source);
+
+            cache.get("key1")
+                 .map(String::length)
+                 .timeout(timeSpan(10).millis())
+                 .await()
+                 .onSuccessRun(Assertions::fail);
+
+            assertFalse(source.isResolved());
+            source.succeed("value");
+
+            cache.get("key1")
+                 .await()
+                 .onFailureRun(Assertions::fail)
+                 .onSuccess(value -> assertEquals("value", value));
+            assertEquals(1, cache.missCount());
+        }
+
         @Test
         void get_doesNotCacheFailures() throws InterruptedException {
             var computeCount = new AtomicInteger(0);
@@ -505,6 +529,149 @@ void counters_areAccurateUnderConcurrency() throws InterruptedException {
         }
     }
 
+    @Nested
+    class ExpirationAndRefresh {
+        private final AtomicLong now = new AtomicLong();
+
+        private MemoPromise.Builder<String, String> builder(AtomicInteger computeCount) {
+            return MemoPromise.<String, String>builder(key -> Promise.success("value-" + key + "-"
+                                                                              + computeCount.incrementAndGet()))
+                              .timeSource(now::get);
+        }
+
+        @Test
+        void build_rejectsInvalidParameters() {
+            var counter = new AtomicInteger();
+
+            builder(counter).expireAfterWrite(timeSpan(0).millis())
+                            .build()
+                            .onSuccessRun(Assertions::fail)
+                            .onFailure(cause -> assertEquals(MemoPromise.INVALID_INTERVAL, cause));
+            builder(counter).maxWeight(0, (_, _) -> 1)
+                            .build()
+                            .onSuccessRun(Assertions::fail)
+                            .onFailure(cause -> assertEquals(MemoPromise.INVALID_MAX_WEIGHT, cause));
+            builder(counter).maxSize(-1)
+                            .build()
+                            .onSuccessRun(Assertions::fail)
+                            .onFailure(cause -> assertEquals(MemoPromise.INVALID_MAX_SIZE, cause));
+        }
+
+        @Test
+        void get_recomputesValueAfterWriteExpiration() {
+            var computeCount = new AtomicInteger();
+            var cache = builder(computeCount).expireAfterWrite(timeSpan(10).seconds())
+                                             .build()
+                                             .unwrap();
+
+            assertEquals("value-a-1", cache.get("a").await().unwrap());
+            now.addAndGet(timeSpan(9).seconds().nanos());
+            assertEquals("value-a-1", cache.get("a").await().unwrap());
+            now.addAndGet(timeSpan(1).seconds().nanos());
+            assertEquals("value-a-2", cache.get("a").await().unwrap());
+        }
+
+        @Test
+        void get_recomputesValueAfterIdleExpiration() {
+            var computeCount = new AtomicInteger();
+            var cache = builder(computeCount).expireAfterAccess(timeSpan(10).seconds())
+                                             .build()
+                                             .unwrap();
+
+            assertEquals("value-a-1", cache.get("a").await().unwrap());
+            for (int i = 0; i < 5; i++) {
+                now.addAndGet(timeSpan(5).seconds().nanos());
+                assertEquals("value-a-1", cache.get("a").await().unwrap());
+            }
+            now.addAndGet(timeSpan(10).seconds().nanos());
+            assertEquals("value-a-2", cache.get("a").await().unwrap());
+        }
+
+        @Test
+        void get_servesStaleValueWhileRefreshing() {
+            var computeCount = new AtomicInteger();
+            var pending = Promise.<String>promise();
+            var cache = MemoPromise.<String, String>builder(_ -> computeCount.incrementAndGet() == 1
+                                                                 ? Promise.success("initial")
+                                                                 : pending)
+                                   .refreshAfterWrite(timeSpan(1).minutes())
+                                   .timeSource(now::get)
+                                   .build()
+                                   .unwrap();
+
+            assertEquals("initial", cache.get("a").await().unwrap());
+            now.addAndGet(timeSpan(2).minutes().nanos());
+
+            // Refresh is started only once, stale value is served meanwhile
+            assertEquals("initial", cache.get("a").await().unwrap());
+            assertEquals("initial", cache.get("a").await().unwrap());
+            assertEquals(2, computeCount.get());
+
+            pending.succeed("refreshed");
+            assertEquals("refreshed", pending.await().unwrap());
+            assertEquals("refreshed", cache.get("a").await().unwrap());
+            assertEquals(2, computeCount.get());
+        }
+
+        @Test
+        void get_keepsValueIfRefreshFails() {
+            var computeCount = new AtomicInteger();
+            var cache = MemoPromise.<String, String>builder(_ -> computeCount.incrementAndGet() == 1
+                                                                 ? Promise.success("initial")
+                                                                 : TEST_ERROR.promise())
+                                   .refreshAfterWrite(timeSpan(1).minutes())
+                                   .timeSource(now::get)
+                                   .build()
+                                   .unwrap();
+
+            assertEquals("initial", cache.get("a").await().unwrap());
+            now.addAndGet(timeSpan(2).minutes().nanos());
+
+            assertEquals("initial", cache.get("a").await().unwrap());
+            assertEquals("initial", cache.get("a").await().unwrap());
+            assertTrue(computeCount.get() >= 2);
+        }
+
+        @Test
+        void get_evictsEntriesExceedingMaxWeight() {
+            var cache = MemoPromise.<Integer, String>builder(key -> Promise.success("x".repeat(key)))
+                                   .maxWeight(100, (_, value) -> value.length())
+                                   .build()
+                                   .unwrap();
+
+            for (int i = 1; i <= 50; i++) {
+                cache.get(10 + i % 20).await();
+            }
+
+            // Each value weighs at least 11, so no more than 9 values fit into the limit
+            assertTrue(cache.size() <= 9, "Cache holds " + cache.size() + " entries");
+            assertTrue(cache.size() > 0);
+        }
+
+        @Test
+        void expiration_isCancelledForEvictedAndInvalidatedEntries() throws InterruptedException {
+            var cache = MemoPromise.<Integer, Object>builder(_ -> Promise.success(new Object()))
+                                   .maxSize(2)
+                                   .expireAfterWrite(timeSpan(1).hours())
+                                   .build()
+                                   .unwrap();
+
+            var evicted = new WeakReference<>(cache.get(1).await().unwrap());
+            for (int i = 2; i <= 20; i++) {
+                cache.get(i).await();
+            }
+            var invalidated = new WeakReference<>(cache.get(100).await().unwrap());
+            cache.invalidate(100);
+
+            // Pending expiration timers must not keep removed values reachable
+            awaitCondition(() -> {
+                               System.gc();
+                               return evicted.get() == null && invalidated.get() == null;
+                           },
+                           3000);
+        }
+    }
+
     /// Test utilities to avoid Thread.sleep in tests.
     static class TestUtils {
         /// Await a condition with timeout, polling at fixed intervals.
@@ -5,6 +5,8 @@
 import org.junit.jupiter.api.Test;
 import org.pragmatica.lang.Promise;
 import org.pragmatica.lang.io.TimeSpan;
+import org.pragmatica.lang.utils.RateLimiter.Algorithm;
+import org.pragmatica.lang.utils.RateLimiter.RateLimiterError.InvalidPermits;
 import org.pragmatica.lang.utils.RateLimiter.RateLimiterError.LimitExceeded;
 
 import java.util.concurrent.TimeUnit;
@@ -247,4 +249,133 @@ void shouldNotExceedMaxTokensAfterLongIdle() {
         // Should not exceed rate + burst = 8
         assertEquals(8, successCount, "Should not exceed max tokens");
     }
+
+    @Test
+    void shouldConsumeWeightedPermits() {
+        rateLimiter.execute(3, () -> Promise.success("OK"))
+                .await()
+                .onFailureRun(Assertions::fail);
+
+        rateLimiter.execute(3, () -> Promise.success("Fail"))
+                .await()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(LimitExceeded.class, cause));
+
+        rateLimiter.execute(2, () -> Promise.success("OK"))
+                .await()
+                .onFailureRun(Assertions::fail);
+    }
+
+    @Test
+    void shouldRejectNonPositivePermits() {
+        rateLimiter.execute(0, () -> Promise.success("Fail"))
+                .await()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(InvalidPermits.class, cause));
+
+        rateLimiter.acquire(-1)
+                .await()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(InvalidPermits.class, cause));
+    }
+
+    @Test
+    void gcraShouldSpreadPermitsOverPeriod() {
+        var limiter = RateLimiter.builder()
+                .rate(5)
+                .period(timeSpan(1).seconds())
+                .algorithm(Algorithm.GCRA)
+                .timeSource(timeSource);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.execute(() -> Promise.success("OK"))
+                    .await()
+                    .onFailureRun(Assertions::fail);
+        }
+
+        limiter.execute(() -> Promise.success("Fail"))
+                .await()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertEquals(timeSpan(200).millis(), ((LimitExceeded) cause).retryAfter()));
+
+        // One permit is restored after period / rate
+        timeSource.advanceTime(200);
+
+        limiter.execute(() -> Promise.success("OK"))
+                .await()
+                .onFailureRun(Assertions::fail);
+        limiter.execute(() -> Promise.success("Fail"))
+                .await()
+                .onSuccessRun(Assertions::fail);
+    }
+
+    @Test
+    void acquireShouldWaitForReservedPermits() {
+        var limiter = RateLimiter.builder()
+                .rate(2)
+                .period(timeSpan(50).millis())
+                .maxWait(timeSpan(1).seconds())
+                .withDefaultTimeSource();
+
+        var start = System.nanoTime();
+        var promises = IntStream.range(0, 6)
+                .mapToObj(_ -> limiter.acquire())
+                .toList();
+
+        // Waiters have reserved permits, so immediate callers can't overtake them
+        limiter.execute(() -> Promise.success("Fail"))
+                .await()
+                .onSuccessRun(Assertions::fail);
+
+        Promise.allOf(promises)
+                .await(timeSpan(2).seconds())
+                .onFailureRun(Assertions::fail);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90),
+                "Last waiters should be served after two periods");
+        assertTrue(promises.stream().allMatch(promise -> promise.await().isSuccess()));
+    }
+
+    @Test
+    void acquireShouldFailImmediatelyIfWaitExceedsLimit() {
+        var limiter = RateLimiter.builder()
+                .rate(5)
+                .period(timeSpan(1).seconds())
+                .algorithm(Algorithm.GCRA)
+                .maxWait(timeSpan(300).millis())
+                .timeSource(timeSource);
+
+        limiter.acquire(5)
+                .await()
+                .onFailureRun(Assertions::fail);
+
+        // Next permit is available in 200ms, which is within the limit
+        var waiting = limiter.acquire();
+        assertFalse(waiting.isResolved());
+
+        // Two more permits would require waiting for 600ms
+        limiter.acquire(2)
+                .await()
+                .onSuccessRun(Assertions::fail)
+                .onFailure(cause -> assertInstanceOf(LimitExceeded.class, cause));
+
+        waiting.await(timeSpan(2).seconds())
+                .onFailureRun(Assertions::fail);
+    }
+
+    @Test
+    void burstAboveIntRangeDoesNotOverflow() {
+        for (var algorithm : Algorithm.values()) {
+            var limiter = RateLimiter.builder()
+                    .rate(Integer.MAX_VALUE)
+                    .period(timeSpan(1).seconds())
+                    .burst(Integer.MAX_VALUE)
+                    .algorithm(algorithm)
+                    .timeSource(timeSource);
+
+            limiter.execute(() -> Promise.success("OK"))
+                    .await()
+                    .onFailureRun(Assertions::fail);
+        }
+    }
 }
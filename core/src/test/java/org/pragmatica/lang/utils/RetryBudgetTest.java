@@ -0,0 +1,97 @@
+package org.pragmatica.lang.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.io.TimeSpan;
+import org.pragmatica.lang.utils.RetryBudget.RetryBudgetError.InvalidParameter;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.pragmatica.lang.io.TimeSpan.timeSpan;
+
+class RetryBudgetTest {
+    private static class TestTimeSource implements TimeSource {
+        private TimeSpan currentTime = timeSpan(0).nanos();
+
+        @Override
+        public long nanoTime() {
+            return currentTime.nanos();
+        }
+
+        public void advanceTime(long millis) {
+            currentTime = currentTime.plus(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void retriesAreLimitedByRatioOfRequests() {
+        var budget = RetryBudget.retryBudget(0.2, timeSpan(1).seconds(), 0, new TestTimeSource())
+                                .unwrap();
+
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+        assertEquals(10, budget.requests());
+        assertEquals(2, budget.retries());
+    }
+
+    @Test
+    void reserveAllowsRetriesWithoutRequests() {
+        var budget = RetryBudget.retryBudget(0.0, timeSpan(1).seconds(), 2, new TestTimeSource())
+                                .unwrap();
+
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+    }
+
+    @Test
+    void oldRetriesLeaveTheWindow() {
+        var timeSource = new TestTimeSource();
+        var budget = RetryBudget.retryBudget(0.0, timeSpan(1).seconds(), 1, timeSource)
+                                .unwrap();
+
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+
+        timeSource.advanceTime(1100);
+
+        assertEquals(0, budget.retries());
+        assertTrue(budget.tryRetry());
+    }
+
+    @Test
+    void reusedBucketIsResetBeforeCounting() {
+        var timeSource = new TestTimeSource();
+        var budget = RetryBudget.retryBudget(0.0, timeSpan(1).seconds(), 0, timeSource)
+                                .unwrap();
+
+        for (int i = 0; i < 5; i++) {
+            budget.recordRequest();
+        }
+
+        // The same bucket, but one full window later
+        timeSource.advanceTime(1000);
+        budget.recordRequest();
+
+        assertEquals(1, budget.requests());
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        RetryBudget.retryBudget(-0.1, timeSpan(1).seconds(), 0)
+                   .onSuccessRun(Assertions::fail)
+                   .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+        RetryBudget.retryBudget(0.1, timeSpan(0).seconds(), 0)
+                   .onSuccessRun(Assertions::fail)
+                   .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+        RetryBudget.retryBudget(0.1, timeSpan(1).seconds(), -1)
+                   .onSuccessRun(Assertions::fail)
+                   .onFailure(cause -> assertInstanceOf(InvalidParameter.class, cause));
+    }
+}
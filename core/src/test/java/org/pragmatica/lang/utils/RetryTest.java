@@ -324,4 +324,99 @@ void shouldHandleConcurrentOperations() {
             assertEquals(3, attemptCounts[i].get(), "Operation " + i + " should have exactly 3 attempts");
         }
     }
+
+    @Test
+    void shouldStopRetryingWhenBudgetIsExhausted() {
+        var budget = RetryBudget.retryBudget(0.0, timeSpan(10).seconds(), 1)
+                                .unwrap();
+        var retry = create().attempts(5)
+                            .strategy(fixed().interval(SHORT))
+                            .withBudget(budget);
+        var attempts = new AtomicInteger(0);
+
+        retry.execute(() -> {
+                 attempts.incrementAndGet();
+                 return cause("Always fails").<String>promise();
+             })
+             .await()
+             .onSuccessRun(Assertions::fail)
+             .onFailure(cause -> assertEquals("Always fails", cause.message()));
+
+        // Original attempt and single retry allowed by the reserve of the budget
+        assertEquals(2, attempts.get());
+        assertEquals(1, budget.requests());
+        assertEquals(1, budget.retries());
+    }
+
+    @Test
+    void hedgedShouldUseFasterAttemptAndCancelSlowOne() {
+        var retry = Retry.hedged()
+                         .percentile(0.9)
+                         .minDelay(SHORT);
+        var attempts = new AtomicInteger(0);
+        var slow = Promise.<String>promise();
+
+        retry.execute(() -> attempts.incrementAndGet() == 1
+                            ? slow
+                            : Promise.promise(timeSpan(5).millis(), promise -> promise.succeed("Hedged")))
+             .await(timeSpan(1).seconds())
+             .onFailureRun(Assertions::fail)
+             .onSuccess(value -> assertEquals("Hedged", value));
+
+        assertEquals(2, attempts.get());
+        assertTrue(slow.await(timeSpan(1).seconds()).isFailure(), "Slow attempt should be cancelled");
+    }
+
+    @Test
+    void hedgedShouldNotStartSecondAttemptForFastOperation() {
+        var retry = Retry.hedged()
+                         .percentile(0.9)
+                         .minDelay(LONG);
+        var attempts = new AtomicInteger(0);
+
+        retry.execute(() -> {
+                 attempts.incrementAndGet();
+                 return Promise.promise(timeSpan(5).millis(), promise -> promise.succeed("Fast"));
+             })
+             .await()
+             .onFailureRun(Assertions::fail)
+             .onSuccess(value -> assertEquals("Fast", value));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void hedgedShouldReportFailureOfFirstAttemptIfHedgeIsNotAllowed() {
+        var budget = RetryBudget.retryBudget(0.0, timeSpan(10).seconds(), 0)
+                                .unwrap();
+        var retry = Retry.hedged()
+                         .percentile(0.9)
+                         .minDelay(SHORT)
+                         .withBudget(budget);
+        var attempts = new AtomicInteger(0);
+
+        retry.execute(() -> {
+                 attempts.incrementAndGet();
+                 return Promise.<String>promise(MEDIUM, promise -> promise.fail(cause("Slow failure")));
+             })
+             .await()
+             .onSuccessRun(Assertions::fail)
+             .onFailure(cause -> assertEquals("Slow failure", cause.message()));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void customImplementationWithoutBudgetSupportRejectsBudget() {
+        Retry retry = new Retry() {
+            @Override
+            public <T> Promise<T> execute(Supplier<Promise<T>> operation) {
+                return operation.get();
+            }
+        };
+        var budget = RetryBudget.retryBudget(0.1, timeSpan(1).seconds(), 0)
+                                .unwrap();
+
+        assertThrows(UnsupportedOperationException.class, () -> retry.withBudget(budget));
+    }
 }
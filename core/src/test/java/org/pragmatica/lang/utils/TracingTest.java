@@ -0,0 +1,73 @@
+package org.pragmatica.lang.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.Cause;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.Result;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingTest {
+    private static final Cause TEST_FAILURE = Causes.cause("Test failure");
+
+    @AfterEach
+    void restoreDefaultMode() {
+        Tracing.captureAll();
+    }
+
+    @Test
+    void callSiteOfTraceIsAttached() {
+        Result.failure(TEST_FAILURE)
+              .trace()
+              .onSuccessRun(Assertions::fail)
+              .onFailure(cause -> assertInstanceOf(Causes.CompositeCause.class, cause))
+              .onFailure(cause -> assertTrue(cause.message().contains("TracingTest.callSiteOfTraceIsAttached")));
+    }
+
+    @Test
+    void disabledTracingReturnsSameInstance() {
+        Tracing.disable();
+
+        var result = Result.failure(TEST_FAILURE);
+        var promise = Promise.failure(TEST_FAILURE);
+
+        assertSame(result, result.trace());
+        assertSame(promise, promise.trace());
+    }
+
+    @Test
+    void tracingIsSampled() {
+        Tracing.sample(4);
+
+        var traced = IntStream.range(0, 4000)
+                              .mapToObj(_ -> Result.failure(TEST_FAILURE).trace())
+                              .filter(result -> result.fold(cause -> cause != TEST_FAILURE, _ -> false))
+                              .count();
+
+        assertTrue(traced > 600 && traced < 1400, "Traced " + traced);
+    }
+
+    @Test
+    void initialModeIsParsedFromProperty() {
+        assertEquals(0, TracingMode.initialRate("off"));
+        assertEquals(1, TracingMode.initialRate("ON"));
+        assertEquals(16, TracingMode.initialRate(" 16 "));
+        assertEquals(0, TracingMode.initialRate("-1"));
+        assertEquals(1, TracingMode.initialRate("sometimes"));
+    }
+
+    @Test
+    void throwableIsFormattedOnRequest() {
+        var exception = new IllegalStateException("Just throw exception");
+        var cause = Causes.fromThrowable(exception);
+
+        assertEquals(cause, Causes.fromThrowable(exception));
+        assertTrue(cause.message().startsWith("java.lang.IllegalStateException: Just throw exception"));
+        assertTrue(cause.message().contains("TracingTest.throwableIsFormattedOnRequest"));
+        assertSame(cause.message(), cause.message());
+    }
+}
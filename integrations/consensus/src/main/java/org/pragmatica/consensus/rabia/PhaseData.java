@@ -27,6 +27,7 @@
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static org.pragmatica.consensus.rabia.Batch.emptyBatch;
@@ -63,6 +64,7 @@ public StateValue lockedValue() {
     private final Map<NodeId, StateValue> round1Votes = new ConcurrentHashMap<>();
     private final Map<NodeId, StateValue> round2Votes = new ConcurrentHashMap<>();
     private final AtomicBoolean decided = new AtomicBoolean(false);
+    private final AtomicReference<Option<Round2Outcome<C>>> outcome = new AtomicReference<>(Option.none());
 
     PhaseData(Phase phase) {
         this.phase = phase;
@@ -78,6 +80,11 @@ void registerProposal(NodeId node, Batch<C> batch) {
         proposals.putIfAbsent(node, batch);
     }
 
+    /// Returns the proposal made by a node in this phase, if any.
+    Option<Batch<C>> proposalOf(NodeId node) {
+        return Option.option(proposals.get(node));
+    }
+
     /// Checks if a node has already proposed in this phase.
     boolean hasProposal(NodeId node) {
         return proposals.containsKey(node);
@@ -114,6 +121,21 @@ boolean tryMarkDecided() {
         return decided.compareAndSet(false, true);
     }
 
+    /// Attempts to complete this phase with the given outcome. Returns true if successful
+    /// (was not already decided), false if already decided.
+    boolean tryComplete(Round2Outcome<C> phaseOutcome) {
+        if (!tryMarkDecided()) {
+            return false;
+        }
+        outcome.set(Option.some(phaseOutcome));
+        return true;
+    }
+
+    /// Returns the outcome of this phase, if it is already completed.
+    Option<Round2Outcome<C>> outcome() {
+        return outcome.get();
+    }
+
     /// Returns the number of proposals collected.
     int proposalCount() {
         return proposals.size();
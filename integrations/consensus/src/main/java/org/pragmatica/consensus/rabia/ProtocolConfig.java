@@ -27,18 +27,49 @@
 ///
 /// @param cleanupInterval      Interval for cleaning up old phase data
 /// @param syncRetryInterval    Interval for retrying synchronization attempts
-/// @param removeOlderThanPhases Number of phases to retain before cleanup
+/// @param removeOlderThanPhases Number of phases to retain before cleanup. Must be greater than the pipeline depth, so
+///                             a batch applied in one phase is remembered while it can be decided in another phase in
+///                             flight.
+/// @param pipelineDepth        Maximal number of phases in flight at once. Decisions are still applied to the state
+///                             machine strictly in phase order. Depth 1 runs one phase at a time.
 public record ProtocolConfig(TimeSpan cleanupInterval,
                              TimeSpan syncRetryInterval,
-                             long removeOlderThanPhases) {
-    /// Validates and creates a ProtocolConfig.
+                             long removeOlderThanPhases,
+                             int pipelineDepth) {
+    /// Upper bound for the pipeline depth. Must stay well below the distance at which a node considers itself
+    /// lagging behind the cluster and triggers resynchronization.
+    public static final int MAX_PIPELINE_DEPTH = 64;
+
+    /// Creates a configuration which runs one phase at a time.
+    public ProtocolConfig(TimeSpan cleanupInterval, TimeSpan syncRetryInterval, long removeOlderThanPhases) {
+        this(cleanupInterval, syncRetryInterval, removeOlderThanPhases, 1);
+    }
+
+    /// Validates and creates a ProtocolConfig which runs one phase at a time.
     public static Result<ProtocolConfig> protocolConfig(TimeSpan cleanupInterval,
                                                         TimeSpan syncRetryInterval,
                                                         long removeOlderThanPhases) {
+        return protocolConfig(cleanupInterval, syncRetryInterval, removeOlderThanPhases, 1);
+    }
+
+    /// Validates and creates a ProtocolConfig with the given pipeline depth.
+    public static Result<ProtocolConfig> protocolConfig(TimeSpan cleanupInterval,
+                                                        TimeSpan syncRetryInterval,
+                                                        long removeOlderThanPhases,
+                                                        int pipelineDepth) {
         return Result.all(validatePositive(cleanupInterval, "cleanupInterval"),
                           validatePositive(syncRetryInterval, "syncRetryInterval"),
-                          validatePositive(removeOlderThanPhases, "removeOlderThanPhases"))
-                     .map((cleanup, sync, phases) -> new ProtocolConfig(cleanup, sync, phases));
+                          validatePositive(removeOlderThanPhases, "removeOlderThanPhases"),
+                          validatePipelineDepth(pipelineDepth))
+                     .map((cleanup, sync, phases, depth) -> new ProtocolConfig(cleanup, sync, phases, depth))
+                     .flatMap(ProtocolConfig::validateRetention);
+    }
+
+    private static Result<ProtocolConfig> validateRetention(ProtocolConfig config) {
+        return config.removeOlderThanPhases() > config.pipelineDepth()
+               ? Result.success(config)
+               : ConfigError.retentionTooShort(config.removeOlderThanPhases(), config.pipelineDepth())
+                            .result();
     }
 
     private static Result<TimeSpan> validatePositive(TimeSpan value, String name) {
@@ -54,6 +85,13 @@ private static Result<Long> validatePositive(long value, String name) {
                             .result();
     }
 
+    private static Result<Integer> validatePipelineDepth(int value) {
+        return value > 0 && value <= MAX_PIPELINE_DEPTH
+               ? Result.success(value)
+               : ConfigError.valueOutOfRange("pipelineDepth", value, 1, MAX_PIPELINE_DEPTH)
+                            .result();
+    }
+
     /// Creates a default (production) configuration.
     public static ProtocolConfig defaultConfig() {
         return new ProtocolConfig(timeSpan(60).seconds(), timeSpan(5).seconds(), 100);
@@ -80,6 +118,21 @@ public String message() {
             }
         }
 
+        record ValueOutOfRange(String field, long value, long min, long max) implements ConfigError {
+            @Override
+            public String message() {
+                return field + " must be in range [" + min + ", " + max + "], got: " + value;
+            }
+        }
+
+        record RetentionTooShort(long removeOlderThanPhases, int pipelineDepth) implements ConfigError {
+            @Override
+            public String message() {
+                return "removeOlderThanPhases must be greater than pipelineDepth " + pipelineDepth + ", got: "
+                       + removeOlderThanPhases;
+            }
+        }
+
         static ConfigError invalidTimeSpan(String field) {
             return new InvalidTimeSpan(field);
         }
@@ -87,5 +140,13 @@ static ConfigError invalidTimeSpan(String field) {
         static ConfigError invalidValue(String field, long value) {
             return new InvalidValue(field, value);
         }
+
+        static ConfigError valueOutOfRange(String field, long value, long min, long max) {
+            return new ValueOutOfRange(field, value, min, max);
+        }
+
+        static ConfigError retentionTooShort(long removeOlderThanPhases, int pipelineDepth) {
+            return new RetentionTooShort(removeOlderThanPhases, pipelineDepth);
+        }
     }
 }
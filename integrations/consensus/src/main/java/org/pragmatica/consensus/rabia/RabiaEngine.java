@@ -35,8 +35,10 @@
 import org.pragmatica.messaging.MessageReceiver;
 
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -64,6 +66,10 @@
 ///   - Automatic state synchronization
 ///   - Deterministic decision-making with coin-flip fallback
 ///
+/// Up to [ProtocolConfig#pipelineDepth()] phases may be in flight at once. Phases are started for distinct pending
+/// batches and may be decided in any order, but their outcomes are applied to the state machine strictly in phase
+/// order.
+///
 /// @param <C> Command type
 public class RabiaEngine<C extends Command> {
     private static final Logger log = LoggerFactory.getLogger(RabiaEngine.class);
@@ -91,9 +97,14 @@
 
     //--------------------------------- Node State Start
     private final Map<Phase, PhaseData<C>> phases = new ConcurrentHashMap<>();
+    // Pipeline window: phases in [currentPhase, nextPhase) are in flight, currentPhase is the next one to apply
     private final AtomicReference<Phase> currentPhase = new AtomicReference<>(Phase.ZERO);
+    private final AtomicReference<Phase> nextPhase = new AtomicReference<>(Phase.ZERO);
+    // Batches applied in recent phases, used to skip a batch decided more than once while phases were in flight.
+    // Pruned as phases are applied, so all nodes remember the same batches regardless of timing.
+    private final Map<BatchId, Phase> appliedBatches = new ConcurrentHashMap<>();
+    private final Map<Phase, BatchId> appliedPhases = new ConcurrentHashMap<>();
     private final AtomicBoolean active = new AtomicBoolean(false);
-    private final AtomicBoolean isInPhase = new AtomicBoolean(false);
     private final AtomicReference<Promise<Unit>> startPromise = new AtomicReference<>(Promise.promise());
     private final AtomicReference<Phase> lastCommittedPhase = new AtomicReference<>(Phase.ZERO);
     private final AtomicReference<ScheduledFuture<?>> pendingSyncTask = new AtomicReference<>();
@@ -176,7 +187,9 @@ private void doClusterDisconnected() {
                    .onFailure(cause -> log.error("Node {} failed to persist state: {}", self, cause));
         phases.clear();
         currentPhase.set(Phase.ZERO);
-        isInPhase.set(false);
+        nextPhase.set(Phase.ZERO);
+        appliedBatches.clear();
+        appliedPhases.clear();
         lockedValue.set(Option.none());
         stateMachine.reset();
         startPromise.set(Promise.promise());
@@ -248,7 +261,7 @@ private void broadcastBatch(Batch<C> batch) {
     }
 
     private void triggerPhaseIfNeeded() {
-        if (!isInPhase.get()) {
+        if (hasRoomInWindow()) {
             executor.execute(this::startPhase);
         }
     }
@@ -317,53 +330,87 @@ private void doHandleNewBatch(Batch<C> incoming) {
         log.error("BatchId collision: {} has different content", incoming.id());
                                    return existing;
                                });
-        if (isInPhase.get() && active.get()) {
-            // Already in phase - broadcast our proposal for this batch if not already proposed
-            broadcastOwnProposalIfNeeded();
-        } else {
-            triggerPhaseIfNeeded();
+        if (active.get()) {
+            // Already in phase(s) - broadcast our proposal for this batch where not already proposed
+            broadcastOwnProposalsIfNeeded();
         }
+        triggerPhaseIfNeeded();
     }
 
-    /// Broadcasts own proposal for pending batch if not already proposed in current phase.
-    private void broadcastOwnProposalIfNeeded() {
-        var phase = currentPhase.get();
-        var phaseData = getOrCreatePhaseData(phase);
-        if (phaseData.hasProposal(self)) {
-            return;
+    /// Broadcasts own proposals for pending batches in phases in flight where not already proposed.
+    private void broadcastOwnProposalsIfNeeded() {
+        for (var phase = currentPhase.get(); isEnteredPhase(phase); phase = phase.successor()) {
+            var phaseData = getOrCreatePhaseData(phase);
+            if (phaseData.hasProposal(self) || phaseData.isDecided()) {
+                continue;
+            }
+            var target = phase;
+            nextBatchToPropose().onPresent(batch -> broadcastOwnProposal(target, phaseData, batch));
         }
-        pendingBatches.values()
-                      .stream()
-                      .sorted()
-                      .findFirst()
-                      .ifPresent(batch -> broadcastOwnProposal(phase, phaseData, batch));
     }
 
-    /// Starts a new phase with pending commands.
+    /// Starts new phases with pending commands until the pipeline window is full.
     private void startPhase() {
-        // Use compareAndSet to atomically check and set - prevents race condition
-        if (!isInPhase.compareAndSet(false, true)) {
-            return;
-        }
-        var batchOpt = pendingBatches.values()
-                                     .stream()
-                                     .sorted()
-                                     .findFirst();
-        if (batchOpt.isEmpty()) {
-            isInPhase.set(false);
-            // Re-check after reset - a batch may have been added during the window
-            if (!pendingBatches.isEmpty()) {
-                executor.execute(this::startPhase);
+        while (hasRoomInWindow()) {
+            var phase = nextPhase.get();
+            var batch = nextBatchToPropose();
+            if (batch.isEmpty() && !hasBufferedProposals(phase)) {
+                return;
             }
-            return;
+            batch.onPresent(value -> log.trace("Node {} starting phase {} with batch {}", self, phase, value.id()));
+            enterPhase(phase, batch);
         }
-        var batch = batchOpt.get();
-        var phase = currentPhase.get();
-        log.trace("Node {} starting phase {} with batch {}", self, phase, batch.id());
+    }
+
+    private void enterPhase(Phase phase, Option<Batch<C>> batch) {
+        nextPhase.set(phase.successor());
         var phaseData = getOrCreatePhaseData(phase);
-        phaseData.registerProposal(self, batch);
-        network.broadcast(new Propose<>(self, phase, batch));
+        batch.onPresent(value -> broadcastOwnProposal(phase, phaseData, value));
         broadcastLockedValueIfPresent(phase, phaseData);
+        // Messages for this phase might have arrived before it was entered
+        tryBroadcastRound1Vote(phase, phaseData);
+        tryBroadcastRound2Vote(phase, phaseData);
+        tryMakeDecision(phase, phaseData);
+    }
+
+    private boolean hasRoomInWindow() {
+        return nextPhase.get()
+                        .value() - currentPhase.get()
+                                               .value() < config.pipelineDepth();
+    }
+
+    private boolean isEnteredPhase(Phase phase) {
+        return phase.compareTo(currentPhase.get()) >= 0 && phase.compareTo(nextPhase.get()) < 0;
+    }
+
+    private boolean isOpenPhase(Phase phase, PhaseData<C> phaseData) {
+        return isEnteredPhase(phase) && !phaseData.isDecided();
+    }
+
+    private boolean hasBufferedProposals(Phase phase) {
+        return Option.option(phases.get(phase))
+                     .filter(phaseData -> phaseData.proposalCount() > 0)
+                     .isPresent();
+    }
+
+    /// Selects the oldest pending batch which is not yet proposed by this node in any phase in flight.
+    private Option<Batch<C>> nextBatchToPropose() {
+        var inFlight = batchesInFlight();
+        return Option.from(pendingBatches.values()
+                                         .stream()
+                                         .filter(batch -> !inFlight.contains(batch.id()))
+                                         .sorted()
+                                         .findFirst());
+    }
+
+    private Set<BatchId> batchesInFlight() {
+        var inFlight = new HashSet<BatchId>();
+        for (var phase = currentPhase.get(); isEnteredPhase(phase); phase = phase.successor()) {
+            Option.option(phases.get(phase))
+                  .flatMap(phaseData -> phaseData.proposalOf(self))
+                  .onPresent(batch -> inFlight.add(batch.id()));
+        }
+        return inFlight;
     }
 
     private void broadcastLockedValueIfPresent(Phase phase, PhaseData<C> phaseData) {
@@ -459,6 +506,7 @@ private void restoreState(SavedState<C> state) {
 
     private void applyRestoredState(SavedState<C> state) {
         currentPhase.set(state.lastCommittedPhase());
+        nextPhase.set(state.lastCommittedPhase());
         lastCommittedPhase.set(state.lastCommittedPhase());
         state.pendingBatches()
              .forEach(batch -> pendingBatches.put(batch.id(),
@@ -554,7 +602,7 @@ private void handlePropose(Propose<C> propose) {
             return;
         }
         var phaseData = getOrCreatePhaseData(propose.phase());
-        enterPhaseIfNeeded(propose.phase(), currentPhaseValue, phaseData);
+        enterPhasesIfNeeded(propose.phase());
         registerProposal(propose, phaseData);
         tryBroadcastRound1Vote(propose.phase(), phaseData);
     }
@@ -575,19 +623,15 @@ private boolean isPastPhase(Phase proposalPhase, Phase current) {
         return proposalPhase.compareTo(current) < 0;
     }
 
-    private void enterPhaseIfNeeded(Phase proposalPhase, Phase currentPhaseValue, PhaseData<C> phaseData) {
-        if (!proposalPhase.equals(currentPhaseValue) || isInPhase.get()) {
-            return;
+    /// Enters all phases up to the proposal phase, as long as they fit into the pipeline window.
+    /// Proposals for phases beyond the window are only registered and picked up once the window moves.
+    private void enterPhasesIfNeeded(Phase proposalPhase) {
+        while (nextPhase.get()
+                        .compareTo(proposalPhase) <= 0 && hasRoomInWindow()) {
+            var phase = nextPhase.get();
+            log.trace("Node {} entering phase {} triggered by external proposal", self, phase);
+            enterPhase(phase, nextBatchToPropose());
         }
-        log.trace("Node {} entering phase {} triggered by external proposal", self, proposalPhase);
-        isInPhase.set(true);
-        pendingBatches.values()
-                      .stream()
-                      .sorted()
-                      .findFirst()
-                      .ifPresent(ourBatch -> broadcastOwnProposal(proposalPhase, phaseData, ourBatch));
-        // Broadcast locked value if present (same as startPhase does)
-        broadcastLockedValueIfPresent(proposalPhase, phaseData);
     }
 
     private void broadcastOwnProposal(Phase phase, PhaseData<C> phaseData, Batch<C> batch) {
@@ -610,8 +654,7 @@ private void tryBroadcastRound1Vote(Phase phase, PhaseData<C> phaseData) {
     }
 
     private boolean canVoteRound1(Phase phase, PhaseData<C> phaseData, int quorumSize) {
-        return isInPhase.get() && currentPhase.get()
-                                              .equals(phase) && !phaseData.hasVotedRound1(self) && phaseData.hasQuorumProposals(quorumSize);
+        return isOpenPhase(phase, phaseData) && !phaseData.hasVotedRound1(self) && phaseData.hasQuorumProposals(quorumSize);
     }
 
     private void broadcastRound1Vote(Phase phase, PhaseData<C> phaseData, int quorumSize) {
@@ -622,11 +665,12 @@ private void broadcastRound1Vote(Phase phase, PhaseData<C> phaseData, int quorum
     }
 
     private void logRound1VoteConditionsNotMet(Phase phase, PhaseData<C> phaseData, int quorumSize) {
-        log.trace("Node {} conditions not met to vote R1 for phase {}. InPhase: {}, CurrentPhase: {}, HasVotedR1: {}, ProposalCount: {}/{}",
+        log.trace("Node {} conditions not met to vote R1 for phase {}. InPhase: {}, Window: [{}, {}), HasVotedR1: {}, ProposalCount: {}/{}",
                   self,
                   phase,
-                  isInPhase.get(),
+                  isOpenPhase(phase, phaseData),
                   currentPhase.get(),
+                  nextPhase.get(),
                   phaseData.hasVotedRound1(self),
                   phaseData.proposalCount(),
                   quorumSize);
@@ -669,8 +713,7 @@ private void tryBroadcastRound2Vote(Phase phase, PhaseData<C> phaseData) {
     }
 
     private boolean canUseFastPath(Phase phase, PhaseData<C> phaseData, Option<StateValue> superMajorityValue) {
-        return isInPhase.get() && currentPhase.get()
-                                              .equals(phase) && !phaseData.isDecided() && !phaseData.hasVotedRound2(self) && superMajorityValue.isPresent();
+        return isOpenPhase(phase, phaseData) && !phaseData.hasVotedRound2(self) && superMajorityValue.isPresent();
     }
 
     private void useFastPath(Phase phase,
@@ -697,8 +740,7 @@ private Decision<C> buildDecision(PhaseData<C> phaseData, StateValue agreedValue
     }
 
     private boolean canVoteRound2(Phase phase, PhaseData<C> phaseData, int quorumSize) {
-        return isInPhase.get() && currentPhase.get()
-                                              .equals(phase) && !phaseData.hasVotedRound2(self) && phaseData.hasRound1MajorityVotes(quorumSize);
+        return isOpenPhase(phase, phaseData) && !phaseData.hasVotedRound2(self) && phaseData.hasRound1MajorityVotes(quorumSize);
     }
 
     private void broadcastRound2Vote(Phase phase, PhaseData<C> phaseData, int quorumSize) {
@@ -737,8 +779,7 @@ private void tryMakeDecision(Phase phase, PhaseData<C> phaseData) {
     }
 
     private boolean canMakeDecision(Phase phase, PhaseData<C> phaseData, int quorumSize) {
-        return isInPhase.get() && currentPhase.get()
-                                              .equals(phase) && !phaseData.isDecided() && phaseData.hasRound2MajorityVotes(quorumSize);
+        return isOpenPhase(phase, phaseData) && phaseData.hasRound2MajorityVotes(quorumSize);
     }
 
     private void makeAndBroadcastDecision(PhaseData<C> phaseData, int quorumSize) {
@@ -755,50 +796,97 @@ private void makeAndBroadcastDecision(PhaseData<C> phaseData, int quorumSize) {
         }
     }
 
-    /// Moves to next phase without making a decision (Case 2: non-question vote seen but < f+1).
+    /// Completes the phase without making a decision (Case 2: non-question vote seen but < f+1).
     /// Per Rabia spec: carry the value forward but don't commit anything.
     private void moveToNextPhaseWithoutDecision(PhaseData<C> phaseData, StateValue carryForwardValue) {
-        if (!phaseData.tryMarkDecided()) {
+        if (!phaseData.tryComplete(new Round2Outcome.CarryForward<>(carryForwardValue))) {
             return;
         }
-        var nextPhase = phaseData.phase()
-                                 .successor();
-        currentPhase.set(nextPhase);
-        isInPhase.set(false);
-        lockedValue.set(Option.some(carryForwardValue));
-        log.trace("Node {} moving to phase {} with carry-forward value {} (no decision)",
+        log.trace("Node {} completed phase {} with carry-forward value {} (no decision)",
                   self,
-                  nextPhase,
+                  phaseData.phase(),
                   carryForwardValue);
-        if (!pendingBatches.isEmpty()) {
-            executor.execute(this::startPhase);
-        }
+        applyCompletedPhases();
     }
 
     private void commitDecision(PhaseData<C> phaseData, Decision<C> decision) {
-        if (phaseData.tryMarkDecided()) {
-            metrics.recordDecision(self, phaseData.phase(), decision.stateValue(), 0L);
-            // Apply commands to state machine ONLY if it was a V1 decision with a non-empty batch
-            if (decision.stateValue() == StateValue.V1 && !decision.value()
-                                                                   .commands()
-                                                                   .isEmpty()) {
-                commitChanges(phaseData, decision);
-            }
-            moveToNextPhase(phaseData.phase(), decision.stateValue());
+        if (!phaseData.tryComplete(new Round2Outcome.Decided<>(decision))) {
+            return;
+        }
+        metrics.recordDecision(self, phaseData.phase(), decision.stateValue(), 0L);
+        if (isBeyondWindow(phaseData.phase())) {
+            skipPhasesBefore(phaseData.phase());
+        }
+        applyCompletedPhases();
+    }
+
+    private boolean isBeyondWindow(Phase phase) {
+        return phase.value() - currentPhase.get()
+                                           .value() >= config.pipelineDepth();
+    }
+
+    /// The rest of the cluster decided a phase this node could not even start, so this node is lagging behind.
+    /// Phases before the decided one are applied if already decided and skipped otherwise.
+    private void skipPhasesBefore(Phase phase) {
+        log.debug("Node {} lagging behind, moving from phase {} to decided phase {}", self, currentPhase.get(), phase);
+        while (currentPhase.get()
+                           .compareTo(phase) < 0) {
+            var skipped = currentPhase.get();
+            completedOutcome(skipped).onPresent(outcome -> applyOutcome(skipped, outcome))
+                            .onEmptyRun(() -> moveToNextPhase(skipped, Option.none()));
         }
     }
 
+    /// Applies outcomes of completed phases strictly in phase order, starting from the current phase.
+    /// Phases completed out of order are kept until all preceding phases are completed.
+    private void applyCompletedPhases() {
+        var outcome = completedOutcome(currentPhase.get());
+        while (outcome.isPresent()) {
+            var phase = currentPhase.get();
+            outcome.onPresent(value -> applyOutcome(phase, value));
+            outcome = completedOutcome(currentPhase.get());
+        }
+        // If we have more commands to process, start new phases
+        executor.execute(this::startPhase);
+    }
+
+    private Option<Round2Outcome<C>> completedOutcome(Phase phase) {
+        return Option.option(phases.get(phase))
+                     .flatMap(PhaseData::outcome);
+    }
+
+    private void applyOutcome(Phase phase, Round2Outcome<C> outcome) {
+        if (outcome instanceof Round2Outcome.Decided<C>(var decision) && hasCommandsToApply(decision)) {
+            commitChanges(phase, decision);
+        }
+        moveToNextPhase(phase, Option.some(outcome.lockedValue()));
+    }
+
+    /// Apply commands to state machine ONLY if it was a V1 decision with a non-empty batch
+    private boolean hasCommandsToApply(Decision<C> decision) {
+        return decision.stateValue() == StateValue.V1 && !decision.value()
+                                                                  .commands()
+                                                                  .isEmpty();
+    }
+
     @SuppressWarnings("unchecked")
-    private void commitChanges(PhaseData<C> phaseData, Decision<C> decision) {
-        log.trace("Node {} applies decision {}", self, decision);
-        var results = stateMachine.process(decision.value()
-                                                   .commands());
-        lastCommittedPhase.set(phaseData.phase());
+    private void commitChanges(Phase phase, Decision<C> decision) {
         // Get the batch from pendingBatches BEFORE removing - this has all merged correlationIds.
         // The decision.value() may have partial IDs if the proposer hadn't received all batches yet.
-        var localBatch = pendingBatches.remove(decision.value()
-                                                       .id());
+        var batchId = decision.value()
+                              .id();
+        var localBatch = pendingBatches.remove(batchId);
         metrics.updatePendingBatches(self, pendingBatches.size());
+        if (appliedBatches.putIfAbsent(batchId, phase) != null) {
+            // Same batch was decided in more than one phase in flight - apply it only once
+            log.debug("Node {} skips batch {} in phase {}, it is already applied", self, batchId, phase);
+            return;
+        }
+        appliedPhases.put(phase, batchId);
+        log.trace("Node {} applies decision {}", self, decision);
+        var results = stateMachine.process(decision.value()
+                                                   .commands());
+        lastCommittedPhase.set(phase);
         // Use correlationIds from our local pendingBatches (fully merged) rather than
         // from decision.value() (which may have partial IDs from early proposals)
         var correlationIds = localBatch != null
@@ -818,22 +906,41 @@ private void handleDecision(Decision<C> decision) {
             return;
         }
         log.trace("Node {} received decision {}", self, decision);
+        if (isPastPhase(decision.phase(), currentPhase.get())) {
+            log.trace("Node {} ignoring decision for already applied phase {}", self, decision.phase());
+            return;
+        }
         commitDecision(getOrCreatePhaseData(decision.phase()), decision);
     }
 
-    /// Moves to the next phase after a decision.
-    /// Per Rabia spec: the decision value is carried forward as the round 1 vote for the next phase.
-    private void moveToNextPhase(Phase currentPhase, StateValue decidedValue) {
-        var nextPhase = currentPhase.successor();
-        this.currentPhase.set(nextPhase);
-        isInPhase.set(false);
-        // Lock the value for the next phase's round 1 vote
-        lockedValue.set(Option.some(decidedValue));
-        log.trace("Node {} moving to phase {} with locked value {}", self, nextPhase, decidedValue);
-        // If we have more commands to process, start a new phase
-        if (!pendingBatches.isEmpty()) {
-            executor.execute(this::startPhase);
+    /// Moves the window to the next phase after the current one is applied.
+    /// Per Rabia spec: the outcome is carried forward as the round 1 vote for the next phase. In pipelined mode
+    /// the next phase may be already in flight, then nothing is carried forward.
+    private void moveToNextPhase(Phase currentPhase, Option<StateValue> lockedOutcome) {
+        forgetAppliedBatch(currentPhase);
+        var next = currentPhase.successor();
+        this.currentPhase.set(next);
+        if (nextPhase.get()
+                     .compareTo(next) < 0) {
+            nextPhase.set(next);
+        }
+        var carried = isEnteredPhase(next)
+                      ? Option.<StateValue>none()
+                      : lockedOutcome;
+        lockedValue.set(carried);
+        log.trace("Node {} moving to phase {} with locked value {}", self, next, carried);
+    }
+
+    /// Forgets the batch applied [ProtocolConfig#removeOlderThanPhases()] phases before the completed one. Every phase is
+    /// completed exactly once and in order, so pruning depends only on the sequence of phases, not on timing. The
+    /// retention is longer than the pipeline depth, so a batch is remembered while it can be decided in another phase.
+    private void forgetAppliedBatch(Phase completed) {
+        var expired = completed.value() - config.removeOlderThanPhases();
+        if (expired < 0) {
+            return;
         }
+        Option.option(appliedPhases.remove(Phase.phase(expired)))
+              .onPresent(batchId -> appliedBatches.remove(batchId, Phase.phase(expired)));
     }
 
     /// Gets or creates phase data for a specific phase.
@@ -47,8 +47,10 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.pragmatica.consensus.NodeId.nodeId;
@@ -60,6 +62,7 @@
 /// - Voting rounds (R1 and R2)
 /// - Decision agreement
 /// - Value locking across phases
+/// - In-order application of pipelined phases
 class RabiaConsensusIntegrationTest {
 
     record TestCommand(String value) implements Command {}
@@ -400,6 +403,75 @@ void locked_value_propagates_through_phases() throws InterruptedException {
         }
     }
 
+    @Nested
+    class PipelinedPhases {
+
+        @BeforeEach
+        void setUpPipelinedCluster() {
+            cluster.stopAll();
+            cluster = new ClusterSimulator(List.of(NODE_1, NODE_2, NODE_3),
+                                           new ProtocolConfig(timeSpan(60).seconds(), timeSpan(100).millis(), 100, 4));
+        }
+
+        @Test
+        void phase_decided_out_of_order_is_applied_after_preceding_phase() throws InterruptedException {
+            cluster.activateAll();
+
+            var first = Batch.batch(List.of(new TestCommand("first")));
+            var second = Batch.batch(List.of(new TestCommand("second")));
+
+            // Phase 1 is proposed and decided while phase 0 is still in flight
+            for (var nodeId : List.of(NODE_1, NODE_2, NODE_3)) {
+                cluster.simulateProposalForPhase(nodeId, new Phase(1), second);
+            }
+            deliverRounds();
+
+            var phase1Decisions = cluster.getMessagesByType(Decision.class).stream()
+                .filter(d -> d.phase().equals(new Phase(1)))
+                .toList();
+            assertThat(phase1Decisions).isNotEmpty();
+            for (var stateMachine : cluster.stateMachines.values()) {
+                assertThat(stateMachine.processedCommands).as("Phase 1 must wait for phase 0").isEmpty();
+            }
+
+            for (var nodeId : List.of(NODE_1, NODE_2, NODE_3)) {
+                cluster.simulateProposalForPhase(nodeId, Phase.ZERO, first);
+            }
+            deliverRounds();
+
+            for (var stateMachine : cluster.stateMachines.values()) {
+                assertThat(stateMachine.processedCommands)
+                    .isEqualTo(List.of(new TestCommand("first"), new TestCommand("second")));
+            }
+        }
+
+        @Test
+        void batch_decided_in_two_phases_is_applied_once() throws InterruptedException {
+            cluster.activateAll();
+
+            var batch = Batch.batch(List.of(new TestCommand("once")));
+
+            for (var phase : List.of(Phase.ZERO, new Phase(1))) {
+                for (var nodeId : List.of(NODE_1, NODE_2, NODE_3)) {
+                    cluster.simulateProposalForPhase(nodeId, phase, batch);
+                }
+            }
+            deliverRounds();
+
+            for (var stateMachine : cluster.stateMachines.values()) {
+                assertThat(stateMachine.processedCommands).isEqualTo(List.of(new TestCommand("once")));
+            }
+        }
+
+        private void deliverRounds() throws InterruptedException {
+            for (int i = 0; i < 4; i++) {
+                Thread.sleep(50);
+                cluster.deliverAllPendingMessages();
+            }
+            Thread.sleep(50);
+        }
+    }
+
     // ==================== Cluster Simulator ====================
 
     static class ClusterSimulator {
@@ -409,12 +481,16 @@ static class ClusterSimulator {
         private final List<NodeId> nodeIds;
 
         ClusterSimulator(List<NodeId> nodeIds) {
+            this(nodeIds, ProtocolConfig.testConfig());
+        }
+
+        ClusterSimulator(List<NodeId> nodeIds, ProtocolConfig config) {
             this.nodeIds = nodeIds;
             for (var nodeId : nodeIds) {
                 var network = new SimulatedNetwork(nodeId, this);
                 var stateMachine = new TestStateMachine();
                 var topologyManager = new SimulatedTopologyManager(nodeId, nodeIds.size());
-                var engine = new RabiaEngine<>(topologyManager, network, stateMachine, ProtocolConfig.testConfig());
+                var engine = new RabiaEngine<>(topologyManager, network, stateMachine, config);
                 networks.put(nodeId, network);
                 stateMachines.put(nodeId, stateMachine);
                 engines.put(nodeId, engine);
@@ -555,6 +631,13 @@ public int connectedNodeCount() {
             return cluster.nodeIds.size() - 1; // All nodes except self
         }
 
+        @Override
+        public Set<NodeId> connectedPeers() {
+            return cluster.nodeIds.stream()
+                                  .filter(nodeId -> !nodeId.equals(self))
+                                  .collect(Collectors.toSet());
+        }
+
         @Override
         public Option<Server> server() {
             return Option.none();
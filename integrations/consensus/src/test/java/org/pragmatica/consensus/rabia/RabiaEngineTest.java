@@ -44,6 +44,7 @@
 import java.net.SocketAddress;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -413,6 +414,51 @@ void round1_votes_never_vquestion() throws InterruptedException {
         }
     }
 
+    @Nested
+    class Pipelining {
+        @Test
+        void batch_decided_in_two_in_flight_phases_is_applied_once() throws InterruptedException {
+            engine.stop().await();
+            engine = new RabiaEngine<>(topologyManager,
+                                       network,
+                                       stateMachine,
+                                       ProtocolConfig.protocolConfig(timeSpan(60).seconds(), timeSpan(100).millis(), 3, 2)
+                                                     .unwrap());
+            activateEngine();
+
+            var batch = Batch.batch(List.of(new TestCommand("cmd")));
+            var phases = List.of(Phase.ZERO, new Phase(1));
+
+            for (var phase : phases) {
+                engine.processPropose(new Propose<>(NODE_1, phase, batch));
+                engine.processPropose(new Propose<>(NODE_2, phase, batch));
+            }
+            Thread.sleep(50);
+
+            // The later phase is decided first and waits for the earlier one
+            for (var phase : phases.reversed()) {
+                engine.processVoteRound1(new VoteRound1(NODE_2, phase, StateValue.V1));
+                engine.processVoteRound1(new VoteRound1(NODE_3, phase, StateValue.V1));
+                engine.processVoteRound2(new VoteRound2(NODE_2, phase, StateValue.V1));
+                engine.processVoteRound2(new VoteRound2(NODE_3, phase, StateValue.V1));
+            }
+            Thread.sleep(100);
+
+            assertThat(stateMachine.getProcessedCommands())
+                .as("Batch decided in two phases must be applied once")
+                .containsExactly(new TestCommand("cmd"));
+        }
+
+        @Test
+        void retention_not_exceeding_pipeline_depth_is_rejected() {
+            ProtocolConfig.protocolConfig(timeSpan(60).seconds(), timeSpan(100).millis(), 4, 4)
+                          .onSuccess(config -> assertThat(config).as("Configuration must be rejected").isNull())
+                          .onFailure(cause -> assertThat(cause).isInstanceOf(ProtocolConfig.ConfigError.RetentionTooShort.class));
+            assertThat(ProtocolConfig.protocolConfig(timeSpan(60).seconds(), timeSpan(100).millis(), 5, 4)
+                                     .isSuccess()).isTrue();
+        }
+    }
+
     @Nested
     class ProtocolFlow {
 
@@ -616,6 +662,11 @@ public int connectedNodeCount() {
             return 0; // Test network has no real connections
         }
 
+        @Override
+        public Set<NodeId> connectedPeers() {
+            return Set.of();
+        }
+
         @Override
         public Option<Server> server() {
             return Option.none();
@@ -26,9 +26,12 @@
 import org.pragmatica.consensus.StateMachine;
 import org.pragmatica.consensus.net.ClusterNetwork;
 import org.pragmatica.consensus.net.NetworkMessage;
+import org.pragmatica.consensus.net.NetworkServiceMessage;
 import org.pragmatica.consensus.net.NodeInfo;
-import org.pragmatica.consensus.rabia.RabiaPersistence.SavedState;
+import org.pragmatica.consensus.rabia.RabiaProtocolMessage.Asynchronous.NewBatch;
+import org.pragmatica.consensus.rabia.RabiaProtocolMessage.Asynchronous.SyncRequest;
 import org.pragmatica.consensus.rabia.RabiaProtocolMessage.Synchronous.*;
+import org.pragmatica.consensus.topology.NodeState;
 import org.pragmatica.consensus.topology.QuorumStateNotification;
 import org.pragmatica.consensus.topology.TopologyManager;
 import org.pragmatica.lang.Option;
@@ -37,22 +40,32 @@
 import org.pragmatica.lang.Unit;
 import org.pragmatica.lang.io.TimeSpan;
 import org.pragmatica.net.tcp.NodeAddress;
+import org.pragmatica.net.tcp.Server;
 
 import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.pragmatica.consensus.NodeId.nodeId;
 import static org.pragmatica.lang.io.TimeSpan.timeSpan;
 
 /// Performance tests for Rabia consensus.
-/// Measures throughput in two scenarios:
+/// Measures throughput in the following scenarios:
 /// 1. Single proposer (leader-like pattern)
 /// 2. Multiple proposers (contention pattern)
+/// 3. Full engines over a network with simulated latency, one phase at a time vs. pipelined phases
 @Tag("Benchmark")
 class RabiaPerformanceTest {
 
@@ -61,6 +74,9 @@ record TestCommand(int id) implements Command {}
     private static final int CLUSTER_SIZE = 5;
     private static final int WARMUP_ROUNDS = 100;
     private static final int BENCHMARK_ROUNDS = 1000;
+    private static final int PIPELINE_DEPTH = 8;
+    private static final int PIPELINED_COMMANDS = 200;
+    private static final TimeSpan HOP_LATENCY = timeSpan(1).millis();
 
     private List<NodeId> nodeIds;
     private PerformanceCluster cluster;
@@ -142,6 +158,56 @@ void concurrent_proposers_throughput() throws InterruptedException {
         printResults("Concurrent Proposers (all nodes)", startTime, endTime, BENCHMARK_ROUNDS);
     }
 
+    @Test
+    void pipelined_engine_throughput() throws InterruptedException {
+        var sequential = measureEngineThroughput(1);
+        var pipelined = measureEngineThroughput(PIPELINE_DEPTH);
+
+        System.out.println("Pipelining speedup: " + String.format("%.1f", pipelined / sequential) + "x");
+        assertThat(pipelined).isGreaterThan(sequential);
+    }
+
+    private double measureEngineThroughput(int pipelineDepth) throws InterruptedException {
+        var config = new ProtocolConfig(timeSpan(60).seconds(), timeSpan(100).millis(), 100, pipelineDepth);
+        var engineCluster = new LatencyCluster(nodeIds, config, HOP_LATENCY);
+
+        try {
+            engineCluster.activateAll();
+            var proposer = engineCluster.engine(nodeIds.getFirst());
+
+            long startTime = System.nanoTime();
+            var answers = IntStream.range(0, PIPELINED_COMMANDS)
+                                   .mapToObj(i -> proposer.<String>apply(List.of(new TestCommand(i))))
+                                   .toList();
+            var results = Promise.allOf(answers)
+                                 .await(timeSpan(60).seconds());
+            long endTime = System.nanoTime();
+
+            assertThat(results.isSuccess()).isTrue();
+            engineCluster.awaitApplied(PIPELINED_COMMANDS);
+            // Every node applied every command exactly once and in the same order
+            var reference = engineCluster.appliedCommands(nodeIds.getFirst());
+            assertThat(Set.copyOf(reference)).hasSize(PIPELINED_COMMANDS);
+            for (var nodeId : nodeIds) {
+                assertThat(engineCluster.appliedCommands(nodeId)).isEqualTo(reference);
+            }
+
+            double durationMs = (endTime - startTime) / 1_000_000.0;
+            double opsPerSec = PIPELINED_COMMANDS / (durationMs / 1000.0);
+
+            System.out.println();
+            System.out.println("=== Engine, pipeline depth " + pipelineDepth + ", hop latency " + HOP_LATENCY + " ===");
+            System.out.println("Cluster size:     " + CLUSTER_SIZE + " nodes");
+            System.out.println("Commands:         " + PIPELINED_COMMANDS);
+            System.out.println("Total time:       " + String.format("%.2f", durationMs) + " ms");
+            System.out.println("Throughput:       " + String.format("%.0f", opsPerSec) + " commands/sec");
+            System.out.println("Messages sent:    " + engineCluster.messagesSent());
+            return opsPerSec;
+        } finally {
+            engineCluster.stopAll();
+        }
+    }
+
     private void runConsensusRound(NodeId proposer, int commandId) {
         var batch = Batch.batch(List.of(new TestCommand(commandId)));
         var phase = new Phase(commandId);
@@ -315,4 +381,223 @@ private PhaseData<TestCommand> getOrCreatePhaseData(Phase phase) {
             return phaseDataMap.computeIfAbsent(phase, PhaseData::new);
         }
     }
+
+    // ==================== Engine Cluster With Simulated Latency ====================
+
+    /// Cluster of real engines, connected by in-memory network which delivers every message after fixed delay.
+    static class LatencyCluster {
+        private final Map<NodeId, RabiaEngine<TestCommand>> engines = new ConcurrentHashMap<>();
+        private final Map<NodeId, List<TestCommand>> applied = new ConcurrentHashMap<>();
+        private final ScheduledExecutorService delivery = Executors.newSingleThreadScheduledExecutor();
+        private final AtomicLong messagesSent = new AtomicLong();
+        private final TimeSpan latency;
+
+        LatencyCluster(List<NodeId> nodeIds, ProtocolConfig config, TimeSpan latency) {
+            this.latency = latency;
+            for (var nodeId : nodeIds) {
+                var commands = new CopyOnWriteArrayList<TestCommand>();
+                var topologyManager = new LatencyTopologyManager(nodeId, nodeIds.size());
+                var network = new LatencyNetwork(nodeId, this);
+                applied.put(nodeId, commands);
+                engines.put(nodeId, new RabiaEngine<>(topologyManager, network, new RecordingStateMachine(commands), config));
+            }
+        }
+
+        RabiaEngine<TestCommand> engine(NodeId nodeId) {
+            return engines.get(nodeId);
+        }
+
+        List<TestCommand> appliedCommands(NodeId nodeId) {
+            return List.copyOf(applied.get(nodeId));
+        }
+
+        long messagesSent() {
+            return messagesSent.get();
+        }
+
+        void activateAll() {
+            engines.values()
+                   .forEach(engine -> engine.quorumState(QuorumStateNotification.ESTABLISHED));
+            Promise.allOf(engines.values()
+                                 .stream()
+                                 .map(RabiaEngine::start)
+                                 .toList())
+                   .await(timeSpan(10).seconds());
+        }
+
+        void awaitApplied(int count) throws InterruptedException {
+            for (int i = 0; i < 1000 && applied.values()
+                                                .stream()
+                                                .anyMatch(commands -> commands.size() < count); i++) {
+                Thread.sleep(10);
+            }
+        }
+
+        void stopAll() {
+            engines.values()
+                   .forEach(engine -> engine.stop()
+                                            .await());
+            delivery.shutdownNow();
+        }
+
+        void send(NodeId target, ProtocolMessage message) {
+            messagesSent.incrementAndGet();
+            delivery.schedule(() -> deliver(engines.get(target), message), latency.nanos(), TimeUnit.NANOSECONDS);
+        }
+
+        void broadcast(NodeId sender, ProtocolMessage message) {
+            engines.keySet()
+                   .stream()
+                   .filter(nodeId -> !nodeId.equals(sender))
+                   .forEach(nodeId -> send(nodeId, message));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static void deliver(RabiaEngine<TestCommand> engine, ProtocolMessage message) {
+            switch (message) {
+                case Propose<?> propose -> engine.processPropose((Propose<TestCommand>) propose);
+                case VoteRound1 vote -> engine.processVoteRound1(vote);
+                case VoteRound2 vote -> engine.processVoteRound2(vote);
+                case Decision<?> decision -> engine.processDecision((Decision<TestCommand>) decision);
+                case SyncResponse<?> response -> engine.processSyncResponse((SyncResponse<TestCommand>) response);
+                case NewBatch<?> newBatch -> engine.handleNewBatch(newBatch);
+                case SyncRequest request -> engine.handleSyncRequest(request);
+                default -> {}
+            }
+        }
+    }
+
+    record LatencyNetwork(NodeId self, LatencyCluster cluster) implements ClusterNetwork {
+        @Override
+        public <M extends ProtocolMessage> Unit broadcast(M message) {
+            cluster.broadcast(self, message);
+            return Unit.unit();
+        }
+
+        @Override
+        public <M extends ProtocolMessage> Unit send(NodeId nodeId, M message) {
+            cluster.send(nodeId, message);
+            return Unit.unit();
+        }
+
+        @Override
+        public void connect(NetworkServiceMessage.ConnectNode connectNode) {}
+
+        @Override
+        public void disconnect(NetworkServiceMessage.DisconnectNode disconnectNode) {}
+
+        @Override
+        public void listNodes(NetworkServiceMessage.ListConnectedNodes listConnectedNodes) {}
+
+        @Override
+        public void handlePing(NetworkMessage.Ping ping) {}
+
+        @Override
+        public void handlePong(NetworkMessage.Pong pong) {}
+
+        @Override
+        public void handleSend(NetworkServiceMessage.Send send) {}
+
+        @Override
+        public void handleBroadcast(NetworkServiceMessage.Broadcast broadcast) {}
+
+        @Override
+        public Promise<Unit> start() {
+            return Promise.success(Unit.unit());
+        }
+
+        @Override
+        public Promise<Unit> stop() {
+            return Promise.success(Unit.unit());
+        }
+
+        @Override
+        public int connectedNodeCount() {
+            return cluster.engines.size() - 1;
+        }
+
+        @Override
+        public Set<NodeId> connectedPeers() {
+            return cluster.engines.keySet()
+                                  .stream()
+                                  .filter(nodeId -> !nodeId.equals(self))
+                                  .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Option<Server> server() {
+            return Option.none();
+        }
+    }
+
+    record LatencyTopologyManager(NodeInfo self, int clusterSize) implements TopologyManager {
+        LatencyTopologyManager(NodeId selfId, int clusterSize) {
+            this(new NodeInfo(selfId, NodeAddress.nodeAddress("localhost", 5000).unwrap()), clusterSize);
+        }
+
+        @Override
+        public Option<NodeInfo> get(NodeId id) {
+            return Option.option(new NodeInfo(id, NodeAddress.nodeAddress("localhost", 5000).unwrap()));
+        }
+
+        @Override
+        public Option<NodeId> reverseLookup(SocketAddress socketAddress) {
+            return Option.empty();
+        }
+
+        @Override
+        public Promise<Unit> start() {
+            return Promise.success(Unit.unit());
+        }
+
+        @Override
+        public Promise<Unit> stop() {
+            return Promise.success(Unit.unit());
+        }
+
+        @Override
+        public TimeSpan pingInterval() {
+            return timeSpan(1).seconds();
+        }
+
+        @Override
+        public TimeSpan helloTimeout() {
+            return timeSpan(5).seconds();
+        }
+
+        @Override
+        public Option<NodeState> getState(NodeId id) {
+            return Option.empty();
+        }
+
+        @Override
+        public List<NodeId> topology() {
+            return List.of();
+        }
+    }
+
+    record RecordingStateMachine(List<TestCommand> commands) implements StateMachine<TestCommand> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R process(TestCommand command) {
+            commands.add(command);
+            return (R) ("result:" + command.id());
+        }
+
+        @Override
+        public Result<byte[]> makeSnapshot() {
+            return Result.success(new byte[0]);
+        }
+
+        @Override
+        public Result<Unit> restoreSnapshot(byte[] snapshot) {
+            return Result.success(Unit.unit());
+        }
+
+        @Override
+        public Unit reset() {
+            commands.clear();
+            return Unit.unit();
+        }
+    }
 }
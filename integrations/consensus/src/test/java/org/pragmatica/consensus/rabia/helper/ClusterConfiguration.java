@@ -27,6 +27,7 @@
 /**
  * Configuration record for cluster testing.
  * For n=2f+1 nodes: quorum = f+1 (majority), fPlusOne = f+1
+ * Pipeline depth is the number of phases a node may have in flight beyond its last applied phase.
  */
 public record ClusterConfiguration(
     int clusterSize,
@@ -34,7 +35,8 @@ public record ClusterConfiguration(
     int fPlusOne,
     int maxFailures,
     int superMajoritySize,
-    List<NodeId> nodeIds
+    List<NodeId> nodeIds,
+    int pipelineDepth
 ) {
     public static ClusterConfiguration threeNodes() {
         return of(3);
@@ -53,7 +55,12 @@ public static ClusterConfiguration of(int n) {
         var nodeIds = IntStream.rangeClosed(1, n)
                                .mapToObj(i -> NodeId.nodeId("node-" + i).unwrap())
                                .toList();
-        return new ClusterConfiguration(n, f + 1, f + 1, f, n - f, nodeIds);
+        return new ClusterConfiguration(n, f + 1, f + 1, f, n - f, nodeIds, 1);
+    }
+
+    /// Same cluster with the given number of phases in flight
+    public ClusterConfiguration withPipelineDepth(int depth) {
+        return new ClusterConfiguration(clusterSize, quorumSize, fPlusOne, maxFailures, superMajoritySize, nodeIds, depth);
     }
 
     /// Return all possible majority quorums (combinations of quorumSize nodes)
@@ -23,6 +23,7 @@
 import org.pragmatica.consensus.rabia.StateValue;
 import org.pragmatica.lang.Option;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -34,6 +35,7 @@
  */
 public final class ClusterState<C extends Command> {
     private final Map<NodeId, Option<Batch<C>>> proposals = new HashMap<>();
+    private final Map<NodeId, Map<Phase, Batch<C>>> phaseProposals = new HashMap<>();
     private final Map<NodeId, Map<Phase, StateValue>> round1Votes = new HashMap<>();
     private final Map<NodeId, Map<Phase, StateValue>> round2Votes = new HashMap<>();
     private final Map<NodeId, Map<Phase, StateValue>> decisionsBc = new HashMap<>();
@@ -41,16 +43,21 @@
     private final Map<NodeId, Set<Phase>> decisionsFullNoval = new HashMap<>();
     private final Map<Phase, StateValue> coinFlips = new HashMap<>();
     private final Map<NodeId, Option<Phase>> nodePhases = new HashMap<>();
+    private final Map<NodeId, List<Phase>> appliedPhases = new HashMap<>();
+    private final Map<NodeId, List<Batch<C>>> appliedBatches = new HashMap<>();
 
     public ClusterState(List<NodeId> nodes) {
         for (var node : nodes) {
             proposals.put(node, Option.none());
+            phaseProposals.put(node, new HashMap<>());
             round1Votes.put(node, new HashMap<>());
             round2Votes.put(node, new HashMap<>());
             decisionsBc.put(node, new HashMap<>());
             decisionsFullVal.put(node, new HashMap<>());
             decisionsFullNoval.put(node, new HashSet<>());
             nodePhases.put(node, Option.none());
+            appliedPhases.put(node, new ArrayList<>());
+            appliedBatches.put(node, new ArrayList<>());
         }
     }
 
@@ -59,6 +66,11 @@ public void propose(NodeId node, Batch<C> value) {
         proposals.put(node, Option.some(value));
     }
 
+    /// Proposal for a particular phase, used when several phases are in flight at once
+    public void proposeInPhase(NodeId node, Phase phase, Batch<C> value) {
+        phaseProposals.get(node).put(phase, value);
+    }
+
     public void voteRound1(NodeId node, Phase phase, StateValue value) {
         round1Votes.get(node).put(phase, value);
     }
@@ -83,6 +95,15 @@ public void setCoin(Phase phase, StateValue value) {
         coinFlips.put(phase, value);
     }
 
+    /// Apply outcome of the phase to the node state machine. A batch already applied earlier is not applied again.
+    public void apply(NodeId node, Phase phase) {
+        appliedPhases.get(node).add(phase);
+        var batch = decisionsFullVal.get(node).get(phase);
+        if (batch != null && !appliedBatches.get(node).contains(batch)) {
+            appliedBatches.get(node).add(batch);
+        }
+    }
+
     public void setInPhase(NodeId node, Phase phase) {
         nodePhases.put(node, Option.some(phase));
     }
@@ -96,6 +117,24 @@ public Option<Batch<C>> getProposal(NodeId node) {
         return proposals.get(node);
     }
 
+    /// Proposal of the node for the phase - phase-specific one if present, otherwise the single initial proposal
+    public Option<Batch<C>> getProposal(NodeId node, Phase phase) {
+        return Option.option(phaseProposals.get(node).get(phase))
+                     .orElse(proposals.get(node));
+    }
+
+    public Map<Phase, Batch<C>> getPhaseProposals(NodeId node) {
+        return phaseProposals.get(node);
+    }
+
+    public List<Phase> getAppliedPhases(NodeId node) {
+        return appliedPhases.get(node);
+    }
+
+    public List<Batch<C>> getAppliedBatches(NodeId node) {
+        return appliedBatches.get(node);
+    }
+
     public Map<Phase, StateValue> getRound1Votes(NodeId node) {
         return round1Votes.get(node);
     }
@@ -234,7 +273,8 @@ public Set<Phase> allDecidedPhases() {
 
     /// Check if any node has proposed
     public boolean anyNodeProposed() {
-        return proposals.values().stream().anyMatch(Option::isPresent);
+        return proposals.values().stream().anyMatch(Option::isPresent)
+               || phaseProposals.values().stream().anyMatch(nodeProposals -> !nodeProposals.isEmpty());
     }
 
     /// Get all proposed values
@@ -243,6 +283,9 @@ public Set<Batch<C>> allProposedValues() {
         for (var proposal : proposals.values()) {
             proposal.onPresent(result::add);
         }
+        for (var nodeProposals : phaseProposals.values()) {
+            result.addAll(nodeProposals.values());
+        }
         return result;
     }
 
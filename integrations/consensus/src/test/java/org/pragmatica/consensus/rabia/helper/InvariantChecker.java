@@ -32,7 +32,8 @@
 
 /**
  * Invariant checker for Rabia consensus protocol.
- * Implements invariants from weak_mvc.ivy specification (lines 201-298).
+ * Implements invariants from weak_mvc.ivy specification (lines 201-298),
+ * plus invariants of the pipelined execution, where several phases are in flight at once.
  */
 public final class InvariantChecker {
 
@@ -124,6 +125,13 @@ public static <C extends Command> Result<List<InvariantCheckResult>> checkAll(
         results.add(checkFaultToleranceBound(state, config));
         results.add(checkLivenessCondition(state, config));
 
+        // Pipelining invariants (53-57)
+        results.add(checkAppliedInOrder(state, config));
+        results.add(checkAppliedRequiresDecision(state, config));
+        results.add(checkPipelineWindow(state, config));
+        results.add(checkAppliedBatchUniqueness(state, config));
+        results.add(checkAppliedPrefixAgreement(state, config));
+
         return success(results);
     }
 
@@ -174,7 +182,7 @@ public static <C extends Command> InvariantCheckResult checkDecisionFullValRequi
                 var decidedValue = entry.getValue();
                 int count = 0;
                 for (var n : state.getAllNodes()) {
-                    var proposal = state.getProposal(n);
+                    var proposal = state.getProposal(n, entry.getKey());
                     if (proposal.isPresent() && proposal.unwrap().equals(decidedValue)) {
                         count++;
                     }
@@ -1047,4 +1055,95 @@ public static <C extends Command> InvariantCheckResult checkLivenessCondition(
         }
         return InvariantCheckResult.pass("liveness_condition");
     }
+
+    // ==================== Pipelining Invariants (53-57) ====================
+
+    /// Invariant 53: Phases are applied strictly in order, without gaps, starting from phase ZERO
+    public static <C extends Command> InvariantCheckResult checkAppliedInOrder(
+        ClusterState<C> state,
+        ClusterConfiguration config
+    ) {
+        for (var node : state.getAllNodes()) {
+            var applied = state.getAppliedPhases(node);
+            for (int i = 0; i < applied.size(); i++) {
+                if (applied.get(i).value() != i) {
+                    return InvariantCheckResult.fail("applied_in_order",
+                        "Node " + node + " applied phase " + applied.get(i) + " at position " + i);
+                }
+            }
+        }
+        return InvariantCheckResult.pass("applied_in_order");
+    }
+
+    /// Invariant 54: Only phases decided by the node can be applied
+    public static <C extends Command> InvariantCheckResult checkAppliedRequiresDecision(
+        ClusterState<C> state,
+        ClusterConfiguration config
+    ) {
+        for (var node : state.getAllNodes()) {
+            for (var phase : state.getAppliedPhases(node)) {
+                if (!state.hasDecisionBc(node, phase)) {
+                    return InvariantCheckResult.fail("applied_requires_decision",
+                        "Node " + node + " applied phase " + phase + " without decision_bc");
+                }
+            }
+        }
+        return InvariantCheckResult.pass("applied_requires_decision");
+    }
+
+    /// Invariant 55: Node takes part only in phases within the pipeline window after its last applied phase
+    public static <C extends Command> InvariantCheckResult checkPipelineWindow(
+        ClusterState<C> state,
+        ClusterConfiguration config
+    ) {
+        for (var node : state.getAllNodes()) {
+            long windowEnd = state.getAppliedPhases(node).size() + (long) config.pipelineDepth();
+            var phases = new HashSet<>(state.getRound1Votes(node).keySet());
+            phases.addAll(state.getPhaseProposals(node).keySet());
+
+            for (var phase : phases) {
+                if (phase.value() >= windowEnd) {
+                    return InvariantCheckResult.fail("pipeline_window",
+                        "Node " + node + " is active in phase " + phase + " beyond pipeline window ending at " + windowEnd);
+                }
+            }
+        }
+        return InvariantCheckResult.pass("pipeline_window");
+    }
+
+    /// Invariant 56: A batch decided in several phases in flight is applied only once
+    public static <C extends Command> InvariantCheckResult checkAppliedBatchUniqueness(
+        ClusterState<C> state,
+        ClusterConfiguration config
+    ) {
+        for (var node : state.getAllNodes()) {
+            var applied = state.getAppliedBatches(node);
+            if (new HashSet<>(applied).size() != applied.size()) {
+                return InvariantCheckResult.fail("applied_batch_uniqueness",
+                    "Node " + node + " applied the same batch more than once");
+            }
+        }
+        return InvariantCheckResult.pass("applied_batch_uniqueness");
+    }
+
+    /// Invariant 57: Sequences of applied batches of any two nodes are prefixes of one another
+    public static <C extends Command> InvariantCheckResult checkAppliedPrefixAgreement(
+        ClusterState<C> state,
+        ClusterConfiguration config
+    ) {
+        var nodes = new ArrayList<>(state.getAllNodes());
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int j = i + 1; j < nodes.size(); j++) {
+                var first = state.getAppliedBatches(nodes.get(i));
+                var second = state.getAppliedBatches(nodes.get(j));
+                int common = Math.min(first.size(), second.size());
+
+                if (!first.subList(0, common).equals(second.subList(0, common))) {
+                    return InvariantCheckResult.fail("applied_prefix_agreement",
+                        "Nodes " + nodes.get(i) + " and " + nodes.get(j) + " applied different batch sequences");
+                }
+            }
+        }
+        return InvariantCheckResult.pass("applied_prefix_agreement");
+    }
 }
@@ -23,7 +23,8 @@
 import org.pragmatica.consensus.rabia.StateValue;
 
 /**
- * Sealed interface representing protocol actions from weak_mvc.ivy spec.
+ * Sealed interface representing protocol actions from weak_mvc.ivy spec,
+ * extended with per-phase proposals and in-order application of pipelined phases.
  */
 public sealed interface ProtocolAction<C extends Command> {
     record InitialProposal<C extends Command>(NodeId node, Batch<C> value) implements ProtocolAction<C> {}
@@ -41,4 +42,8 @@
     record DecisionBc<C extends Command>(NodeId node, Phase phase, StateValue value) implements ProtocolAction<C> {}
 
     record CoinFlip<C extends Command>(Phase phase, StateValue value) implements ProtocolAction<C> {}
+
+    record PhaseProposal<C extends Command>(NodeId node, Phase phase, Batch<C> value) implements ProtocolAction<C> {}
+
+    record ApplyDecision<C extends Command>(NodeId node, Phase phase) implements ProtocolAction<C> {}
 }
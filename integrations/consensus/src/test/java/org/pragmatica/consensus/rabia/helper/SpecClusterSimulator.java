@@ -31,7 +31,8 @@
 /**
  * Deterministic model-checking style simulator for Rabia consensus protocol.
  * Tracks cluster state, validates invariants after each action, and provides
- * query methods matching Ivy spec predicates.
+ * query methods matching Ivy spec predicates. Pipelined execution is modelled
+ * with per-phase proposals and explicit in-order application of decided phases.
  */
 public final class SpecClusterSimulator<C extends Command> {
 
@@ -100,6 +101,29 @@ public Result<SpecClusterSimulator<C>> initialProposal(NodeId node, Batch<C> val
             .flatMap(this::checkInvariants);
     }
 
+    /// Proposal for a particular phase while other phases may be in flight
+    public Result<SpecClusterSimulator<C>> proposeInPhase(NodeId node, Phase phase, Batch<C> value) {
+        return validateNode(node)
+            .flatMap(_ -> validateNoExistingPhaseProposal(node, phase))
+            .map(_ -> {
+                state.proposeInPhase(node, phase, value);
+                history.recordProposal(node, value);
+                return this;
+            })
+            .flatMap(this::checkInvariants);
+    }
+
+    /// Apply the outcome of the next decided phase to the node state machine
+    public Result<SpecClusterSimulator<C>> applyDecision(NodeId node, Phase phase) {
+        return validateNode(node)
+            .flatMap(_ -> validateApplication(node, phase))
+            .map(_ -> {
+                state.apply(node, phase);
+                return this;
+            })
+            .flatMap(this::checkInvariants);
+    }
+
     /// Initial round 1 vote (Phase ZERO)
     public Result<SpecClusterSimulator<C>> initialVote1(NodeId node, StateValue vote) {
         return phaseRound1(node, Phase.ZERO, vote);
@@ -238,6 +262,16 @@ public Option<Batch<C>> getProposal(NodeId node) {
         return state.getProposal(node);
     }
 
+    /// Get phases applied by node, in order of application
+    public List<Phase> getAppliedPhases(NodeId node) {
+        return state.getAppliedPhases(node);
+    }
+
+    /// Get batches applied by node, in order of application
+    public List<Batch<C>> getAppliedBatches(NodeId node) {
+        return state.getAppliedBatches(node);
+    }
+
     /// Get all nodes
     public List<NodeId> getAllNodes() {
         return config.nodeIds();
@@ -305,6 +339,27 @@ private Result<NodeId> validateNoExistingProposal(NodeId node) {
         return Result.success(node);
     }
 
+    private Result<NodeId> validateNoExistingPhaseProposal(NodeId node, Phase phase) {
+        if (state.getPhaseProposals(node).containsKey(phase)) {
+            return new SimulatorError.InvalidAction("proposeInPhase",
+                "Node " + node.id() + " already has a proposal at phase " + phase.value()).result();
+        }
+        return Result.success(node);
+    }
+
+    private Result<NodeId> validateApplication(NodeId node, Phase phase) {
+        var expected = state.getAppliedPhases(node).size();
+        if (phase.value() != expected) {
+            return new SimulatorError.InvalidAction("applyDecision",
+                "Node " + node.id() + " must apply phase " + expected + " before phase " + phase.value()).result();
+        }
+        if (!state.hasDecisionBc(node, phase)) {
+            return new SimulatorError.InvalidAction("applyDecision",
+                "Node " + node.id() + " has no decision at phase " + phase.value()).result();
+        }
+        return Result.success(node);
+    }
+
     private Result<NodeId> validateRound1Vote(NodeId node, Phase phase, StateValue vote) {
         if (vote == StateValue.VQUESTION) {
             return new SimulatorError.InvalidAction("phaseRound1",
@@ -401,6 +456,8 @@ private Result<SpecClusterSimulator<C>> executeAction(SpecClusterSimulator<C> si
                     "DecisionBc should use DecideFullVal or DecideFullNoval").result();
             }
             case ProtocolAction.CoinFlip<C> a -> sim.coinFlip(a.phase(), a.value());
+            case ProtocolAction.PhaseProposal<C> a -> sim.proposeInPhase(a.node(), a.phase(), a.value());
+            case ProtocolAction.ApplyDecision<C> a -> sim.applyDecision(a.node(), a.phase());
         };
     }
 
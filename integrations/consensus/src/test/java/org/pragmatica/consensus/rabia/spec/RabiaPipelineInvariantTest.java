@@ -0,0 +1,187 @@
+/*
+ *  Copyright (c) 2020-2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.pragmatica.consensus.rabia.spec;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pragmatica.consensus.Command;
+import org.pragmatica.consensus.rabia.Batch;
+import org.pragmatica.consensus.rabia.Phase;
+import org.pragmatica.consensus.rabia.StateValue;
+import org.pragmatica.consensus.rabia.helper.ClusterConfiguration;
+import org.pragmatica.consensus.rabia.helper.SpecClusterSimulator;
+import org.pragmatica.consensus.rabia.helper.SpecClusterSimulator.SimulatorError;
+import org.pragmatica.lang.Result;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for pipelined execution, where up to pipelineDepth phases are in flight at once (invariants 53-57).
+ * <p>
+ * Phases may be decided in any order, but each node applies them strictly in phase order, never takes part
+ * in phases beyond its pipeline window and applies a batch decided in several phases only once.
+ */
+class RabiaPipelineInvariantTest {
+
+    record TestCommand(String value) implements Command {}
+
+    static Stream<Arguments> clusterSizes() {
+        return Stream.of(
+            Arguments.of(3),
+            Arguments.of(5),
+            Arguments.of(7)
+        );
+    }
+
+    private static Batch<TestCommand> batch(String value) {
+        return Batch.batch(List.of(new TestCommand(value)));
+    }
+
+    /// All nodes propose the same batch in the phase and decide it via V1 votes in both rounds
+    private static Result<SpecClusterSimulator<TestCommand>> decidePhase(SpecClusterSimulator<TestCommand> simulator,
+                                                                         Phase phase,
+                                                                         Batch<TestCommand> value) {
+        Result<SpecClusterSimulator<TestCommand>> result = Result.success(simulator);
+        for (var node : simulator.getAllNodes()) {
+            result = result.flatMap(sim -> sim.proposeInPhase(node, phase, value));
+        }
+        for (var node : simulator.getAllNodes()) {
+            result = result.flatMap(sim -> sim.phaseRound1(node, phase, StateValue.V1));
+        }
+        for (var node : simulator.getAllNodes()) {
+            result = result.flatMap(sim -> sim.phaseRound2(node, phase, StateValue.V1));
+        }
+        for (var node : simulator.getAllNodes()) {
+            result = result.flatMap(sim -> sim.decideBcFullVal(node, phase, value));
+        }
+        return result;
+    }
+
+    private static Result<SpecClusterSimulator<TestCommand>> applyOnAllNodes(SpecClusterSimulator<TestCommand> simulator,
+                                                                             Phase phase) {
+        Result<SpecClusterSimulator<TestCommand>> result = Result.success(simulator);
+        for (var node : simulator.getAllNodes()) {
+            result = result.flatMap(sim -> sim.applyDecision(node, phase));
+        }
+        return result;
+    }
+
+    private static String violatedInvariant(Result<?> result) {
+        return result.fold(cause -> cause instanceof SimulatorError.InvariantViolation violation
+                                    ? violation.invariantName()
+                                    : cause.message(),
+                           _ -> "none");
+    }
+
+    @Nested
+    class InOrderApplication {
+
+        // [53] applied_in_order: decisions made out of order are applied in phase order
+        @ParameterizedTest
+        @MethodSource("org.pragmatica.consensus.rabia.spec.RabiaPipelineInvariantTest#clusterSizes")
+        void out_of_order_decisions_are_applied_in_phase_order(int size) {
+            var simulator = new SpecClusterSimulator<TestCommand>(ClusterConfiguration.of(size).withPipelineDepth(3));
+            var batches = List.of(batch("cmd-0"), batch("cmd-1"), batch("cmd-2"));
+
+            var decided = decidePhase(simulator, new Phase(2), batches.get(2))
+                .flatMap(sim -> decidePhase(sim, Phase.ZERO, batches.get(0)))
+                .flatMap(sim -> decidePhase(sim, new Phase(1), batches.get(1)));
+            assertThat(decided.isSuccess()).as(violatedInvariant(decided)).isTrue();
+
+            // Phase 1 is decided, but can't be applied before phase 0
+            var node = simulator.getAllNodes().getFirst();
+            assertThat(simulator.applyDecision(node, new Phase(1)).isFailure()).isTrue();
+
+            var applied = applyOnAllNodes(simulator, Phase.ZERO)
+                .flatMap(sim -> applyOnAllNodes(sim, new Phase(1)))
+                .flatMap(sim -> applyOnAllNodes(sim, new Phase(2)));
+            assertThat(applied.isSuccess()).as(violatedInvariant(applied)).isTrue();
+
+            for (var each : simulator.getAllNodes()) {
+                assertThat(simulator.getAppliedBatches(each)).isEqualTo(batches);
+            }
+        }
+
+        // [56] applied_batch_uniqueness: a batch decided in two phases in flight is applied once
+        @ParameterizedTest
+        @MethodSource("org.pragmatica.consensus.rabia.spec.RabiaPipelineInvariantTest#clusterSizes")
+        void batch_decided_in_two_phases_is_applied_once(int size) {
+            var simulator = new SpecClusterSimulator<TestCommand>(ClusterConfiguration.of(size).withPipelineDepth(2));
+            var value = batch("cmd");
+
+            var result = decidePhase(simulator, Phase.ZERO, value)
+                .flatMap(sim -> decidePhase(sim, new Phase(1), value))
+                .flatMap(sim -> applyOnAllNodes(sim, Phase.ZERO))
+                .flatMap(sim -> applyOnAllNodes(sim, new Phase(1)));
+            assertThat(result.isSuccess()).as(violatedInvariant(result)).isTrue();
+
+            for (var node : simulator.getAllNodes()) {
+                assertThat(simulator.getAppliedPhases(node)).isEqualTo(List.of(Phase.ZERO, new Phase(1)));
+                assertThat(simulator.getAppliedBatches(node)).isEqualTo(List.of(value));
+            }
+        }
+    }
+
+    @Nested
+    class PipelineWindow {
+
+        // [55] pipeline_window: participation beyond the window is a violation
+        @ParameterizedTest
+        @MethodSource("org.pragmatica.consensus.rabia.spec.RabiaPipelineInvariantTest#clusterSizes")
+        void phase_beyond_window_violates_invariant(int size) {
+            var simulator = new SpecClusterSimulator<TestCommand>(ClusterConfiguration.of(size).withPipelineDepth(2));
+            var node = simulator.getAllNodes().getFirst();
+
+            var result = decidePhase(simulator, new Phase(1), batch("cmd-1"))
+                .flatMap(sim -> sim.proposeInPhase(node, new Phase(2), batch("cmd-2")));
+
+            assertThat(violatedInvariant(result)).isEqualTo("pipeline_window");
+        }
+
+        // [55] pipeline_window: the window moves as phases are applied
+        @ParameterizedTest
+        @MethodSource("org.pragmatica.consensus.rabia.spec.RabiaPipelineInvariantTest#clusterSizes")
+        void window_moves_after_application(int size) {
+            var simulator = new SpecClusterSimulator<TestCommand>(ClusterConfiguration.of(size).withPipelineDepth(2));
+
+            var result = decidePhase(simulator, Phase.ZERO, batch("cmd-0"))
+                .flatMap(sim -> decidePhase(sim, new Phase(1), batch("cmd-1")))
+                .flatMap(sim -> applyOnAllNodes(sim, Phase.ZERO))
+                .flatMap(sim -> decidePhase(sim, new Phase(2), batch("cmd-2")));
+
+            assertThat(result.isSuccess()).as(violatedInvariant(result)).isTrue();
+        }
+
+        // With depth 1 the node runs one phase at a time, as without pipelining
+        @ParameterizedTest
+        @MethodSource("org.pragmatica.consensus.rabia.spec.RabiaPipelineInvariantTest#clusterSizes")
+        void depth_one_runs_single_phase(int size) {
+            var simulator = new SpecClusterSimulator<TestCommand>(ClusterConfiguration.of(size));
+            var node = simulator.getAllNodes().getFirst();
+
+            var result = decidePhase(simulator, Phase.ZERO, batch("cmd-0"))
+                .flatMap(sim -> sim.phaseRound1(node, new Phase(1), StateValue.V1));
+
+            assertThat(violatedInvariant(result)).isEqualTo("pipeline_window");
+        }
+    }
+}
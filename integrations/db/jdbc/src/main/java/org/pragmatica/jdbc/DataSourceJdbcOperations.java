@@ -20,92 +20,129 @@
 import org.pragmatica.lang.Functions.ThrowingFn1;
 import org.pragmatica.lang.Option;
 import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.PromiseStream;
+import org.pragmatica.lang.Result;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
 /// DataSource-based implementation of JdbcOperations.
+///
+/// Statements are executed asynchronously. Returned promises are [cancellable][Promise#cancellable()]: if the promise is
+/// cancelled (explicitly, by timeout or by cancellation of a dependent promise) while the statement is running, the
+/// statement is cancelled with [Statement#cancel()], so the connection is released as soon as possible.
 record DataSourceJdbcOperations(DataSource dataSource) implements JdbcOperations {
     @Override
     public <T> Promise<T> queryOne(String sql, ThrowingFn1<T, ResultSet> mapper, Object... params) {
-        return Promise.lift(e -> JdbcError.fromException(e, sql),
-                            () -> executeQuery(sql,
-                                               params,
-                                               rs -> {
-                                                   if (rs.next()) {
-                                                       var result = mapper.apply(rs);
-                                                       if (rs.next()) {
-                                                           throw new SQLException("Multiple results found");
-                                                       }
-                                                       return result;
-                                                   }
-                                                   throw new SQLException("No result found");
-                                               }));
+        return executeQuery(sql,
+                            params,
+                            rs -> {
+                                if (rs.next()) {
+                                    var result = mapper.apply(rs);
+                                    if (rs.next()) {
+                                        throw new SQLException("Multiple results found");
+                                    }
+                                    return result;
+                                }
+                                throw new SQLException("No result found");
+                            });
     }
 
     @Override
     public <T> Promise<Option<T>> queryOptional(String sql, ThrowingFn1<T, ResultSet> mapper, Object... params) {
-        return Promise.lift(e -> JdbcError.fromException(e, sql),
-                            () -> executeQuery(sql,
-                                               params,
-                                               rs -> {
-                                                   if (rs.next()) {
-                                                       return Option.option(mapper.apply(rs));
-                                                   }
-                                                   return Option.none();
-                                               }));
+        return executeQuery(sql,
+                            params,
+                            rs -> {
+                                if (rs.next()) {
+                                    return Option.option(mapper.apply(rs));
+                                }
+                                return Option.none();
+                            });
     }
 
     @Override
     public <T> Promise<List<T>> queryList(String sql, ThrowingFn1<T, ResultSet> rowMapper, Object... params) {
-        return Promise.lift(e -> JdbcError.fromException(e, sql),
-                            () -> executeQuery(sql,
-                                               params,
-                                               rs -> {
-                                                   var results = new ArrayList<T>();
-                                                   while (rs.next()) {
-                                                       results.add(rowMapper.apply(rs));
-                                                   }
-                                                   return results;
-                                               }));
+        return executeQuery(sql,
+                            params,
+                            rs -> {
+                                var results = new ArrayList<T>();
+                                while (rs.next()) {
+                                    results.add(rowMapper.apply(rs));
+                                }
+                                return results;
+                            });
+    }
+
+    @Override
+    public <T> PromiseStream<T> queryStream(String sql,
+                                            int fetchSize,
+                                            ThrowingFn1<T, ResultSet> rowMapper,
+                                            Object... params) {
+        if (fetchSize <= 0) {
+            return PromiseStream.failure(PromiseStream.INVALID_SIZE);
+        }
+        return new JdbcRowStream<>(dataSource, sql, params, fetchSize, rowMapper);
     }
 
     @Override
     public Promise<Integer> update(String sql, Object... params) {
-        return Promise.lift(e -> JdbcError.fromException(e, sql),
-                            () -> {
-                                try (var conn = dataSource.getConnection();
-                                     var stmt = prepareStatement(conn, sql, params)) {
-                                    return stmt.executeUpdate();
-                                }
-                            });
+        return execute(sql, conn -> prepareStatement(conn, sql, params), PreparedStatement::executeUpdate);
     }
 
     @Override
     public Promise<int[]> batch(String sql, List<Object[]> paramsList) {
-        return Promise.lift(e -> JdbcError.fromException(e, sql),
-                            () -> {
-                                try (var conn = dataSource.getConnection();
-                                     var stmt = conn.prepareStatement(sql)) {
-                                    for (var params : paramsList) {
-                                        setParameters(stmt, params);
-                                        stmt.addBatch();
-                                    }
-                                    return stmt.executeBatch();
-                                }
-                            });
+        return execute(sql,
+                       conn -> conn.prepareStatement(sql),
+                       stmt -> {
+                           for (var params : paramsList) {
+                               setParameters(stmt, params);
+                               stmt.addBatch();
+                           }
+                           return stmt.executeBatch();
+                       });
+    }
+
+    private <T> Promise<T> executeQuery(String sql, Object[] params, ThrowingFn1<T, ResultSet> handler) {
+        return execute(sql,
+                       conn -> prepareStatement(conn, sql, params),
+                       stmt -> {
+                           try (var rs = stmt.executeQuery()) {
+                               return handler.apply(rs);
+                           }
+                       });
+    }
+
+    private <T> Promise<T> execute(String sql,
+                                   ThrowingFn1<PreparedStatement, Connection> preparer,
+                                   ThrowingFn1<T, PreparedStatement> action) {
+        return Promise.<T>promise(promise -> {
+                                      // Cancelled before start, don't even acquire connection
+                                      if (promise.isResolved()) {
+                                          return;
+                                      }
+                                      promise.resolve(Result.lift(e -> JdbcError.fromException(e, sql),
+                                                                  () -> {
+                                                                      try (var conn = dataSource.getConnection();
+                                                                           var stmt = preparer.apply(conn)) {
+                                                                          promise.onCancel(() -> cancel(stmt));
+                                                                          return action.apply(stmt);
+                                                                      }
+                                                                  }));
+                                  })
+                      .cancellable();
     }
 
-    private <T> T executeQuery(String sql, Object[] params, ThrowingFn1<T, ResultSet> handler) throws Throwable {
-        try (var conn = dataSource.getConnection();
-             var stmt = prepareStatement(conn, sql, params);
-             var rs = stmt.executeQuery()) {
-            return handler.apply(rs);
+    static void cancel(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException _) {
+            // Statement is already closed or driver does not support cancellation, nothing to do
         }
     }
 
@@ -115,7 +152,7 @@ private PreparedStatement prepareStatement(Connection conn, String sql, Object[]
         return stmt;
     }
 
-    private void setParameters(PreparedStatement stmt, Object[] params) throws SQLException {
+    static void setParameters(PreparedStatement stmt, Object[] params) throws SQLException {
         for (int i = 0; i < params.length; i++) {
             stmt.setObject(i + 1, params[i]);
         }
@@ -20,6 +20,7 @@
 import org.pragmatica.lang.Functions.ThrowingFn1;
 import org.pragmatica.lang.Option;
 import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.PromiseStream;
 
 import javax.sql.DataSource;
 import java.sql.ResultSet;
@@ -58,6 +59,39 @@ public interface JdbcOperations {
     /// @return Promise containing list of mapped results
     <T> Promise<List<T>> queryList(String sql, ThrowingFn1<T, ResultSet> rowMapper, Object... params);
 
+    /// Executes a query and returns the stream of mapped rows. Rows are read lazily in chunks of
+    /// [#DEFAULT_FETCH_SIZE] rows, so the whole result is never kept in memory.
+    ///
+    /// @param sql SQL query
+    /// @param rowMapper Function to map each row to domain object (may throw, must not return `null`)
+    /// @param params Query parameters
+    /// @param <T> Stream element type
+    ///
+    /// @return Stream of mapped results
+    ///
+    /// @see #queryStream(String, int, ThrowingFn1, Object...)
+    default <T> PromiseStream<T> queryStream(String sql, ThrowingFn1<T, ResultSet> rowMapper, Object... params) {
+        return queryStream(sql, DEFAULT_FETCH_SIZE, rowMapper, params);
+    }
+
+    /// Executes a query and returns the stream of mapped rows. Rows are read lazily in chunks of `fetchSize` rows
+    /// and the fetch size is passed to the driver, so the whole result is never kept in memory.
+    /// The connection is held until the stream is exhausted, failed or closed. Terminal operations of [PromiseStream]
+    /// close the stream automatically; if the stream is consumed manually, it must be closed explicitly.
+    ///
+    /// Note that some drivers ignore the fetch size in certain modes. For example, PostgreSQL driver uses
+    /// server-side cursor only if auto-commit is disabled for the connections provided by the DataSource; otherwise
+    /// the whole result is loaded by the driver (but still mapped in chunks).
+    ///
+    /// @param sql SQL query
+    /// @param fetchSize Number of rows read at once, must be positive
+    /// @param rowMapper Function to map each row to domain object (may throw, must not return `null`)
+    /// @param params Query parameters
+    /// @param <T> Stream element type
+    ///
+    /// @return Stream of mapped results or stream which fails with [PromiseStream#INVALID_SIZE] if the fetch size is not positive
+    <T> PromiseStream<T> queryStream(String sql, int fetchSize, ThrowingFn1<T, ResultSet> rowMapper, Object... params);
+
     /// Executes an update statement (INSERT, UPDATE, DELETE).
     ///
     /// @param sql SQL statement
@@ -74,6 +108,9 @@ public interface JdbcOperations {
     /// @return Promise containing array of update counts
     Promise<int[]> batch(String sql, List<Object[]> paramsList);
 
+    /// Default number of rows read at once by [#queryStream(String, ThrowingFn1, Object...)].
+    int DEFAULT_FETCH_SIZE = 500;
+
     /// Creates JdbcOperations from a DataSource.
     ///
     /// @param dataSource JDBC DataSource
@@ -0,0 +1,173 @@
+/*
+ *  Copyright (c) 2025 Sergiy Yevtushenko.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.pragmatica.jdbc;
+
+import org.pragmatica.lang.Functions.ThrowingFn1;
+import org.pragmatica.lang.Option;
+import org.pragmatica.lang.Promise;
+import org.pragmatica.lang.PromiseStream;
+import org.pragmatica.lang.Result;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/// Stream of query results which reads rows from the open [ResultSet] in chunks of `fetchSize` rows.
+///
+/// The connection is acquired and the statement is executed on the first request. Each chunk is read asynchronously,
+/// then rows are served from the buffer without blocking, so the memory usage is bounded by the chunk size regardless of
+/// the size of the result. The connection is released once all rows are read, reading fails or the stream is closed.
+/// Cancellation of the pending request, including cancellation of a dependent promise, cancels the running statement with
+/// [java.sql.Statement#cancel()].
+final class JdbcRowStream<T> implements PromiseStream<T> {
+    private final DataSource dataSource;
+    private final String sql;
+    private final Object[] params;
+    private final int fetchSize;
+    private final ThrowingFn1<T, ResultSet> rowMapper;
+    private final ArrayDeque<T> buffer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean exhausted;
+    private volatile PreparedStatement statement;
+    private Connection connection;
+    private ResultSet resultSet;
+
+    JdbcRowStream(DataSource dataSource, String sql, Object[] params, int fetchSize, ThrowingFn1<T, ResultSet> rowMapper) {
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.params = params;
+        this.fetchSize = fetchSize;
+        this.rowMapper = rowMapper;
+        this.buffer = new ArrayDeque<>(fetchSize);
+    }
+
+    @Override
+    public Promise<Option<T>> next() {
+        var row = buffer.poll();
+        if (row != null) {
+            return Promise.success(Option.some(row));
+        }
+        if (exhausted || closed.get()) {
+            return Promise.success(Option.none());
+        }
+        return Promise.<Option<T>>promise(promise -> {
+                                              // Cancelled before start, don't even acquire connection
+                                              if (promise.isResolved()) {
+                                                  return;
+                                              }
+                                              promise.onCancel(this::cancel);
+                                              promise.resolve(Result.lift(e -> JdbcError.fromException(e, sql), this::fetch)
+                                                                    .onFailureRun(this::close));
+                                          })
+                      .cancellable();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            releaseIfIdle();
+        }
+    }
+
+    private Option<T> fetch() throws Throwable {
+        lock.lock();
+        var completed = false;
+        try {
+            if (closed.get()) {
+                return Option.none();
+            }
+            if (resultSet == null) {
+                open();
+            }
+            var hasMore = true;
+            while (buffer.size() < fetchSize && (hasMore = resultSet.next())) {
+                buffer.add(rowMapper.apply(resultSet));
+            }
+            if (!hasMore) {
+                exhausted = true;
+            }
+            completed = true;
+            return Option.option(buffer.poll());
+        } finally {
+            // Reading failed (e.g. the statement was cancelled), all rows are read or the stream was closed while
+            // the chunk was being read - in the latter case close() could not acquire the lock and relies on us
+            if (!completed || exhausted || closed.get()) {
+                exhausted = true;
+                release();
+            }
+            lock.unlock();
+            // The stream could be closed after the check above, while the lock was still held
+            if (closed.get()) {
+                releaseIfIdle();
+            }
+        }
+    }
+
+    /// Release resources unless the chunk is being read right now. In the latter case resources are released by the
+    /// reading thread.
+    private void releaseIfIdle() {
+        if (lock.tryLock()) {
+            try {
+                release();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void open() throws SQLException {
+        connection = dataSource.getConnection();
+        statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        DataSourceJdbcOperations.setParameters(statement, params);
+        resultSet = statement.executeQuery();
+    }
+
+    private void cancel() {
+        var current = statement;
+        if (current != null) {
+            DataSourceJdbcOperations.cancel(current);
+        }
+    }
+
+    private void release() {
+        closeQuietly(resultSet);
+        closeQuietly(statement);
+        closeQuietly(connection);
+        resultSet = null;
+        statement = null;
+        connection = null;
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception _) {
+            // Resource is released anyway, there is nothing else to do
+        }
+    }
+}
@@ -22,8 +22,13 @@
 import org.junit.jupiter.api.Test;
 
 import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -116,6 +121,82 @@ void queryList_returnsEmptyList() {
             .onSuccess(names -> assertThat(names).isEmpty());
     }
 
+    @Test
+    void queryStream_readsAllRowsInChunks() {
+        for (int i = 0; i < 25; i++) {
+            insert("User" + i, "user" + i + "@test.com");
+        }
+
+        jdbc.queryStream("SELECT id FROM users ORDER BY id", 10, rs -> rs.getLong("id"))
+            .batch(10)
+            .map(List::size)
+            .toList()
+            .await()
+            .onFailure(_ -> fail("Expected success"))
+            .onSuccess(sizes -> assertThat(sizes).containsExactly(10, 10, 5));
+    }
+
+    @Test
+    void queryStream_returnsEmptyStream() {
+        jdbc.queryStream("SELECT name FROM users", rs -> rs.getString("name"))
+            .toList()
+            .await()
+            .onFailure(_ -> fail("Expected success"))
+            .onSuccess(names -> assertThat(names).isEmpty());
+    }
+
+    @Test
+    void queryStream_failsOnInvalidSql() {
+        jdbc.queryStream("INVALID SQL", rs -> rs.getString("x"))
+            .toList()
+            .await()
+            .onSuccess(_ -> fail("Expected failure"))
+            .onFailure(cause -> assertInstanceOf(JdbcError.QueryFailed.class, cause));
+    }
+
+    @Test
+    void queryStream_releasesConnectionWhenCancelledDuringFetch() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            insert("User" + i, "user" + i + "@test.com");
+        }
+        var connections = new CopyOnWriteArrayList<Connection>();
+        var tracking = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                                                           new Class<?>[]{DataSource.class},
+                                                           (_, method, args) -> {
+                                                               var result = method.invoke(dataSource, args);
+                                                               if (result instanceof Connection connection) {
+                                                                   connections.add(connection);
+                                                               }
+                                                               return result;
+                                                           });
+        var fetchStarted = new CountDownLatch(1);
+        var cancelled = new CountDownLatch(1);
+
+        var stream = JdbcOperations.jdbcOperations(tracking)
+                                   .queryStream("SELECT id FROM users ORDER BY id", 10, rs -> {
+                                       fetchStarted.countDown();
+                                       cancelled.await(5, TimeUnit.SECONDS);
+                                       return rs.getLong("id");
+                                   });
+        var row = stream.next();
+
+        // Cancel the statement and close the stream while the chunk is being read
+        assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        row.cancel();
+        stream.close();
+        cancelled.countDown();
+
+        row.await()
+           .onSuccess(_ -> fail("Expected cancellation"));
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!connections.getFirst().isClosed() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(connections).hasSize(1);
+        assertThat(connections.getFirst().isClosed()).isTrue();
+    }
+
     @Test
     void update_returnsAffectedRows() {
         insert("Alice", "alice@test.com");
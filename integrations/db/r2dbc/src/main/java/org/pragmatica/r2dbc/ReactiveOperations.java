@@ -33,6 +33,7 @@
 
 /// Bridge utilities for converting Reactive Streams Publisher to Promise.
 /// Provides seamless integration between reactive and promise-based APIs.
+/// Cancellation of the returned promise, including cancellation of a dependent promise, cancels the subscription.
 public interface ReactiveOperations {
     /// Converts a Publisher emitting a single value to a Promise.
     /// Fails if the publisher emits zero or more than one value.
@@ -44,7 +45,7 @@ public interface ReactiveOperations {
     /// @return Promise containing the single emitted value
     @SuppressWarnings("unchecked")
     static <T> Promise<T> fromPublisher(Publisher<? extends T> publisher, Fn1<R2dbcError, Throwable> errorMapper) {
-        return Promise.promise(promise -> {
+        return Promise.<T>promise(promise -> {
                                    var valueRef = new AtomicReference<T>();
                                    var countRef = new AtomicInteger(0);
                                    ((Publisher<T>) publisher).subscribe(new Subscriber<T>() {
@@ -53,6 +54,7 @@ static <T> Promise<T> fromPublisher(Publisher<? extends T> publisher, Fn1<R2dbcE
             @Override
             public void onSubscribe(Subscription s) {
                                                                             subscription = s;
+                                                                            promise.onCancel(s::cancel);
                                                                             s.request(2);
                                                                         }
 
@@ -83,7 +85,8 @@ public void onComplete() {
                                                                             }
                                                                         }
         });
-                               });
+                               })
+                      .cancellable();
     }
 
     /// Converts a Publisher to a Promise, returning the first value if present.
@@ -96,7 +99,7 @@ public void onComplete() {
     @SuppressWarnings("unchecked")
     static <T> Promise<Option<T>> firstFromPublisher(Publisher<? extends T> publisher,
                                                      Fn1<R2dbcError, Throwable> errorMapper) {
-        return Promise.promise(promise -> {
+        return Promise.<Option<T>>promise(promise -> {
                                    ((Publisher<T>) publisher).subscribe(new Subscriber<T>() {
             private Subscription subscription;
             private boolean completed = false;
@@ -104,6 +107,7 @@ static <T> Promise<Option<T>> firstFromPublisher(Publisher<? extends T> publishe
             @Override
             public void onSubscribe(Subscription s) {
                                                                             subscription = s;
+                                                                            promise.onCancel(s::cancel);
                                                                             s.request(1);
                                                                         }
 
@@ -131,7 +135,8 @@ public void onComplete() {
                                                                             }
                                                                         }
         });
-                               });
+                               })
+                      .cancellable();
     }
 
     /// Collects all values from a Publisher into a List.
@@ -144,11 +149,12 @@ public void onComplete() {
     @SuppressWarnings("unchecked")
     static <T> Promise<List<T>> collectFromPublisher(Publisher<? extends T> publisher,
                                                      Fn1<R2dbcError, Throwable> errorMapper) {
-        return Promise.promise(promise -> {
+        return Promise.<List<T>>promise(promise -> {
                                    var results = new ArrayList<T>();
                                    ((Publisher<T>) publisher).subscribe(new Subscriber<T>() {
             @Override
             public void onSubscribe(Subscription s) {
+                                                                            promise.onCancel(s::cancel);
                                                                             s.request(Long.MAX_VALUE);
                                                                         }
 
@@ -168,7 +174,8 @@ public void onComplete() {
                                                                             promise.resolve(Result.success(results));
                                                                         }
         });
-                               });
+                               })
+                      .cancellable();
     }
 
     /// Convenience method with default error mapping.
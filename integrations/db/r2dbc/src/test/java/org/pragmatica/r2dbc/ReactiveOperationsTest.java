@@ -18,11 +18,15 @@
 package org.pragmatica.r2dbc;
 
 import org.junit.jupiter.api.Test;
+import org.pragmatica.lang.io.CoreError;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -113,6 +117,39 @@ void fromPublisher_handlesError() {
             .onFailure(cause -> assertThat(cause.message()).contains("Test error"));
     }
 
+    @Test
+    void collectFromPublisher_cancelsSubscriptionWhenPromiseIsCancelled() throws InterruptedException {
+        var subscribed = new CountDownLatch(1);
+        var cancelled = new AtomicBoolean(false);
+        Publisher<String> publisher = neverCompletingPublisher(subscribed, cancelled);
+
+        var promise = ReactiveOperations.collectFromPublisher(publisher)
+                                        .map(List::size);
+        assertThat(subscribed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        promise.cancel()
+            .await()
+            .onSuccess(_ -> fail("Expected failure"))
+            .onFailure(cause -> assertInstanceOf(CoreError.Cancelled.class, cause));
+
+        assertThat(cancelled.get()).isTrue();
+    }
+
+    private <T> Publisher<T> neverCompletingPublisher(CountDownLatch subscribed, AtomicBoolean cancelled) {
+        return subscriber -> {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {}
+
+                @Override
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+            subscribed.countDown();
+        };
+    }
+
     private <T> Publisher<T> singleValuePublisher(T value) {
         return subscriber -> subscriber.onSubscribe(new Subscription() {
             private boolean completed = false;
@@ -27,7 +27,8 @@
 import java.util.concurrent.Executor;
 
 /// JDK HttpClient-based implementation of HttpOperations.
-/// Bridges CompletableFuture to Promise for seamless integration.
+/// Bridges CompletableFuture to Promise for seamless integration, including cancellation.
+/// Returned promises are [cancellable][Promise#cancellable()], so cancellation of the dependent promise aborts the request.
 public final class JdkHttpOperations implements HttpOperations {
     private final HttpClient client;
 
@@ -70,11 +71,15 @@ public static JdkHttpOperations jdkHttpOperations(Duration connectTimeout,
 
     @Override
     public <T> Promise<HttpResult<T>> send(HttpRequest request, BodyHandler<T> handler) {
-        return Promise.promise(promise -> client.sendAsync(request, handler)
-                                                .thenApply(HttpResult::from)
-                                                .whenComplete((result, error) -> Option.option(error)
-                                                                                       .onPresent(e -> promise.fail(HttpError.fromException(e)))
-                                                                                       .onEmpty(() -> promise.succeed(result))));
+        return Promise.<HttpResult<T>>promise(promise -> {
+                                                  var future = client.sendAsync(request, handler);
+                                                  promise.onCancel(() -> future.cancel(true));
+                                                  future.thenApply(HttpResult::from)
+                                                        .whenComplete((result, error) -> Option.option(error)
+                                                                                               .onPresent(e -> promise.fail(HttpError.fromException(e)))
+                                                                                               .onEmpty(() -> promise.succeed(result)));
+                                              })
+                      .cancellable();
     }
 
     /// Returns the underlying HttpClient.
@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# Run JMH benchmarks and store results in JSON format
+# Usage: ./scripts/run-benchmarks.sh [JMH options...]
+#
+# Results are written to benchmarks/results/<version>-<timestamp>.json, so runs for different releases
+# can be compared side by side. Additional arguments are passed to JMH as is, for example:
+#   ./scripts/run-benchmarks.sh PromiseBenchmark -f 3
+
+set -e
+
+VERSION=$(grep -o '<version>[^<]*</version>' pom.xml | head -1 | sed 's/<version>\(.*\)<\/version>/\1/')
+RESULTS_DIR=benchmarks/results
+RESULT_FILE="${RESULTS_DIR}/${VERSION}-$(date +%Y%m%d-%H%M%S).json"
+
+echo "📦 Building benchmarks for version ${VERSION}..."
+mvn -q -pl benchmarks -am package -DskipTests
+
+mkdir -p "${RESULTS_DIR}"
+
+echo "⏱️  Running benchmarks..."
+java -jar benchmarks/target/benchmarks.jar -prof gc -rf json -rff "${RESULT_FILE}" "$@"
+
+echo "✅ Results written to ${RESULT_FILE}"